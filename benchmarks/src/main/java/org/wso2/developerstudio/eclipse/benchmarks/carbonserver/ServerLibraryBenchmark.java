@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.benchmarks.carbonserver;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerLibraryIndex;
+
+/**
+ * Codegen library lookup of a server, as the CarbonOperationsManager classes answer
+ * OPERATION_GET_CODEGEN_LIBRARIES, over a synthetic server home of 200 directories of 100 files.
+ * The lookup is measured with the walk the operation managers used before
+ * {@link ServerLibraryIndex}, which read the server properties again for every file it matched, with
+ * the index emptied before every call, as on the first lookup of a session, and with the index
+ * filled by an earlier call.
+ *
+ * The prefixes are read from the server properties file given by the carbonserver.properties
+ * system property, see the module pom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServerLibraryBenchmark {
+	private static final String CODEGEN_LIB_PREFIXES = "AXIS2_CODEGEN_LIB_PREFIXES";
+	private static final String UTIL_LIB_PREFIXES = "AXIS2_UTIL_LIB_PREFIXES";
+
+	@Param({ "200" })
+	public int directories;
+
+	private File serverProperties;
+	private ServerLibraryTree tree;
+	private String[] libraryPaths;
+
+	@Setup(Level.Trial)
+	public void createServerHome() throws IOException {
+		serverProperties = new File(System.getProperty("carbonserver.properties"));
+		tree =
+		       ServerLibraryTree.create(directories, getPrefixes(CODEGEN_LIB_PREFIXES),
+		                                getPrefixes(UTIL_LIB_PREFIXES));
+		libraryPaths = tree.getLibraryPaths();
+		List<String> walked = directoryWalk();
+		List<String> indexed = Arrays.asList(indexedLookup());
+		if (!walked.equals(indexed)) {
+			throw new IllegalStateException("The index resolved " + indexed + " instead of " + walked);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteServerHome() {
+		ServerLibraryIndex.clear();
+		tree.delete();
+	}
+
+	@Benchmark
+	public List<String> directoryWalk() throws IOException {
+		List<String> paths = new ArrayList<String>();
+		List<String> alreadyAdded = new ArrayList<String>();
+		for (String libraryPath : libraryPaths) {
+			visitAllFiles(new File(libraryPath), paths, alreadyAdded);
+		}
+		return paths;
+	}
+
+	@Benchmark
+	public String[] unindexedLookup(EmptyIndex emptyIndex) throws IOException {
+		return indexedLookup();
+	}
+
+	@Benchmark
+	public String[] indexedLookup() throws IOException {
+		return ServerLibraryIndex.getCodegenLibraries(libraryPaths, getPrefixes(CODEGEN_LIB_PREFIXES),
+		                                              getPrefixes(UTIL_LIB_PREFIXES));
+	}
+
+	private void visitAllFiles(File dir, List<String> paths, List<String> alreadyAdded) throws IOException {
+		if (!dir.toString().endsWith(".txt")) {
+			if (dir.isDirectory()) {
+				if (dir.getName().equals("tomcat") || dir.getName().equals("wsf") || dir.getName().equals("patches")) {
+					return;
+				}
+				String[] children = dir.list();
+				for (int i = 0; i < children.length; i++) {
+					visitAllFiles(new File(dir, children[i]), paths, alreadyAdded);
+				}
+			} else if (isValidFile(dir.getName(), alreadyAdded)) {
+				paths.add(dir.getAbsolutePath());
+			}
+		}
+	}
+
+	private boolean isValidFile(String fileName, List<String> alreadyAdded) throws IOException {
+		String prefixes = fileName.toLowerCase().startsWith("org.wso2.carbon") ? CODEGEN_LIB_PREFIXES : UTIL_LIB_PREFIXES;
+		for (String prefix : getPrefixes(prefixes)) {
+			if (!alreadyAdded.contains(prefix) && fileName.toLowerCase().contains(prefix.toLowerCase())) {
+				alreadyAdded.add(prefix);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the prefixes from the server properties file on every call, as
+	 * CarbonServerCommonConstants.getStringArrayFromProprties does from the bundle.
+	 */
+	private String[] getPrefixes(String key) throws IOException {
+		Properties properties = new Properties();
+		InputStream stream = new FileInputStream(serverProperties);
+		try {
+			properties.load(stream);
+		} finally {
+			stream.close();
+		}
+		return properties.getProperty(key).split(",");
+	}
+
+	/**
+	 * Empties the library index before every call.
+	 */
+	@State(Scope.Thread)
+	public static class EmptyIndex {
+
+		@Setup(Level.Invocation)
+		public void clear() {
+			ServerLibraryIndex.clear();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.benchmarks.carbonserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Synthetic server home with a plugins and a lib library path, spread over directories of
+ * {@link #FILES_PER_DIRECTORY} empty files. Most files are carbon libraries that match no prefix.
+ * About one file in fifty is named after a codegen prefix, one in fifty after a util prefix, and
+ * one in fifty is a text file. The lib path also has a tomcat directory, which the lookups skip.
+ * The names are drawn from a fixed seed, so every run lays out the same tree.
+ */
+public class ServerLibraryTree {
+	public static final int FILES_PER_DIRECTORY = 100;
+
+	private static final long SEED = 1;
+
+	private final File root;
+	private final String[] libraryPaths;
+
+	private ServerLibraryTree(File root) {
+		this.root = root;
+		this.libraryPaths =
+		                    new String[] { new File(root, "plugins").getAbsolutePath(),
+		                                  new File(root, "lib").getAbsolutePath() };
+	}
+
+	/**
+	 * Creates a server home of the given number of library directories in a new temporary folder.
+	 *
+	 * @param directories number of library directories, each holding {@link #FILES_PER_DIRECTORY} files
+	 * @param codegenLibPrefixes prefixes of the carbon libraries needed for code generation
+	 * @param utilLibPrefixes prefixes of the other libraries needed for code generation
+	 * @return the server home
+	 * @throws IOException if the server home could not be written
+	 */
+	public static ServerLibraryTree create(int directories, String[] codegenLibPrefixes,
+	                                       String[] utilLibPrefixes) throws IOException {
+		ServerLibraryTree tree = new ServerLibraryTree(Files.createTempDirectory("server-libraries").toFile());
+		Random random = new Random(SEED);
+		for (int d = 0; d < directories; d++) {
+			File directory = new File(tree.root, (d % 3 == 0 ? "plugins" : "lib") + "/d" + d);
+			directory.mkdirs();
+			for (int i = 0; i < FILES_PER_DIRECTORY; i++) {
+				String name;
+				int kind = random.nextInt(100);
+				if (kind < 2) {
+					name = codegenLibPrefixes[random.nextInt(codegenLibPrefixes.length)].trim() + "_" + i + ".jar";
+				} else if (kind < 4) {
+					name = utilLibPrefixes[random.nextInt(utilLibPrefixes.length)].trim() + "-" + d + ".jar";
+				} else if (kind < 6) {
+					name = "notes" + i + ".txt";
+				} else {
+					name = "org.wso2.carbon.other" + d + "_" + i + ".jar";
+				}
+				new File(directory, name).createNewFile();
+			}
+		}
+		File tomcat = new File(tree.root, "lib/tomcat");
+		tomcat.mkdirs();
+		new File(tomcat, utilLibPrefixes[0].trim() + ".jar").createNewFile();
+		return tree;
+	}
+
+	/**
+	 * @return the plugins and lib library paths, in the order the server lists them
+	 */
+	public String[] getLibraryPaths() {
+		return libraryPaths.clone();
+	}
+
+	/**
+	 * Deletes the server home.
+	 */
+	public void delete() {
+		delete(root);
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
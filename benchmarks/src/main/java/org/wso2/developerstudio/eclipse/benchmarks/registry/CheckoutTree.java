@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.benchmarks.registry;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Synthetic registry checkout, laid out as the check-in client does: every folder has a .meta
+ * folder holding ~.xml for the folder itself and ~&lt;name&gt;.xml for each of its files, with
+ * the MD5 of the file as checked out. The resources are spread over collections of
+ * {@link #FILES_PER_COLLECTION} files, and every tenth file is modified after the checkout.
+ */
+public class CheckoutTree {
+	public static final int FILES_PER_COLLECTION = 100;
+
+	private static final String REGISTRY_URL = "https://localhost:9443/registry";
+	private static final String REGISTRY_ROOT = "/_system/governance/benchmark";
+	private static final int MODIFIED_EVERY = 10;
+
+	private final File root;
+	private final File[] files;
+
+	private CheckoutTree(File root, File[] files) {
+		this.root = root;
+		this.files = files;
+	}
+
+	/**
+	 * Creates a checkout of the given number of resources in a new temporary folder.
+	 *
+	 * @param entries number of resources
+	 * @return the checkout
+	 * @throws IOException if the checkout could not be written
+	 */
+	public static CheckoutTree create(int entries) throws IOException {
+		File root = Files.createTempDirectory("registry-checkout").toFile();
+		writeCollectionMetadata(root, REGISTRY_ROOT);
+		File[] files = new File[entries];
+		File collection = null;
+		for (int i = 0; i < entries; i++) {
+			if (i % FILES_PER_COLLECTION == 0) {
+				collection = new File(root, "collection" + (i / FILES_PER_COLLECTION));
+				collection.mkdir();
+				writeCollectionMetadata(collection, REGISTRY_ROOT + "/" + collection.getName());
+			}
+			files[i] = new File(collection, "resource" + i + ".xml");
+			byte[] content = createContent(i);
+			Files.write(files[i].toPath(), content);
+			writeResourceMetadata(files[i], REGISTRY_ROOT + "/" + collection.getName() + "/" + files[i].getName(),
+			                      getMD5(content));
+			if (i % MODIFIED_EVERY == 0) {
+				Files.write(files[i].toPath(), createContent(-i));
+			}
+		}
+		return new CheckoutTree(root, files);
+	}
+
+	/**
+	 * @return the root folder of the checkout
+	 */
+	public File getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return the checked out resource files
+	 */
+	public File[] getFiles() {
+		return files;
+	}
+
+	/**
+	 * Deletes the checkout.
+	 */
+	public void delete() {
+		delete(root);
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private static byte[] createContent(int index) {
+		StringBuilder content = new StringBuilder();
+		content.append("<endpoint xmlns=\"http://ws.apache.org/ns/synapse\" name=\"endpoint").append(index)
+		       .append("\">\n");
+		for (int i = 0; i < 40; i++) {
+			content.append("    <address uri=\"http://localhost:8280/services/Service").append(index).append('_')
+			       .append(i).append("\"/>\n");
+		}
+		content.append("</endpoint>\n");
+		return content.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void writeCollectionMetadata(File collection, String registryPath) throws IOException {
+		File metaFolder = new File(collection, ".meta");
+		metaFolder.mkdir();
+		writeMetadata(new File(metaFolder, "~.xml"), collection.getName(), registryPath, true, null);
+	}
+
+	private static void writeResourceMetadata(File file, String registryPath, String md5) throws IOException {
+		File metaFolder = new File(file.getParentFile(), ".meta");
+		writeMetadata(new File(metaFolder, "~" + file.getName() + ".xml"), file.getName(), registryPath, false,
+		              md5);
+	}
+
+	private static void writeMetadata(File metaFile, String name, String registryPath, boolean isCollection,
+	                                  String md5) throws IOException {
+		StringBuilder metadata = new StringBuilder();
+		metadata.append("<resource name=\"").append(name).append("\" isCollection=\"").append(isCollection)
+		        .append("\" path=\"").append(registryPath).append("\" registryUrl=\"").append(REGISTRY_URL)
+		        .append("\" lastModified=\"1577836800000\" lastUpdater=\"admin\" createdTime=\"1577836800000\"")
+		        .append(" creator=\"admin\"");
+		if (md5 != null) {
+			metadata.append(" md5=\"").append(md5).append('"');
+		}
+		metadata.append("/>\n");
+		Files.write(metaFile.toPath(), metadata.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * MD5 of the content as the check-in client records it, a hex string without leading zeros.
+	 */
+	private static String getMD5(byte[] content) throws IOException {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("MD5");
+			return new BigInteger(1, digest.digest(content)).toString(16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.benchmarks.registry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.registry.core.CollectionImpl;
+import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryChildrenDelta;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceType;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
+
+/**
+ * RegistryResourceNode.refreshChildren on a collection of which only the first page of children
+ * has been loaded, over an in-memory registry. The collection is refreshed unchanged, after
+ * children were added before the loaded ones, which moves loaded children past the page, and
+ * after loaded children were removed, which moves children of the next page into it.
+ *
+ * Needs the Eclipse and Developer Studio kernel bundles at run time, see the module pom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegistryChildrenRefreshBenchmark {
+	private static final String REGISTRY_URL = "https://localhost:9443/registry";
+	private static final String COLLECTION = "/_system/governance/trunk/services";
+
+	@Param({ "20000" })
+	public int children;
+
+	@Param({ "unchanged", "added", "removed" })
+	public String change;
+
+	@Param({ "1", "10" })
+	public int changedChildren;
+
+	private CollectionRegistry registry;
+	private RegistryNode registryNode;
+	private RegistryResourceNode node;
+
+	@Setup(Level.Trial)
+	public void createCollection() throws Exception {
+		registry = new CollectionRegistry();
+		for (int i = 0; i < children; i++) {
+			registry.children.add(childPath("Service", i));
+		}
+		RegistryURLInfo urlInfo = new RegistryURLInfo();
+		urlInfo.setPersist(false);
+		urlInfo.setUrl(new URL(REGISTRY_URL));
+		urlInfo.setPath(COLLECTION);
+		urlInfo.setUsername("admin");
+		registryNode = new RegistryNode(urlInfo, "admin", null);
+		Registry registryConnection = new Registry();
+		registryConnection.setRegistry(registry.proxy);
+		registryNode.setRegistry(registryConnection);
+	}
+
+	@Setup(Level.Invocation)
+	public void loadFirstPage() throws Exception {
+		node = new RegistryResourceNode(registryNode, COLLECTION, null);
+		node.setRegistryResource(RegistryResourceType.COLLECTION);
+		node.getResourceNodeList();
+		if ("added".equals(change)) {
+			for (int i = 0; i < changedChildren; i++) {
+				registry.children.add(0, childPath("Added", i));
+			}
+		} else if ("removed".equals(change)) {
+			for (int i = 0; i < changedChildren; i++) {
+				registry.children.remove(childPath("Service", i * 10));
+			}
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void restoreCollection() {
+		if ("added".equals(change)) {
+			registry.children.subList(0, changedChildren).clear();
+		} else if ("removed".equals(change)) {
+			for (int i = 0; i < changedChildren; i++) {
+				registry.children.add(i * 10, childPath("Service", i * 10));
+			}
+		}
+	}
+
+	@Benchmark
+	public RegistryChildrenDelta refresh() throws Exception {
+		return node.refreshChildren();
+	}
+
+	private static String childPath(String name, int index) {
+		return COLLECTION + "/" + String.format("%s%05d.wsdl", name, index);
+	}
+
+	/**
+	 * Registry holding a single collection, answering the calls made to list and look up its
+	 * children.
+	 */
+	private static class CollectionRegistry implements InvocationHandler {
+		private final List<String> children = new ArrayList<String>();
+		private final org.wso2.carbon.registry.core.Registry proxy;
+
+		private CollectionRegistry() {
+			proxy = (org.wso2.carbon.registry.core.Registry) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { org.wso2.carbon.registry.core.Registry.class }, this);
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(this, args);
+			}
+			String name = method.getName();
+			if ("get".equals(name) && args.length == 3 && COLLECTION.equals(args[0])) {
+				int from = Math.min((Integer) args[1], children.size());
+				int to = (int) Math.min((long) from + (Integer) args[2], children.size());
+				CollectionImpl collection = new CollectionImpl(children.subList(from, to).toArray(new String[0]));
+				collection.setPath(COLLECTION);
+				collection.setChildCount(children.size());
+				return collection;
+			} else if ("resourceExists".equals(name)) {
+				return children.contains(args[0]);
+			}
+			throw new UnsupportedOperationException(name);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.benchmarks.registry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.abdera.Abdera;
+import org.apache.abdera.model.Element;
+import org.apache.abdera.model.Entry;
+import org.apache.abdera.model.Feed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RegistryTransport;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RemoteRegistry;
+
+/**
+ * Resources created by RemoteRegistry from the Atom documents the registry sends, a collection
+ * with the metadata of its children from a collection feed and a resource from its entry. The
+ * documents are the synthetic feeds next to this class, parsed from their bytes on every call as
+ * RemoteRegistry parses a response, so the parse alone is measured as well. The create methods
+ * are private to RemoteRegistry and are called through reflection.
+ *
+ * Needs the Eclipse and Developer Studio kernel bundles at run time, see the module pom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RemoteRegistryFeedBenchmark {
+	private static final String REGISTRY_URL = "https://localhost:9443/registry";
+
+	private Abdera abdera;
+	private RemoteRegistry registry;
+	private Method createResourceFromFeed;
+	private Method createResourceFromEntry;
+	private byte[] entry;
+
+	@Setup(Level.Trial)
+	public void createRegistry() throws Exception {
+		abdera = new Abdera();
+		registry = new RemoteRegistry(new URL(REGISTRY_URL), "admin", "admin");
+		createResourceFromFeed = RemoteRegistry.class.getDeclaredMethod("createResourceFromFeed", Feed.class);
+		createResourceFromFeed.setAccessible(true);
+		createResourceFromEntry = RemoteRegistry.class.getDeclaredMethod("createResourceFromEntry", Entry.class);
+		createResourceFromEntry.setAccessible(true);
+		entry = read("resource-entry.xml");
+	}
+
+	@TearDown(Level.Trial)
+	public void closeRegistry() {
+		RegistryTransport.closeTransport(REGISTRY_URL);
+	}
+
+	@Benchmark
+	public Element parseFeed(CollectionFeed feed) {
+		return parse(feed.content).complete();
+	}
+
+	@Benchmark
+	public Object collectionFromFeed(CollectionFeed feed) throws Exception {
+		return createResourceFromFeed.invoke(registry, parse(feed.content));
+	}
+
+	@Benchmark
+	public Element parseEntry() {
+		return parse(entry).complete();
+	}
+
+	@Benchmark
+	public Object resourceFromEntry() throws Exception {
+		return createResourceFromEntry.invoke(registry, parse(entry));
+	}
+
+	private Element parse(byte[] document) {
+		return abdera.getParser().parse(new ByteArrayInputStream(document)).getRoot();
+	}
+
+	private static byte[] read(String name) throws IOException {
+		InputStream in = RemoteRegistryFeedBenchmark.class.getResourceAsStream(name);
+		if (in == null) {
+			throw new IOException("Missing feed " + name);
+		}
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Collection feed with the given number of children.
+	 */
+	@State(Scope.Benchmark)
+	public static class CollectionFeed {
+
+		@Param({ "50", "500" })
+		public int children;
+
+		private byte[] content;
+
+		@Setup(Level.Trial)
+		public void readFeed() throws IOException {
+			content = read("collection-" + children + ".xml");
+		}
+	}
+}
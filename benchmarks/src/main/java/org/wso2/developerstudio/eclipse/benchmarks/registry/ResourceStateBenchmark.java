@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.benchmarks.registry;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.developerstudio.eclipse.registry.manager.local.utils.RegistryCheckInClientUtils;
+import org.wso2.developerstudio.eclipse.registry.manager.local.utils.ResourceStateIndex;
+
+/**
+ * Check-in state of the root of a registry checkout, as computed by the resource decorators,
+ * which walks the whole checkout. The state is computed with the file state index emptied
+ * before every call, as after a restart without a saved index, and with the index filled by an
+ * earlier call.
+ *
+ * Needs the Eclipse and Developer Studio kernel bundles at run time, see the module pom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResourceStateBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int entries;
+
+	private CheckoutTree checkout;
+	private String rootPath;
+
+	@Setup(Level.Trial)
+	public void createCheckout() throws IOException {
+		checkout = CheckoutTree.create(entries);
+		rootPath = checkout.getRoot().getAbsolutePath();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteCheckout() {
+		ResourceStateIndex.dispose();
+		checkout.delete();
+	}
+
+	@Benchmark
+	public int unindexedState(EmptyIndex emptyIndex) {
+		return RegistryCheckInClientUtils.getResourceState(rootPath);
+	}
+
+	@Benchmark
+	public int indexedState() {
+		return RegistryCheckInClientUtils.getResourceState(rootPath);
+	}
+
+	/**
+	 * Empties the file state index before every call.
+	 */
+	@State(Scope.Thread)
+	public static class EmptyIndex {
+
+		@Setup(Level.Invocation)
+		public void dispose() {
+			ResourceStateIndex.dispose();
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.benchmarks.registry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.developerstudio.eclipse.registry.base.util.Utils;
+
+/**
+ * Checksums of the version content files of the resources of a checkout, as
+ * RegistryResourceNode.VersionContent computes them when a version is opened and every time an
+ * editor asks whether the file changed. VersionContent needs a workbench and a registry
+ * connection to be created, so the benchmark calls the checksum helper it uses directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VersionChecksumBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	public int entries;
+
+	private CheckoutTree checkout;
+
+	@Setup(Level.Trial)
+	public void createCheckout() throws IOException {
+		checkout = CheckoutTree.create(entries);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteCheckout() {
+		checkout.delete();
+	}
+
+	@Benchmark
+	public long checksumAll() throws IOException {
+		long checksums = 0;
+		for (File file : checkout.getFiles()) {
+			checksums += Utils.getChecksumCRC32(file);
+		}
+		return checksums;
+	}
+}
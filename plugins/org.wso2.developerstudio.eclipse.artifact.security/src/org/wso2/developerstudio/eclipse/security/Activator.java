@@ -18,6 +18,7 @@ package org.wso2.developerstudio.eclipse.security;
 
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.wso2.developerstudio.eclipse.security.project.utils.PolicyModelCache;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -46,6 +47,7 @@ public class Activator extends AbstractUIPlugin {
 	public void start(BundleContext context) throws Exception {
 		super.start(context);
 		plugin = this;
+		PolicyModelCache.getInstance().preloadScenarioTemplates();
 	}
 
 	/*
@@ -28,12 +28,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.PropertyException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
@@ -101,6 +99,7 @@ import org.wso2.developerstudio.eclipse.platform.core.utils.SWTResourceManager;
 import org.wso2.developerstudio.eclipse.security.Activator;
 import org.wso2.developerstudio.eclipse.security.project.model.Policy2;
 import org.wso2.developerstudio.eclipse.security.project.ui.dialog.UserRolesDialog;
+import org.wso2.developerstudio.eclipse.security.project.utils.PolicyModelCache;
 import org.wso2.developerstudio.eclipse.security.project.utils.SecurityPolicies;
 import org.wso2.developerstudio.eclipse.security.project.utils.SecurityPolicyUtils;
 import org.wso2.developerstudio.eclipse.security.project.utils.SecurityTemplateUtil;
@@ -1017,10 +1016,7 @@ public class SecurityFormPage extends FormPage {
      * @throws ParserConfigurationException
      */
     private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
-
-        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        return dBuilder;
+        return PolicyModelCache.getInstance().getDocumentBuilder();
     }
 
     /**
@@ -1058,9 +1054,7 @@ public class SecurityFormPage extends FormPage {
      * @throws JAXBException
      */
     private Unmarshaller getUnmarshaller() throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(Policy2.class);
-        Unmarshaller uUnmarshaller = jaxbContext.createUnmarshaller();
-        return uUnmarshaller;
+        return PolicyModelCache.getInstance().getUnmarshaller();
     }
 
     /**
@@ -2095,13 +2089,9 @@ public class SecurityFormPage extends FormPage {
                 }
             });
 
-            String filePath = SecurityFormConstants.POLICIES + fileName;
-            SecurityTemplateUtil qoSTemplateUtil = new SecurityTemplateUtil();
-            File resourceFile = qoSTemplateUtil.getResourceFile(filePath);
-            if (resourceFile != null) {
-                Unmarshaller pUnmarshaller = getUnmarshaller();
-                Policy2 policy2 = (Policy2) pUnmarshaller.unmarshal(resourceFile);
-                policyButtonMap.put(policy2.getId(), secBtn);
+            String scenarioPolicyId = PolicyModelCache.getInstance().getScenarioPolicyId(fileName);
+            if (scenarioPolicyId != null) {
+                policyButtonMap.put(scenarioPolicyId, secBtn);
             }
 
             final ToolTip tip = new ToolTip(secComposite.getShell(), SWT.BALLOON | SWT.ICON_INFORMATION);
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.security.project.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.wso2.developerstudio.eclipse.artifact.security.utils.SecurityFormConstants;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.security.Activator;
+import org.wso2.developerstudio.eclipse.security.project.model.Policy2;
+
+/**
+ * Shared parsing state of the security policy editor. The JAXB context of the policy model is
+ * created once for the plugin, the unmarshallers and document builders are reused by each thread,
+ * and the policy ids of the bundled security scenario templates are read once and kept for all
+ * the editors.
+ */
+public class PolicyModelCache {
+	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+	private static PolicyModelCache instance;
+
+	private volatile JAXBContext jaxbContext;
+	private volatile Map<String, String> scenarioPolicyIds;
+
+	private final ThreadLocal<Unmarshaller> unmarshallers = new ThreadLocal<Unmarshaller>();
+	private final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<DocumentBuilder>();
+
+	PolicyModelCache() {
+	}
+
+	public static synchronized PolicyModelCache getInstance() {
+		if (instance == null) {
+			instance = new PolicyModelCache();
+		}
+		return instance;
+	}
+
+	/**
+	 * Reads the bundled security scenario templates in a background job, so that they are ready
+	 * by the time a security policy editor is opened.
+	 */
+	public void preloadScenarioTemplates() {
+		if (scenarioPolicyIds != null) {
+			return;
+		}
+		Job job = new Job("Loading security scenario templates") {
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					getScenarioPolicyIds();
+				} catch (IOException | JAXBException e) {
+					log.warn("Could not preload the security scenario templates", e);
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.schedule();
+	}
+
+	/**
+	 * Returns the JAXB context of the policy model. The context is thread safe and is shared by
+	 * all the editors.
+	 *
+	 * @return JAXB context of {@link Policy2}
+	 * @throws JAXBException if the context could not be created
+	 */
+	public JAXBContext getJAXBContext() throws JAXBException {
+		JAXBContext context = jaxbContext;
+		if (context == null) {
+			synchronized (this) {
+				context = jaxbContext;
+				if (context == null) {
+					context = JAXBContext.newInstance(Policy2.class);
+					jaxbContext = context;
+				}
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Returns the unmarshaller of the policy model for the calling thread. The unmarshaller must
+	 * not be handed over to other threads.
+	 *
+	 * @return unmarshaller of {@link Policy2}
+	 * @throws JAXBException if the unmarshaller could not be created
+	 */
+	public Unmarshaller getUnmarshaller() throws JAXBException {
+		Unmarshaller unmarshaller = unmarshallers.get();
+		if (unmarshaller == null) {
+			unmarshaller = getJAXBContext().createUnmarshaller();
+			unmarshallers.set(unmarshaller);
+		}
+		return unmarshaller;
+	}
+
+	/**
+	 * Returns the document builder for the calling thread, reset to its initial state. The
+	 * document builder must not be handed over to other threads.
+	 *
+	 * @return document builder
+	 * @throws ParserConfigurationException if the document builder could not be created
+	 */
+	public DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilder documentBuilder = documentBuilders.get();
+		if (documentBuilder == null) {
+			documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+			documentBuilders.set(documentBuilder);
+		} else {
+			documentBuilder.reset();
+		}
+		return documentBuilder;
+	}
+
+	/**
+	 * Returns the policy id of a bundled security scenario template.
+	 *
+	 * @param fileName file name of the scenario template, e.g. scenario1-policy.xml
+	 * @return the policy id or null if there is no such template
+	 * @throws IOException if the templates could not be read
+	 * @throws JAXBException if a template could not be parsed
+	 */
+	public String getScenarioPolicyId(String fileName) throws IOException, JAXBException {
+		return getScenarioPolicyIds().get(fileName);
+	}
+
+	Map<String, String> getScenarioPolicyIds() throws IOException, JAXBException {
+		Map<String, String> policyIds = scenarioPolicyIds;
+		if (policyIds == null) {
+			synchronized (this) {
+				policyIds = scenarioPolicyIds;
+				if (policyIds == null) {
+					policyIds = Collections.unmodifiableMap(readScenarioPolicyIds());
+					scenarioPolicyIds = policyIds;
+				}
+			}
+		}
+		return policyIds;
+	}
+
+	private Map<String, String> readScenarioPolicyIds() throws IOException, JAXBException {
+		SecurityPolicyUtils policyUtils = SecurityPolicyUtils.getInstance();
+		int scenarioCount = policyUtils.getBasicSecurityScenarios().length +
+		                    policyUtils.getAdvancedSecurityScenarios().length;
+		SecurityTemplateUtil templateUtil = new SecurityTemplateUtil();
+		Unmarshaller unmarshaller = getUnmarshaller();
+		Map<String, String> policyIds = new HashMap<String, String>();
+		for (int scenarioNumber = 1; scenarioNumber <= scenarioCount; scenarioNumber++) {
+			String fileName = SecurityFormConstants.FILE_PREFIX + scenarioNumber + SecurityFormConstants.FILE_POSTFIX;
+			File resourceFile = templateUtil.getResourceFile(SecurityFormConstants.POLICIES + fileName);
+			if (resourceFile != null) {
+				Policy2 policy = (Policy2) unmarshaller.unmarshal(resourceFile);
+				policyIds.put(fileName, policy.getId());
+			}
+		}
+		return policyIds;
+	}
+}
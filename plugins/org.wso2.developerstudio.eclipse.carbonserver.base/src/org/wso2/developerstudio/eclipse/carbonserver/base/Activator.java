@@ -22,6 +22,9 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.ICarbonOperationManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.monitor.ServerReadinessService;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.CarbonServerSessionManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerLibraryIndex;
 import org.wso2.developerstudio.eclipse.server.base.core.ServerController;
 
 public class Activator extends AbstractUIPlugin {
@@ -69,6 +72,9 @@ public class Activator extends AbstractUIPlugin {
 	public void stop(BundleContext context) throws Exception {
 		CarbonServerManager.deInitiateAppServerManagementOperations();
 		ServerController.getInstance().unregisterServerManager(CarbonServerManager.getInstance());
+		ServerReadinessService.dispose();
+		CarbonServerSessionManager.dispose();
+		ServerLibraryIndex.clear();
 		plugin = null;
 		super.stop(context);
 	}
@@ -17,21 +17,16 @@
 package org.wso2.developerstudio.eclipse.carbonserver.base.impl;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
@@ -51,25 +46,28 @@ import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.ServerPort;
 import org.eclipse.wst.server.core.util.SocketUtil;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
 import org.wso2.developerstudio.eclipse.carbonfeatures.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver.base.interfaces.ICarbonServerBehavior;
+import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
 import org.wso2.developerstudio.eclipse.carbonserver.base.monitor.CarbonPingThread;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.CarbonServerSessionManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
-import org.xml.sax.InputSource;
 
 public abstract class CarbonServerBehaviour extends GenericServerBehaviour implements ICarbonServerBehavior {
 
 	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
 
+	private static final String SERVER_LOG_FILE = "repository/logs/wso2carbon.log";
+
 	String originalWSASServerRepo = null;
 	private boolean serverisStillStarting = false;
 
 	public void stop(boolean force) {
 		doServerStoppedTasks();
+		invalidateSessions();
 		if (force) {
 			terminate();
 			return;
@@ -83,6 +81,20 @@ public abstract class CarbonServerBehaviour extends GenericServerBehaviour imple
 		}
 	}
 
+	/**
+	 * Drops the admin service sessions on the server, which end when the server is stopped.
+	 */
+	private void invalidateSessions() {
+		try {
+			URL serverURL = CarbonServerManager.getServerURL(getServer());
+			if (serverURL != null) {
+				CarbonServerSessionManager.getInstance().invalidate(serverURL.toString());
+			}
+		} catch (Exception e) {
+			log.warn("Could not drop the sessions on the server " + getServer().getName(), e);
+		}
+	}
+
 	protected List serverClasspath(String cpRef) {
 		List classpathEntries = super.serverClasspath(cpRef);
 		ArrayList newClasspathEntries = new ArrayList();
@@ -125,6 +137,22 @@ public abstract class CarbonServerBehaviour extends GenericServerBehaviour imple
 		}
 	}
 
+	/**
+	 * Log file the server writes its startup messages to, read to find out when the server has
+	 * started.
+	 * 
+	 * @return the log file, or null if it is not known
+	 */
+	public File getServerLogFile() {
+		try {
+			IPath serverHome = CarbonServerManager.getServerHome(getServer());
+			return serverHome == null ? null : serverHome.append(SERVER_LOG_FILE).toFile();
+		} catch (Exception e) {
+			log.warn("Could not resolve the log file of the server " + getServer().getName(), e);
+			return null;
+		}
+	}
+
 	public void setServerStarted() {
 		if (isServerisStillStarting()) {
 			setServerisStillStarting(false);
@@ -282,23 +310,17 @@ public abstract class CarbonServerBehaviour extends GenericServerBehaviour imple
 	protected abstract String getAxis2FilePath();
 
 	protected void addAxis2XmlPorts(List<Integer> ports, String axis2FilePath) {
-		XPathFactory factory = XPathFactory.newInstance();
 		try {
-			File xmlDocument = new File(axis2FilePath);
-			DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-			Document document = builder.parse(xmlDocument);
-			XPath xPath = factory.newXPath();
-			Node httpNode =
-			                (Node) xPath.evaluate("/axisconfig/transportReceiver[@class='org.apache.synapse.transport.nhttp.HttpCoreNIOListener']/parameter[@name='port']",
-			                                      document, XPathConstants.NODE);
-			Node httpsNode =
-			                 (Node) xPath.evaluate("/axisconfig/transportReceiver[@class='org.apache.synapse.transport.nhttp.HttpCoreNIOSSLListener']/parameter[@name='port']",
-			                                       document, XPathConstants.NODE);
-			if (httpNode != null) {
-				ports.add(Integer.parseInt(httpNode.getTextContent()));
+			ServerConfigModel axis2Xml = ServerConfigModel.getModel(axis2FilePath);
+			String httpPort =
+			                  axis2Xml.getValue("/axisconfig/transportReceiver[@class='org.apache.synapse.transport.nhttp.HttpCoreNIOListener']/parameter[@name='port']");
+			String httpsPort =
+			                   axis2Xml.getValue("/axisconfig/transportReceiver[@class='org.apache.synapse.transport.nhttp.HttpCoreNIOSSLListener']/parameter[@name='port']");
+			if (!httpPort.isEmpty()) {
+				ports.add(Integer.parseInt(httpPort));
 			}
-			if (httpsNode != null) {
-				ports.add(Integer.parseInt(httpsNode.getTextContent()));
+			if (!httpsPort.isEmpty()) {
+				ports.add(Integer.parseInt(httpsPort));
 			}
 		} catch (Exception e) {
 			log.error(e);
@@ -306,25 +328,15 @@ public abstract class CarbonServerBehaviour extends GenericServerBehaviour imple
 	}
 
 	protected void addServletTransportPorts(List<Integer> ports, String transportsXmlPath) {
-		XPathFactory factory = XPathFactory.newInstance();
-		File xmlDocument = new File(transportsXmlPath);
 		try {
-			InputSource inputSource = new InputSource(new FileInputStream(xmlDocument));
-			XPath xPath = factory.newXPath();
-			XPathExpression xPathExpression =
-			                                  xPath.compile("/transports/transport[@name='http']/parameter[@name='port']");
-			String evaluate = xPathExpression.evaluate(inputSource);
-			int port = Integer.parseInt(evaluate);
-			ports.add(Integer.parseInt(evaluate));
-			inputSource = new InputSource(new FileInputStream(xmlDocument));
-			xPathExpression = xPath.compile("/transports/transport[@name='https']/parameter[@name='port']");
-			evaluate = xPathExpression.evaluate(inputSource);
-			ports.add(Integer.parseInt(evaluate));
+			ServerConfigModel transportsXml = ServerConfigModel.getModel(transportsXmlPath);
+			ports.add(transportsXml.getPort("/transports/transport[@name='http']/parameter[@name='port']"));
+			ports.add(transportsXml.getPort("/transports/transport[@name='https']/parameter[@name='port']"));
 		} catch (NumberFormatException e) {
 			log.error(e);
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			log.error(e);
-		} catch (XPathExpressionException e) {
+		} catch (XMLStreamException e) {
 			log.error(e);
 		}
 	}
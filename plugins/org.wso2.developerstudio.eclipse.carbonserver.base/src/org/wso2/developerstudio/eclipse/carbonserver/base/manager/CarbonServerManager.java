@@ -21,8 +21,11 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
@@ -69,6 +72,8 @@ public final class CarbonServerManager implements IServerManager {
 
 	private static CarbonServerManager instance;
 	private static Map<IServer, CarbonServerInformation> appServerInformation;
+	// servers having modules of each project, kept in sync with the modules of the servers
+	private static final Map<IProject, Set<IServer>> serversPerProject = new HashMap<IProject, Set<IServer>>();
 	private static CarbonServerLifeCycleListener carbonServerLifeCycleListener;
 
 	private static boolean isServerAdded;
@@ -109,6 +114,7 @@ public final class CarbonServerManager implements IServerManager {
 		ICarbonOperationManager serverOperationManager = getServerOperationManager(server);
 		if (serverOperationManager != null) {
 			getServers().add(server);
+			indexServerModules(server);
 			isServerAdded = true;
 			IServerManager wsasServerManager = ServerController.getInstance().getServerManager();
 			HashMap<String, Object> operationParameters = new HashMap<String, Object>();
@@ -158,6 +164,7 @@ public final class CarbonServerManager implements IServerManager {
 				log.error(e);
 			}
 			getServers().remove(server);
+			removeServerModules(server);
 			if (getAppServerInformation().containsKey(server))
 				getAppServerInformation().remove(server);
 		}
@@ -167,6 +174,47 @@ public final class CarbonServerManager implements IServerManager {
 
 	}
 
+	/**
+	 * Updates the projects deployed to a server once its modules have been added or removed.
+	 * 
+	 * @param server
+	 */
+	public static void serverChanged(IServer server) {
+		if (getServers().contains(server)) {
+			indexServerModules(server);
+		}
+	}
+
+	private static void indexServerModules(IServer server) {
+		synchronized (serversPerProject) {
+			removeServerModules(server);
+			for (IModule module : server.getModules()) {
+				IProject project = module.getProject();
+				if (project == null) {
+					continue;
+				}
+				Set<IServer> projectServers = serversPerProject.get(project);
+				if (projectServers == null) {
+					projectServers = new LinkedHashSet<IServer>();
+					serversPerProject.put(project, projectServers);
+				}
+				projectServers.add(server);
+			}
+		}
+	}
+
+	private static void removeServerModules(IServer server) {
+		synchronized (serversPerProject) {
+			for (Iterator<Set<IServer>> iterator = serversPerProject.values().iterator(); iterator.hasNext();) {
+				Set<IServer> projectServers = iterator.next();
+				projectServers.remove(server);
+				if (projectServers.isEmpty()) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
 	public static void registerAppServerPlugin(String serverId, ICarbonOperationManager opManager) {
 		if (!getServerPlugin().containsKey(serverId)) {
 			getServerPlugin().put(serverId, opManager);
@@ -260,15 +308,13 @@ public final class CarbonServerManager implements IServerManager {
 	}
 
 	public static IServer[] getServersForProject(IProject project) {
-		List<IServer> serverIds = new ArrayList<IServer>();
-		for (IServer server : getServers()) {
-			for (IModule module : server.getModules()) {
-				if (module.getProject() == project) {
-					serverIds.add(server);
-				}
+		synchronized (serversPerProject) {
+			Set<IServer> projectServers = serversPerProject.get(project);
+			if (projectServers == null) {
+				return new IServer[] {};
 			}
+			return projectServers.toArray(new IServer[projectServers.size()]);
 		}
-		return serverIds.toArray(new IServer[] {});
 	}
 
 	public IPath getServerHome(String serverId) {
@@ -751,40 +797,13 @@ public final class CarbonServerManager implements IServerManager {
 
 		IResourceChangeListener listener = new IResourceChangeListener() {
 			public void resourceChanged(IResourceChangeEvent event) {
-				IResourceDelta projectDelta;
-				if (isServerAdded) {
-					IResourceDelta resourceDelta = event.getDelta();
-					for (IResourceDelta modifideResourceDelta : resourceDelta.getAffectedChildren()) {
-						rootProject = (IProject) modifideResourceDelta.getResource();
-						projectDelta = modifideResourceDelta;
-						IResourceDeltaVisitor visitor = new IResourceDeltaVisitor() {
-							public boolean visit(IResourceDelta delta) throws CoreException {
-								IResource resource = delta.getResource();
-								resourceChngeKind = delta.getKind();
-								if (resource.getType() == IResource.FILE || resource.getType() == IResource.FOLDER) {
-									IServer[] serversForProject = getServersForProject(rootProject);
-									for (IServer server : serversForProject) {
-										if (!CARBON_SERVER_TYPE_REMOTE.equalsIgnoreCase(server.getServerType().getId())) {
-											CarbonServerInformation serverInformation =
-											                                            getAppServerInformation().get(server);
-											if (!serverInformation.getChangedProjects().contains(rootProject)) {
-												serverInformation.getChangedProjects().add(rootProject);
-												hotUpdateWebApp(server.getId(), resource, rootProject.getName());
-											}
-										}
-									}
-								}
-								return true;
-							}
-						};
-						try {
-							projectDelta.accept(visitor);
-						} catch (CoreException e) {
-							log.error(" adding IResourceDeltaVisitor to projectDelta was failed " + e);
-						}
-
+				if (isServerAdded && event.getDelta() != null) {
+					for (HotUpdate hotUpdate : getHotUpdates(event.getDelta())) {
+						rootProject = hotUpdate.project;
+						resourceChngeKind = hotUpdate.resourceDelta.getKind();
+						hotUpdateWebApp(hotUpdate.server.getId(), hotUpdate.resourceDelta.getResource(),
+						                rootProject.getName());
 					}
-
 				}
 			}
 
@@ -792,6 +811,84 @@ public final class CarbonServerManager implements IServerManager {
 		workspace.addResourceChangeListener(listener, IResourceChangeEvent.POST_BUILD);
 	}
 
+	/**
+	 * Collapses a workspace delta into the modules to hot update, one per server and changed
+	 * project, with the first file or folder changed in the project. Only the projects deployed
+	 * to a server are visited.
+	 * 
+	 * @param workspaceDelta
+	 * @return the modules to hot update
+	 */
+	static List<HotUpdate> getHotUpdates(IResourceDelta workspaceDelta) {
+		List<HotUpdate> hotUpdates = new ArrayList<HotUpdate>();
+		for (IResourceDelta projectDelta : workspaceDelta.getAffectedChildren()) {
+			IProject project = (IProject) projectDelta.getResource();
+			IServer[] serversForProject = getServersForProject(project);
+			if (serversForProject.length == 0) {
+				continue;
+			}
+			final IResourceDelta[] changedResource = new IResourceDelta[1];
+			IResourceDeltaVisitor visitor = new IResourceDeltaVisitor() {
+				public boolean visit(IResourceDelta delta) throws CoreException {
+					if (changedResource[0] != null) {
+						return false;
+					}
+					int type = delta.getResource().getType();
+					if (type == IResource.FILE || type == IResource.FOLDER) {
+						changedResource[0] = delta;
+						return false;
+					}
+					return true;
+				}
+			};
+			try {
+				projectDelta.accept(visitor);
+			} catch (CoreException e) {
+				log.error(" adding IResourceDeltaVisitor to projectDelta was failed " + e);
+			}
+			if (changedResource[0] == null) {
+				continue;
+			}
+			for (IServer server : serversForProject) {
+				if (!CARBON_SERVER_TYPE_REMOTE.equalsIgnoreCase(server.getServerType().getId())) {
+					CarbonServerInformation serverInformation = getAppServerInformation().get(server);
+					if (!serverInformation.getChangedProjects().contains(project)) {
+						serverInformation.getChangedProjects().add(project);
+						hotUpdates.add(new HotUpdate(server, project, changedResource[0]));
+					}
+				}
+			}
+		}
+		return hotUpdates;
+	}
+
+	/**
+	 * A module of a server to hot update with a changed resource of its project.
+	 */
+	static class HotUpdate {
+		private final IServer server;
+		private final IProject project;
+		private final IResourceDelta resourceDelta;
+
+		private HotUpdate(IServer server, IProject project, IResourceDelta resourceDelta) {
+			this.server = server;
+			this.project = project;
+			this.resourceDelta = resourceDelta;
+		}
+
+		IServer getServer() {
+			return server;
+		}
+
+		IProject getProject() {
+			return project;
+		}
+
+		IResourceDelta getResourceDelta() {
+			return resourceDelta;
+		}
+	}
+
 	public String[] getServerCodegenLibrariesFromRuntimeId(String runtimeId, String runtimePath) throws Exception {
 		String serverTypeId = getServerTypeIdForRuntimeId(runtimeId);
 		String[] result = null;
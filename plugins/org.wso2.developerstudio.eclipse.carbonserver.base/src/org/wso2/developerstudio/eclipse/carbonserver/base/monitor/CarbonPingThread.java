@@ -16,145 +16,74 @@
 
 package org.wso2.developerstudio.eclipse.carbonserver.base.monitor;
 
-import java.io.FileNotFoundException;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLConnection;
+import java.io.File;
+import java.net.MalformedURLException;
 
-import org.eclipse.jst.server.generic.core.internal.GenericServerBehaviour;
 import org.eclipse.jst.server.generic.core.internal.PingThread;
 import org.eclipse.jst.server.generic.core.internal.Trace;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.internal.Server;
 import org.eclipse.wst.server.core.util.SocketUtil;
-import org.wso2.developerstudio.eclipse.carbonserver.base.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver.base.impl.CarbonServerBehaviour;
-import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
-import org.wso2.developerstudio.eclipse.logging.core.Logger;
 
+/**
+ * Waits for a Carbon server to start, through the {@link ServerReadinessService} shared by all the
+ * servers. It remains a {@link PingThread} so that the generic server behaviour stops it along with
+ * the server, but does not ping from a thread of its own.
+ */
+@SuppressWarnings("restriction")
 public class CarbonPingThread extends PingThread {
-	private static final int PING_DELAY = 1000;
-	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
-	// delay between pings
-	private static final int PING_INTERVAL = 250;
-
-	// maximum number of pings before giving up
-	private int maxPings = 56; // total: 16 seconds + connection time
+	private static final String[] STARTED_LOG_MARKERS = { "WSO2 Carbon started in", "Micro Integrator started in" };
 
-	private boolean stop;
-	private String[] fUrl;
-	private IServer fServer;
-	private CarbonServerBehaviour fGenericServer;
+	private ServerReadinessService.ReadinessWatch watch;
 
-	public CarbonPingThread(IServer server, String[] url, CarbonServerBehaviour genericServer) {
+	public CarbonPingThread(IServer server, String[] url, CarbonServerBehaviour genericServer)
+	        throws MalformedURLException {
 		super(server, url[0], genericServer);
-		this.fServer = server;
-		this.fUrl = url;
-		this.maxPings = guessMaxPings(genericServer);
-		this.fGenericServer = genericServer;
-		Thread t = new Thread() {
-			public void run() {
-				ping();
-			}
-		};
-		t.setDaemon(true);
-		t.start();
+		boolean remote = server.getServerType().supportsRemoteHosts() && !SocketUtil.isLocalhost(server.getHost());
+		int startTimeout = ((Server) server).getStartTimeout() * 1000;
+		File logFile = remote ? null : genericServer.getServerLogFile();
+		watch = ServerReadinessService.getInstance().watchStartup(url, logFile, STARTED_LOG_MARKERS,
+		                                                          remote ? 0 : Math.max(startTimeout, 0),
+		                                                          new StartupListener(server, genericServer));
 	}
 
-	@SuppressWarnings("restriction")
-	private int guessMaxPings(GenericServerBehaviour server) {
-		int maxpings = -1;
-		int startTimeout = ((Server) server.getServer()).getStartTimeout() * 1000;
-		if (startTimeout > 0)
-			maxpings = startTimeout / PING_INTERVAL;
-		return maxpings;
+	/**
+	 * Pinging is done by the readiness service.
+	 */
+	protected void ping() {
 	}
 
-	private boolean isRemote() {
-		return (fServer.getServerType().supportsRemoteHosts() && !SocketUtil.isLocalhost(fServer.getHost()));
+	/**
+	 * Tell the pinging to stop.
+	 */
+	public void stop() {
+		super.stop();
+		if (watch != null) {
+			watch.cancel();
+		}
 	}
 
-	@SuppressWarnings("restriction")
-	protected void ping() {
-		int count = 0;
-		try {
-			Thread.sleep(PING_DELAY);
-		} catch (Exception e) {
-			log.error(e);
+	private static class StartupListener implements IServerReadinessListener {
+		private IServer fServer;
+		private CarbonServerBehaviour fGenericServer;
+
+		public StartupListener(IServer server, CarbonServerBehaviour genericServer) {
+			this.fServer = server;
+			this.fGenericServer = genericServer;
 		}
-		while (!stop) {
-			try {
-				if (count == maxPings && !isRemote()) {
-					try {
-						fServer.stop(false);
-					} catch (Exception e) {
-						Trace.trace(Trace.FINEST, "Ping: could not stop server"); //$NON-NLS-1$
-					}
-					stop = true;
-					break;
-				}
-				if (!isRemote()) {
-					count++;
-				}
 
-				Trace.trace(Trace.FINEST, "Ping: pinging"); //$NON-NLS-1$
-				for (String url : fUrl) {
-					URL pingUrl = new URL(url);
-					URLConnection conn = pingUrl.openConnection();
+		public void serverReady() {
+			Trace.trace(Trace.FINEST, "Ping: success"); //$NON-NLS-1$
+			fGenericServer.setServerStarted();
+		}
 
-					int responseCode;
-					try {
-						responseCode = ((HttpURLConnection) conn).getResponseCode();
-					} catch (Exception e) {
-						((HttpURLConnection) conn).disconnect();
-						Thread.sleep(PING_DELAY);
-						continue;
-					}
-					if (responseCode != 200 && responseCode != 302) {
-						// throw new Exception("WSAS Server still starting up");
-						Thread.sleep(PING_DELAY);
-						continue;
-					}
-					// ping worked - server is up
-					if (!stop) {
-						Trace.trace(Trace.FINEST, "Ping: success"); //$NON-NLS-1$
-						Thread.sleep(PING_DELAY);
-						fGenericServer.setServerStarted();
-					}
-					if (!isRemote()) {
-						stop = true;
-					}
-				}
-			} catch (FileNotFoundException fe) {
-				try {
-					Thread.sleep(PING_INTERVAL);
-				} catch (Exception e) {
-					// ignore
-				}
-				fGenericServer.setServerStarted();
-				if (!isRemote()) {
-					stop = true;
-				}
+		public void serverUnavailable() {
+			try {
+				fServer.stop(false);
 			} catch (Exception e) {
-				Trace.trace(Trace.FINEST, "Ping: failed: " + e); //$NON-NLS-1$
-				// pinging failed
-				if (!stop) {
-					try {
-						Thread.sleep(PING_INTERVAL);
-					} catch (InterruptedException e2) {
-						// ignore
-					}
-				}
+				Trace.trace(Trace.FINEST, "Ping: could not stop server"); //$NON-NLS-1$
 			}
 		}
 	}
-
-	/**
-	 * Tell the pinging to stop.
-	 */
-	@SuppressWarnings("restriction")
-	public void stop() {
-		Trace.trace(Trace.FINEST, "Ping: stopping"); //$NON-NLS-1$
-		stop = true;
-	}
 }
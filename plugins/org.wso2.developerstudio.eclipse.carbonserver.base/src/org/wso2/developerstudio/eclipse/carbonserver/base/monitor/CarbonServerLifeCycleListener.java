@@ -28,6 +28,7 @@ public class CarbonServerLifeCycleListener implements IServerLifecycleListener {
 
 	public void serverChanged(IServer server) {
 		CarbonServerManager.serverStateChanged(server);
+		CarbonServerManager.serverChanged(server);
 
 	}
 
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.monitor;
+
+/**
+ * Callbacks of the {@link ServerReadinessService}, called from its scheduler thread.
+ */
+public interface IServerReadinessListener {
+
+	/**
+	 * Called when the server has started and is ready to serve requests.
+	 */
+	public void serverReady();
+
+	/**
+	 * Called when the server did not become ready within the given time, or when a server which
+	 * is monitored continuously stopped responding.
+	 */
+	public void serverUnavailable();
+}
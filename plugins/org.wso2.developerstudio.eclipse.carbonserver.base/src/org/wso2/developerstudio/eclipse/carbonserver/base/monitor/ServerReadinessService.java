@@ -0,0 +1,564 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.wso2.developerstudio.eclipse.carbonserver.base.Activator;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+
+/**
+ * Detects when Carbon servers become ready, for all the servers on a single scheduler thread
+ * instead of a polling thread per server. A server is ready as soon as the marker written at the
+ * end of its startup shows up in the tail of its log file, or one of its URLs responds. The URLs
+ * are probed over non-blocking channels, so a probe which is still connecting or waiting for the
+ * response is resumed on the next check instead of holding the thread. HTTPS URLs are connected
+ * to in the same way, and once the port accepts connections their response is read over TLS on a
+ * few threads of their own, so that a slow handshake does not hold up the checks of the other
+ * servers. The checks back off exponentially while the server is not up yet.
+ *
+ * The interval of the first checks can be set in milliseconds with the
+ * {@value #INITIAL_INTERVAL_PROPERTY} system property.
+ */
+public class ServerReadinessService {
+	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+	public static final String INITIAL_INTERVAL_PROPERTY = "developerstudio.server.readiness.interval";
+	private static final long DEFAULT_INITIAL_INTERVAL = 250;
+	private static final long MAX_INTERVAL = 2000;
+	private static final int PROBE_TIMEOUT = 5000;
+	private static final int MAX_SECURE_PROBES = 4;
+	private static final int MAX_LOG_READ = 64 * 1024;
+	private static final Charset CHARSET = Charset.forName("ISO-8859-1");
+
+	private static ServerReadinessService instance;
+	private static SSLContext trustAllContext;
+
+	private final ScheduledThreadPoolExecutor scheduler;
+	private final ThreadPoolExecutor secureProbes;
+	private final long initialInterval;
+
+	ServerReadinessService(long initialInterval) {
+		this.initialInterval = initialInterval;
+		scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Carbon server readiness");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		final AtomicInteger secureProbeCount = new AtomicInteger();
+		ThreadFactory secureProbeThreads = new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Carbon server readiness TLS " + secureProbeCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		// a probe waits for one response at a time, so the queue is at most as long as the probes
+		secureProbes = new ThreadPoolExecutor(MAX_SECURE_PROBES, MAX_SECURE_PROBES, 30, TimeUnit.SECONDS,
+		                                      new LinkedBlockingQueue<Runnable>(), secureProbeThreads);
+		secureProbes.allowCoreThreadTimeOut(true);
+	}
+
+	public static synchronized ServerReadinessService getInstance() {
+		if (instance == null) {
+			instance = new ServerReadinessService(Long.getLong(INITIAL_INTERVAL_PROPERTY, DEFAULT_INITIAL_INTERVAL));
+		}
+		return instance;
+	}
+
+	/**
+	 * Stops watching all the servers.
+	 */
+	public static synchronized void dispose() {
+		if (instance != null) {
+			instance.shutdown();
+			instance = null;
+		}
+	}
+
+	void shutdown() {
+		scheduler.shutdownNow();
+		secureProbes.shutdownNow();
+	}
+
+	/**
+	 * Watches a server which is starting until it is ready.
+	 *
+	 * @param urls URLs of the server which respond once it is ready
+	 * @param logFile log file of the server, or null if it cannot be read
+	 * @param logMarkers messages logged by the server once it is ready
+	 * @param timeout milliseconds after which the server is reported as unavailable if it is not
+	 *            ready, or 0 to wait until the watch is cancelled
+	 * @param listener notified when the server is ready or unavailable
+	 * @return the watch, to be cancelled when the server is stopped
+	 * @throws MalformedURLException if one of the URLs is not valid
+	 */
+	public ReadinessWatch watchStartup(String[] urls, File logFile, String[] logMarkers, long timeout,
+	                                   IServerReadinessListener listener) throws MalformedURLException {
+		LogTail logTail = logFile == null ? null : new LogTail(logFile, logMarkers);
+		ReadinessWatch watch = new ReadinessWatch(getProbes(urls, false), logTail, timeout, false, listener);
+		watch.schedule(initialInterval);
+		return watch;
+	}
+
+	/**
+	 * Watches a server for as long as it is used, reporting when it becomes ready and when it stops
+	 * responding. The certificates of the server are not verified.
+	 *
+	 * @param url URL of the server which responds while it is running
+	 * @param timeout milliseconds after which the server is reported as unavailable if it has not
+	 *            responded yet, or 0 to report it only once it has been ready
+	 * @param listener notified each time the server becomes ready or unavailable
+	 * @return the watch, to be cancelled when the server is not used anymore
+	 * @throws MalformedURLException if the URL is not valid
+	 */
+	public ReadinessWatch watchAvailability(String url, long timeout, IServerReadinessListener listener)
+	        throws MalformedURLException {
+		ReadinessWatch watch = new ReadinessWatch(getProbes(new String[] { url }, true), null, timeout, true,
+		                                          listener);
+		watch.schedule(initialInterval);
+		return watch;
+	}
+
+	private List<Probe> getProbes(String[] urls, boolean trustAllCertificates) throws MalformedURLException {
+		List<Probe> probes = new ArrayList<Probe>();
+		for (String url : urls) {
+			probes.add(new Probe(new URL(url), trustAllCertificates, secureProbes));
+		}
+		return probes;
+	}
+
+	private static synchronized SSLSocketFactory getTrustAllSocketFactory() throws GeneralSecurityException {
+		if (trustAllContext == null) {
+			SSLContext context = SSLContext.getInstance("TLS");
+			context.init(null, new TrustManager[] { new X509TrustManager() {
+				public void checkClientTrusted(X509Certificate[] chain, String authType) {
+				}
+
+				public void checkServerTrusted(X509Certificate[] chain, String authType) {
+				}
+
+				public X509Certificate[] getAcceptedIssuers() {
+					return new X509Certificate[0];
+				}
+			} }, new SecureRandom());
+			trustAllContext = context;
+		}
+		return trustAllContext.getSocketFactory();
+	}
+
+	/**
+	 * A server being watched. The checks of a watch are run one at a time on the scheduler thread.
+	 */
+	public class ReadinessWatch implements Runnable {
+		private final List<Probe> probes;
+		private final LogTail logTail;
+		private final boolean continuous;
+		private final IServerReadinessListener listener;
+		private long deadline;
+		private long interval;
+		private boolean ready;
+		private volatile boolean cancelled;
+		private ScheduledFuture<?> nextCheck;
+
+		private ReadinessWatch(List<Probe> probes, LogTail logTail, long timeout, boolean continuous,
+		                       IServerReadinessListener listener) {
+			this.probes = probes;
+			this.logTail = logTail;
+			this.continuous = continuous;
+			this.listener = listener;
+			this.deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+			this.interval = initialInterval;
+		}
+
+		/**
+		 * Stops watching the server.
+		 */
+		public void cancel() {
+			cancelled = true;
+			synchronized (this) {
+				if (nextCheck != null) {
+					nextCheck.cancel(false);
+				}
+			}
+			try {
+				// the probes are closed on the scheduler thread, which may be using them
+				scheduler.execute(new Runnable() {
+					public void run() {
+						closeProbes();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				// the service has been disposed and its thread does not use the probes anymore
+				closeProbes();
+			}
+		}
+
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		public void run() {
+			if (cancelled) {
+				closeProbes();
+				return;
+			}
+			boolean available = logTail != null && !ready && logTail.markerFound();
+			boolean pending = false;
+			for (int i = 0; i < probes.size() && !available; i++) {
+				int result = probes.get(i).check();
+				if (result == Probe.SUCCEEDED) {
+					available = true;
+				} else if (result == Probe.PENDING) {
+					pending = true;
+				}
+			}
+			if (available) {
+				closeProbes();
+				if (!ready) {
+					ready = true;
+					deadline = 0;
+					notifyListener(true);
+				}
+				if (continuous) {
+					schedule(MAX_INTERVAL);
+				}
+				return;
+			}
+			if (pending) {
+				// resumes the probes still connecting or reading soon, without backing off
+				schedule(initialInterval);
+				return;
+			}
+			if (ready) {
+				ready = false;
+				interval = initialInterval;
+				notifyListener(false);
+			} else if (deadline > 0 && System.currentTimeMillis() >= deadline) {
+				deadline = 0;
+				notifyListener(false);
+				if (!continuous) {
+					return;
+				}
+			}
+			schedule(interval);
+			interval = Math.min(interval * 2, MAX_INTERVAL);
+		}
+
+		private synchronized void schedule(long delay) {
+			if (cancelled) {
+				return;
+			}
+			try {
+				nextCheck = scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				// the service has been disposed
+				cancelled = true;
+			}
+		}
+
+		private void notifyListener(boolean available) {
+			if (cancelled) {
+				return;
+			}
+			try {
+				if (available) {
+					listener.serverReady();
+				} else {
+					listener.serverUnavailable();
+				}
+			} catch (RuntimeException e) {
+				log.error("Error while notifying the server readiness", e);
+			}
+		}
+
+		private void closeProbes() {
+			for (Probe probe : probes) {
+				probe.close();
+			}
+		}
+	}
+
+	/**
+	 * Reads the lines appended to a log file since the last read, looking for the markers.
+	 */
+	private static final class LogTail {
+		private final File file;
+		private final String[] markers;
+		private final int longestMarker;
+		private long offset;
+		private String carry = "";
+
+		private LogTail(File file, String[] markers) {
+			this.file = file;
+			this.markers = markers;
+			int longest = 0;
+			for (String marker : markers) {
+				longest = Math.max(longest, marker.length());
+			}
+			this.longestMarker = longest;
+			// skips the lines logged by the previous runs of the server
+			this.offset = file.length();
+		}
+
+		private boolean markerFound() {
+			long length = file.length();
+			if (length < offset) {
+				// the log file has been rolled over
+				offset = 0;
+				carry = "";
+			}
+			if (length == offset) {
+				return false;
+			}
+			long start = Math.max(offset, length - MAX_LOG_READ);
+			if (start > offset) {
+				carry = "";
+			}
+			RandomAccessFile in = null;
+			try {
+				in = new RandomAccessFile(file, "r");
+				byte[] bytes = new byte[(int) (length - start)];
+				in.seek(start);
+				in.readFully(bytes);
+				offset = length;
+				String text = carry + new String(bytes, CHARSET);
+				for (String marker : markers) {
+					if (text.contains(marker)) {
+						return true;
+					}
+				}
+				// keeps the end of the text in case a marker is split over two reads
+				carry = text.substring(Math.max(0, text.length() - longestMarker));
+			} catch (IOException e) {
+				// the file is not readable yet, the URLs are probed meanwhile
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException e) {
+						// ignore
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Checks whether a URL responds with 200 or 302, one non-blocking step per check. The response
+	 * of an HTTPS URL is read on the given executor, and picked up by a later check.
+	 */
+	private static final class Probe {
+		private static final int FAILED = 0;
+		private static final int PENDING = 1;
+		private static final int SUCCEEDED = 2;
+
+		private final URL url;
+		private final boolean trustAllCertificates;
+		private final ThreadPoolExecutor secureProbes;
+		private SocketChannel channel;
+		private ByteBuffer request;
+		private ByteBuffer response;
+		private Future<Integer> secureResponse;
+		private long startedAt;
+
+		private Probe(URL url, boolean trustAllCertificates, ThreadPoolExecutor secureProbes) {
+			this.url = url;
+			this.trustAllCertificates = trustAllCertificates;
+			this.secureProbes = secureProbes;
+		}
+
+		private int check() {
+			try {
+				if (secureResponse != null) {
+					return getSecureResult();
+				}
+				if (channel == null) {
+					int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+					InetSocketAddress address = new InetSocketAddress(url.getHost(), port);
+					if (address.isUnresolved()) {
+						return FAILED;
+					}
+					startedAt = System.currentTimeMillis();
+					channel = SocketChannel.open();
+					channel.configureBlocking(false);
+					if (!channel.connect(address)) {
+						return pendingOrFailed();
+					}
+				} else if (channel.isConnectionPending() && !channel.finishConnect()) {
+					return pendingOrFailed();
+				}
+				if ("https".equalsIgnoreCase(url.getProtocol())) {
+					// the port accepts connections, the response is read over TLS
+					close();
+					secureResponse = secureProbes.submit(new Callable<Integer>() {
+						public Integer call() throws Exception {
+							return getSecureResponseCode();
+						}
+					});
+					return PENDING;
+				}
+				if (request == null) {
+					String file = url.getFile().length() == 0 ? "/" : url.getFile();
+					request = ByteBuffer.wrap(("GET " + file + " HTTP/1.0\r\nHost: " + url.getHost() +
+					                           "\r\nConnection: close\r\n\r\n").getBytes(CHARSET));
+					response = ByteBuffer.allocate(128);
+				}
+				if (request.hasRemaining()) {
+					channel.write(request);
+					if (request.hasRemaining()) {
+						return pendingOrFailed();
+					}
+				}
+				int read = channel.read(response);
+				String statusLine = getStatusLine(read == -1 || !response.hasRemaining());
+				if (statusLine == null) {
+					return read == -1 ? closeAndFail() : pendingOrFailed();
+				}
+				close();
+				String[] status = statusLine.split(" ");
+				return status.length > 1 && isStarted(Integer.parseInt(status[1])) ? SUCCEEDED : FAILED;
+			} catch (IOException e) {
+				return closeAndFail();
+			} catch (NumberFormatException e) {
+				return closeAndFail();
+			} catch (RejectedExecutionException e) {
+				// the service has been disposed
+				return closeAndFail();
+			}
+		}
+
+		/**
+		 * @return the result of the HTTPS request, or pending while it is being made. The request
+		 *         gives up by itself after the connect and read timeouts.
+		 */
+		private int getSecureResult() {
+			if (!secureResponse.isDone()) {
+				return PENDING;
+			}
+			try {
+				return isStarted(secureResponse.get()) ? SUCCEEDED : FAILED;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof GeneralSecurityException) {
+					log.error("Could not create the SSL context to ping " + url, e.getCause());
+				}
+				return FAILED;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return FAILED;
+			} finally {
+				secureResponse = null;
+			}
+		}
+
+		private String getStatusLine(boolean complete) {
+			String received = new String(response.array(), 0, response.position(), CHARSET);
+			int end = received.indexOf("\r\n");
+			if (end != -1) {
+				return received.substring(0, end);
+			}
+			return complete && received.length() > 0 ? received : null;
+		}
+
+		private int getSecureResponseCode() throws IOException, GeneralSecurityException {
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			if (trustAllCertificates && connection instanceof HttpsURLConnection) {
+				((HttpsURLConnection) connection).setSSLSocketFactory(getTrustAllSocketFactory());
+				((HttpsURLConnection) connection).setHostnameVerifier(new HostnameVerifier() {
+					public boolean verify(String hostname, SSLSession session) {
+						return true;
+					}
+				});
+			}
+			connection.setConnectTimeout(PROBE_TIMEOUT);
+			connection.setReadTimeout(PROBE_TIMEOUT);
+			connection.setInstanceFollowRedirects(false);
+			try {
+				return connection.getResponseCode();
+			} finally {
+				connection.disconnect();
+			}
+		}
+
+		private static boolean isStarted(int responseCode) {
+			return responseCode == HttpURLConnection.HTTP_OK || responseCode == HttpURLConnection.HTTP_MOVED_TEMP;
+		}
+
+		private int pendingOrFailed() {
+			return System.currentTimeMillis() - startedAt < PROBE_TIMEOUT ? PENDING : closeAndFail();
+		}
+
+		private int closeAndFail() {
+			close();
+			return FAILED;
+		}
+
+		private void close() {
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+			channel = null;
+			request = null;
+			response = null;
+			if (secureResponse != null) {
+				secureResponse.cancel(true);
+				secureResponse = null;
+			}
+		}
+	}
+}
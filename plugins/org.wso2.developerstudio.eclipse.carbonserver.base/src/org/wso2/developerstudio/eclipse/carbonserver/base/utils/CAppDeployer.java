@@ -5,16 +5,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Enumeration;
 
 import javax.activation.DataHandler;
 
-import org.apache.axis2.AxisFault;
-import org.apache.axis2.Constants;
-import org.apache.axis2.client.Options;
-import org.apache.axis2.transport.http.HTTPConstants;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -22,13 +17,10 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.IPreferencesService;
 import org.wso2.developerstudio.eclipse.carbonserver.base.Activator;
-import org.wso2.developerstudio.eclipse.carbonserver.base.capp.uploader.CarbonAppUploaderStub;
 import org.wso2.developerstudio.eclipse.carbonserver.base.capp.uploader.CarbonAppUploaderStub.UploadedFileItem;
-import org.wso2.developerstudio.eclipse.carbonserver.base.carbon.application.ApplicationAdminStub;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.platform.ui.preferences.ClientTrustStorePreferencePage;
-import org.wso2.developerstudio.eclipse.platform.ui.utils.SSLUtils;
 
 public class CAppDeployer {
 
@@ -50,30 +42,13 @@ public class CAppDeployer {
 	 * @throws Exception
 	 */
 	public void deployCApp(String username, String pwd, String url, File carFile) throws Exception {
-		CarbonAppUploaderStub carbonAppUploaderStub = getCarbonAppUploaderStub(username, pwd, url);
-		Options options = carbonAppUploaderStub._getServiceClient().getOptions();
-		options.setProperty(Constants.Configuration.ENABLE_MTOM, Constants.VALUE_TRUE);
 		UploadedFileItem uploadedFileItem = new UploadedFileItem();
 		DataHandler param = new DataHandler(carFile.toURI().toURL());
 		uploadedFileItem.setDataHandler(param);
 		uploadedFileItem.setFileName(carFile.getName());
 		uploadedFileItem.setFileType("jar");
 		UploadedFileItem[] fileItems = new UploadedFileItem[] { uploadedFileItem };
-		carbonAppUploaderStub.uploadApp(fileItems);
-	}
-
-	private CarbonAppUploaderStub getCarbonAppUploaderStub(String username, String pwd, String url) throws Exception,
-	                                                                                               AxisFault,
-	                                                                                               MalformedURLException {
-		String sessionCookie = CarbonServerUtils.createSessionCookie(url, username, pwd);
-		CarbonAppUploaderStub carbonAppUploaderStub =
-		                                              new CarbonAppUploaderStub(CarbonServerUtils.getURL(url) + "/" +
-		                                                                        CarbonServerUtils.getServicePath() +
-		                                                                        "/CarbonAppUploader");
-		SSLUtils.setSSLProtocolHandler(carbonAppUploaderStub);
-		carbonAppUploaderStub._getServiceClient().getOptions().setManageSession(true);
-		carbonAppUploaderStub._getServiceClient().getOptions().setProperty(HTTPConstants.COOKIE_STRING, sessionCookie);
-		return carbonAppUploaderStub;
+		CarbonServerSessionManager.getInstance().getSession(url, username, pwd).uploadApp(fileItems);
 	}
 
 	static {
@@ -185,26 +160,10 @@ public class CAppDeployer {
 	 * @throws Exception
 	 */
 	public static void unDeployCAR(String serverURL, String username, String pwd, String carName) throws Exception {
-		ApplicationAdminStub appAdminStub = getApplicationAdminStub(serverURL, username, pwd);
 		try {
-			appAdminStub.deleteApplication(carName);
+			CarbonServerSessionManager.getInstance().getSession(serverURL, username, pwd).deleteApplication(carName);
 		} catch (Exception e) {
 			log.error(e);
 		}
 	}
-
-	private static ApplicationAdminStub getApplicationAdminStub(String serverURL, String username, String pwd)
-	                                                                                                          throws Exception,
-	                                                                                                          AxisFault,
-	                                                                                                          MalformedURLException {
-		String sessionCookie = CarbonServerUtils.createSessionCookie(serverURL, username, pwd);
-		ApplicationAdminStub appAdminStub =
-		                                    new ApplicationAdminStub(CarbonServerUtils.getURL(serverURL) + "/" +
-		                                                             CarbonServerUtils.getServicePath() +
-		                                                             "/ApplicationAdmin");
-		SSLUtils.setSSLProtocolHandler(appAdminStub);
-		appAdminStub._getServiceClient().getOptions().setManageSession(true);
-		appAdminStub._getServiceClient().getOptions().setProperty(HTTPConstants.COOKIE_STRING, sessionCookie);
-		return appAdminStub;
-	}
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.utils;
+
+import java.rmi.RemoteException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.axis2.AxisFault;
+import org.apache.axis2.Constants;
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.axis2.context.ConfigurationContextFactory;
+import org.apache.axis2.transport.http.HTTPConstants;
+import org.wso2.developerstudio.eclipse.carbonserver.base.Activator;
+import org.wso2.developerstudio.eclipse.carbonserver.base.capp.uploader.CarbonAppUploaderStub;
+import org.wso2.developerstudio.eclipse.carbonserver.base.capp.uploader.CarbonAppUploaderStub.UploadedFileItem;
+import org.wso2.developerstudio.eclipse.carbonserver.base.carbon.application.ApplicationAdminStub;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.platform.ui.utils.SSLUtils;
+
+/**
+ * Keeps the admin service sessions of the Carbon servers the applications are deployed to, so
+ * that the deployments to a server log in once and reuse the service stubs, instead of logging in
+ * and creating the stubs for each deployment. All the stubs share a single Axis2 configuration
+ * context. A session which has expired on the server is logged in to again when a call fails with
+ * an authentication fault.
+ *
+ * The manager lock and the lock of a session are never held together, as a session holds its lock
+ * for the whole of a deployment: the manager does not call a session under its lock, and a session
+ * takes the configuration context from the manager before it locks itself.
+ */
+public class CarbonServerSessionManager {
+	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+	private static final String[] AUTHENTICATION_FAULTS = { "401", "Unauthorized", "Please login",
+	                                                        "Session timed out" };
+
+	private static CarbonServerSessionManager instance;
+
+	private final Map<String, Session> sessions = new HashMap<String, Session>();
+	private ConfigurationContext configurationContext;
+
+	private CarbonServerSessionManager() {
+	}
+
+	public static synchronized CarbonServerSessionManager getInstance() {
+		if (instance == null) {
+			instance = new CarbonServerSessionManager();
+		}
+		return instance;
+	}
+
+	/**
+	 * Drops the sessions and the Axis2 configuration context shared by their stubs.
+	 */
+	public static synchronized void dispose() {
+		if (instance != null) {
+			instance.close();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the session of a user on a server, created if there is none yet. The session logs in
+	 * when it is first used.
+	 *
+	 * @param serverURL
+	 *            URL of the server or the tenant
+	 * @param username
+	 *            Username
+	 * @param pwd
+	 *            Password, used when the session has to log in
+	 * @return the session
+	 */
+	public Session getSession(String serverURL, String username, String pwd) {
+		String key = serverURL + "|" + username;
+		Session session;
+		synchronized (this) {
+			session = sessions.get(key);
+			if (session == null) {
+				session = new Session(serverURL, username);
+				sessions.put(key, session);
+			}
+		}
+		// waits for a deployment in progress on the session, without keeping others from their sessions
+		session.setPassword(pwd);
+		return session;
+	}
+
+	/**
+	 * Drops the sessions on a server, for instance when the server is stopped.
+	 *
+	 * @param serverURL
+	 *            URL of the server or the tenant
+	 */
+	public synchronized void invalidate(String serverURL) {
+		for (Iterator<String> iterator = sessions.keySet().iterator(); iterator.hasNext();) {
+			if (iterator.next().startsWith(serverURL + "|")) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private synchronized ConfigurationContext getConfigurationContext() throws AxisFault {
+		if (configurationContext == null) {
+			configurationContext = ConfigurationContextFactory.createConfigurationContextFromFileSystem(null, null);
+		}
+		return configurationContext;
+	}
+
+	private synchronized void close() {
+		sessions.clear();
+		if (configurationContext != null) {
+			try {
+				configurationContext.terminate();
+			} catch (AxisFault e) {
+				log.warn("Could not terminate the Axis2 configuration context of the server sessions", e);
+			}
+			configurationContext = null;
+		}
+	}
+
+	private static boolean isAuthenticationFault(AxisFault fault) {
+		String message = fault.getMessage();
+		if (message == null) {
+			return false;
+		}
+		for (String authenticationFault : AUTHENTICATION_FAULTS) {
+			if (message.contains(authenticationFault)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Session of a user on a server. The calls made through a session are made one at a time, as
+	 * its stubs are not thread safe.
+	 */
+	public class Session {
+		private final String serverURL;
+		private final String username;
+		private String password;
+		private String sessionCookie;
+		private CarbonAppUploaderStub carbonAppUploaderStub;
+		private ApplicationAdminStub applicationAdminStub;
+
+		private Session(String serverURL, String username) {
+			this.serverURL = serverURL;
+			this.username = username;
+		}
+
+		private synchronized void setPassword(String password) {
+			if (this.password != null && !this.password.equals(password)) {
+				// logs in again with the new password
+				sessionCookie = null;
+			}
+			this.password = password;
+		}
+
+		/**
+		 * Uploads carbon applications to the server.
+		 *
+		 * @param fileItems
+		 *            the car files
+		 * @throws RemoteException
+		 *             if the upload failed
+		 * @throws Exception
+		 *             if the login failed
+		 */
+		public void uploadApp(UploadedFileItem[] fileItems) throws Exception {
+			ConfigurationContext context = getConfigurationContext();
+			synchronized (this) {
+				try {
+					getCarbonAppUploaderStub(context).uploadApp(fileItems);
+				} catch (AxisFault e) {
+					if (!isAuthenticationFault(e)) {
+						throw e;
+					}
+					sessionCookie = null;
+					getCarbonAppUploaderStub(context).uploadApp(fileItems);
+				}
+			}
+		}
+
+		/**
+		 * Removes a carbon application from the server.
+		 *
+		 * @param carName
+		 *            car file name without extension
+		 * @throws RemoteException
+		 *             if the removal failed
+		 * @throws Exception
+		 *             if the login failed
+		 */
+		public void deleteApplication(String carName) throws Exception {
+			ConfigurationContext context = getConfigurationContext();
+			synchronized (this) {
+				try {
+					getApplicationAdminStub(context).deleteApplication(carName);
+				} catch (AxisFault e) {
+					if (!isAuthenticationFault(e)) {
+						throw e;
+					}
+					sessionCookie = null;
+					getApplicationAdminStub(context).deleteApplication(carName);
+				}
+			}
+		}
+
+		private CarbonAppUploaderStub getCarbonAppUploaderStub(ConfigurationContext context) throws Exception {
+			String cookie = getSessionCookie(context);
+			if (carbonAppUploaderStub == null) {
+				carbonAppUploaderStub =
+				                        new CarbonAppUploaderStub(context,
+				                                                  CarbonServerUtils.getURL(serverURL) + "/" +
+				                                                          CarbonServerUtils.getServicePath() +
+				                                                          "/CarbonAppUploader");
+				SSLUtils.setSSLProtocolHandler(carbonAppUploaderStub);
+				carbonAppUploaderStub._getServiceClient().getOptions().setManageSession(true);
+				carbonAppUploaderStub._getServiceClient().getOptions()
+				                     .setProperty(Constants.Configuration.ENABLE_MTOM, Constants.VALUE_TRUE);
+			}
+			carbonAppUploaderStub._getServiceClient().getOptions().setProperty(HTTPConstants.COOKIE_STRING, cookie);
+			return carbonAppUploaderStub;
+		}
+
+		private ApplicationAdminStub getApplicationAdminStub(ConfigurationContext context) throws Exception {
+			String cookie = getSessionCookie(context);
+			if (applicationAdminStub == null) {
+				applicationAdminStub =
+				                       new ApplicationAdminStub(context,
+				                                                CarbonServerUtils.getURL(serverURL) + "/" +
+				                                                        CarbonServerUtils.getServicePath() +
+				                                                        "/ApplicationAdmin");
+				SSLUtils.setSSLProtocolHandler(applicationAdminStub);
+				applicationAdminStub._getServiceClient().getOptions().setManageSession(true);
+			}
+			applicationAdminStub._getServiceClient().getOptions().setProperty(HTTPConstants.COOKIE_STRING, cookie);
+			return applicationAdminStub;
+		}
+
+		private String getSessionCookie(ConfigurationContext context) throws Exception {
+			if (sessionCookie == null) {
+				sessionCookie = CarbonServerUtils.createSessionCookie(context, serverURL, username, password);
+				if (sessionCookie == null) {
+					throw new Exception("Could not log in to " + serverURL + " as " + username);
+				}
+			}
+			return sessionCookie;
+		}
+	}
+}
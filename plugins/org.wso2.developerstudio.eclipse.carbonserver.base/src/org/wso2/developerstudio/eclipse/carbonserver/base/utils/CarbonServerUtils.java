@@ -34,6 +34,7 @@ import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
+import org.apache.axis2.context.ConfigurationContext;
 import org.apache.axis2.context.ServiceContext;
 import org.apache.axis2.transport.http.HTTPConstants;
 import org.eclipse.core.runtime.IPath;
@@ -73,11 +74,31 @@ public class CarbonServerUtils {
 	private static String servicePath;
 
 	public static String createSessionCookie(String serverURL, String username, String pwd) throws Exception {
+		return createSessionCookie(null, serverURL, username, pwd);
+	}
+
+	/**
+	 * Logs in to a server through the given Axis2 configuration context, instead of creating a new
+	 * one for the login.
+	 * 
+	 * @param configurationContext
+	 *            configuration context of the client, or null to create a new one
+	 * @param serverURL
+	 *            URL of the server
+	 * @param username
+	 *            Username
+	 * @param pwd
+	 *            Password
+	 * @return the session cookie, or null if the login failed
+	 * @throws Exception
+	 */
+	public static String createSessionCookie(ConfigurationContext configurationContext, String serverURL,
+	                                         String username, String pwd) throws Exception {
 		AuthenticationAdminStub authenticationStub;
 		URL url = new URL(serverURL);
 		authenticationStub =
-		                     new AuthenticationAdminStub(getURL(serverURL) + "/" + getServicePath() +
-		                                                 "/AuthenticationAdmin");
+		                     new AuthenticationAdminStub(configurationContext, getURL(serverURL) + "/" +
+		                                                                       getServicePath() + "/AuthenticationAdmin");
 		SSLUtils.setSSLProtocolHandler(authenticationStub);
 		authenticationStub._getServiceClient().getOptions().setManageSession(true);
 		if (authenticationStub.login(username, pwd, url.getHost())) {
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A configuration file of a server, such as axis2.xml, carbon.xml, catalina-server.xml or the
+ * transports XML, read with StAX into a light weight element tree. The model of each file is
+ * kept until the file is modified, so that the port checks done on every launch and the other
+ * lookups of ports, offsets and context roots do not parse the configuration of the server again.
+ *
+ * The values are looked up with simple XPath like paths, made of element names with an optional
+ * position, attribute or attribute value predicate, and optionally ending with an attribute, for instance
+ * <code>/Server/Service/Connector[@SSLEnabled="true"]/@port</code>. Namespace prefixes in the path
+ * are ignored and the elements are matched by their local names.
+ *
+ * The models of the {@value #MAX_MODELS} most recently used files are kept.
+ */
+public class ServerConfigModel {
+	static final int MAX_MODELS = 32;
+	private static final Map<String, ServerConfigModel> models = new LinkedHashMap<String, ServerConfigModel>(16,
+	                                                                                                       0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(Map.Entry<String, ServerConfigModel> eldest) {
+			return size() > MAX_MODELS;
+		}
+	};
+	private static final AtomicInteger parseCount = new AtomicInteger();
+
+	private final Element root;
+	private final long lastModified;
+	private final long length;
+
+	private ServerConfigModel(Element root, long lastModified, long length) {
+		this.root = root;
+		this.lastModified = lastModified;
+		this.length = length;
+	}
+
+	/**
+	 * Returns the model of a configuration file, read again only if the file has been modified
+	 * since it was last read.
+	 *
+	 * @param configFilePath
+	 *            path of the configuration file
+	 * @return the model of the file
+	 * @throws IOException
+	 *             if the file could not be read
+	 * @throws XMLStreamException
+	 *             if the file is not well formed
+	 */
+	public static ServerConfigModel getModel(String configFilePath) throws IOException, XMLStreamException {
+		File configFile = new File(configFilePath).getAbsoluteFile();
+		String key = configFile.getPath();
+		long lastModified = configFile.lastModified();
+		long length = configFile.length();
+		synchronized (models) {
+			ServerConfigModel model = models.get(key);
+			if (model != null && model.lastModified == lastModified && model.length == length) {
+				return model;
+			}
+		}
+		ServerConfigModel model = new ServerConfigModel(parse(configFile), lastModified, length);
+		parseCount.incrementAndGet();
+		synchronized (models) {
+			models.put(key, model);
+		}
+		return model;
+	}
+
+	/**
+	 * Drops the model of a configuration file, to be called after writing the file as the file
+	 * may be modified within the resolution of its modification time.
+	 *
+	 * @param configFilePath
+	 *            path of the configuration file
+	 */
+	public static void invalidate(String configFilePath) {
+		synchronized (models) {
+			models.remove(new File(configFilePath).getAbsoluteFile().getPath());
+		}
+	}
+
+	/**
+	 * @return the number of times a configuration file has been parsed
+	 */
+	static int getParseCount() {
+		return parseCount.get();
+	}
+
+	/**
+	 * Looks up a value of the configuration.
+	 *
+	 * @param path
+	 *            path of the element or attribute
+	 * @return the trimmed text of the first matching element or the value of the attribute, or an
+	 *         empty string if nothing matches, as an XPath string evaluation does
+	 */
+	public String getValue(String path) {
+		List<Step> steps = Step.parse(path);
+		Element document = new Element(null);
+		document.children.add(root);
+		String value = find(document, steps, 0);
+		return value == null ? "" : value.trim();
+	}
+
+	/**
+	 * Looks up a port of the configuration.
+	 *
+	 * @param path
+	 *            path of the element or attribute holding the port
+	 * @return the port
+	 * @throws NumberFormatException
+	 *             if the value is not a port, for instance when nothing matches
+	 */
+	public int getPort(String path) {
+		return Integer.parseInt(getValue(path));
+	}
+
+	private static String find(Element element, List<Step> steps, int index) {
+		if (index == steps.size()) {
+			return element.getText();
+		}
+		Step step = steps.get(index);
+		if (step.name.startsWith("@")) {
+			return element.attributes.get(step.name.substring(1));
+		}
+		int position = 0;
+		for (Element child : element.children) {
+			if (!child.name.equals(step.name)) {
+				continue;
+			}
+			position++;
+			if (step.matches(child, position)) {
+				String value = find(child, steps, index + 1);
+				if (value != null) {
+					return value;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Element parse(File configFile) throws IOException, XMLStreamException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		InputStream in = new BufferedInputStream(new FileInputStream(configFile));
+		try {
+			XMLStreamReader reader = factory.createXMLStreamReader(in);
+			try {
+				Element root = null;
+				Deque<Element> elements = new ArrayDeque<Element>();
+				while (reader.hasNext()) {
+					switch (reader.next()) {
+						case XMLStreamConstants.START_ELEMENT:
+							Element element = new Element(reader.getLocalName());
+							for (int i = 0; i < reader.getAttributeCount(); i++) {
+								element.attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+							}
+							if (elements.isEmpty()) {
+								root = element;
+							} else {
+								elements.peek().children.add(element);
+							}
+							elements.push(element);
+							break;
+						case XMLStreamConstants.CHARACTERS:
+						case XMLStreamConstants.CDATA:
+							if (!elements.isEmpty()) {
+								elements.peek().text.append(reader.getText());
+							}
+							break;
+						case XMLStreamConstants.END_ELEMENT:
+							elements.pop();
+							break;
+						default:
+							break;
+					}
+				}
+				if (root == null) {
+					throw new XMLStreamException("No root element in " + configFile);
+				}
+				return root;
+			} finally {
+				reader.close();
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	private static class Element {
+		private final String name;
+		private final Map<String, String> attributes = new HashMap<String, String>();
+		private final List<Element> children = new ArrayList<Element>();
+		private final StringBuilder text = new StringBuilder();
+
+		private Element(String name) {
+			this.name = name;
+		}
+
+		private String getText() {
+			if (children.isEmpty()) {
+				return text.toString();
+			}
+			StringBuilder allText = new StringBuilder(text);
+			for (Element child : children) {
+				allText.append(child.getText());
+			}
+			return allText.toString();
+		}
+	}
+
+	/**
+	 * A step of a path: an element name with an optional position or attribute predicate, or an
+	 * attribute name starting with @.
+	 */
+	private static class Step {
+		private String name;
+		private int position;
+		private String attribute;
+		private String attributeValue;
+
+		private static List<Step> parse(String path) {
+			List<Step> steps = new ArrayList<Step>();
+			int start = path.startsWith("/") ? 1 : 0;
+			int depth = 0;
+			for (int i = start; i <= path.length(); i++) {
+				char c = i < path.length() ? path.charAt(i) : '/';
+				if (c == '[') {
+					depth++;
+				} else if (c == ']') {
+					depth--;
+				} else if (c == '/' && depth == 0) {
+					steps.add(parseStep(path.substring(start, i)));
+					start = i + 1;
+				}
+			}
+			return steps;
+		}
+
+		private static Step parseStep(String text) {
+			Step step = new Step();
+			int predicate = text.indexOf('[');
+			String name = predicate == -1 ? text : text.substring(0, predicate);
+			boolean isAttribute = name.startsWith("@");
+			if (isAttribute) {
+				name = name.substring(1);
+			}
+			// matches by local name
+			name = name.substring(name.indexOf(':') + 1);
+			step.name = isAttribute ? "@" + name : name;
+			if (predicate != -1) {
+				String condition = text.substring(predicate + 1, text.lastIndexOf(']')).trim();
+				if (condition.startsWith("@")) {
+					int equals = condition.indexOf('=');
+					if (equals == -1) {
+						// only checks that the attribute is present
+						step.attribute = condition.substring(1).trim();
+					} else {
+						step.attribute = condition.substring(1, equals).trim();
+						step.attributeValue = unquote(condition.substring(equals + 1).trim(), text);
+					}
+				} else {
+					step.position = Integer.parseInt(condition);
+				}
+			}
+			return step;
+		}
+
+		private static String unquote(String value, String step) {
+			if (value.length() < 2 || (value.charAt(0) != '\'' && value.charAt(0) != '"') ||
+			    value.charAt(value.length() - 1) != value.charAt(0)) {
+				throw new IllegalArgumentException("The value compared in " + step + " is not a quoted string");
+			}
+			return value.substring(1, value.length() - 1);
+		}
+
+		private boolean matches(Element element, int elementPosition) {
+			if (position > 0) {
+				return elementPosition == position;
+			}
+			if (attribute != null) {
+				return attributeValue == null ? element.attributes.containsKey(attribute)
+				                             : attributeValue.equals(element.attributes.get(attribute));
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the libraries of a server needed for code generation. The files under each library
+ * path of the server are listed once and kept together with the modification times of the
+ * directories they were listed from, so that the library paths are only walked again when a
+ * directory has changed. The libraries resolved for a set of library paths and name prefixes are
+ * kept until the listing of one of the paths changes.
+ */
+public class ServerLibraryIndex {
+	private static final String[] SKIPPED_DIRECTORIES = { "tomcat", "wsf", "patches" };
+	private static final String CARBON_LIBRARY_PREFIX = "org.wso2.carbon";
+
+	private static final Map<String, LibraryDirectory> directories = new HashMap<String, LibraryDirectory>();
+	private static final Map<String, ResolvedLibraries> resolvedLibraries = new HashMap<String, ResolvedLibraries>();
+
+	private ServerLibraryIndex() {
+	}
+
+	/**
+	 * Resolves the codegen libraries under the given library paths. For each prefix, the first
+	 * library whose name contains it is taken, searching the library paths in the given order.
+	 * Carbon libraries are matched against the codegen prefixes and the other libraries against
+	 * the util prefixes. Text files and the tomcat, wsf and patches directories are left out.
+	 *
+	 * @param libraryPaths
+	 *            library paths of the server
+	 * @param codegenLibPrefixes
+	 *            prefixes of the carbon libraries needed for code generation
+	 * @param utilLibPrefixes
+	 *            prefixes of the other libraries needed for code generation
+	 * @return absolute paths of the libraries
+	 */
+	public static String[] getCodegenLibraries(String[] libraryPaths, String[] codegenLibPrefixes,
+	                                           String[] utilLibPrefixes) {
+		List<LibraryDirectory> libraryDirectories = new ArrayList<LibraryDirectory>();
+		for (String libraryPath : libraryPaths) {
+			libraryDirectories.add(getLibraryDirectory(libraryPath));
+		}
+		String key =
+		             Arrays.toString(libraryPaths) + "|" + Arrays.toString(codegenLibPrefixes) + "|" +
+		                     Arrays.toString(utilLibPrefixes);
+		synchronized (resolvedLibraries) {
+			ResolvedLibraries resolved = resolvedLibraries.get(key);
+			if (resolved != null && resolved.isResolvedFrom(libraryDirectories)) {
+				return resolved.paths.clone();
+			}
+		}
+		ResolvedLibraries resolved =
+		                             new ResolvedLibraries(libraryDirectories, resolve(libraryDirectories,
+		                                                                               codegenLibPrefixes,
+		                                                                               utilLibPrefixes));
+		synchronized (resolvedLibraries) {
+			resolvedLibraries.put(key, resolved);
+		}
+		return resolved.paths.clone();
+	}
+
+	/**
+	 * Drops the listings of all the library paths and the libraries resolved from them.
+	 */
+	public static void clear() {
+		synchronized (directories) {
+			directories.clear();
+		}
+		synchronized (resolvedLibraries) {
+			resolvedLibraries.clear();
+		}
+	}
+
+	private static LibraryDirectory getLibraryDirectory(String libraryPath) {
+		File root = new File(libraryPath);
+		String key = root.getAbsolutePath();
+		synchronized (directories) {
+			LibraryDirectory directory = directories.get(key);
+			if (directory != null && directory.isUpToDate()) {
+				return directory;
+			}
+		}
+		LibraryDirectory directory = new LibraryDirectory(root);
+		synchronized (directories) {
+			directories.put(key, directory);
+		}
+		return directory;
+	}
+
+	private static String[] resolve(List<LibraryDirectory> libraryDirectories, String[] codegenLibPrefixes,
+	                                String[] utilLibPrefixes) {
+		String[] codegenPrefixes = toLowerCase(codegenLibPrefixes);
+		String[] utilPrefixes = toLowerCase(utilLibPrefixes);
+		Set<String> alreadyAdded = new HashSet<String>();
+		int prefixCount = codegenPrefixes.length + utilPrefixes.length;
+		List<String> paths = new ArrayList<String>();
+		for (LibraryDirectory directory : libraryDirectories) {
+			for (Library library : directory.libraries) {
+				if (alreadyAdded.size() == prefixCount) {
+					return paths.toArray(new String[paths.size()]);
+				}
+				String[] prefixes = library.name.startsWith(CARBON_LIBRARY_PREFIX) ? codegenPrefixes : utilPrefixes;
+				for (String prefix : prefixes) {
+					if (!alreadyAdded.contains(prefix) && library.name.contains(prefix)) {
+						alreadyAdded.add(prefix);
+						paths.add(library.path);
+						break;
+					}
+				}
+			}
+		}
+		return paths.toArray(new String[paths.size()]);
+	}
+
+	private static String[] toLowerCase(String[] prefixes) {
+		String[] lowerCasePrefixes = new String[prefixes.length];
+		for (int i = 0; i < prefixes.length; i++) {
+			lowerCasePrefixes[i] = prefixes[i].toLowerCase();
+		}
+		return lowerCasePrefixes;
+	}
+
+	/**
+	 * Files listed under a library path, in the order they are walked, and the modification times
+	 * of the directories they were listed from.
+	 */
+	private static class LibraryDirectory {
+		private final List<Library> libraries = new ArrayList<Library>();
+		private final Map<File, Long> modificationTimes = new HashMap<File, Long>();
+
+		private LibraryDirectory(File root) {
+			modificationTimes.put(root, root.lastModified());
+			visit(root);
+		}
+
+		private void visit(File file) {
+			if (file.toString().endsWith(".txt")) {
+				return;
+			}
+			if (file.isDirectory()) {
+				if (Arrays.asList(SKIPPED_DIRECTORIES).contains(file.getName())) {
+					return;
+				}
+				modificationTimes.put(file, file.lastModified());
+				String[] children = file.list();
+				if (children != null) {
+					for (String child : children) {
+						visit(new File(file, child));
+					}
+				}
+			} else {
+				libraries.add(new Library(file.getName().toLowerCase(), file.getAbsolutePath()));
+			}
+		}
+
+		private boolean isUpToDate() {
+			for (Map.Entry<File, Long> modificationTime : modificationTimes.entrySet()) {
+				if (modificationTime.getKey().lastModified() != modificationTime.getValue()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static class Library {
+		private final String name;
+		private final String path;
+
+		private Library(String name, String path) {
+			this.name = name;
+			this.path = path;
+		}
+	}
+
+	private static class ResolvedLibraries {
+		private final List<LibraryDirectory> libraryDirectories;
+		private final String[] paths;
+
+		private ResolvedLibraries(List<LibraryDirectory> libraryDirectories, String[] paths) {
+			this.libraryDirectories = libraryDirectories;
+			this.paths = paths;
+		}
+
+		private boolean isResolvedFrom(List<LibraryDirectory> currentDirectories) {
+			for (int i = 0; i < currentDirectories.size(); i++) {
+				if (libraryDirectories.get(i) != currentDirectories.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
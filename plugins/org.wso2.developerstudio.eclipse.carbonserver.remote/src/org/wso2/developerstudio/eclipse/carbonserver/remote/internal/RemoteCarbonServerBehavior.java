@@ -30,10 +30,15 @@ import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
 import org.wso2.developerstudio.eclipse.carbonfeatures.Activator;
+import org.wso2.developerstudio.eclipse.carbonserver.base.monitor.IServerReadinessListener;
+import org.wso2.developerstudio.eclipse.carbonserver.base.monitor.ServerReadinessService;
 import org.wso2.developerstudio.eclipse.carbonserver.remote.operations.ServiceModuleOperations;
 
 public class RemoteCarbonServerBehavior extends ServerBehaviourDelegate {
-	private CarbonPingThread ping;
+	// time to wait for the server to respond before showing it as stopped
+	private static final long START_TIMEOUT = 2 * 60 * 1000;
+
+	private ServerReadinessService.ReadinessWatch ping;
 
 	protected void initialize(IProgressMonitor monitor) {
 		super.initialize(monitor);
@@ -65,7 +70,7 @@ public class RemoteCarbonServerBehavior extends ServerBehaviourDelegate {
 
 	protected void stopPingThread() {
 		if (ping != null) {
-			ping.stop();
+			ping.cancel();
 			ping = null;
 		}
 		setServerStopped();
@@ -74,14 +79,13 @@ public class RemoteCarbonServerBehavior extends ServerBehaviourDelegate {
 	protected void startPingThread() {
 		try {
 			if (ping != null) {
-				ping.stop();
+				ping.cancel();
 			}
 			setServerState(IServer.STATE_STARTING);
 			RemoteCarbonServer rcs = (RemoteCarbonServer) getServer().loadAdapter(RemoteCarbonServer.class, null);
 			URL serverURL = rcs.getServerURL();
-			URL pingURL = new URL(serverURL.toString() + "/carbon");
-			ping = new CarbonPingThread(pingURL, this);
-			ping.startPing();
+			ping = ServerReadinessService.getInstance().watchAvailability(serverURL.toString() + "/carbon",
+			                                                              START_TIMEOUT, new PingListener());
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -154,4 +158,14 @@ public class RemoteCarbonServerBehavior extends ServerBehaviourDelegate {
 			}
 		}
 	}
+
+	private class PingListener implements IServerReadinessListener {
+		public void serverReady() {
+			setServerStarted();
+		}
+
+		public void serverUnavailable() {
+			setServerStopped();
+		}
+	}
 }
@@ -60,6 +60,7 @@ import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCom
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonUtils;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerXUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.carbonserver40.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver40.internal.CarbonServer40;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
@@ -264,6 +265,7 @@ public class CarbonServer40Utils implements CarbonServerXUtils{
 			Result result = new StreamResult(new File(serverXmlPath));
 			Source source = new DOMSource(doc);
 			t.transform(source, result);
+			ServerConfigModel.invalidate(serverXmlPath);
 			return true;
 		} catch (ParserConfigurationException e) {
 			log.error(e);
@@ -372,6 +374,7 @@ public class CarbonServer40Utils implements CarbonServerXUtils{
 				Result result = new StreamResult(new File(axis2Xml));
 				Source source = new DOMSource(document);
 				t.transform(source, result);
+				ServerConfigModel.invalidate(axis2Xml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
@@ -527,6 +530,8 @@ public class CarbonServer40Utils implements CarbonServerXUtils{
 				Source source1 = new DOMSource(catelinaDocument);
 				t.transform(source, result);
 				t1.transform(source1, result1);
+				ServerConfigModel.invalidate(carbonXml);
+				ServerConfigModel.invalidate(catelinaXml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
@@ -17,21 +17,11 @@
 package org.wso2.developerstudio.eclipse.carbonserver42.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.namespace.NamespaceContext;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -50,20 +40,18 @@ import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.ServerPort;
 import org.eclipse.wst.server.core.internal.DeletedModule;
-import org.w3c.dom.Document;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonConstants;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.impl.CarbonServerBehaviour;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
 import org.wso2.developerstudio.eclipse.carbonserver.base.service.util.CarbonUploadServiceRequestUtil;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.carbonserver42.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver42.operations.CommonOperations;
 import org.wso2.developerstudio.eclipse.carbonserver42.util.CarbonServer42Utils;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.server.base.core.ServerController;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 public class CarbonServerBehavior42 extends CarbonServerBehaviour {
 
@@ -233,27 +221,12 @@ public class CarbonServerBehavior42 extends CarbonServerBehaviour {
 
 	protected void addServletTransportPorts(List<Integer> ports, String carbonXmlPath, String catelinaXmlPath) {
 		int port = 0;
-		XPathFactory factory = XPathFactory.newInstance();
-		NamespaceContext cntx = carbonServer42Utils.getCarbonNamespace();
-		File xmlDocument = new File(carbonXmlPath);
-		File catelineXmlDocument = new File(catelinaXmlPath);
 		try {
-			InputSource inputSource = new InputSource(new FileInputStream(xmlDocument));
-			InputSource catelineSource = new InputSource(new FileInputStream(catelineXmlDocument));
-			DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-			DocumentBuilder catelineBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-			Document document = builder.parse(xmlDocument);
-			Document catelinaDocument = catelineBuilder.parse(catelineXmlDocument);
-			XPath xPath = factory.newXPath();
-			XPath catelineXPath = factory.newXPath();
-			xPath.setNamespaceContext(cntx);
-
-			int offSet =
-			             Integer.parseInt((String) xPath.evaluate("/Server/Ports/Offset", document,
-			                                                      XPathConstants.STRING));
-			String evaluate =
-			                  (String) catelineXPath.evaluate("/Server/Service/Connector[@sslProtocol=\"TLS\"]/@port",
-			                                                  catelinaDocument, XPathConstants.STRING);
+			ServerConfigModel carbonXml = ServerConfigModel.getModel(carbonXmlPath);
+			ServerConfigModel catelinaXml = ServerConfigModel.getModel(catelinaXmlPath);
+
+			int offSet = Integer.parseInt(carbonXml.getValue("/Server/Ports/Offset"));
+			String evaluate = catelinaXml.getValue("/Server/Service/Connector[@sslProtocol=\"TLS\"]/@port");
 
 			if (!evaluate.equals("")) {
 				port = Integer.parseInt(evaluate) + offSet;
@@ -261,10 +234,7 @@ public class CarbonServerBehavior42 extends CarbonServerBehaviour {
 				port = getPortfromTransportXML("https");
 			}
 			ports.add(port);
-			inputSource = new InputSource(new FileInputStream(xmlDocument));
-			evaluate =
-			           (String) catelineXPath.evaluate("/Server/Service/Connector[1]/@port", catelinaDocument,
-			                                           XPathConstants.STRING);
+			evaluate = catelinaXml.getValue("/Server/Service/Connector[1]/@port");
 
 			if (!evaluate.equals("")) {
 				port = Integer.parseInt(evaluate) + offSet;
@@ -275,13 +245,7 @@ public class CarbonServerBehavior42 extends CarbonServerBehaviour {
 
 		} catch (NumberFormatException e) {
 			log.error(e);
-		} catch (FileNotFoundException e) {
-			log.error(e);
-		} catch (XPathExpressionException e) {
-			log.error(e);
-		} catch (ParserConfigurationException e) {
-			log.error(e);
-		} catch (SAXException e) {
+		} catch (XMLStreamException e) {
 			log.error(e);
 		} catch (IOException e) {
 			log.error(e);
@@ -291,21 +255,14 @@ public class CarbonServerBehavior42 extends CarbonServerBehaviour {
 	private int getPortfromTransportXML(String protocolType) {
 		int port = 0;
 		String transportsXmlPath = getTransportXmlFilePath();
-		XPathFactory factory = XPathFactory.newInstance();
-		File xmlDocument = new File(transportsXmlPath);
 		try {
-			InputSource inputSource = new InputSource(new FileInputStream(xmlDocument));
-			XPath xPath = factory.newXPath();
-			XPathExpression xPathExpression =
-			                                  xPath.compile("/transports/transport[@name='" + protocolType +
-			                                                "']/parameter[@name='port']");
-			String evaluate = xPathExpression.evaluate(inputSource);
-			port = Integer.parseInt(evaluate);
+			port = ServerConfigModel.getModel(transportsXmlPath).getPort("/transports/transport[@name='" +
+			                                                             protocolType + "']/parameter[@name='port']");
 		} catch (NumberFormatException e) {
 			log.error(e);
-		} catch (FileNotFoundException e) {
+		} catch (XMLStreamException e) {
 			log.error(e);
-		} catch (XPathExpressionException e) {
+		} catch (IOException e) {
 			log.error(e);
 		}
 		return port;
@@ -60,6 +60,7 @@ import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCom
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonUtils;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerXUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.carbonserver42.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver42.internal.CarbonServer42;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
@@ -265,6 +266,7 @@ public class CarbonServer42Utils implements CarbonServerXUtils {
 			Result result = new StreamResult(new File(serverXmlPath));
 			Source source = new DOMSource(doc);
 			t.transform(source, result);
+			ServerConfigModel.invalidate(serverXmlPath);
 			return true;
 		} catch (ParserConfigurationException e) {
 			log.error(e);
@@ -373,6 +375,7 @@ public class CarbonServer42Utils implements CarbonServerXUtils {
 				Result result = new StreamResult(new File(axis2Xml));
 				Source source = new DOMSource(document);
 				t.transform(source, result);
+				ServerConfigModel.invalidate(axis2Xml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
@@ -528,6 +531,8 @@ public class CarbonServer42Utils implements CarbonServerXUtils {
 				Source source1 = new DOMSource(catelinaDocument);
 				t.transform(source, result);
 				t1.transform(source1, result1);
+				ServerConfigModel.invalidate(carbonXml);
+				ServerConfigModel.invalidate(catelinaXml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
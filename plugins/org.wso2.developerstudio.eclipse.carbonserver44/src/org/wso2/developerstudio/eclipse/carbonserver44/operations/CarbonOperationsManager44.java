@@ -44,6 +44,7 @@ import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.server.base.core.ServerController;
 import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.utils.CarbonServerUtils;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerLibraryIndex;
 
 import java.io.File;
 import java.net.MalformedURLException;
@@ -300,12 +301,13 @@ public class CarbonOperationsManager44 implements ICarbonOperationManager {
 	}
 
 	private String[] getCodegenLibraries(String[] serverCodegenLibraries) throws Exception {
-		List<String> paths = new ArrayList<String>();
-		List<String> alreadyAdded = new ArrayList<String>();
-		for (String lib : serverCodegenLibraries) {
-			visitAllFiles(new File(lib), paths, alreadyAdded);
-		}
-		return paths.toArray(new String[] {});
+		String[] codegenLibPrefixes =
+		                              CarbonServerCommonConstants.getStringArrayFromProprties(Activator.PLUGIN_ID,
+		                                                                                      "AXIS2_CODEGEN_LIB_PREFIXES");
+		String[] utilLibPrefixes =
+		                           CarbonServerCommonConstants.getStringArrayFromProprties(Activator.PLUGIN_ID,
+		                                                                                   "AXIS2_UTIL_LIB_PREFIXES");
+		return ServerLibraryIndex.getCodegenLibraries(serverCodegenLibraries, codegenLibPrefixes, utilLibPrefixes);
 	}
 
 	private String[] getAxis2Libraries(String wsasHome) throws Exception {
@@ -319,48 +321,6 @@ public class CarbonOperationsManager44 implements ICarbonOperationManager {
 		return list;
 	}
 
-	private void visitAllFiles(File dir, List paths, List alreadyAdded) {
-		if (!dir.toString().endsWith(".txt")) {
-			if (dir.isDirectory()) {
-				if (dir.getName().toString().equals("tomcat") || dir.getName().toString().equals("wsf") ||
-				    dir.getName().toString().equals("patches")) {
-					// skip these libraris being loaded
-				} else {
-					String[] children = dir.list();
-					for (int i = 0; i < children.length; i++) {
-						visitAllFiles(new File(dir, children[i]), paths, alreadyAdded);
-					}
-				}
-			} else {
-				if (isValidFile(dir.getName(), alreadyAdded))
-					paths.add(dir.getAbsolutePath());
-			}
-
-		}
-	}
-
-	private boolean isValidFile(String fileName, List alreadyAdded) {
-		if (fileName.toLowerCase().startsWith("org.wso2.carbon")) {
-			for (String prefix : CarbonServerCommonConstants.getStringArrayFromProprties(Activator.PLUGIN_ID, "AXIS2_CODEGEN_LIB_PREFIXES")) {
-				if (!alreadyAdded.contains(prefix))
-					if (fileName.toLowerCase().contains(prefix.toLowerCase())) {
-						alreadyAdded.add(prefix);
-						return true;
-					}
-			}
-		} else {
-			for (String prefix : CarbonServerCommonConstants.getStringArrayFromProprties(Activator.PLUGIN_ID, "AXIS2_UTIL_LIB_PREFIXES")) {
-				if (!alreadyAdded.contains(prefix))
-					if (fileName.toLowerCase().contains(prefix.toLowerCase())) {
-						alreadyAdded.add(prefix);
-						return true;
-					}
-			}
-		}
-		return false;
-
-	}
-
 	private void initializeServerRepoLibraries(IServer server) throws CoreException {
 		IPath wsasHome = commonOperations.getWSASHome(server);
 		initializeServerRepoLibraries(wsasHome.toOSString());
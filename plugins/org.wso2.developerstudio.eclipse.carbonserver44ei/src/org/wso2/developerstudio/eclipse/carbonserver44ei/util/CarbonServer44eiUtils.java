@@ -36,6 +36,7 @@ import javax.xml.namespace.NamespaceContext;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
@@ -66,6 +67,7 @@ import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCom
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonUtils;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerXUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.carbonserver44ei.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver44ei.internal.CarbonServer44ei;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
@@ -143,33 +145,13 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 		String transportsXml =
 		                       FileUtils.addNodesToPath(CarbonServerManager.getServerHome(server).toOSString(),
 		                                                new String[] { "conf", "carbon.xml" });
-		XPathFactory factory = XPathFactory.newInstance();
-		File xmlDocument = new File(transportsXml);
 		String webContextRoot = null;
-		NamespaceContext ctx = new NamespaceContext() {
-			public String getNamespaceURI(String prefix) {
-				return "http://wso2.org/projects/carbon/carbon.xml";
-			}
-
-			public String getPrefix(String arg0) {
-				return null;
-			}
-
-			public Iterator getPrefixes(String arg0) {
-				return null;
-			}
-		};
-
 		try {
-			InputSource inputSource = new InputSource(new FileInputStream(xmlDocument));
-			XPath xPath = factory.newXPath();
-			xPath.setNamespaceContext(ctx);
-			XPathExpression xPathExpression = xPath.compile("/:Server/:WebContextRoot");
-			webContextRoot = xPathExpression.evaluate(inputSource);
+			webContextRoot = ServerConfigModel.getModel(transportsXml).getValue("/:Server/:WebContextRoot");
 			webContextRoot = webContextRoot.equals("/") ? "" : webContextRoot;
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			log.error(e);
-		} catch (XPathExpressionException e) {
+		} catch (XMLStreamException e) {
 			log.error(e);
 		}
 		return webContextRoot;
@@ -199,23 +181,16 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 		String transportsXml =
 		                       FileUtils.addNodesToPath(CarbonServerManager.getServerHome(server).toOSString(),
 		                                                new String[] { "conf", "server.xml" });
-		XPathFactory factory = XPathFactory.newInstance();
-		File xmlDocument = new File(transportsXml);
 		try {
-			InputSource inputSource = new InputSource(new FileInputStream(xmlDocument));
-			XPath xPath = factory.newXPath();
-			XPathExpression xPathExpression = xPath.compile("/Server/Security/KeyStore/Location");
-			String evaluate = xPathExpression.evaluate(inputSource);
-			String trustoreLocation = resolveProperties(server, evaluate);
-			inputSource = new InputSource(new FileInputStream(xmlDocument));
-			xPathExpression = xPath.compile("/Server/Security/KeyStore/Password");
-			evaluate = xPathExpression.evaluate(inputSource);
-			String trustStorePassword = resolveProperties(server, evaluate);
+			ServerConfigModel serverXml = ServerConfigModel.getModel(transportsXml);
+			String trustoreLocation = resolveProperties(server, serverXml.getValue("/Server/Security/KeyStore/Location"));
+			String trustStorePassword =
+			                            resolveProperties(server, serverXml.getValue("/Server/Security/KeyStore/Password"));
 			System.setProperty("javax.net.ssl.trustStore", trustoreLocation);
 			System.setProperty("javax.net.ssl.trustStorePassword", trustStorePassword);
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			log.error(e);
-		} catch (XPathExpressionException e) {
+		} catch (XMLStreamException e) {
 			log.error(e);
 		}
 
@@ -271,6 +246,7 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 			Result result = new StreamResult(new File(serverXmlPath));
 			Source source = new DOMSource(doc);
 			t.transform(source, result);
+			ServerConfigModel.invalidate(serverXmlPath);
 			return true;
 		} catch (ParserConfigurationException e) {
 			log.error(e);
@@ -379,6 +355,7 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 				Result result = new StreamResult(new File(axis2Xml));
 				Source source = new DOMSource(document);
 				t.transform(source, result);
+				ServerConfigModel.invalidate(axis2Xml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
@@ -533,6 +510,8 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 				Source source1 = new DOMSource(catelinaDocument);
 				t.transform(source, result);
 				t1.transform(source1, result1);
+				ServerConfigModel.invalidate(carbonXml);
+				ServerConfigModel.invalidate(catelinaXml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
@@ -19,21 +19,11 @@
 package org.wso2.developerstudio.eclipse.carbonserver44microei.internal;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.namespace.NamespaceContext;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.stream.XMLStreamException;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -52,12 +42,12 @@ import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.ServerPort;
 import org.eclipse.wst.server.core.internal.DeletedModule;
-import org.w3c.dom.Document;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonConstants;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.impl.CarbonServerBehaviour;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
 import org.wso2.developerstudio.eclipse.carbonserver.base.service.util.CarbonUploadServiceRequestUtil;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.carbonserver44microei.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver44microei.operations.CommonOperations;
 import org.wso2.developerstudio.eclipse.carbonserver44microei.register.product.servers.MicroIntegratorInstance;
@@ -66,8 +56,6 @@ import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.server.base.core.ServerController;
 import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
 
 public class CarbonServerBehavior44microei extends CarbonServerBehaviour {
 
@@ -241,26 +229,13 @@ public class CarbonServerBehavior44microei extends CarbonServerBehaviour {
 
     protected void addServletTransportPorts(List<Integer> ports, String carbonXmlPath, String catelinaXmlPath) {
         int port = 0;
-        XPathFactory factory = XPathFactory.newInstance();
-        NamespaceContext cntx = carbonServer44eiUtils.getCarbonNamespace();
-        File xmlDocument = new File(carbonXmlPath);
-        File catelineXmlDocument = new File(catelinaXmlPath);
         try {
-            InputSource inputSource = new InputSource(new FileInputStream(xmlDocument));
-            InputSource catelineSource = new InputSource(new FileInputStream(catelineXmlDocument));
-            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            DocumentBuilder catelineBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            Document document = builder.parse(xmlDocument);
-            Document catelinaDocument = catelineBuilder.parse(catelineXmlDocument);
-            XPath xPath = factory.newXPath();
-            XPath catelineXPath = factory.newXPath();
-            xPath.setNamespaceContext(cntx);
-
-            int offSet = Integer.parseInt((String) xPath.evaluate(SERVER_PORTS_OFFSET_XPATH, document,
-                    XPathConstants.STRING));
-            String evaluate = (String) catelineXPath.evaluate(
-                    CarbonServerCommonConstants.getCatalinaXpathExpressionForSslEnabledPort(Activator.PLUGIN_ID),
-                    catelinaDocument, XPathConstants.STRING);
+            ServerConfigModel carbonXml = ServerConfigModel.getModel(carbonXmlPath);
+            ServerConfigModel catelinaXml = ServerConfigModel.getModel(catelinaXmlPath);
+
+            int offSet = Integer.parseInt(carbonXml.getValue(SERVER_PORTS_OFFSET_XPATH));
+            String evaluate = catelinaXml.getValue(
+                    CarbonServerCommonConstants.getCatalinaXpathExpressionForSslEnabledPort(Activator.PLUGIN_ID));
 
             if (!evaluate.equals(EMPTY_STRING)) {
                 port = Integer.parseInt(evaluate) + offSet;
@@ -268,9 +243,7 @@ public class CarbonServerBehavior44microei extends CarbonServerBehaviour {
                 port = getPortfromTransportXML(HTTPS_NAME_TAG);
             }
             ports.add(port);
-            inputSource = new InputSource(new FileInputStream(xmlDocument));
-            evaluate = (String) catelineXPath.evaluate(SERVER_SERVICE_CONNECTOR_XPATH, catelinaDocument,
-                    XPathConstants.STRING);
+            evaluate = catelinaXml.getValue(SERVER_SERVICE_CONNECTOR_XPATH);
 
             if (!evaluate.equals(EMPTY_STRING)) {
                 port = Integer.parseInt(evaluate) + offSet;
@@ -278,8 +251,7 @@ public class CarbonServerBehavior44microei extends CarbonServerBehaviour {
                 port = getPortfromTransportXML(HTTP_NAME_TAG);
             }
             ports.add(port);
-        } catch (NumberFormatException | XPathExpressionException | ParserConfigurationException | SAXException
-                | IOException e) {
+        } catch (NumberFormatException | XMLStreamException | IOException e) {
             log.warn("Error occured while adding server transport ports", e);
         }
     }
@@ -287,16 +259,10 @@ public class CarbonServerBehavior44microei extends CarbonServerBehaviour {
     private int getPortfromTransportXML(String protocolType) {
         int port = 0;
         String transportsXmlPath = getTransportXmlFilePath();
-        XPathFactory factory = XPathFactory.newInstance();
-        File xmlDocument = new File(transportsXmlPath);
         try {
-            InputSource inputSource = new InputSource(new FileInputStream(xmlDocument));
-            XPath xPath = factory.newXPath();
-            XPathExpression xPathExpression = xPath.compile("/transports/transport[@name='" + protocolType
-                    + "']/parameter[@name='port']");
-            String evaluate = xPathExpression.evaluate(inputSource);
-            port = Integer.parseInt(evaluate);
-        } catch (NumberFormatException | FileNotFoundException | XPathExpressionException e) {
+            port = ServerConfigModel.getModel(transportsXmlPath).getPort(
+                    "/transports/transport[@name='" + protocolType + "']/parameter[@name='port']");
+        } catch (NumberFormatException | XMLStreamException | IOException e) {
             log.warn("Error occured while getting port from transport XML", e);
         }
         return port;
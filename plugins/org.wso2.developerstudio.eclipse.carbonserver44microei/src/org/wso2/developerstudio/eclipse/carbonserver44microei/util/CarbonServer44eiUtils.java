@@ -63,6 +63,7 @@ import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCom
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonUtils;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerXUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.carbonserver44microei.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver44microei.internal.CarbonServer44microei;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
@@ -260,6 +261,7 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 			Result result = new StreamResult(new File(serverXmlPath));
 			Source source = new DOMSource(doc);
 			t.transform(source, result);
+			ServerConfigModel.invalidate(serverXmlPath);
 			return true;
 		} catch (ParserConfigurationException | SAXException | IOException | TransformerFactoryConfigurationError 
 				| TransformerException e) {
@@ -401,6 +403,7 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 				Result result = new StreamResult(new File(axis2Xml));
 				Source source = new DOMSource(document);
 				t.transform(source, result);
+				ServerConfigModel.invalidate(axis2Xml);
 				return true;
 			}
 		} catch (XPathExpressionException | ParserConfigurationException | SAXException | IOException 
@@ -533,6 +536,8 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 				Source source1 = new DOMSource(catelinaDocument);
 				t.transform(source, result);
 				t1.transform(source1, result1);
+				ServerConfigModel.invalidate(carbonXml);
+				ServerConfigModel.invalidate(catelinaXml);
 				return true;
 			}
 		} catch (XPathExpressionException | ParserConfigurationException | SAXException 
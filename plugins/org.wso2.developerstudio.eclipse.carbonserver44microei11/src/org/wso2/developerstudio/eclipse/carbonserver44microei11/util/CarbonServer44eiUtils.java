@@ -64,6 +64,7 @@ import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCom
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerCommonUtils;
 import org.wso2.developerstudio.eclipse.carbon.server.model.util.CarbonServerXUtils;
 import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager;
+import org.wso2.developerstudio.eclipse.carbonserver.base.utils.ServerConfigModel;
 import org.wso2.developerstudio.eclipse.carbonserver44microei11.Activator;
 import org.wso2.developerstudio.eclipse.carbonserver44microei11.internal.CarbonServer44microei11;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
@@ -273,6 +274,7 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 			Result result = new StreamResult(new File(serverXmlPath));
 			Source source = new DOMSource(doc);
 			t.transform(source, result);
+			ServerConfigModel.invalidate(serverXmlPath);
 			return true;
 		} catch (ParserConfigurationException e) {
 			log.error(e);
@@ -425,6 +427,7 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 				Result result = new StreamResult(new File(axis2Xml));
 				Source source = new DOMSource(document);
 				t.transform(source, result);
+				ServerConfigModel.invalidate(axis2Xml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
@@ -572,6 +575,8 @@ public class CarbonServer44eiUtils implements CarbonServerXUtils {
 				Source source1 = new DOMSource(catelinaDocument);
 				t.transform(source, result);
 				t1.transform(source1, result1);
+				ServerConfigModel.invalidate(carbonXml);
+				ServerConfigModel.invalidate(catelinaXml);
 				return true;
 			}
 		} catch (FileNotFoundException e) {
@@ -19,6 +19,7 @@ package org.wso2.developerstudio.eclipse.distribution.project;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.wso2.developerstudio.eclipse.distribution.project.publisher.HotDeployScheduler;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -57,6 +58,7 @@ public class Activator extends AbstractUIPlugin {
 	 * )
 	 */
 	public void stop(BundleContext context) throws Exception {
+		HotDeployScheduler.dispose();
 		plugin = null;
 		super.stop(context);
 	}
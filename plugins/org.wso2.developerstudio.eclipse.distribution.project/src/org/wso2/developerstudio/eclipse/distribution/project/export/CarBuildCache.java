@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.distribution.project.export;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.wso2.developerstudio.eclipse.distribution.project.Activator;
+import org.wso2.developerstudio.eclipse.distribution.project.model.ArtifactData;
+import org.wso2.developerstudio.eclipse.distribution.project.model.DependencyData;
+import org.wso2.developerstudio.eclipse.distribution.project.util.ContentDigestUtils;
+import org.wso2.developerstudio.eclipse.distribution.project.util.DistProjectUtils;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
+
+/**
+ * Keeps the staged content of a carbon application between exports. Every artifact directory of
+ * the staging area is recorded against a key made of the pom coordinates of the dependency and a
+ * hash of its built artifact, so an export only rewrites the artifacts which changed since the
+ * previous one.
+ */
+public class CarBuildCache {
+    private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+    private static final String CACHE_DIR = "car_build_cache";
+    private static final String CAR_RESOURCES_DIR = "car_resources";
+    private static final String INDEX_FILE = "cache.index";
+
+    private static final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<String, Object>();
+
+    private final File cacheDir;
+    private final File carResources;
+    private final File indexFile;
+    private final Properties index = new Properties();
+    private final Set<String> stagedEntries = new HashSet<String>();
+    private final Set<String> sharedEntries = new HashSet<String>();
+
+    public CarBuildCache(IProject project) {
+        this(Activator.getDefault().getStateLocation().append(CACHE_DIR).append(project.getName()).toFile());
+    }
+
+    CarBuildCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+        carResources = new File(cacheDir, CAR_RESOURCES_DIR);
+        indexFile = new File(cacheDir, INDEX_FILE);
+    }
+
+    /**
+     * Returns the lock to hold while staging the given project, as all the exports of a project
+     * share the same staging area.
+     *
+     * @param project carbon application project
+     * @return lock of the project staging area
+     */
+    public static Object getLock(IProject project) {
+        Object lock = new Object();
+        Object existingLock = locks.putIfAbsent(project.getName(), lock);
+        return existingLock != null ? existingLock : lock;
+    }
+
+    /**
+     * Loads the cache index and returns the staging directory. The index is removed from the disk
+     * until {@link #close()} is called, so an export which fails half way starts from a clean
+     * staging area the next time.
+     *
+     * @return the car_resources directory of the carbon application
+     */
+    public File open() {
+        index.clear();
+        stagedEntries.clear();
+        sharedEntries.clear();
+        if (indexFile.exists() && carResources.isDirectory()) {
+            try (InputStream in = new FileInputStream(indexFile)) {
+                index.load(in);
+            } catch (IOException e) {
+                log.warn("Could not read the carbon application build cache, rebuilding all artifacts", e);
+                index.clear();
+            }
+        }
+        if (!indexFile.delete() && indexFile.exists()) {
+            index.clear();
+        }
+        if (index.isEmpty() && carResources.exists()) {
+            FileUtils.deleteDirectories(carResources);
+        }
+        carResources.mkdirs();
+        return carResources;
+    }
+
+    /**
+     * Checks whether the given artifact directory of the staging area is still up to date. If it
+     * is not, any stale content of the directory is removed so that the caller can write the
+     * artifact afresh.
+     *
+     * @param artifactDir name of the artifact directory inside car_resources
+     * @param key cache key of the artifact as returned by {@link #getCacheKey(ArtifactData)}
+     * @return true if the staged artifact can be reused as it is
+     */
+    public boolean isUpToDate(String artifactDir, String key) {
+        File stagedDir = new File(carResources, artifactDir);
+        if (!stagedEntries.add(artifactDir)) {
+            // More than one artifact is staged into the same directory, it can't be cached reliably
+            sharedEntries.add(artifactDir);
+            index.remove(artifactDir);
+            return false;
+        }
+        if (key != null && key.equals(index.getProperty(artifactDir)) && stagedDir.isDirectory()) {
+            return true;
+        }
+        index.remove(artifactDir);
+        if (stagedDir.exists()) {
+            FileUtils.deleteDirectories(stagedDir);
+        }
+        return false;
+    }
+
+    /**
+     * Records the given artifact directory as staged with the given key.
+     *
+     * @param artifactDir name of the artifact directory inside car_resources
+     * @param key cache key of the artifact, null if the artifact should not be reused
+     */
+    public void update(String artifactDir, String key) {
+        if (key != null && !sharedEntries.contains(artifactDir)) {
+            index.setProperty(artifactDir, key);
+        }
+    }
+
+    /**
+     * Removes the artifacts which are no longer part of the carbon application from the staging
+     * area and saves the cache index.
+     */
+    public void close() {
+        File[] stagedFiles = carResources.listFiles();
+        if (stagedFiles != null) {
+            for (File stagedFile : stagedFiles) {
+                if (stagedFile.isDirectory() && !stagedEntries.contains(stagedFile.getName())) {
+                    FileUtils.deleteDirectories(stagedFile);
+                }
+            }
+        }
+        index.keySet().retainAll(stagedEntries);
+        try (OutputStream out = new FileOutputStream(indexFile)) {
+            index.store(out, null);
+        } catch (IOException e) {
+            log.warn("Could not save the carbon application build cache", e);
+        }
+    }
+
+    /**
+     * Computes the cache key of an artifact from its pom coordinates, the attributes written to its
+     * artifact.xml and a hash of the built artifact.
+     *
+     * @param artifact artifact to be staged
+     * @return the cache key or null if the artifact could not be read
+     */
+    public static String getCacheKey(ArtifactData artifact) {
+        DependencyData dependencyData = artifact.getDependencyData();
+        if (artifact.getResource() == null || artifact.getResource().getLocation() == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = ContentDigestUtils.createDigest();
+            ContentDigestUtils.update(digest, DistProjectUtils.getArtifactInfoAsString(dependencyData.getDependency()));
+            ContentDigestUtils.update(digest, dependencyData.getCApptype());
+            ContentDigestUtils.update(digest, dependencyData.getServerRole());
+            ContentDigestUtils.update(digest, artifact.getFile());
+            File source = artifact.getResource().getLocation().toFile();
+            if (!source.exists()) {
+                return null;
+            }
+            ContentDigestUtils.updateWithContent(digest, source, source.getName());
+            return ContentDigestUtils.toHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            log.warn("Could not compute the build cache key of " + artifact.getFile(), e);
+            return null;
+        }
+    }
+}
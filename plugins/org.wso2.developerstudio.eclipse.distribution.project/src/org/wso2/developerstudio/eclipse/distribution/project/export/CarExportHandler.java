@@ -84,7 +84,6 @@ public class CarExportHandler extends ProjectArtifactHandler {
         // Let's create a temp project
         File tempProject = createTempProject();
 
-        File carResources = createTempDir(tempProject, "car_resources");
         pomFileRes = project.getFile(POM_FILE);
         if (!pomFileRes.exists()) {
             throw new Exception("not a valid carbon application project");
@@ -148,25 +147,39 @@ public class CarExportHandler extends ProjectArtifactHandler {
 
         Collections.sort(artifactList);
 
-        for (ArtifactData artifact : artifactList) {
-            File artifactDir = new File(carResources, getArtifactDir(artifact.getDependencyData()));
-            if (artifact.getResource() instanceof IFolder) {
-                FileUtils.copyDirectory(artifact.getResource().getLocation().toFile(), artifactDir);
-            } else if (artifact.getResource() instanceof IFile) {
-                FileUtils.copy(artifact.getResource().getLocation().toFile(),
-                        new File(artifactDir, artifact.getFile()));
+        File tmpArchive = new File(tempProject,
+                project.getName().concat("_").concat(parentPrj.getVersion()).concat(".car"));
+        // car_resources is kept between exports, only the artifacts changed since the last export
+        // are copied again
+        CarBuildCache buildCache = new CarBuildCache(project);
+        synchronized (CarBuildCache.getLock(project)) {
+            File carResources = buildCache.open();
+            for (ArtifactData artifact : artifactList) {
+                String artifactDirName = getArtifactDir(artifact.getDependencyData());
+                File artifactDir = new File(carResources, artifactDirName);
+                String cacheKey = CarBuildCache.getCacheKey(artifact);
+                if (!buildCache.isUpToDate(artifactDirName, cacheKey)) {
+                    if (artifact.getResource() instanceof IFolder) {
+                        FileUtils.copyDirectory(artifact.getResource().getLocation().toFile(), artifactDir);
+                    } else if (artifact.getResource() instanceof IFile) {
+                        FileUtils.copy(artifact.getResource().getLocation().toFile(),
+                                new File(artifactDir, artifact.getFile()));
+                    }
+                    createArtifactXML(artifactDir, artifact);
+                    buildCache.update(artifactDirName, cacheKey);
+                }
+                artifactElt.addChild(createDependencyElement(factory, artifact));
             }
-            artifactElt.addChild(createDependencyElement(factory, artifact));
-            createArtifactXML(artifactDir, artifact);
-        }
 
-        artifactsDocRoot.addChild(artifactElt);
-        File artifactsXml = new File(carResources, "artifacts.xml");
-        XMLUtil.prettify(artifactsDocRoot, new FileOutputStream(artifactsXml));
+            artifactsDocRoot.addChild(artifactElt);
+            File artifactsXml = new File(carResources, "artifacts.xml");
+            try (FileOutputStream artifactsXmlStream = new FileOutputStream(artifactsXml)) {
+                XMLUtil.prettify(artifactsDocRoot, artifactsXmlStream);
+            }
+            buildCache.close();
 
-        File tmpArchive = new File(tempProject,
-                project.getName().concat("_").concat(parentPrj.getVersion()).concat(".car"));
-        archiveManipulator.archiveDir(tmpArchive.toString(), carResources.toString());
+            archiveManipulator.archiveDir(tmpArchive.toString(), carResources.toString());
+        }
 
         IFile carbonArchive = getTargetArchive(project, parentPrj.getVersion(), "car");
         FileUtils.copy(tmpArchive, carbonArchive.getLocation().toFile());
@@ -221,8 +234,8 @@ public class CarExportHandler extends ProjectArtifactHandler {
         fileElt.setText(artifact.getFile());
         artifactElt.addChild(fileElt);
         File artifactXml = new File(artifactDir, "artifact.xml");
-        try {
-            XMLUtil.prettify(artifactElt, new FileOutputStream(artifactXml));
+        try (FileOutputStream artifactXmlStream = new FileOutputStream(artifactXml)) {
+            XMLUtil.prettify(artifactElt, artifactXmlStream);
         } catch (Exception e) {
             log.error("Error creating artifact.xml", e);
         }
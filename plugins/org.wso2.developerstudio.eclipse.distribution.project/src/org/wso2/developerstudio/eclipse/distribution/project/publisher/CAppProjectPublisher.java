@@ -286,32 +286,29 @@ public class CAppProjectPublisher implements ICarbonServerModulePublisher {
     }
 
     public void hotUpdate(final IProject project,final IServer server,final File serverHome,final File deployLocation) throws Exception {
-		final List<IProject> list=getProjectListForServer(server);
-		synchronized (list) {
-			if (list.contains(project)){
-				return;
+		HotDeployScheduler.getInstance().schedule(project, server, new Runnable() {
+			public void run() {
+				if (isPublishing(project, server)) {
+					// deploy the latest changes once the publish in progress is done
+					HotDeployScheduler.getInstance().schedule(project, server, this);
+					return;
+				}
+				try {
+					publish(project, server, serverHome, deployLocation);
+				} catch (Exception e) {
+					log.error("Error while hot deploying " + project.getName() + " to " + server.getName(), e);
+				}
 			}
-        }
-		new Thread(new Runnable(){
-//    	Display.getDefault().asyncExec(new Runnable(){
-            public void run() {
-            	try {
-            		synchronized (list) {
-            			if (list.contains(project)){
-            				return;
-            			}
-//            			unpublish(project, server, serverHome, deployLocation);
-            		}
-//	            	Thread.sleep(9000);
-        			publish(project, server, serverHome, deployLocation);
-            	} catch (Exception e) {
-                }
-
-            }
-		}).start();
-//    	});
+		});
     }
 
+	private boolean isPublishing(IProject project, IServer server) {
+		List<IProject> list = getProjectListForServer(server);
+		synchronized (list) {
+			return list.contains(project);
+		}
+	}
+
 	public static Map<IServer,List<IProject>> getInQueueList() {
 		if (inQueueList==null){
 			inQueueList=new HashMap<IServer, List<IProject>>();
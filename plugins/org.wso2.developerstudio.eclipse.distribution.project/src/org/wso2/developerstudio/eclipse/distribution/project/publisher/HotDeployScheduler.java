@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.distribution.project.publisher;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.wst.server.core.IServer;
+import org.wso2.developerstudio.eclipse.distribution.project.Activator;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+
+/**
+ * Schedules the hot deployments of carbon applications. A deployment is started only after the
+ * carbon application has not changed for a quiet period, so that a burst of changes, such as a save
+ * all, results in a single build and upload per carbon application and server. A change arriving
+ * while a deployment is still waiting replaces it. All the deployments run one after the other on a
+ * single thread.
+ *
+ * The quiet period can be set in milliseconds with the
+ * {@value #QUIET_PERIOD_PROPERTY} system property.
+ */
+public class HotDeployScheduler {
+    private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+    public static final String QUIET_PERIOD_PROPERTY = "developerstudio.capp.hotdeploy.quietPeriod";
+    private static final long DEFAULT_QUIET_PERIOD = 1000;
+
+    private static HotDeployScheduler instance;
+
+    private final ScheduledExecutorService executor;
+    private final long quietPeriod;
+    private final Map<DeployKey, DeployTask> pendingDeployments = new HashMap<DeployKey, DeployTask>();
+
+    HotDeployScheduler(long quietPeriod) {
+        this.quietPeriod = quietPeriod;
+        ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "CApp hot deployment");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        executor = scheduledExecutor;
+    }
+
+    public static synchronized HotDeployScheduler getInstance() {
+        if (instance == null) {
+            instance = new HotDeployScheduler(Long.getLong(QUIET_PERIOD_PROPERTY, DEFAULT_QUIET_PERIOD));
+        }
+        return instance;
+    }
+
+    /**
+     * Drops the pending deployments and stops the shared scheduler.
+     */
+    public static synchronized void dispose() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Schedules the deployment of a carbon application to a server after the quiet period. If a
+     * deployment of the same carbon application to the same server is still waiting, it is
+     * cancelled in favour of the new one. A deployment which has already started is left to
+     * finish, and the new one runs after it.
+     *
+     * @param project carbon application project
+     * @param server server to deploy to
+     * @param deployment task which builds and deploys the carbon application
+     */
+    public void schedule(IProject project, IServer server, Runnable deployment) {
+        DeployKey key = new DeployKey(project, server);
+        synchronized (pendingDeployments) {
+            DeployTask pendingDeployment = pendingDeployments.get(key);
+            if (pendingDeployment != null) {
+                pendingDeployment.future.cancel(false);
+            }
+            DeployTask task = new DeployTask(key, deployment);
+            task.future = executor.schedule(task, quietPeriod, TimeUnit.MILLISECONDS);
+            pendingDeployments.put(key, task);
+        }
+    }
+
+    private final class DeployTask implements Runnable {
+        private final DeployKey key;
+        private final Runnable deployment;
+        private Future<?> future;
+
+        private DeployTask(DeployKey key, Runnable deployment) {
+            this.key = key;
+            this.deployment = deployment;
+        }
+
+        public void run() {
+            synchronized (pendingDeployments) {
+                if (pendingDeployments.get(key) == this) {
+                    pendingDeployments.remove(key);
+                }
+            }
+            try {
+                deployment.run();
+            } catch (RuntimeException e) {
+                log.error("Error while hot deploying " + key.project.getName(), e);
+            }
+        }
+    }
+
+    private static final class DeployKey {
+        private final IProject project;
+        private final IServer server;
+
+        private DeployKey(IProject project, IServer server) {
+            this.project = project;
+            this.server = server;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DeployKey)) {
+                return false;
+            }
+            DeployKey other = (DeployKey) obj;
+            return project.equals(other.project) && server.equals(other.server);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * project.hashCode() + server.hashCode();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.distribution.project.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Digests of build inputs, used by the build caches to tell whether an input changed since the
+ * last build.
+ */
+public class ContentDigestUtils {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentDigestUtils() {
+    }
+
+    /**
+     * @return a new digest to be updated with the build inputs
+     * @throws NoSuchAlgorithmException if the digest algorithm is not available
+     */
+    public static MessageDigest createDigest() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(HASH_ALGORITHM);
+    }
+
+    /**
+     * Adds a value to the digest, terminated so that consecutive values cannot run into each other.
+     *
+     * @param digest digest to update
+     * @param value value to add, null is added as "null"
+     */
+    public static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Adds the relative path and the content of a file to the digest. The files of a directory are
+     * added in the order of their names, with their paths relative to the given one.
+     *
+     * @param digest digest to update
+     * @param file file or directory to add
+     * @param relativePath path of the file to add to the digest
+     * @throws IOException if a file could not be read
+     */
+    public static void updateWithContent(MessageDigest digest, File file, String relativePath) throws IOException {
+        update(digest, relativePath);
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                Arrays.sort(children);
+                for (File child : children) {
+                    updateWithContent(digest, child, relativePath + "/" + child.getName());
+                }
+            }
+        } else {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = new FileInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            digest.update((byte) 0);
+        }
+    }
+
+    /**
+     * @return the hex encoding of the given digest
+     */
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
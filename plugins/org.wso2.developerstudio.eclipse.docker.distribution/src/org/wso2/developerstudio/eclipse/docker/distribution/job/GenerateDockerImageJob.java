@@ -118,10 +118,12 @@ public class GenerateDockerImageJob extends Job {
             monitor.subTask(operationText);
             monitor.worked(20);
 
-            // Copy CAR file to the deployment directory
+            // Copy CAR file next to the server pack, so that it is added to the image in its own layer
             try {
+                new File(dockerDirectory, DockerGenConstants.ImageParamDefaults.CAPPS_DIRECTORY).mkdirs();
                 FileUtils.copyFile(getCarbonFile().getAbsolutePath(),
-                        getDeploymentDirectory() + File.separator + getCarbonFile().getName());
+                        dockerDirectory + File.separator + DockerGenConstants.ImageParamDefaults.CAPPS_DIRECTORY
+                                + File.separator + getCarbonFile().getName());
             } catch (Exception e) {
                 log.error(DockerGenConstants.ErrorMessages.DOCKER_IMAGE_CREATION_FAILED_TITLE, e);
                 showMessageBox(DockerGenConstants.ErrorMessages.DOCKER_IMAGE_CREATION_FAILED_TITLE,
@@ -37,6 +37,7 @@ public class MicroIntegratorDockerModel {
     private String username;
     private String password;
     private boolean buildImage;
+    private boolean noCache;
     private String baseImage;
     private Set<Integer> ports;
     private boolean enableDebug;
@@ -75,6 +76,7 @@ public class MicroIntegratorDockerModel {
 
         this.push = false;
         this.buildImage = true;
+        this.noCache = false;
         this.enableDebug = false;
 
         externalFiles = new HashSet<>();
@@ -136,6 +138,17 @@ public class MicroIntegratorDockerModel {
         this.buildImage = buildImage;
     }
 
+    /**
+     * @return true if the image should be built without using the layers cached by the Docker server
+     */
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public void setNoCache(boolean noCache) {
+        this.noCache = noCache;
+    }
+
     public String getBaseImage() {
         return baseImage;
     }
@@ -212,7 +225,7 @@ public class MicroIntegratorDockerModel {
     public String toString() {
         return "DockerModel{" + "name='" + name + '\'' + ", registry='" + registry + '\'' + ", tag='" + tag + '\''
                 + ", push=" + push + ", username='" + username + '\'' + ", password='" + password + '\''
-                + ", buildImage" + "=" + buildImage + ", baseImage='" + baseImage + '\'' + ", ports=" + ports
+                + ", buildImage" + "=" + buildImage + ", noCache=" + noCache + ", baseImage='" + baseImage + '\'' + ", ports=" + ports
                 + ", enableDebug=" + enableDebug + ", debugPort=" + debugPort + ", dockerHost='" + dockerHost + '\''
                 + ", dockerCertPath='" + dockerCertPath + '\'' + ", externalFiles=" + externalFiles + ", serverHome="
                 + serverHome + ", commandArg='" + commandArg + '\'' + '}';
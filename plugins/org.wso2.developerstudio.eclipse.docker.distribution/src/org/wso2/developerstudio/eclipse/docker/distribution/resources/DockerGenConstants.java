@@ -45,6 +45,8 @@ public class DockerGenConstants {
         public static final String DOCKER_FILE_NAME = "Dockerfile";
         public static final String INIT_FILE_PATH = "resources/init.sh";
         public static final String INIT_FILE_NAME = "init.sh";
+        public static final String CAPPS_DIRECTORY = "carbonapps";
+        public static final String CAPP_FILE_EXTENSION = ".car";
         public static final Set<Integer> ports = new HashSet<>(Arrays.asList(8290, 8253));
     }
 
@@ -137,6 +139,8 @@ public class DockerGenConstants {
     public static class CopyCommands {
         public static final String COPY_SERVER_PACK_CMD = "--chown=wso2ei:wso2 ${FILES}/${WSO2_SERVER_PACK} ${WSO2_SERVER_HOME}";
         public static final String COPY_INIT_FILE_CMD = "--chown=wso2ei:wso2 init.sh ${USER_HOME}/";
+        public static final String COPY_CAPP_PREFIX = "--chown=wso2ei:wso2 " + ImageParamDefaults.CAPPS_DIRECTORY + "/";
+        public static final String CAPP_DESTINATION = "${WSO2_SERVER_HOME}/repository/deployment/server/carbonapps/";
     }
 
 }
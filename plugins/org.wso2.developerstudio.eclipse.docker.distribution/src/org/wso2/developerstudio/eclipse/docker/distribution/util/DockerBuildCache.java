@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+
+ *      http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.docker.distribution.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.wso2.developerstudio.eclipse.distribution.project.util.ContentDigestUtils;
+import org.wso2.developerstudio.eclipse.docker.distribution.Activator;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+
+/**
+ * Remembers the Docker images built from the generated build contexts. Each image is recorded
+ * against a digest of its build context, so that generating an image again from an unchanged
+ * context can reuse the existing image instead of building it.
+ */
+public class DockerBuildCache {
+
+    private static final String INDEX_FILE = "docker-build-cache.properties";
+    private static final String DIGEST_SEPARATOR = ":";
+
+    private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+    private static DockerBuildCache instance;
+
+    private final Properties index = new Properties();
+
+    private DockerBuildCache() {
+        File indexFile = getIndexFile();
+        if (indexFile != null && indexFile.exists()) {
+            try (InputStream in = new FileInputStream(indexFile)) {
+                index.load(in);
+            } catch (IOException e) {
+                log.warn("Could not read the Docker build cache", e);
+                index.clear();
+            }
+        }
+    }
+
+    public static synchronized DockerBuildCache getInstance() {
+        if (instance == null) {
+            instance = new DockerBuildCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Computes the digest of a build context from the relative paths and the content of all its
+     * files.
+     *
+     * @param contextDirectory Directory containing the Dockerfile and the files it copies.
+     * @return Hex encoded digest of the build context.
+     * @throws IOException If a file of the build context could not be read.
+     */
+    public static String computeContextDigest(File contextDirectory) throws IOException {
+        try {
+            MessageDigest digest = ContentDigestUtils.createDigest();
+            File[] children = contextDirectory.listFiles();
+            if (children != null) {
+                Arrays.sort(children);
+                for (File child : children) {
+                    ContentDigestUtils.updateWithContent(digest, child, child.getName());
+                }
+            }
+            return ContentDigestUtils.toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Could not compute the Docker build context digest", e);
+        }
+    }
+
+    /**
+     * Returns the image last built with the given name from a build context with the given digest.
+     *
+     * @param imageName Image name with the tag.
+     * @param contextDigest Digest of the build context.
+     * @return ID of the image or null if the image was built from a different context.
+     */
+    public synchronized String getImageId(String imageName, String contextDigest) {
+        String entry = index.getProperty(imageName);
+        if (entry == null || !entry.startsWith(contextDigest + DIGEST_SEPARATOR)) {
+            return null;
+        }
+        return entry.substring(contextDigest.length() + DIGEST_SEPARATOR.length());
+    }
+
+    /**
+     * Records the image built with the given name from a build context with the given digest.
+     *
+     * @param imageName Image name with the tag.
+     * @param contextDigest Digest of the build context.
+     * @param imageId ID of the built image, or null to forget the image.
+     */
+    public synchronized void update(String imageName, String contextDigest, String imageId) {
+        if (imageId == null) {
+            index.remove(imageName);
+        } else {
+            index.setProperty(imageName, contextDigest + DIGEST_SEPARATOR + imageId);
+        }
+        File indexFile = getIndexFile();
+        if (indexFile == null) {
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(indexFile)) {
+            index.store(out, null);
+        } catch (IOException e) {
+            log.warn("Could not save the Docker build cache", e);
+        }
+    }
+
+    private static File getIndexFile() {
+        Activator activator = Activator.getDefault();
+        if (activator == null) {
+            return null;
+        }
+        return activator.getStateLocation().append(INDEX_FILE).toFile();
+    }
+}
@@ -25,6 +25,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.ws.rs.ext.RuntimeDelegate;
@@ -33,6 +37,7 @@ import org.glassfish.jersey.internal.RuntimeDelegateImpl;
 import org.wso2.developerstudio.eclipse.docker.distribution.Activator;
 import org.wso2.developerstudio.eclipse.docker.distribution.exceptions.DockerConnectionException;
 import org.wso2.developerstudio.eclipse.docker.distribution.exceptions.DockerImageGenerationException;
+import org.wso2.developerstudio.eclipse.docker.distribution.model.CopyFileModel;
 import org.wso2.developerstudio.eclipse.docker.distribution.model.MicroIntegratorDockerModel;
 import org.wso2.developerstudio.eclipse.docker.distribution.resources.DockerGenConstants;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
@@ -77,6 +82,20 @@ public class DockerImageGenerator {
      * @return Dockerfile content as a string.
      */
     public String generateDockerFileContent() {
+        return generateDockerFileContent(Collections.<String> emptyList());
+    }
+
+    /**
+     * Generates the Dockerfile content. The layers are ordered from the least to the most frequently
+     * changing ones, the server pack first, then the configuration files and finally a layer per
+     * carbon application, so that the Docker server can reuse the cached layers of whatever did not
+     * change since the previous build.
+     * 
+     * @param cappFileNames File names of the carbon applications in the carbonapps directory of the
+     *            build context.
+     * @return Dockerfile content as a string.
+     */
+    public String generateDockerFileContent(List<String> cappFileNames) {
         String dockerBase = DockerGenConstants.ImageParamDefaults.DOCKER_FILE_HEADING + "\n\n"
                 + DockerGenConstants.DockerFileCommands.FROM + SPACE + dockerModel.getBaseImage() + "\n"
                 + DockerGenConstants.DockerFileCommands.LABEL + " "
@@ -137,18 +156,28 @@ public class DockerImageGenerator {
         stringBuilder.append(DockerGenConstants.DockerFileCommands.COPY).append(SPACE)
                 .append(DockerGenConstants.CopyCommands.COPY_INIT_FILE_CMD).append("\n");
 
-        dockerModel.getExternalFiles().forEach(file -> {
-            // Extract the source filename relative to docker folder.
-            String sourceFileName = String.valueOf(Paths.get(file.getSource()).getFileName());
-            stringBuilder.append(DockerGenConstants.DockerFileCommands.COPY).append(SPACE).append(sourceFileName)
-                    .append(SPACE).append(file.getDestination()).append("\n");
-        });
-        stringBuilder.append("\n");
-
         // Change permission of the init script
         stringBuilder.append(DockerGenConstants.DockerFileCommands.RUN).append(SPACE)
                 .append(DockerGenConstants.RunCommands.CHMOD_INIT_FILE_CMD).append("\n\n");
 
+        // Copy configuration files, sorted to keep the layers stable between builds
+        dockerModel.getExternalFiles().stream().sorted(Comparator.comparing(CopyFileModel::getSource))
+                .forEach(file -> {
+                    // Extract the source filename relative to docker folder.
+                    String sourceFileName = String.valueOf(Paths.get(file.getSource()).getFileName());
+                    stringBuilder.append(DockerGenConstants.DockerFileCommands.COPY).append(SPACE)
+                            .append(sourceFileName).append(SPACE).append(file.getDestination()).append("\n");
+                });
+        stringBuilder.append("\n");
+
+        // Copy each carbon application in its own layer
+        cappFileNames.forEach(cappFileName -> stringBuilder.append(DockerGenConstants.DockerFileCommands.COPY)
+                .append(SPACE).append(DockerGenConstants.CopyCommands.COPY_CAPP_PREFIX).append(cappFileName)
+                .append(SPACE).append(DockerGenConstants.CopyCommands.CAPP_DESTINATION).append("\n"));
+        if (!cappFileNames.isEmpty()) {
+            stringBuilder.append("\n");
+        }
+
         // Set user and work directory
         stringBuilder.append(DockerGenConstants.DockerFileCommands.USER).append(SPACE)
                 .append(DockerGenConstants.EnvVariables.USER_ID_VAR).append("\n");
@@ -191,7 +220,7 @@ public class DockerImageGenerator {
     public String generateDockerImage(String dockerDirectory, String outputDir)
             throws IOException, InterruptedException, DockerImageGenerationException, DockerConnectionException {
         // Write docker file
-        String dockerFileContent = generateDockerFileContent();
+        String dockerFileContent = generateDockerFileContent(getCAppFileNames(dockerDirectory));
         DockerGeneratorUtils.getInstance().writeToFile(dockerFileContent,
                 dockerDirectory + File.separator + DockerGenConstants.ImageParamDefaults.DOCKER_FILE_NAME);
 
@@ -199,6 +228,28 @@ public class DockerImageGenerator {
 
     }
 
+    /**
+     * Lists the carbon applications in the carbonapps directory of the build context.
+     * 
+     * @param dockerDirectory Directory which contains the Dockerfile.
+     * @return Sorted file names of the carbon applications.
+     */
+    private List<String> getCAppFileNames(String dockerDirectory) {
+        List<String> cappFileNames = new ArrayList<>();
+        File[] cappFiles = new File(dockerDirectory, DockerGenConstants.ImageParamDefaults.CAPPS_DIRECTORY)
+                .listFiles();
+        if (cappFiles != null) {
+            for (File cappFile : cappFiles) {
+                if (cappFile.isFile()
+                        && cappFile.getName().endsWith(DockerGenConstants.ImageParamDefaults.CAPP_FILE_EXTENSION)) {
+                    cappFileNames.add(cappFile.getName());
+                }
+            }
+        }
+        Collections.sort(cappFileNames);
+        return cappFileNames;
+    }
+
     /**
      * Builds the Docker image based on a given Docker model.
      * 
@@ -217,7 +268,7 @@ public class DockerImageGenerator {
             throws InterruptedException, IOException, DockerImageGenerationException, DockerConnectionException {
 
         // Creating the docker client instance
-        DockerClient docker = DefaultDockerClient.builder().uri(dockerModel.getDockerHost()).build();
+        DockerClient docker = createDockerClient(dockerModel);
 
         // Test connection to Docker server
         try {
@@ -241,6 +292,30 @@ public class DockerImageGenerator {
 					DockerGenConstants.ImageParamDefaults.TAG_SEPARATOR + TAG_LATEST;
 		}
 
+        // Reuse the image built last time if the build context did not change since
+        DockerBuildCache buildCache = DockerBuildCache.getInstance();
+        String contextDigest = DockerBuildCache.computeContextDigest(new File(dockerDir));
+        if (!dockerModel.isNoCache()) {
+            String cachedImageId = buildCache.getImageId(imageNameWithTag, contextDigest);
+            if (cachedImageId != null && imageExists(docker, cachedImageId)) {
+                log.info(DockerGenConstants.SuccessMessages.DOCKER_IMAGE_GEN_SUCCESS_MESSAGE + cachedImageId);
+                try {
+                    bundleImage(docker, cachedImageId, outputDirectory);
+                } catch (DockerException e) {
+                    log.error(DockerGenConstants.ErrorMessages.IMAGE_BUNDLE_CREATION_FAILED_MSG, e);
+                    throw new DockerImageGenerationException(
+                            DockerGenConstants.ErrorMessages.IMAGE_BUNDLE_CREATION_FAILED_MSG, e);
+                }
+                return cachedImageId;
+            }
+        }
+
+        List<DockerClient.BuildParam> buildParams = new ArrayList<>();
+        buildParams.add(DockerClient.BuildParam.forceRm());
+        if (dockerModel.isNoCache()) {
+            buildParams.add(DockerClient.BuildParam.noCache());
+        }
+
         try {
             // build the image
             returnedImageId = docker.build(Paths.get(dockerDir), imageNameWithTag, new ProgressHandler() {
@@ -264,16 +339,37 @@ public class DockerImageGenerator {
                     }
 
                 }
-            }, DockerClient.BuildParam.noCache(), DockerClient.BuildParam.forceRm());
+            }, buildParams.toArray(new DockerClient.BuildParam[buildParams.size()]));
         } catch (DockerException e2) {
             log.error(DockerGenConstants.ErrorMessages.IMAGE_BUNDLE_CREATION_FAILED_MSG, e2);
             throw new DockerImageGenerationException(DockerGenConstants.ErrorMessages.IMAGE_BUNDLE_CREATION_FAILED_MSG,
                     e2);
         }
+        buildCache.update(imageNameWithTag, contextDigest, returnedImageId);
 
         return returnedImageId;
     }
 
+    /**
+     * Creates the client of the Docker server the image is built on.
+     * 
+     * @param dockerModel The docker model instance.
+     * @return Docker client connecting to the Docker host of the model.
+     */
+    DockerClient createDockerClient(MicroIntegratorDockerModel dockerModel) {
+        return DefaultDockerClient.builder().uri(dockerModel.getDockerHost()).build();
+    }
+
+    private boolean imageExists(DockerClient docker, String imageId) throws InterruptedException {
+        try {
+            docker.inspectImage(imageId);
+            return true;
+        } catch (DockerException e) {
+            // The image was removed from the Docker server since it was built
+            return false;
+        }
+    }
+
     private void bundleImage(DockerClient docker, String imageId, String outputDirectory)
             throws IOException, InterruptedException, DockerException {
         final File destinationDirectory = new File(outputDirectory);
@@ -3,6 +3,7 @@ package org.wso2.developerstudio.eclipse.project.extensions;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
+import org.wso2.developerstudio.eclipse.project.extensions.handlers.ProjectNatureCatalog;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -35,6 +36,7 @@ public class Activator extends AbstractUIPlugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		ProjectNatureCatalog.dispose();
 		plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.project.extensions.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IRegistryEventListener;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * Catalog of the WSO2 project natures, built once from the nature provider extensions and the
+ * natures known to the platform, and rebuilt only when nature provider extensions are added or
+ * removed. The nature ids of each project are cached as well until the project description
+ * changes, so that checking the type of a project does not go to the extension registry or the
+ * project description every time.
+ *
+ * Each cache has a generation which is advanced on every invalidation, and a value read before an
+ * invalidation is returned to its caller but not stored, so the caches never keep a stale value.
+ */
+public class ProjectNatureCatalog {
+
+	private static ProjectNatureCatalog instance;
+
+	private volatile Natures natures;
+	private final AtomicInteger naturesGeneration = new AtomicInteger();
+	private final Map<IProject, Set<String>> projectNatures = new ConcurrentHashMap<IProject, Set<String>>();
+	private final AtomicInteger projectNaturesGeneration = new AtomicInteger();
+
+	private final IRegistryEventListener extensionListener = new IRegistryEventListener() {
+
+		public void added(IExtension[] extensions) {
+			invalidateNatures();
+		}
+
+		public void removed(IExtension[] extensions) {
+			invalidateNatures();
+		}
+
+		public void added(IExtensionPoint[] extensionPoints) {
+			invalidateNatures();
+		}
+
+		public void removed(IExtensionPoint[] extensionPoints) {
+			invalidateNatures();
+		}
+	};
+
+	private final IResourceChangeListener projectListener = new IResourceChangeListener() {
+
+		public void resourceChanged(IResourceChangeEvent event) {
+			if (event.getResource() instanceof IProject) {
+				// project is being closed or deleted
+				invalidateProject((IProject) event.getResource());
+				return;
+			}
+			IResourceDelta delta = event.getDelta();
+			if (delta == null) {
+				return;
+			}
+			for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+				if (isDescriptionChanged(projectDelta)) {
+					invalidateProject((IProject) projectDelta.getResource());
+				}
+			}
+		}
+	};
+
+	ProjectNatureCatalog() {
+	}
+
+	/**
+	 * Returns the shared catalog.
+	 *
+	 * @return the project nature catalog
+	 */
+	public static synchronized ProjectNatureCatalog getInstance() {
+		if (instance == null) {
+			instance = new ProjectNatureCatalog();
+			instance.registerListeners();
+		}
+		return instance;
+	}
+
+	/**
+	 * Stops listening to extension and workspace changes and drops the shared catalog.
+	 */
+	public static synchronized void dispose() {
+		if (instance != null) {
+			Platform.getExtensionRegistry().removeListener(instance.extensionListener);
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(instance.projectListener);
+			instance = null;
+		}
+	}
+
+	/**
+	 * @return all the WSO2 project natures
+	 */
+	public List<WSO2ProjectNature> getAllProjectNatures() {
+		return getNatures().allNatures;
+	}
+
+	/**
+	 * @return the WSO2 project natures of projects which can hold multiple artifacts
+	 */
+	public List<WSO2ProjectNature> getMultipleArtifactProjectNatures() {
+		return getNatures().multipleArtifactNatures;
+	}
+
+	/**
+	 * @param project
+	 * @return true if the project has any of the WSO2 project natures
+	 * @throws CoreException if the project is not accessible
+	 */
+	public boolean isWSO2ProjectType(IProject project) throws CoreException {
+		return hasAnyNature(project, getNatures().natureIds);
+	}
+
+	/**
+	 * @param project
+	 * @return true if the project has a WSO2 project nature which can be packed in a carbon application
+	 * @throws CoreException if the project is not accessible
+	 */
+	public boolean isCappSupported(IProject project) throws CoreException {
+		return hasAnyNature(project, getNatures().cappSupportedNatureIds);
+	}
+
+	/**
+	 * @param project
+	 * @return true if the project has a WSO2 project nature which can hold multiple artifacts
+	 * @throws CoreException if the project is not accessible
+	 */
+	public boolean isProjectMultipleArtifact(IProject project) throws CoreException {
+		return hasAnyNature(project, getNatures().multipleArtifactNatureIds);
+	}
+
+	private boolean hasAnyNature(IProject project, Set<String> natureIds) throws CoreException {
+		for (String natureId : getNatureIds(project)) {
+			if (natureIds.contains(natureId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Set<String> getNatureIds(IProject project) throws CoreException {
+		Set<String> natureIds = projectNatures.get(project);
+		if (natureIds == null) {
+			int generation = projectNaturesGeneration.get();
+			natureIds = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(readNatureIds(project))));
+			synchronized (projectNatures) {
+				if (generation == projectNaturesGeneration.get()) {
+					projectNatures.put(project, natureIds);
+				}
+			}
+		}
+		return natureIds;
+	}
+
+	private Natures getNatures() {
+		Natures currentNatures = natures;
+		if (currentNatures == null) {
+			int generation = naturesGeneration.get();
+			currentNatures = new Natures(readAllProjectNatures());
+			synchronized (this) {
+				if (generation == naturesGeneration.get()) {
+					natures = currentNatures;
+				}
+			}
+		}
+		return currentNatures;
+	}
+
+	/**
+	 * Forgets the known natures, they are read again on next use.
+	 */
+	synchronized void invalidateNatures() {
+		naturesGeneration.incrementAndGet();
+		natures = null;
+	}
+
+	/**
+	 * Forgets the nature ids of the given project, they are read again on next use.
+	 *
+	 * @param project
+	 */
+	void invalidateProject(IProject project) {
+		synchronized (projectNatures) {
+			projectNaturesGeneration.incrementAndGet();
+			projectNatures.remove(project);
+		}
+	}
+
+	List<WSO2ProjectNature> readAllProjectNatures() {
+		return new ProjectNatureListProvider().readAllProjectNatures();
+	}
+
+	String[] readNatureIds(IProject project) throws CoreException {
+		return project.getDescription().getNatureIds();
+	}
+
+	private void registerListeners() {
+		Platform.getExtensionRegistry().addListener(extensionListener, ProjectNatureListProvider.EXTENSION_ID);
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(projectListener,
+				IResourceChangeEvent.POST_CHANGE | IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+	}
+
+	private static boolean isDescriptionChanged(IResourceDelta projectDelta) {
+		if (projectDelta.getKind() != IResourceDelta.CHANGED) {
+			return true;
+		}
+		if ((projectDelta.getFlags() & (IResourceDelta.DESCRIPTION | IResourceDelta.OPEN)) != 0) {
+			return true;
+		}
+		return projectDelta.findMember(new Path(IProjectDescription.DESCRIPTION_FILE_NAME)) != null;
+	}
+
+	/**
+	 * Immutable snapshot of the known natures, indexed by nature id.
+	 */
+	private static class Natures {
+		private final List<WSO2ProjectNature> allNatures;
+		private final List<WSO2ProjectNature> multipleArtifactNatures;
+		private final Set<String> natureIds = new HashSet<String>();
+		private final Set<String> cappSupportedNatureIds = new HashSet<String>();
+		private final Set<String> multipleArtifactNatureIds = new HashSet<String>();
+
+		private Natures(List<WSO2ProjectNature> projectNatures) {
+			List<WSO2ProjectNature> multipleArtifacts = new ArrayList<WSO2ProjectNature>();
+			for (WSO2ProjectNature projectNature : projectNatures) {
+				natureIds.add(projectNature.getProjectNature());
+				if (projectNature.isCappSupported()) {
+					cappSupportedNatureIds.add(projectNature.getProjectNature());
+				}
+				if (projectNature.isMultipleArtifactProject()) {
+					multipleArtifactNatureIds.add(projectNature.getProjectNature());
+					multipleArtifacts.add(projectNature);
+				}
+			}
+			allNatures = Collections.unmodifiableList(projectNatures);
+			multipleArtifactNatures = Collections.unmodifiableList(multipleArtifacts);
+		}
+	}
+}
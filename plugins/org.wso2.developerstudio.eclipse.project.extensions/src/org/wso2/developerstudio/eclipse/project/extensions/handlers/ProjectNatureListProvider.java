@@ -30,25 +30,26 @@ import org.wso2.developerstudio.eclipse.platform.core.utils.DeveloperStudioProvi
  */
 public class ProjectNatureListProvider {
 
-	private static final String EXTENSION_ID = "org.wso2.developerstudio.project.nature.provider";
+	static final String EXTENSION_ID = "org.wso2.developerstudio.project.nature.provider";
 	private static final String isCappSupported = "iscappsupported";
 	String isMultipleArtifcat = "ismultipleartifact";
 	String projectNature = "projectnature";
 
 	public List<WSO2ProjectNature> multipleArtifactProjectNatures() {
-		ArrayList<WSO2ProjectNature> multipleArtifactProjects = new ArrayList<WSO2ProjectNature>();
-		List<WSO2ProjectNature> allprojectNatures = getAllProjectNatures();
-		if (allprojectNatures != null && !allprojectNatures.isEmpty()) {
-			for (WSO2ProjectNature wso2ProjectNature : allprojectNatures) {
-				if (wso2ProjectNature.isMultipleArtifactProject) {
-					multipleArtifactProjects.add(wso2ProjectNature);
-				}
-			}
-		}
-		return multipleArtifactProjects;
+		return new ArrayList<WSO2ProjectNature>(ProjectNatureCatalog.getInstance().getMultipleArtifactProjectNatures());
 	}
 
 	public List<WSO2ProjectNature> getAllProjectNatures() {
+		return new ArrayList<WSO2ProjectNature>(ProjectNatureCatalog.getInstance().getAllProjectNatures());
+	}
+
+	/**
+	 * read the project natures from the nature provider extensions and the platform constants,
+	 * used by the {@link ProjectNatureCatalog} to build its index
+	 * 
+	 * @return
+	 */
+	List<WSO2ProjectNature> readAllProjectNatures() {
 		List<WSO2ProjectNature> allprojectNatures = new ArrayList<WSO2ProjectNature>();
 		DeveloperStudioProviderUtils devStudioUtils = new DeveloperStudioProviderUtils();
 		IConfigurationElement[] elements = devStudioUtils.getExtensionPointmembers(EXTENSION_ID);
@@ -99,43 +100,19 @@ public class ProjectNatureListProvider {
 	}
 
 	public boolean isWSO2ProjectType(IProject project) throws CoreException {
-		List<WSO2ProjectNature> wso2ProjectNatures = getAllProjectNatures();
-		if (wso2ProjectNatures != null && !wso2ProjectNatures.isEmpty()) {
-			for (WSO2ProjectNature projectNature : wso2ProjectNatures) {
-				if (project.hasNature(projectNature.getProjectNature())) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return ProjectNatureCatalog.getInstance().isWSO2ProjectType(project);
 	}
 
 	public boolean isCappSupported(IProject project) throws CoreException {
-		List<WSO2ProjectNature> wso2ProjectNatures = getAllProjectNatures();
-		if (wso2ProjectNatures != null && !wso2ProjectNatures.isEmpty()) {
-			for (WSO2ProjectNature projectNature : wso2ProjectNatures) {
-				if (projectNature.isCappSupported && project.hasNature(projectNature.getProjectNature())) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return ProjectNatureCatalog.getInstance().isCappSupported(project);
 	}
 
 	public boolean isProjectMultipleArtifact(IProject project) {
-		List<WSO2ProjectNature> wso2ProjectNatures = multipleArtifactProjectNatures();
-		if (wso2ProjectNatures != null && !wso2ProjectNatures.isEmpty()) {
-			for (WSO2ProjectNature projectNature : wso2ProjectNatures) {
-				try {
-					if (project.hasNature(projectNature.getProjectNature())) {
-						return true;
-					}
-				} catch (CoreException e) {
-					return false;
-				}
-			}
+		try {
+			return ProjectNatureCatalog.getInstance().isProjectMultipleArtifact(project);
+		} catch (CoreException e) {
+			return false;
 		}
-		return false;
 	}
 
 }
@@ -33,6 +33,9 @@ import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
+import org.wso2.developerstudio.eclipse.registry.base.heartbeat.RegistryHeartBeatTester;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RegistryTransport;
 import org.wso2.developerstudio.eclipse.utils.file.FileUtils;
 
 /**
@@ -78,6 +81,9 @@ public class Activator extends AbstractUIPlugin {
 	 * BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		RegistryTransport.closeAllTransports();
+		RegistryHeartBeatTester.dispose();
+		ResourceDetailsLoader.dispose();
 		plugin = null;
 		super.stop(context);
 	}
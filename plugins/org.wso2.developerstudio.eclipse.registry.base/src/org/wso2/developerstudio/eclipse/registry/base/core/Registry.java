@@ -14,18 +14,22 @@
 package org.wso2.developerstudio.eclipse.registry.base.core;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 
@@ -77,9 +81,13 @@ public class Registry {
 	private static final String PROVISIONING_ADMIN_SERVICE_URL = "/services/ProvisioningAdminService";
 	private static final String REMOTE_REGISTRY_URL = "/registry";
 	private static final String WS_REGISTRY_URL = "/services/";
+	private static final int CONTENT_BUFFER_SIZE = 8192;
 
 	private String[] rootCollection = null;
-	private org.wso2.carbon.registry.core.Registry remregistry;
+	private volatile org.wso2.carbon.registry.core.Registry remregistry;
+	private final Object registryLock = new Object();
+	private final ThreadLocal<org.wso2.carbon.registry.core.Registry> usedRegistry =
+			new ThreadLocal<org.wso2.carbon.registry.core.Registry>();
 	private String serverUrl;
 	private String userName;
 	private String passwd;
@@ -161,18 +169,19 @@ public class Registry {
 					.getServiceContext();
 			String sessionCookie = (String) serviceContext.getProperty(HTTPConstants.COOKIE_STRING);
 
-			remregistry = new WSRegistryServiceClient(serverUrl + WS_REGISTRY_URL, sessionCookie);
+			WSRegistryServiceClient registry = new WSRegistryServiceClient(serverUrl + WS_REGISTRY_URL, sessionCookie);
 			/*
 			 * calling the remote registry to ensure that the WS feature is
 			 * available in registry this will throw an exception if WS feature
 			 * is not available which is handled in the calling method
 			 */
-			remregistry.get(_SYSTEM_GOVERNANCE);
-			SSLUtils.setSSLProtocolHandler(((WSRegistryServiceClient) remregistry).getStub());
+			registry.get(_SYSTEM_GOVERNANCE);
+			SSLUtils.setSSLProtocolHandler(registry.getStub());
 
 			if (propertyFile.exists()) {
-				propertyFile.setSessionProperty(new QualifiedName("", url.toString()), remregistry);
+				propertyFile.setSessionProperty(new QualifiedName("", url.toString()), registry);
 			}
+			return registry;
 
 		} catch (RegistryException e) {
 			throw new UnknownRegistryException(e);
@@ -181,7 +190,6 @@ public class Registry {
 		} catch (Exception e) {
 			throw new UnknownRegistryException(e);
 		}
-		return remregistry;
 	}
 
 	/**
@@ -193,6 +201,7 @@ public class Registry {
 	 */
 	private org.wso2.carbon.registry.core.Registry getRemoteRegistry()
 			throws InvalidRegistryURLException, UnknownRegistryException {
+		org.wso2.carbon.registry.core.Registry registry = null;
 		try {
 			URL url = new URL(serverUrl + REMOTE_REGISTRY_URL);
 			if (propertyFile.exists()) {
@@ -202,9 +211,9 @@ public class Registry {
 				}
 			}
 //			registryInit();
-			remregistry = new RemoteRegistry(url, userName, passwd);
+			registry = new RemoteRegistry(url, userName, passwd);
 			if (propertyFile.exists()) {
-				propertyFile.setSessionProperty(new QualifiedName("", url.toString()), remregistry);
+				propertyFile.setSessionProperty(new QualifiedName("", url.toString()), registry);
 			}
 
 		} catch (MalformedURLException e) {
@@ -216,23 +225,38 @@ public class Registry {
 		} catch (Exception e) {
 			log.error("Remote registry init has failed " + e.getMessage(), e);
 		}
-		return remregistry;
+		return registry;
 	}
 
+	/**
+	 * get the registry instance, creating it on first use. The instance is shared by all the
+	 * threads using this registry, only one of them creates it
+	 * 
+	 * @return
+	 * @throws InvalidRegistryURLException
+	 */
 	public org.wso2.carbon.registry.core.Registry getRegistry() throws InvalidRegistryURLException {
-		if (remregistry == null) {
-			try {
-				remregistry = getWSRegistryServiceClient();
-			} catch (UnknownRegistryException e) {
-				log.warn("WS Registry feature not available in server, accessing remote server from abdera client", e);
-				try {
-					remregistry = getRemoteRegistry();
-				} catch (UnknownRegistryException e1) {
-					throw new InvalidRegistryURLException(e);
+		org.wso2.carbon.registry.core.Registry registry = remregistry;
+		if (registry == null) {
+			synchronized (registryLock) {
+				registry = remregistry;
+				if (registry == null) {
+					try {
+						registry = getWSRegistryServiceClient();
+					} catch (UnknownRegistryException e) {
+						log.warn("WS Registry feature not available in server, accessing remote server from abdera client", e);
+						try {
+							registry = getRemoteRegistry();
+						} catch (UnknownRegistryException e1) {
+							throw new InvalidRegistryURLException(e);
+						}
+					}
+					remregistry = registry;
 				}
 			}
 		}
-		return remregistry;
+		usedRegistry.set(registry);
+		return registry;
 	}
 
 	/**
@@ -241,7 +265,25 @@ public class Registry {
 	 * @param remoteRegistry
 	 */
 	public void setRegistry(org.wso2.carbon.registry.core.Registry remoteRegistry) {
-		remregistry = remoteRegistry;
+		synchronized (registryLock) {
+			remregistry = remoteRegistry;
+		}
+	}
+
+	/**
+	 * drop the registry instance the calling thread got from {@link #getRegistry()} after a call
+	 * on it failed, so that the next call creates a new one. The instance is left alone if another
+	 * thread has already replaced it, so that threads retrying at the same time do not drop each
+	 * other's new instance
+	 */
+	void resetRegistry() {
+		org.wso2.carbon.registry.core.Registry failedRegistry = usedRegistry.get();
+		synchronized (registryLock) {
+			if (remregistry == failedRegistry) {
+				remregistry = null;
+				clearSessionProperties();
+			}
+		}
 	}
 
 	public String getServerUrl() {
@@ -313,8 +355,7 @@ public class Registry {
 			resource = getRegistry().get(collectionPath);
 			return resource;
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				resource = getRegistry().get(collectionPath);
 				return resource;
@@ -324,6 +365,31 @@ public class Registry {
 		}
 	}
 
+	/**
+	 * get a collection with a page of its children, so that large collections
+	 * need not be fetched in full
+	 * 
+	 * @param collectionPath
+	 * @param start index of the first child to fetch
+	 * @param pageSize maximum number of children to fetch
+	 * @return
+	 * @throws InvalidRegistryURLException
+	 * @throws UnknownRegistryException
+	 */
+	public Collection getCollectionPage(String collectionPath, int start, int pageSize)
+			throws InvalidRegistryURLException, UnknownRegistryException {
+		try {
+			return getRegistry().get(collectionPath, start, pageSize);
+		} catch (RegistryException e) {
+			resetRegistry();
+			try {
+				return getRegistry().get(collectionPath, start, pageSize);
+			} catch (RegistryException e1) {
+				throw new UnknownRegistryException(e1);
+			}
+		}
+	}
+
 	public String[] getRootCollection() {
 		return rootCollection;
 	}
@@ -387,14 +453,12 @@ public class Registry {
 		} else {
 			extension = getExtension(resource);
 		}
-		// get the content of the resource
-		byte[] content = getResourceContent(resource);
 		File tempFile;
 
 		// if the resource content is taking for the first time, save the
 		// content to the temp file
 		if (filePath == null) {
-			File tempDir = File.createTempFile("test", "test");
+			File tempDir = File.createTempFile("registry-", "-content");
 			tempDir.delete();
 			tempDir.mkdirs();
 
@@ -405,26 +469,54 @@ public class Registry {
 			}
 		} else
 			tempFile = new File(filePath);
-		// write the content in to the temp file
+		// stream the content in to the temp file
 		if (tempFile.exists()) {
-			FileOutputStream fos = new FileOutputStream(tempFile);
-			fos.write(content);
+			InputStream in = getResourceContentStream(resource);
+			try {
+				OutputStream out = new FileOutputStream(tempFile);
+				try {
+					copyContent(in, out);
+				} finally {
+					out.close();
+				}
+			} finally {
+				in.close();
+			}
 		}
 
 		return tempFile;
 
 	}
 
-	private byte[] getResourceContent(Resource resource)
-			throws UnknownRegistryException, RegistryContentRetrieveException {
+	/**
+	 * Opens the content of a registry resource as a stream, so that large
+	 * resources can be read without holding the whole content in memory.
+	 * The caller is responsible for closing the stream.
+	 * 
+	 * @param resourcePath
+	 * @return content stream of the resource
+	 * @throws InvalidRegistryURLException
+	 * @throws UnknownRegistryException
+	 */
+	public InputStream getContentStream(String resourcePath) throws InvalidRegistryURLException,
+			UnknownRegistryException {
+		return getResourceContentStream(getResourcesPerCollection(resourcePath));
+	}
+
+	private InputStream getResourceContentStream(Resource resource) throws UnknownRegistryException {
 		try {
-			Object resContent = resource.getContent();
-			byte[] content = getResourceContent(resContent);
-			return content;
+			InputStream contentStream = resource.getContentStream();
+			return contentStream == null ? new ByteArrayInputStream(new byte[0]) : contentStream;
 		} catch (RegistryException e) {
 			throw new UnknownRegistryException(e);
-		} catch (IOException e) {
-			throw new RegistryContentRetrieveException(e);
+		}
+	}
+
+	private static void copyContent(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[CONTENT_BUFFER_SIZE];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
 		}
 	}
 
@@ -551,77 +643,28 @@ public class Registry {
 		return path;
 	}
 	/**
+	 * Uploads a local folder with all its content to the registry. The
+	 * files are uploaded in parallel where the registry client allows it,
+	 * and failed requests are retried.
 	 * 
-	 * @param path
-	 * @param registryPath
-	 * @param name
-	 * @param resourceUploadListener
-	 * @throws UnknownRegistryException
+	 * @param path local folder to upload
+	 * @param registryPath path of the parent collection
+	 * @param name name of the new collection, or null to use the folder name
+	 * @param resourceUploadListener listener notified as each file is uploaded
+	 * @return the files which could not be uploaded
 	 * @throws InvalidRegistryURLException
-	 * @throws MalformedURLException
-	 * @throws RegistryException
-	 * @throws FileNotFoundException
 	 */
-	public void addFolderToRegistry(File path, String registryPath, String name,
+	public List<File> addFolderToRegistry(File path, String registryPath, String name,
 			IResourceUploadListener resourceUploadListener) throws InvalidRegistryURLException {
+		RegistryFolderImporter importer = new RegistryFolderImporter(this, resourceUploadListener);
 		try {
-			org.wso2.carbon.registry.core.Registry remote_reg = getRegistry();
-			String selectedPath = registryPath;
-			selectedPath = selectedPath.endsWith("/") ? selectedPath : selectedPath + "/";
-			String description = "Added by WSO2 Developer Studio";
-			String mediaType = "";
-			String collectionName = selectedPath + (name == null ? path.getName() : name);
-
-			addRegistryCollection(remote_reg, description, mediaType, collectionName);
-			File[] files = path.listFiles();
-			for (File file : files) {
-				if (file.exists()) {
-					try {
-						if (file.isDirectory())
-							addFolderToRegistry(file, collectionName, null, resourceUploadListener);
-						else {
-							resourceUploadListener.uploadFileStarting(file);
-							addFileToRegistry(file, collectionName, null);
-							resourceUploadListener.uploadFileDone(file);
-						}
-					} catch (Exception e) {
-						log.error(e);
-					}
-				}
-			}
-		} catch (UnknownRegistryException e1) {
-			remregistry = null;
-			clearSessionProperties();
-			try {
-				org.wso2.carbon.registry.core.Registry remote_reg = getRegistry();
-				String selectedPath = registryPath;
-				selectedPath = selectedPath.endsWith("/") ? selectedPath : selectedPath + "/";
-				String description = "Added by WSO2 Developer Studio";
-				String mediaType = "";
-				String collectionName = selectedPath + (name == null ? path.getName() : name);
-
-				addRegistryCollection(remote_reg, description, mediaType, collectionName);
-				File[] files = path.listFiles();
-				for (File file : files) {
-					if (file.exists()) {
-						try {
-							if (file.isDirectory())
-								addFolderToRegistry(file, collectionName, null, resourceUploadListener);
-							else {
-								resourceUploadListener.uploadFileStarting(file);
-								addFileToRegistry(file, collectionName, null);
-								resourceUploadListener.uploadFileDone(file);
-							}
-						} catch (Exception e) {
-							log.error(e);
-						}
-					}
-				}
-			} catch (UnknownRegistryException e) {
-				log.error(e);
-			}
-
+			return importer.importFolder(path, registryPath, name);
+		} catch (UnknownRegistryException e) {
+			log.error("Could not upload " + path + " to the registry", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
+		return Collections.singletonList(path);
 	}
 
 
@@ -650,6 +693,52 @@ public class Registry {
 	 */
 	public void addFileToRegistry(File path, String registryPath, String name)
 			throws InvalidRegistryURLException, UnknownRegistryException, FileNotFoundException {
+		addFileToRegistry(path, registryPath, name, null);
+	}
+
+	/**
+	 * add files to remote registry, streaming the file content and
+	 * reporting the upload progress to the given listener if it is an
+	 * {@link IResourceUploadProgressListener}
+	 * 
+	 * @param path
+	 * @param registryPath
+	 * @param name
+	 * @param resourceUploadListener
+	 * @throws FileNotFoundException
+	 * @throws UnknownRegistryException
+	 * @throws InvalidRegistryURLException
+	 */
+	public void addFileToRegistry(File path, String registryPath, String name,
+			IResourceUploadListener resourceUploadListener) throws InvalidRegistryURLException,
+			UnknownRegistryException, FileNotFoundException {
+		try {
+			putFile(path, registryPath, name, resourceUploadListener);
+		} catch (RegistryException e) {
+			resetRegistry();
+			try {
+				putFile(path, registryPath, name, resourceUploadListener);
+			} catch (RegistryException e1) {
+				throw new UnknownRegistryException(e1);
+			}
+		}
+	}
+
+	/**
+	 * add a file to the remote registry in a single attempt, for callers
+	 * which retry on their own. The caller should call
+	 * {@link #resetRegistry()} before it retries after a failure
+	 * 
+	 * @param path
+	 * @param registryPath
+	 * @param name
+	 * @param resourceUploadListener
+	 * @throws InvalidRegistryURLException
+	 * @throws RegistryException
+	 * @throws FileNotFoundException
+	 */
+	void putFile(File path, String registryPath, String name, IResourceUploadListener resourceUploadListener)
+			throws InvalidRegistryURLException, RegistryException, FileNotFoundException {
 		String selectedPath = registryPath;
 		selectedPath = selectedPath.endsWith("/") ? selectedPath : selectedPath + "/";
 		String mediaType = MediaManager.getMediaType(path);
@@ -666,30 +755,29 @@ public class Registry {
 		String description = "Added by WSO2 Developer Studio";
 		String resourcePath = selectedPath + (name == null ? path.getName() : name);
 
-		addNewResource(path, mediaType, description, resourcePath);
+		putFileResource(path, mediaType, description, resourcePath, resourceUploadListener);
 	}
 
-	private void addNewResource(File path, String mediaType, String description, String resourcePath)
-			throws InvalidRegistryURLException, UnknownRegistryException, FileNotFoundException {
+	private void putFileResource(File path, String mediaType, String description, String resourcePath,
+			IResourceUploadListener resourceUploadListener) throws InvalidRegistryURLException,
+			RegistryException, FileNotFoundException {
+		org.wso2.carbon.registry.core.Registry remote_reg = getRegistry();
+		Resource resource = remote_reg.newResource();
+		resource.setDescription(description);
+		resource.setMediaType(mediaType);
+		InputStream contentStream = new FileInputStream(path);
+		if (resourceUploadListener instanceof IResourceUploadProgressListener) {
+			contentStream = new UploadProgressInputStream(contentStream, path,
+					(IResourceUploadProgressListener) resourceUploadListener);
+		}
 		try {
-			org.wso2.carbon.registry.core.Registry remote_reg = getRegistry();
-			Resource resource = remote_reg.newResource();
-			resource.setDescription(description);
-			resource.setContentStream(new FileInputStream(path));
-			resource.setMediaType(mediaType);
+			resource.setContentStream(contentStream);
 			remote_reg.put(resourcePath, resource);
-		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+		} finally {
 			try {
-				org.wso2.carbon.registry.core.Registry remote_reg = getRegistry();
-				Resource resource = remote_reg.newResource();
-				resource.setDescription(description);
-				resource.setContentStream(new FileInputStream(path));
-				resource.setMediaType(mediaType);
-				remote_reg.put(resourcePath, resource);
-			} catch (RegistryException e1) {
-				throw new UnknownRegistryException(e1);
+				contentStream.close();
+			} catch (IOException e) {
+				log.error(e);
 			}
 		}
 	}
@@ -700,6 +788,64 @@ public class Registry {
 		public void uploadFileDone(File file);
 	}
 
+	/**
+	 * Upload listener which is also told how much of each file has been
+	 * sent to the registry.
+	 */
+	public static interface IResourceUploadProgressListener extends IResourceUploadListener {
+		public void uploadFileProgress(File file, long uploadedBytes, long totalBytes);
+	}
+
+	/**
+	 * Upload listener which is also told about the files which could not
+	 * be uploaded. {@link IResourceUploadListener#uploadFileDone(File)} is
+	 * only called for the files which were uploaded.
+	 */
+	public static interface IResourceUploadFailureListener extends IResourceUploadListener {
+		public void uploadFileFailed(File file, Exception cause);
+	}
+
+	/**
+	 * Reports the bytes read from a file content stream while it is being
+	 * sent to the registry.
+	 */
+	private static class UploadProgressInputStream extends FilterInputStream {
+		private final File file;
+		private final IResourceUploadProgressListener listener;
+		private final long totalBytes;
+		private long uploadedBytes;
+
+		private UploadProgressInputStream(InputStream in, File file, IResourceUploadProgressListener listener) {
+			super(in);
+			this.file = file;
+			this.listener = listener;
+			this.totalBytes = file.length();
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				reportProgress(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if (read > 0) {
+				reportProgress(read);
+			}
+			return read;
+		}
+
+		private void reportProgress(int read) {
+			uploadedBytes += read;
+			listener.uploadFileProgress(file, uploadedBytes, totalBytes);
+		}
+	}
+
 	public RegistryAssociation[] getAllAssociations(String registryResourcePath)
 			throws InvalidRegistryURLException, UnknownRegistryException {
 		List<RegistryAssociation> regAssociations = new ArrayList<RegistryAssociation>();
@@ -711,8 +857,7 @@ public class Registry {
 			}
 			return regAssociations.toArray(new RegistryAssociation[] {});
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				Association[] associations = getRegistry().getAllAssociations(registryResourcePath);
 				for (Association association : associations) {
@@ -739,8 +884,7 @@ public class Registry {
 		try {
 			resourceExists = getRegistry().resourceExists(path);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				resourceExists = getRegistry().resourceExists(path);
 			} catch (RegistryException e1) {
@@ -755,8 +899,7 @@ public class Registry {
 		try {
 			getRegistry().removeAssociation(selectedPath, destinationPath, associationType);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().removeAssociation(selectedPath, destinationPath, associationType);
 			} catch (RegistryException e1) {
@@ -771,8 +914,7 @@ public class Registry {
 		try {
 			getRegistry().addAssociation(selectedPath, path, type);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().addAssociation(selectedPath, path, type);
 			} catch (RegistryException e1) {
@@ -786,8 +928,7 @@ public class Registry {
 		try {
 			return getRegistry().get(selectedPath);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().get(selectedPath);
 			} catch (RegistryException e1) {
@@ -801,8 +942,7 @@ public class Registry {
 		try {
 			return getRegistry().newCollection();
 		} catch (Exception e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().newCollection();
 			} catch (RegistryException e1) {
@@ -816,8 +956,7 @@ public class Registry {
 		try {
 			return getRegistry().newResource();
 		} catch (Exception e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().newResource();
 			} catch (RegistryException e1) {
@@ -832,8 +971,7 @@ public class Registry {
 		try {
 			getRegistry().rename(currentPath, newPath);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().rename(currentPath, newPath);
 			} catch (RegistryException e1) {
@@ -848,8 +986,7 @@ public class Registry {
 		try {
 			return getRegistry().put(path, resource);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().put(path, resource);
 			} catch (RegistryException e1) {
@@ -866,8 +1003,7 @@ public class Registry {
 		try {
 			return getRegistry().getComments(registryResourcePath);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().getComments(registryResourcePath);
 			} catch (RegistryException e1) {
@@ -882,8 +1018,7 @@ public class Registry {
 		try {
 			getRegistry().addComment(selectedPath, comment);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().addComment(selectedPath, comment);
 			} catch (RegistryException e1) {
@@ -896,8 +1031,7 @@ public class Registry {
 		try {
 			getRegistry().removeComment(commentPath);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().removeComment(commentPath);
 			} catch (RegistryException e1) {
@@ -911,8 +1045,7 @@ public class Registry {
 		try {
 			getRegistry().editComment(commentPath, comment);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().editComment(commentPath, comment);
 			} catch (RegistryException e1) {
@@ -931,8 +1064,7 @@ public class Registry {
 			}
 			return regAssociations.toArray(new RegistryAssociation[] {});
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			Association[] associations;
 			try {
 				associations = getRegistry().getAssociations(resourcePath, associationType);
@@ -951,8 +1083,7 @@ public class Registry {
 		try {
 			return getRegistry().getVersions(registryResourcePath);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().getVersions(registryResourcePath);
 			} catch (RegistryException e1) {
@@ -997,8 +1128,7 @@ public class Registry {
 		try {
 			getRegistry().restoreVersion(versionPath);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().restoreVersion(versionPath);
 			} catch (RegistryException e1) {
@@ -1012,8 +1142,7 @@ public class Registry {
 		try {
 			return getRegistry().getTags(registryResourcePath);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().getTags(registryResourcePath);
 			} catch (RegistryException e1) {
@@ -1028,8 +1157,7 @@ public class Registry {
 		try {
 			getRegistry().removeTag(registryResourcePath, tagName);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().removeTag(registryResourcePath, tagName);
 			} catch (RegistryException e1) {
@@ -1043,8 +1171,7 @@ public class Registry {
 		try {
 			getRegistry().applyTag(registryResourcePath, tag);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().applyTag(registryResourcePath, tag);
 			} catch (RegistryException e1) {
@@ -1057,8 +1184,7 @@ public class Registry {
 		try {
 			return getRegistry().getRating(path, username);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().getRating(path, username);
 			} catch (RegistryException e1) {
@@ -1072,8 +1198,7 @@ public class Registry {
 		try {
 			getRegistry().rateResource(path, rate);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().rateResource(path, rate);
 			} catch (RegistryException e1) {
@@ -1086,8 +1211,7 @@ public class Registry {
 		try {
 			return getRegistry().getAverageRating(path);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				return getRegistry().getAverageRating(path);
 			} catch (RegistryException e1) {
@@ -1103,8 +1227,7 @@ public class Registry {
 		try {
 			getRegistry().delete(path);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().delete(path);
 			} catch (RegistryException e1) {
@@ -1118,8 +1241,7 @@ public class Registry {
 		try {
 			getRegistry().dump(path, writer);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().dump(path, writer);
 			} catch (RegistryException e1) {
@@ -1135,8 +1257,7 @@ public class Registry {
 		try {
 			getRegistry().restore(destinationPath, input);
 		} catch (RegistryException e) {
-			remregistry = null;
-			clearSessionProperties();
+			resetRegistry();
 			try {
 				getRegistry().restore(destinationPath, input);
 			} catch (RegistryException e1) {
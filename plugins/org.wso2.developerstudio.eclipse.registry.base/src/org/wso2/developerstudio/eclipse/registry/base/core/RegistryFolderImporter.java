@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.base.Activator;
+import org.wso2.developerstudio.eclipse.registry.base.core.Registry.IResourceUploadFailureListener;
+import org.wso2.developerstudio.eclipse.registry.base.core.Registry.IResourceUploadListener;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RemoteRegistry;
+import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
+import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
+
+/**
+ * Uploads a local folder to the registry. The collection tree is created first, one collection at
+ * a time as each collection needs its parent, and then the files are uploaded in parallel. Every
+ * request is retried with an increasing delay if the registry fails to serve it, over a new
+ * registry connection, and the files which still could not be uploaded are reported at the end
+ * instead of stopping the import. The listener is told that a file is done only once it has been
+ * uploaded, and about the failed files if it is an {@link IResourceUploadFailureListener}.
+ *
+ * The files are uploaded in parallel only through the {@link RemoteRegistry}, as its connections
+ * are pooled. The WS registry client shares a single service stub, so it uploads one file at a time.
+ */
+public class RegistryFolderImporter {
+    private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+    private static final String DESCRIPTION = "Added by WSO2 Developer Studio";
+    private static final int MAX_PARALLEL_UPLOADS = 4;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_RETRY_DELAY = 500;
+
+    private final Registry registry;
+    private final IResourceUploadListener resourceUploadListener;
+    private final List<File> failedFiles = Collections.synchronizedList(new ArrayList<File>());
+
+    public RegistryFolderImporter(Registry registry, IResourceUploadListener resourceUploadListener) {
+        this.registry = registry;
+        this.resourceUploadListener = resourceUploadListener;
+    }
+
+    /**
+     * Uploads the given folder with all its content in to the given registry collection.
+     *
+     * @param folder local folder to upload
+     * @param registryPath path of the parent collection in the registry
+     * @param name name of the new collection, or null to use the folder name
+     * @return the files which could not be uploaded
+     * @throws InvalidRegistryURLException if the registry URL is not valid
+     * @throws UnknownRegistryException if the collection of the folder could not be created
+     * @throws InterruptedException if the import was interrupted
+     */
+    public List<File> importFolder(File folder, String registryPath, String name)
+            throws InvalidRegistryURLException, UnknownRegistryException, InterruptedException {
+        failedFiles.clear();
+        String parentPath = registryPath.endsWith("/") ? registryPath : registryPath + "/";
+        String collectionPath = parentPath + (name == null ? folder.getName() : name);
+
+        addCollection(collectionPath);
+        List<FileUpload> uploads = new ArrayList<FileUpload>();
+        createCollections(folder, collectionPath, uploads);
+        int fileCount = uploads.size() + failedFiles.size();
+
+        int parallelUploads = registry.getRegistry() instanceof RemoteRegistry ? MAX_PARALLEL_UPLOADS : 1;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelUploads,
+                uploads.size())), new UploadThreadFactory());
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (FileUpload upload : uploads) {
+                futures.add(executor.submit(upload));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    log.error("Unexpected error while uploading " + folder, e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failedFiles.isEmpty()) {
+            log.info("Uploaded " + fileCount + " file(s) of " + folder + " to " + collectionPath);
+        } else {
+            log.error("Uploaded " + (fileCount - failedFiles.size()) + " of " + fileCount +
+                      " file(s) of " + folder + " to " + collectionPath + ", failed to upload " + failedFiles);
+        }
+        return new ArrayList<File>(failedFiles);
+    }
+
+    private void createCollections(File folder, String collectionPath, List<FileUpload> uploads)
+            throws InterruptedException {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                String childCollectionPath = collectionPath + "/" + file.getName();
+                try {
+                    addCollection(childCollectionPath);
+                } catch (InvalidRegistryURLException | UnknownRegistryException e) {
+                    log.error("Could not create the collection " + childCollectionPath, e);
+                    List<File> collectionFiles = new ArrayList<File>();
+                    addAllFiles(file, collectionFiles);
+                    for (File collectionFile : collectionFiles) {
+                        fail(collectionFile, e);
+                    }
+                    continue;
+                }
+                createCollections(file, childCollectionPath, uploads);
+            } else if (file.exists()) {
+                uploads.add(new FileUpload(file, collectionPath));
+            }
+        }
+    }
+
+    private void addCollection(String collectionPath)
+            throws InvalidRegistryURLException, UnknownRegistryException, InterruptedException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                registry.addRegistryCollection(registry.getRegistry(), DESCRIPTION, "", collectionPath);
+                return;
+            } catch (UnknownRegistryException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Could not create the collection " + collectionPath + ", retrying", e);
+                registry.resetRegistry();
+                Thread.sleep(getRetryDelay(attempt));
+            }
+        }
+    }
+
+    private void fail(File file, Exception cause) {
+        failedFiles.add(file);
+        if (resourceUploadListener instanceof IResourceUploadFailureListener) {
+            ((IResourceUploadFailureListener) resourceUploadListener).uploadFileFailed(file, cause);
+        }
+    }
+
+    private static long getRetryDelay(int attempt) {
+        return INITIAL_RETRY_DELAY << (attempt - 1);
+    }
+
+    private static void addAllFiles(File folder, List<File> files) {
+        File[] children = folder.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                addAllFiles(child, files);
+            } else {
+                files.add(child);
+            }
+        }
+    }
+
+    private final class FileUpload implements Runnable {
+        private final File file;
+        private final String collectionPath;
+
+        private FileUpload(File file, String collectionPath) {
+            this.file = file;
+            this.collectionPath = collectionPath;
+        }
+
+        public void run() {
+            if (resourceUploadListener != null) {
+                resourceUploadListener.uploadFileStarting(file);
+            }
+            try {
+                upload();
+            } catch (InterruptedException e) {
+                fail(file, e);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (InvalidRegistryURLException | RegistryException | FileNotFoundException e) {
+                log.error("Could not upload " + file + " to " + collectionPath, e);
+                fail(file, e);
+                return;
+            }
+            if (resourceUploadListener != null) {
+                resourceUploadListener.uploadFileDone(file);
+            }
+        }
+
+        private void upload() throws InvalidRegistryURLException, RegistryException, FileNotFoundException,
+                InterruptedException {
+            for (int attempt = 1;; attempt++) {
+                try {
+                    registry.putFile(file, collectionPath, null, resourceUploadListener);
+                    return;
+                } catch (RegistryException e) {
+                    if (attempt == MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.warn("Could not upload " + file + " to " + collectionPath + ", retrying", e);
+                    registry.resetRegistry();
+                    Thread.sleep(getRetryDelay(attempt));
+                }
+            }
+        }
+    }
+
+    private static final class UploadThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Registry upload " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
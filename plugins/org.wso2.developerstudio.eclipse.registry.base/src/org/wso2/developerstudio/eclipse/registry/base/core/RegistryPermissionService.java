@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
+import org.wso2.developerstudio.eclipse.registry.resource.authorization.ResourceAdmin;
+
+/**
+ * Resolves the write permissions of the logged user on registry resources. The permissions of all
+ * the children of a collection are resolved together over the single session of the
+ * {@link ResourceAdmin} of the registry, and the results are cached per registry, user and path
+ * so that refreshing or reopening the registry tree does not query them again.
+ *
+ * The time a permission is cached for can be set in milliseconds with the
+ * {@value #TIME_TO_LIVE_PROPERTY} system property. A resource found read only, or whose permissions
+ * could not be retrieved, is cached for the shorter time set with the
+ * {@value #NEGATIVE_TIME_TO_LIVE_PROPERTY} system property, so that a permission granted meanwhile
+ * or a failure that has passed is noticed sooner.
+ */
+public class RegistryPermissionService {
+    public static final String TIME_TO_LIVE_PROPERTY = "developerstudio.registry.permission.ttl";
+    public static final String NEGATIVE_TIME_TO_LIVE_PROPERTY = "developerstudio.registry.permission.negative.ttl";
+    private static final long DEFAULT_TIME_TO_LIVE = 5 * 60 * 1000;
+    private static final long DEFAULT_NEGATIVE_TIME_TO_LIVE = 60 * 1000;
+    private static final int MAX_SIZE = 10000;
+
+    private static RegistryPermissionService instance;
+
+    private final long timeToLive;
+    private final long negativeTimeToLive;
+    private final Map<String, CachedPermission> permissions;
+
+    private RegistryPermissionService(long timeToLive, long negativeTimeToLive) {
+        this.timeToLive = timeToLive;
+        this.negativeTimeToLive = Math.min(negativeTimeToLive, timeToLive);
+        permissions = new LinkedHashMap<String, CachedPermission>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPermission> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+    }
+
+    public static synchronized RegistryPermissionService getInstance() {
+        if (instance == null) {
+            instance = new RegistryPermissionService(Long.getLong(TIME_TO_LIVE_PROPERTY, DEFAULT_TIME_TO_LIVE),
+                    Long.getLong(NEGATIVE_TIME_TO_LIVE_PROPERTY, DEFAULT_NEGATIVE_TIME_TO_LIVE));
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether the logged user can write to a resource.
+     *
+     * @param resourceNode node of the resource
+     * @return true if the user has the write permission on the resource
+     * @throws Exception if the permission could not be retrieved
+     */
+    public boolean hasWritePermission(RegistryResourceNode resourceNode) throws Exception {
+        Boolean permission = getCachedPermission(resourceNode);
+        if (permission != null) {
+            return permission;
+        }
+        resolveWritePermissions(Collections.singletonList(resourceNode));
+        permission = getCachedPermission(resourceNode);
+        return permission != null && permission;
+    }
+
+    /**
+     * Resolves together the write permissions of the given resources which are not cached yet,
+     * one registry at a time.
+     *
+     * @param resourceNodes nodes of the resources, usually the children of a collection
+     * @throws Exception if the permissions could not be retrieved
+     */
+    public void resolveWritePermissions(List<RegistryResourceNode> resourceNodes) throws Exception {
+        Map<RegistryNode, List<String>> pathsPerRegistry = new LinkedHashMap<RegistryNode, List<String>>();
+        for (RegistryResourceNode resourceNode : resourceNodes) {
+            if (getCachedPermission(resourceNode) != null) {
+                continue;
+            }
+            List<String> paths = pathsPerRegistry.get(resourceNode.getConnectionInfo());
+            if (paths == null) {
+                paths = new ArrayList<String>();
+                pathsPerRegistry.put(resourceNode.getConnectionInfo(), paths);
+            }
+            paths.add(resourceNode.getRegistryResourcePath());
+        }
+        for (Map.Entry<RegistryNode, List<String>> entry : pathsPerRegistry.entrySet()) {
+            RegistryNode registryNode = entry.getKey();
+            Map<String, Boolean> resolvedPermissions = registryNode.getResourceAdmin().getWritePermissions(
+                    entry.getValue());
+            long resolvedAt = System.currentTimeMillis();
+            synchronized (permissions) {
+                for (Map.Entry<String, Boolean> permission : resolvedPermissions.entrySet()) {
+                    permissions.put(getKey(registryNode, permission.getKey()),
+                            new CachedPermission(permission.getValue(), resolvedAt));
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cached permissions of a registry, to be called when the permissions of its
+     * resources are changed.
+     *
+     * @param registryNode the registry
+     */
+    public void invalidate(RegistryNode registryNode) {
+        String prefix = getKey(registryNode, "");
+        synchronized (permissions) {
+            for (Iterator<String> iterator = permissions.keySet().iterator(); iterator.hasNext();) {
+                if (iterator.next().startsWith(prefix)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private Boolean getCachedPermission(RegistryResourceNode resourceNode) {
+        String key = getKey(resourceNode.getConnectionInfo(), resourceNode.getRegistryResourcePath());
+        synchronized (permissions) {
+            CachedPermission permission = permissions.get(key);
+            if (permission == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - permission.resolvedAt >
+                    (permission.allowed ? timeToLive : negativeTimeToLive)) {
+                permissions.remove(key);
+                return null;
+            }
+            return permission.allowed;
+        }
+    }
+
+    private static String getKey(RegistryNode registryNode, String path) {
+        return registryNode.getServerUrl() + "|" + registryNode.getUsername() + "|" + path;
+    }
+
+    private static final class CachedPermission {
+        private final boolean allowed;
+        private final long resolvedAt;
+
+        private CachedPermission(boolean allowed, long resolvedAt) {
+            this.allowed = allowed;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.wso2.carbon.registry.core.Comment;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.Tag;
+import org.wso2.developerstudio.eclipse.registry.base.util.EditorConstants;
+import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
+import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
+
+/**
+ * Details of a registry resource shown by the pages of the resource editor: the resource itself,
+ * its versions, comments, tags, associations, dependencies and ratings. Each detail is fetched
+ * once, either by the {@link ResourceDetailsLoader} in the background or on the first request
+ * for it, and the later requests are served from the result.
+ *
+ * The pages render a placeholder and ask for the details with a listener, which is called through
+ * the executor they give, the asyncExec of their display, once the detail has been fetched, so the
+ * UI thread never waits for the registry. A request made without a listener waits for a background
+ * fetch for at most the time set with the {@value #TIMEOUT_PROPERTY} system property, in
+ * milliseconds, and then fails as a registry error would.
+ */
+public class ResourceDetails {
+    public static final String TIMEOUT_PROPERTY = "developerstudio.registry.details.timeout";
+    private static final long DEFAULT_TIMEOUT = 30000;
+    private static final long TIMEOUT = Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT);
+
+    private final Request<Resource> resource;
+    private final Request<String[]> versions;
+    private final Request<Comment[]> comments;
+    private final Request<Tag[]> tags;
+    private final Request<RegistryAssociation[]> associations;
+    private final Request<RegistryAssociation[]> dependencies;
+    private final Request<Integer> rating;
+    private final Request<Float> averageRating;
+    private volatile boolean scheduled;
+
+    /**
+     * @param registry registry of the resource
+     * @param path     path of the resource
+     */
+    public ResourceDetails(final Registry registry, final String path) {
+        resource = new Request<Resource>(new Callable<Resource>() {
+            public Resource call() throws Exception {
+                return registry.get(path);
+            }
+        });
+        versions = new Request<String[]>(new Callable<String[]>() {
+            public String[] call() throws Exception {
+                return registry.getVersions(path);
+            }
+        });
+        comments = new Request<Comment[]>(new Callable<Comment[]>() {
+            public Comment[] call() throws Exception {
+                return registry.getComments(path);
+            }
+        });
+        tags = new Request<Tag[]>(new Callable<Tag[]>() {
+            public Tag[] call() throws Exception {
+                return registry.getTags(path);
+            }
+        });
+        associations = new Request<RegistryAssociation[]>(new Callable<RegistryAssociation[]>() {
+            public RegistryAssociation[] call() throws Exception {
+                return registry.getAllAssociations(path);
+            }
+        });
+        dependencies = new Request<RegistryAssociation[]>(new Callable<RegistryAssociation[]>() {
+            public RegistryAssociation[] call() throws Exception {
+                return registry.getAssociations(path, EditorConstants.DEPENDENCY_ASSOCIATION_TYPE);
+            }
+        });
+        rating = new Request<Integer>(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                return registry.getRating(path, registry.getUserName());
+            }
+        });
+        averageRating = new Request<Float>(new Callable<Float>() {
+            public Float call() throws Exception {
+                return registry.getAverageRating(path);
+            }
+        });
+    }
+
+    /**
+     * Receives a detail of a resource once it has been fetched.
+     *
+     * @param <T> type of the detail
+     */
+    public interface IDetailListener<T> {
+        void detailLoaded(T detail);
+
+        void detailFailed(Exception e);
+    }
+
+    /**
+     * @return the requests fetching the details, the resource first as every page needs it
+     */
+    List<FutureTask<?>> getRequests() {
+        List<FutureTask<?>> requests = new ArrayList<FutureTask<?>>();
+        Collections.addAll(requests, resource, versions, comments, tags, associations, dependencies, rating,
+                averageRating);
+        return requests;
+    }
+
+    /**
+     * Marks the details as being fetched in the background, after which the requests for them wait
+     * for the background fetch instead of fetching them again.
+     */
+    void setScheduled() {
+        scheduled = true;
+    }
+
+    public Resource getResource() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(resource);
+    }
+
+    public String[] getVersions() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(versions);
+    }
+
+    public Comment[] getComments() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(comments);
+    }
+
+    public Tag[] getTags() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(tags);
+    }
+
+    public RegistryAssociation[] getAllAssociations() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(associations);
+    }
+
+    public RegistryAssociation[] getDependencies() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(dependencies);
+    }
+
+    public int getRating() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(rating);
+    }
+
+    public float getAverageRating() throws InvalidRegistryURLException, UnknownRegistryException {
+        return getResult(averageRating);
+    }
+
+    public void getResource(Executor executor, IDetailListener<Resource> listener) {
+        getResult(resource, executor, listener);
+    }
+
+    public void getComments(Executor executor, IDetailListener<Comment[]> listener) {
+        getResult(comments, executor, listener);
+    }
+
+    public void getTags(Executor executor, IDetailListener<Tag[]> listener) {
+        getResult(tags, executor, listener);
+    }
+
+    public void getAllAssociations(Executor executor, IDetailListener<RegistryAssociation[]> listener) {
+        getResult(associations, executor, listener);
+    }
+
+    public void getDependencies(Executor executor, IDetailListener<RegistryAssociation[]> listener) {
+        getResult(dependencies, executor, listener);
+    }
+
+    /**
+     * Calls the listener through the executor once the request is done, fetching the detail in the
+     * background first if the loader has not scheduled it.
+     */
+    private <T> void getResult(final Request<T> request, final Executor executor,
+                               final IDetailListener<T> listener) {
+        if (!scheduled) {
+            ResourceDetailsLoader.getInstance().fetch(request);
+        }
+        request.whenDone(new Runnable() {
+            public void run() {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        T result;
+                        try {
+                            result = getResult(request);
+                        } catch (Exception e) {
+                            listener.detailFailed(e);
+                            return;
+                        }
+                        listener.detailLoaded(result);
+                    }
+                });
+            }
+        });
+    }
+
+    private <T> T getResult(Request<T> request) throws InvalidRegistryURLException, UnknownRegistryException {
+        if (!scheduled) {
+            // does nothing if the request has already been run
+            request.run();
+        }
+        try {
+            return request.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new UnknownRegistryException("Timed out while retrieving the registry resource details", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnknownRegistryException("Interrupted while retrieving the registry resource details", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvalidRegistryURLException) {
+                throw (InvalidRegistryURLException) cause;
+            } else if (cause instanceof UnknownRegistryException) {
+                throw (UnknownRegistryException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new UnknownRegistryException(cause);
+        }
+    }
+
+    /**
+     * A request which runs the tasks waiting for it once it is done.
+     */
+    private static class Request<T> extends FutureTask<T> {
+        private final List<Runnable> doneTasks = new ArrayList<Runnable>();
+
+        private Request(Callable<T> callable) {
+            super(callable);
+        }
+
+        private void whenDone(Runnable task) {
+            synchronized (doneTasks) {
+                if (!isDone()) {
+                    doneTasks.add(task);
+                    return;
+                }
+            }
+            task.run();
+        }
+
+        @Override
+        protected void done() {
+            List<Runnable> tasks;
+            synchronized (doneTasks) {
+                tasks = new ArrayList<Runnable>(doneTasks);
+                doneTasks.clear();
+            }
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+    }
+}
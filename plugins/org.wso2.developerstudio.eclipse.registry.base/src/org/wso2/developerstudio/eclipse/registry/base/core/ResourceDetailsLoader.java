@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.base.Activator;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RemoteRegistry;
+import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
+
+/**
+ * Fetches the details shown by the pages of the resource editor in the background as soon as the
+ * editor is opened, instead of each page fetching its own details one after the other while it is
+ * created. The details are kept on the resource node until they are invalidated, so that the pages
+ * render from a single fetch.
+ *
+ * The details are fetched in parallel only through the {@link RemoteRegistry}, as its connections
+ * are pooled. The WS registry client shares a single service stub, so its details are fetched one
+ * after the other, still in the background.
+ */
+public class ResourceDetailsLoader {
+    private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+    private static final int MAX_PARALLEL_REQUESTS = 4;
+    private static final long IDLE_THREAD_TIMEOUT = 60;
+
+    private static ResourceDetailsLoader instance;
+
+    private final ThreadPoolExecutor executor;
+
+    private ResourceDetailsLoader() {
+        executor = new ThreadPoolExecutor(MAX_PARALLEL_REQUESTS, MAX_PARALLEL_REQUESTS, IDLE_THREAD_TIMEOUT,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger threadCount = new AtomicInteger();
+
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "Registry resource details " +
+                                                             threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized ResourceDetailsLoader getInstance() {
+        if (instance == null) {
+            instance = new ResourceDetailsLoader();
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the threads fetching the resource details.
+     */
+    public static synchronized void dispose() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Starts fetching the details of a resource in the background and keeps them on the resource
+     * node in place of the details fetched before.
+     *
+     * @param resourceNode node of the resource
+     * @return the details of the resource
+     */
+    public ResourceDetails load(RegistryResourceNode resourceNode) {
+        final Registry registry = resourceNode.getConnectionInfo().getRegistry();
+        final ResourceDetails newDetails = new ResourceDetails(registry, resourceNode.getRegistryResourcePath());
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    schedule(registry, newDetails.getRequests());
+                }
+            });
+            newDetails.setScheduled();
+        } catch (RejectedExecutionException e) {
+            // the loader has been disposed, the details are fetched when requested
+        }
+        resourceNode.setResourceDetails(newDetails);
+        return newDetails;
+    }
+
+    /**
+     * Returns the details of a resource, fetched in the background if the editor of the resource
+     * started fetching them, or else fetched when requested.
+     *
+     * @param resourceNode node of the resource
+     * @return the details of the resource
+     */
+    public ResourceDetails getDetails(RegistryResourceNode resourceNode) {
+        ResourceDetails details = resourceNode.getResourceDetails();
+        if (details != null) {
+            return details;
+        }
+        return new ResourceDetails(resourceNode.getConnectionInfo().getRegistry(),
+                resourceNode.getRegistryResourcePath());
+    }
+
+    /**
+     * Drops the details kept for a resource, so that they are fetched again the next time.
+     *
+     * @param resourceNode node of the resource
+     */
+    public void invalidate(RegistryResourceNode resourceNode) {
+        resourceNode.setResourceDetails(null);
+    }
+
+    /**
+     * Fetches a detail requested before the editor scheduled the details, in the background too.
+     *
+     * @param request request fetching the detail
+     */
+    void fetch(FutureTask<?> request) {
+        try {
+            executor.execute(request);
+        } catch (RejectedExecutionException e) {
+            // the loader has been disposed
+            request.run();
+        }
+    }
+
+    private void schedule(Registry registry, List<FutureTask<?>> requests) {
+        boolean parallel = false;
+        try {
+            // creates the registry client once, before the requests share it
+            parallel = registry.getRegistry() instanceof RemoteRegistry;
+        } catch (InvalidRegistryURLException e) {
+            log.error("Could not connect to the registry " + registry.getServerUrl(), e);
+        }
+        for (FutureTask<?> request : requests) {
+            if (parallel) {
+                try {
+                    executor.execute(request);
+                    continue;
+                } catch (RejectedExecutionException e) {
+                    parallel = false;
+                }
+            }
+            request.run();
+        }
+    }
+}
@@ -16,96 +16,294 @@
 
 package org.wso2.developerstudio.eclipse.registry.base.heartbeat;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.swt.widgets.Display;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryURLNode;
 import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
 import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryUrlStore;
 import org.wso2.developerstudio.eclipse.registry.base.util.Utils;
 
-public class RegistryHeartBeatTester implements Runnable {
+/**
+ * Monitors the availability of the registries of a registry tree. Each registry is probed on its
+ * own schedule, so a registry which does not respond never delays the others, and a registry which
+ * is down is probed less and less often until it comes back. The registries found up or down are
+ * enabled or disabled, the registry list is saved and the viewer is refreshed once for all the
+ * changes found together, and the changes are published to the registered listeners.
+ */
+public class RegistryHeartBeatTester {
+	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+	private static final int HEARTBEAT_RATE = 5000;
+	private static final int MAX_HEARTBEAT_RATE = 60000;
+	private static final int PROBE_TIMEOUT = 3000;
+	private static final int CHANGE_BATCH_DELAY = 500;
+	private static final int PROBE_THREADS = 4;
+
+	private static ScheduledExecutorService executor;
+
+	private final ScheduledExecutorService probeExecutor;
 	private RegistryURLNode urlNodeList;
-	private boolean stop=false;
-	private Map<RegistryNode,Boolean> originalState=new HashMap<RegistryNode, Boolean>();;
-	private static final int HEARTBEAT_RATE=5000;
+	private volatile boolean stop = true;
 	private RegistryUrlStore urlStore;
-	
+	private volatile ScheduledExecutorService scheduler;
+	private Future<?> reconcileFuture;
+	private final Map<RegistryNode, RegistryProbe> probes = new HashMap<RegistryNode, RegistryProbe>();
+	private final List<IRegistryStateListener> listeners = new CopyOnWriteArrayList<IRegistryStateListener>();
+	private final AtomicBoolean changesScheduled = new AtomicBoolean();
+	private final AtomicBoolean persistRequired = new AtomicBoolean();
+	private final AtomicBoolean refreshRequired = new AtomicBoolean();
+
+	/**
+	 * Listener notified when a registry is found to be up or down.
+	 */
+	public interface IRegistryStateListener {
+		void registryStateChanged(RegistryNode registryNode, boolean enabled);
+	}
+
 	public RegistryHeartBeatTester(RegistryURLNode urlNodeList) {
+		this(urlNodeList, null);
+	}
+
+	/**
+	 * @param urlNodeList registry tree to monitor
+	 * @param probeExecutor executor to probe the registries on, null to use the threads shared by
+	 *            all the heartbeat testers
+	 */
+	RegistryHeartBeatTester(RegistryURLNode urlNodeList, ScheduledExecutorService probeExecutor) {
 		setUrlNodeList(urlNodeList);
 		urlStore=RegistryUrlStore.getInstance();
+		this.probeExecutor = probeExecutor;
 	}
-	
-	public void run() {
-		while(!isStop()){
-			List<RegistryNode> urlInfoList = urlNodeList.getUrlInfoList();
-			boolean registryEnabledStateChanged=false;
-			int index=0;
-			while (index<urlInfoList.size()) {
-				if (validateRegistryNode(urlInfoList.get(index)) && !registryEnabledStateChanged) {
-					registryEnabledStateChanged = true;
-				}
-				index++;
-			}
-//			for (RegistryNode registryNode : urlInfoList) {
-//				registryEnabledStateChanged = registryEnabledStateChanged || validateRegistryNode(registryNode);
-//			}
-			if (registryEnabledStateChanged) {
-				Display.getDefault().asyncExec(new Runnable() {
-					public void run() {
-						urlNodeList.refreshViewer(true);
-					}
-				});
+
+	/**
+	 * Starts probing the registries of the registry tree. Registries added to
+	 * the tree later are picked up within a heartbeat.
+	 */
+	public synchronized void start() {
+		if (!stop) {
+			return;
+		}
+		stop = false;
+		scheduler = probeExecutor != null ? probeExecutor : getExecutor();
+		reconcileFuture = scheduler.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				reconcileProbes();
 			}
-			try {
-				Thread.sleep(HEARTBEAT_RATE);
-			} catch (InterruptedException e) {
-				e.printStackTrace();
+		}, 0, HEARTBEAT_RATE, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops probing the registries. Probes which are running are left to finish.
+	 */
+	public synchronized void stop() {
+		if (stop) {
+			return;
+		}
+		stop = true;
+		reconcileFuture.cancel(false);
+		synchronized (probes) {
+			for (RegistryProbe probe : probes.values()) {
+				probe.cancel();
 			}
+			probes.clear();
 		}
 	}
 
-	private boolean validateRegistryNode(RegistryNode registryNode) {
-		boolean registryEnabledStateChanged=false;
-		boolean previousEnableState = false;
-		if (registryNode.isEnabled()) {
-			previousEnableState=true;
+	/**
+	 * Stops the threads shared by all the heartbeat testers.
+	 */
+	public static synchronized void dispose() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private static synchronized ScheduledExecutorService getExecutor() {
+		if (executor == null) {
+			ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(PROBE_THREADS,
+					new ThreadFactory() {
+						private final AtomicInteger threadCount = new AtomicInteger();
+
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable, "Registry heartbeat " + threadCount.incrementAndGet());
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			scheduledExecutor.setRemoveOnCancelPolicy(true);
+			executor = scheduledExecutor;
 		}
-		if(registryNode.isUserEnabled()){
-		if (previousEnableState || !originalState.containsKey(registryNode)){
-			originalState.put(registryNode, previousEnableState);
+		return executor;
+	}
+
+	public void addRegistryStateListener(IRegistryStateListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeRegistryStateListener(IRegistryStateListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Starts a probe for each registry added to the tree and cancels the
+	 * probes of the registries removed from it.
+	 */
+	private void reconcileProbes() {
+		List<RegistryNode> registryNodes;
+		try {
+			registryNodes = new ArrayList<RegistryNode>(urlNodeList.getUrlInfoList());
+		} catch (ConcurrentModificationException e) {
+			// the tree is being changed, try again with the next heartbeat
+			return;
 		}
-		if (!Utils.isValidServerURL(registryNode.getServerUrl())){
+		synchronized (probes) {
+			if (stop) {
+				return;
+			}
+			for (Iterator<Map.Entry<RegistryNode, RegistryProbe>> iterator = probes.entrySet().iterator(); iterator
+					.hasNext();) {
+				Map.Entry<RegistryNode, RegistryProbe> entry = iterator.next();
+				if (!registryNodes.contains(entry.getKey())) {
+					entry.getValue().cancel();
+					iterator.remove();
+				}
+			}
+			for (RegistryNode registryNode : registryNodes) {
+				if (!probes.containsKey(registryNode)) {
+					RegistryProbe probe = new RegistryProbe(registryNode);
+					probes.put(registryNode, probe);
+					probe.schedule(0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Probes a registry and enables or disables it accordingly.
+	 *
+	 * @return true if the registry is reachable
+	 */
+	private boolean validateRegistryNode(RegistryNode registryNode) {
+		boolean previousEnableState = registryNode.isEnabled();
+		boolean reachable = isReachable(registryNode);
+		if (!reachable) {
 			registryNode.setEnabled(false);
-			List<RegistryURLInfo> allRegistryUrls = urlStore.getAllRegistryUrls();
-			int indexOf = allRegistryUrls.indexOf(registryNode.getRegistryUrlInfo());
-			RegistryURLInfo registryURLInfo = allRegistryUrls.get(indexOf);
-			registryURLInfo.setEnabled(false);
+			if (setStoredEnableState(registryNode.getRegistryUrlInfo(), false)) {
+				persistRequired.set(true);
+			}
 			registryNode.getRegistryUrlInfo().setEnabled(false);
-			urlStore.persist();
 			registryNode.getRegistry().clearSessionProperties();
-		}else{
-			if (!registryNode.getRegistryUrlInfo().isEnabled()){
-				registryNode.setEnabled(true);
-				List<RegistryURLInfo> allRegistryUrls = urlStore.getAllRegistryUrls();
-				int indexOf = allRegistryUrls.indexOf(registryNode.getRegistryUrlInfo());
-				RegistryURLInfo registryURLInfo = allRegistryUrls.get(indexOf);
-				registryURLInfo.setEnabled(true);
-				urlStore.persist();
+		} else if (!registryNode.getRegistryUrlInfo().isEnabled()) {
+			registryNode.setEnabled(true);
+			if (setStoredEnableState(registryNode.getRegistryUrlInfo(), true)) {
+				persistRequired.set(true);
 			}
 		}
-		if (previousEnableState != registryNode.isEnabled()){
-			if (registryNode.isEnabled()){
+		if (previousEnableState != registryNode.isEnabled()) {
+			if (registryNode.isEnabled()) {
 				registryNode.setIterativeRefresh(true);
 			}
-			registryEnabledStateChanged=true;
+			refreshRequired.set(true);
+			fireRegistryStateChanged(registryNode, registryNode.isEnabled());
 		}
-		
+		if (persistRequired.get() || refreshRequired.get()) {
+			scheduleChanges();
+		}
+		return reachable;
+	}
+
+	/**
+	 * @return true if the server of the registry accepts connections
+	 */
+	boolean isReachable(RegistryNode registryNode) {
+		return Utils.isValidServerURL(registryNode.getServerUrl(), PROBE_TIMEOUT);
+	}
+
+	private boolean setStoredEnableState(RegistryURLInfo registryUrlInfo, boolean enabled) {
+		List<RegistryURLInfo> allRegistryUrls = urlStore.getAllRegistryUrls();
+		int indexOf = allRegistryUrls.indexOf(registryUrlInfo);
+		if (indexOf == -1) {
+			return false;
+		}
+		RegistryURLInfo registryURLInfo = allRegistryUrls.get(indexOf);
+		if (registryURLInfo.isEnabled() == enabled) {
+			return false;
+		}
+		registryURLInfo.setEnabled(enabled);
+		return true;
+	}
+
+	private void fireRegistryStateChanged(RegistryNode registryNode, boolean enabled) {
+		for (IRegistryStateListener listener : listeners) {
+			try {
+				listener.registryStateChanged(registryNode, enabled);
+			} catch (RuntimeException e) {
+				log.error("Error while notifying the state of " + registryNode.getServerUrl(), e);
+			}
+		}
+	}
+
+	/**
+	 * Saves the registry list and refreshes the viewer shortly, once for all
+	 * the changes found in the meantime.
+	 */
+	private void scheduleChanges() {
+		if (!changesScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			scheduler.schedule(new Runnable() {
+				public void run() {
+					changesScheduled.set(false);
+					applyChanges();
+				}
+			}, CHANGE_BATCH_DELAY, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			changesScheduled.set(false);
+		}
+	}
+
+	private void applyChanges() {
+		if (persistRequired.getAndSet(false)) {
+			urlStore.persist();
+		}
+		if (refreshRequired.getAndSet(false)) {
+			refreshViewer();
+		}
+	}
+
+	/**
+	 * Refreshes the registry tree in the UI thread.
+	 */
+	void refreshViewer() {
+		Display display = Display.getDefault();
+		if (!display.isDisposed()) {
+			display.asyncExec(new Runnable() {
+				public void run() {
+					urlNodeList.refreshViewer(true);
+				}
+			});
 		}
-		return registryEnabledStateChanged;
 	}
 
 	public void setUrlNodeList(RegistryURLNode urlNodeList) {
@@ -117,11 +315,73 @@ public class RegistryHeartBeatTester implements Runnable {
 	}
 
 	public void setStop(boolean stop) {
-		this.stop = stop;
+		if (stop) {
+			stop();
+		} else {
+			start();
+		}
 	}
 
 	public boolean isStop() {
 		return stop;
 	}
 
+	/**
+	 * Periodic probe of a single registry. The probe is rescheduled after each
+	 * run, at the heartbeat rate while the registry is up and with a doubling
+	 * delay while it is down.
+	 */
+	private class RegistryProbe implements Runnable {
+		private final RegistryNode registryNode;
+		private volatile Future<?> future;
+		private volatile boolean cancelled;
+		private long delay = HEARTBEAT_RATE;
+		private boolean down;
+
+		private RegistryProbe(RegistryNode registryNode) {
+			this.registryNode = registryNode;
+		}
+
+		public void run() {
+			if (cancelled) {
+				return;
+			}
+			if (!registryNode.isUserEnabled()) {
+				down = false;
+				delay = HEARTBEAT_RATE;
+			} else {
+				try {
+					if (validateRegistryNode(registryNode)) {
+						down = false;
+						delay = HEARTBEAT_RATE;
+					} else {
+						delay = down ? Math.min(delay * 2, MAX_HEARTBEAT_RATE) : HEARTBEAT_RATE;
+						down = true;
+					}
+				} catch (RuntimeException e) {
+					log.error("Error while checking the availability of " + registryNode.getServerUrl(), e);
+				}
+			}
+			schedule(delay);
+		}
+
+		private void schedule(long delay) {
+			if (cancelled) {
+				return;
+			}
+			try {
+				future = scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				// the heartbeat testers have been disposed
+			}
+		}
+
+		private void cancel() {
+			cancelled = true;
+			Future<?> scheduledFuture = future;
+			if (scheduledFuture != null) {
+				scheduledFuture.cancel(false);
+			}
+		}
+	}
 }
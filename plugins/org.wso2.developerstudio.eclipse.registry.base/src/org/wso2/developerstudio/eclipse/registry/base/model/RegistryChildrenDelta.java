@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.model;
+
+import java.util.List;
+
+/**
+ * Changes made to the children of a registry collection node when they are
+ * refreshed from the registry, so that the viewers can update the changed
+ * children alone instead of refreshing the whole tree.
+ */
+public class RegistryChildrenDelta {
+	private final RegistryResourceNode parent;
+	private final List<RegistryResourceNode> addedChildren;
+	private final List<RegistryResourceNode> removedChildren;
+	private final List<RegistryResourceNode> updatedChildren;
+
+	public RegistryChildrenDelta(RegistryResourceNode parent, List<RegistryResourceNode> addedChildren,
+			List<RegistryResourceNode> removedChildren, List<RegistryResourceNode> updatedChildren) {
+		this.parent = parent;
+		this.addedChildren = addedChildren;
+		this.removedChildren = removedChildren;
+		this.updatedChildren = updatedChildren;
+	}
+
+	/**
+	 * get the collection node whose children have changed
+	 *
+	 * @return
+	 */
+	public RegistryResourceNode getParent() {
+		return parent;
+	}
+
+	public List<RegistryResourceNode> getAddedChildren() {
+		return addedChildren;
+	}
+
+	public List<RegistryResourceNode> getRemovedChildren() {
+		return removedChildren;
+	}
+
+	/**
+	 * get the children whose media type or resource type has changed
+	 *
+	 * @return
+	 */
+	public List<RegistryResourceNode> getUpdatedChildren() {
+		return updatedChildren;
+	}
+
+	public boolean isEmpty() {
+		return addedChildren.isEmpty() && removedChildren.isEmpty() && updatedChildren.isEmpty();
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.model;
+
+/**
+ * Placeholder shown under a registry collection in the tree while its children are being fetched
+ * from the registry in the background.
+ */
+public class RegistryLoadingNode {
+	private static final String LOADING_CAPTION = "Loading...";
+
+	private RegistryResourceNode parent;
+
+	public RegistryLoadingNode(RegistryResourceNode parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * get the collection node whose children are being loaded
+	 *
+	 * @return
+	 */
+	public RegistryResourceNode getParent() {
+		return parent;
+	}
+
+	public String toString() {
+		return LOADING_CAPTION;
+	}
+}
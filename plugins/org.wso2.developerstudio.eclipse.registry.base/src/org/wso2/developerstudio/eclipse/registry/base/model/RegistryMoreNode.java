@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.model;
+
+/**
+ * Node shown after the last loaded child of a registry collection whose children are loaded
+ * page by page. Opening the node loads the next page of children.
+ */
+public class RegistryMoreNode {
+	private static final String LOADING_CAPTION = "Loading...";
+
+	private RegistryResourceNode parent;
+	private volatile boolean loading;
+
+	public RegistryMoreNode(RegistryResourceNode parent) {
+		this.parent = parent;
+	}
+
+	/**
+	 * get the collection node whose next children are loaded by this node
+	 *
+	 * @return
+	 */
+	public RegistryResourceNode getParent() {
+		return parent;
+	}
+
+	public boolean isLoading() {
+		return loading;
+	}
+
+	public void setLoading(boolean loading) {
+		this.loading = loading;
+	}
+
+	public String toString() {
+		if (isLoading()) {
+			return LOADING_CAPTION;
+		}
+		return "Show next " + Math.min(parent.getRemainingChildCount(), RegistryResourceNode.CHILDREN_PAGE_SIZE)
+				+ " of " + parent.getRemainingChildCount() + "...";
+	}
+}
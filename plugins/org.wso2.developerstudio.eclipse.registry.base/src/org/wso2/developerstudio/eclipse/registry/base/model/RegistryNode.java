@@ -352,7 +352,7 @@ public class RegistryNode {
 	 * get the ResourceAdmin instance
 	 * @return
 	 */
-	public ResourceAdmin getResourceAdmin() {
+	public synchronized ResourceAdmin getResourceAdmin() {
 		if (resourceAdmin == null) {
 			resourceAdmin = new ResourceAdmin(getServerUrl().toString(),
 					getCredentials().getUsername(), getCredentials()
@@ -361,6 +361,14 @@ public class RegistryNode {
 		return resourceAdmin;
 	}
 
+	/**
+	 * set the ResourceAdmin instance
+	 * @param resourceAdmin
+	 */
+	public synchronized void setResourceAdmin(ResourceAdmin resourceAdmin) {
+		this.resourceAdmin = resourceAdmin;
+	}
+
 	/**
 	 * get server url 
 	 * @return
@@ -27,11 +27,14 @@ import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
-import org.apache.commons.io.FileUtils;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorPart;
@@ -46,20 +49,29 @@ import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.core.RegistryPermissionService;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RemoteCollectionImpl;
+import org.wso2.developerstudio.eclipse.registry.base.util.Utils;
 import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
 import org.wso2.developerstudio.eclipse.registry.core.exception.RegistryContentRetrieveException;
 import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
-import org.wso2.developerstudio.eclipse.registry.resource.authorization.ResourceAdmin;
 
 
 public class RegistryResourceNode implements Cloneable {
 	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
 
+	/**
+	 * number of children of a collection fetched from the registry at a time
+	 */
+	public static final int CHILDREN_PAGE_SIZE = 500;
+
 	private RegistryResourceNode registryResourceNodeParent;
 	private boolean iterativeRefresh = false;
 	private boolean error = false;
-	private ArrayList<RegistryResourceNode> resourceNodeList;
+	private volatile ArrayList<RegistryResourceNode> resourceNodeList;
+	private volatile int childCount = -1;
 	private RegistryNode connectionInfo;
 	private String mediaType;
 	private boolean allowExapand = true;
@@ -67,7 +79,7 @@ public class RegistryResourceNode implements Cloneable {
 	private List<String> versions;
 	private Map<String, VersionContent> retrievedVersionsContent;
 	private IEditorPart editor;
-	private RegistryResourceType registryResource = RegistryResourceType.UNDEFINED;
+	private volatile RegistryResourceType registryResource = RegistryResourceType.UNDEFINED;
 	private String resourceName;
 	private String oldPath;
 	private String newPath;
@@ -78,6 +90,7 @@ public class RegistryResourceNode implements Cloneable {
 	private boolean rename;
 	private File newFile;
 	private IFile workspaceFile;
+	private volatile ResourceDetails resourceDetails;
 	
 	public void setRegistryResource(RegistryResourceType registryResource) {
 		this.registryResource = registryResource;
@@ -173,15 +186,19 @@ public class RegistryResourceNode implements Cloneable {
 				return null;
 			}
 
-			Resource resourcesPerCollection = registry.getResourcesPerCollection(getRegistryResourcePath());
-			resourceNodeList = new ArrayList<RegistryResourceNode>();
+			Resource resourcesPerCollection = getCollectionPage(registry,
+					Math.max(CHILDREN_PAGE_SIZE, getLocalResourceNodeList().size()));
+			ArrayList<RegistryResourceNode> remoteResourceNodeList = new ArrayList<RegistryResourceNode>();
 			if (resourcesPerCollection instanceof Collection) {
 				Collection collec = (Collection) resourcesPerCollection;
 				try {
 					String[] children = collec.getChildren();
 					for (String childPath : children) {
-						resourceNodeList.add(new RegistryResourceNode(getConnectionInfo(), childPath, this));
+						RegistryResourceNode child = new RegistryResourceNode(getConnectionInfo(), childPath, this);
+						child.seedFromCollection(collec, childPath);
+						remoteResourceNodeList.add(child);
 					}
+					childCount = Math.max(collec.getChildCount(), children.length);
 					setRegistryResource(RegistryResourceType.COLLECTION);
 				} catch (RegistryException e) {
 					setRegistryResource(RegistryResourceType.UNDEFINED);
@@ -193,6 +210,7 @@ public class RegistryResourceNode implements Cloneable {
 				setRegistryResource(RegistryResourceType.UNDEFINED);
 				getResourceType();
 			}
+			resourceNodeList = remoteResourceNodeList;
 
 			if (isIterativeRefresh()) {
 				Display.getDefault().syncExec(new Runnable() {
@@ -221,7 +239,131 @@ public class RegistryResourceNode implements Cloneable {
 		 }
 		return resourceNodeList;
 	}
+
+	/**
+	 * get all the children of this collection, fetching the pages of children
+	 * not loaded so far from the registry
+	 * 
+	 * @return
+	 * @throws InvalidRegistryURLException
+	 * @throws UnknownRegistryException
+	 */
+	public ArrayList<RegistryResourceNode> getAllResourceNodeList() throws InvalidRegistryURLException,
+			UnknownRegistryException {
+		ArrayList<RegistryResourceNode> children = getResourceNodeList();
+		while (children != null && hasMoreChildren()) {
+			if (loadNextChildrenPage().isEmpty()) {
+				break;
+			}
+			children = resourceNodeList;
+		}
+		return children;
+	}
+
+	/**
+	 * check in the registry whether this collection has a child with the given
+	 * name, whether or not the child has been loaded
+	 * 
+	 * @param name
+	 * @return
+	 * @throws InvalidRegistryURLException
+	 * @throws UnknownRegistryException
+	 */
+	public boolean hasChild(String name) throws InvalidRegistryURLException, UnknownRegistryException {
+		return getConnectionInfo().getRegistry().resourceExists(appendPath(getRegistryResourcePath(), name));
+	}
+
+	/**
+	 * fetch the collection of this node with the first children. A node known
+	 * to be a collection is fetched a page at a time, anything else is fetched
+	 * in full as it may turn out to be a resource
+	 * 
+	 * @param registry
+	 * @param pageSize
+	 * @return
+	 * @throws InvalidRegistryURLException
+	 * @throws UnknownRegistryException
+	 */
+	private Resource getCollectionPage(Registry registry, int pageSize) throws InvalidRegistryURLException,
+			UnknownRegistryException {
+		if (registryResource == RegistryResourceType.COLLECTION) {
+			return registry.getCollectionPage(getRegistryResourcePath(), 0, pageSize);
+		}
+		return registry.getResourcesPerCollection(getRegistryResourcePath());
+	}
+
+	/**
+	 * check whether the registry has more children of this collection than
+	 * the ones loaded so far
+	 * 
+	 * @return
+	 */
+	public boolean hasMoreChildren() {
+		return getRemainingChildCount() > 0;
+	}
+
+	/**
+	 * get the number of children of this collection not loaded so far
+	 * 
+	 * @return
+	 */
+	public int getRemainingChildCount() {
+		ArrayList<RegistryResourceNode> loadedChildren = resourceNodeList;
+		if (loadedChildren == null || childCount < 0) {
+			return 0;
+		}
+		return Math.max(0, childCount - loadedChildren.size());
+	}
+
+	/**
+	 * fetch the next page of children of this collection from the registry and
+	 * add them after the children loaded so far
+	 * 
+	 * @return the children added
+	 * @throws InvalidRegistryURLException
+	 * @throws UnknownRegistryException
+	 */
+	public List<RegistryResourceNode> loadNextChildrenPage() throws InvalidRegistryURLException,
+			UnknownRegistryException {
+		ArrayList<RegistryResourceNode> loadedChildren = getLocalResourceNodeList();
+		Registry registry = getConnectionInfo().getRegistry();
+		Collection collec = registry.getCollectionPage(getRegistryResourcePath(), loadedChildren.size(),
+				CHILDREN_PAGE_SIZE);
+		ArrayList<RegistryResourceNode> newResourceNodeList = new ArrayList<RegistryResourceNode>(loadedChildren);
+		List<RegistryResourceNode> addedChildren = new ArrayList<RegistryResourceNode>();
+		Set<String> loadedPaths = new HashSet<String>();
+		for (RegistryResourceNode child : loadedChildren) {
+			loadedPaths.add(child.getRegistryResourcePath());
+		}
+		try {
+			for (String childPath : collec.getChildren()) {
+				// the collection may have changed since the previous page was fetched
+				if (loadedPaths.add(childPath)) {
+					RegistryResourceNode child = new RegistryResourceNode(getConnectionInfo(), childPath, this);
+					child.seedFromCollection(collec, childPath);
+					newResourceNodeList.add(child);
+					addedChildren.add(child);
+				}
+			}
+			childCount = addedChildren.isEmpty() ? newResourceNodeList.size() : Math.max(collec.getChildCount(),
+					newResourceNodeList.size());
+		} catch (RegistryException e) {
+			throw new UnknownRegistryException("Error while retrieving registry collection children paths: "
+					+ e.getMessage(), e);
+		}
+		resourceNodeList = newResourceNodeList;
+		return addedChildren;
+	}
 	
+	/**
+	 * check whether the children of this node have already been fetched from the registry
+	 * 
+	 * @return
+	 */
+	public boolean isResourceNodeListLoaded() {
+		return resourceNodeList != null;
+	}
+
 	public ArrayList<RegistryResourceNode> getLocalResourceNodeList() {		
 		 if(resourceNodeList==null){
 			 return new ArrayList<RegistryResourceNode>();
@@ -291,21 +433,7 @@ public class RegistryResourceNode implements Cloneable {
 			try {
 				Resource resourceItem = registry
 						.getResourcesPerCollection(getRegistryResourcePath());
-				setMediaType(resourceItem.getMediaType());
-				if (resourceItem instanceof Collection) {
-					registryResource = RegistryResourceType.COLLECTION;
-				}
-				if (registryResource == RegistryResourceType.UNDEFINED) {
-					if ("true".equalsIgnoreCase(resourceItem.getProperty("registry.link"))) {
-						if ("true".equalsIgnoreCase(resourceItem.getProperty("registry.mount"))) {
-							registryResource = RegistryResourceType.REMOTELINK;
-						}else{
-							registryResource = RegistryResourceType.SYMLINK;
-						}
-					} else {
-						registryResource = RegistryResourceType.RESOURCE;
-					}
-				}
+				setResourceMetadata(resourceItem);
 		 
 			} catch (Exception e) {
 				setError(true);
@@ -316,6 +444,52 @@ public class RegistryResourceNode implements Cloneable {
 		return registryResource;
 	}
 
+	/**
+	 * set the media type and the resource type of this node from the given registry resource
+	 * 
+	 * @param resourceItem
+	 */
+	private void setResourceMetadata(Resource resourceItem) {
+		setMediaType(resourceItem.getMediaType());
+		if (resourceItem instanceof Collection) {
+			registryResource = RegistryResourceType.COLLECTION;
+		} else if ("true".equalsIgnoreCase(resourceItem.getProperty("registry.link"))) {
+			if ("true".equalsIgnoreCase(resourceItem.getProperty("registry.mount"))) {
+				registryResource = RegistryResourceType.REMOTELINK;
+			} else {
+				registryResource = RegistryResourceType.SYMLINK;
+			}
+		} else {
+			registryResource = RegistryResourceType.RESOURCE;
+		}
+	}
+
+	/**
+	 * seed the media type and the resource type of this node from the child metadata the
+	 * registry sent along with the parent collection, if any, so that they need not be fetched
+	 * separately
+	 * 
+	 * @param parentCollection
+	 * @param childPath
+	 */
+	private void seedFromCollection(Collection parentCollection, String childPath) {
+		if (parentCollection instanceof RemoteCollectionImpl) {
+			Resource childResource = ((RemoteCollectionImpl) parentCollection).getChildResource(childPath);
+			if (childResource != null) {
+				setResourceMetadata(childResource);
+			}
+		}
+	}
+
+	/**
+	 * return the resource type known so far without contacting the registry
+	 * 
+	 * @return
+	 */
+	public RegistryResourceType getLocalResourceType() {
+		return registryResource;
+	}
+
 	/**
 	 * caption of the resource to display in the registry tree
 	 * 
@@ -365,64 +539,142 @@ public class RegistryResourceNode implements Cloneable {
 
 	/**
 	 * refresh registry tree when a new resource or collection added, updated or
-	 * deleted resourceNodeList contains previous registryResourceNodeList
+	 * deleted resourceNodeList contains previous registryResourceNodeList. The
+	 * children are matched by path, and the viewers are notified of the
+	 * children added, removed or updated instead of refreshing the whole tree.
+	 * A child missing from the first children of a larger collection is only
+	 * reported removed once it is known to be gone from the registry
 	 * 
+	 * @return the changes made to the children, or null if the children have
+	 *         not been loaded yet
 	 * @throws UnknownRegistryException
 	 * @throws InvalidRegistryURLException
 	 */
-	
-	@SuppressWarnings("unchecked")
-	public void refreshChildren() throws InvalidRegistryURLException, UnknownRegistryException {
-
-		if (!isnew) {
+	public RegistryChildrenDelta refreshChildren() throws InvalidRegistryURLException, UnknownRegistryException {
+		ArrayList<RegistryResourceNode> previousChildren = resourceNodeList;
+		if (isnew || previousChildren == null) {
+			return null;
+		}
+		Registry registry = getConnectionInfo().getRegistry();
+		Resource resource = getCollectionPage(registry, Math.max(CHILDREN_PAGE_SIZE, previousChildren.size()));
+		if (!(resource instanceof Collection)) {
+			return null;
+		}
+		Collection collec = (Collection) resource;
+		String[] children;
+		try {
+			children = collec.getChildren();
+			childCount = Math.max(collec.getChildCount(), children.length);
+		} catch (RegistryException e) {
+			throw new UnknownRegistryException(
+					"Error occured while retreiving registry collection children paths: " + e.getMessage(), e);
+		}
 
-			Registry registry = getConnectionInfo().getRegistry();
-			Resource resource = registry.getResourcesPerCollection(getRegistryResourcePath());
-			if (resource instanceof Collection) {
-				Collection collec = (Collection) resource;
-				ArrayList<String> newItemsList = new ArrayList<String>();
-				ArrayList<RegistryResourceNode> registryResourceNodesClone;
-				try {
-					String[] children = collec.getChildren();
-					registryResourceNodesClone = (ArrayList<RegistryResourceNode>) resourceNodeList.clone();
-					for (String childPath : children) {
-						boolean found = false;
-						for (RegistryResourceNode registryResourceNode : registryResourceNodesClone) {
-							String path = registryResourceNode.getRegistryResourcePath();
-							if (childPath.equals(path)) {
-								found = true;
-								registryResourceNodesClone.remove(registryResourceNode);
-								break;
-							}
-						}
-						if (!found) {
-							newItemsList.add(childPath);
-							RegistryResourceNode regResNode = new RegistryResourceNode(connectionInfo, childPath, this);
-							regResNode.setNew(true);
-							if (!resourceNodeList.contains(regResNode)) {
-								resourceNodeList.add(regResNode);
-							}
-						}
-					}
-				} catch (RegistryException e) {
-					throw new UnknownRegistryException(
-							"Error occured while retreiving registry collection children paths: " + e.getMessage(), e);
+		Map<String, RegistryResourceNode> removedChildren = new LinkedHashMap<String, RegistryResourceNode>();
+		for (RegistryResourceNode child : previousChildren) {
+			removedChildren.put(child.getRegistryResourcePath(), child);
+		}
+		List<RegistryResourceNode> addedChildren = new ArrayList<RegistryResourceNode>();
+		List<RegistryResourceNode> updatedChildren = new ArrayList<RegistryResourceNode>();
+		for (String childPath : children) {
+			RegistryResourceNode child = removedChildren.remove(childPath);
+			if (child == null) {
+				child = new RegistryResourceNode(connectionInfo, childPath, this);
+				child.seedFromCollection(collec, childPath);
+				child.setNew(true);
+				addedChildren.add(child);
+			} else {
+				String previousMediaType = child.getMediaType();
+				RegistryResourceType previousType = child.getLocalResourceType();
+				child.seedFromCollection(collec, childPath);
+				if (previousType != child.getLocalResourceType() ||
+						(previousMediaType == null ? child.getMediaType() != null
+								: !previousMediaType.equals(child.getMediaType()))) {
+					updatedChildren.add(child);
 				}
+			}
+		}
 
-				/**
-				 * if there are items still left in the clone, which means it is deleted resource from registry, it
-				 * should be removed from registryResourceNodeList
-				 */
-				for (int j = 0; j < registryResourceNodesClone.size(); j++) {
-					RegistryResourceNode tempData = registryResourceNodesClone.get(j);
-					resourceNodeList.remove(tempData);
-				}
+		if (!removedChildren.isEmpty() && children.length < childCount) {
+			/*
+			 * the page does not hold the whole collection, so the children
+			 * missing from it may only have moved past its end
+			 */
+			retainMovedChildren(registry, removedChildren, children.length);
+		}
 
+		/*
+		 * children left in the map have been deleted from the registry. The
+		 * remaining children keep their order and the added children follow
+		 * them.
+		 */
+		ArrayList<RegistryResourceNode> currentChildren = new ArrayList<RegistryResourceNode>(
+				previousChildren.size() - removedChildren.size() + addedChildren.size());
+		for (RegistryResourceNode child : previousChildren) {
+			if (removedChildren.get(child.getRegistryResourcePath()) != child) {
+				currentChildren.add(child);
 			}
 		}
+		currentChildren.addAll(addedChildren);
+		resourceNodeList = currentChildren;
 
+		RegistryChildrenDelta delta = new RegistryChildrenDelta(this, addedChildren,
+				new ArrayList<RegistryResourceNode>(removedChildren.values()), updatedChildren);
+		if (!delta.isEmpty() && getConnectionInfo().getRegUrlData() != null) {
+			getConnectionInfo().getRegUrlData().childrenChanged(delta);
+		}
+		return delta;
 	}
 	
+	/**
+	 * drop from the given children the ones the registry still has after the
+	 * first children of this collection, which moved there when children were
+	 * added before them. The next page of children is read first, as the
+	 * children which moved are found at its start. The children still missing
+	 * are then looked up one by one if there are fewer of them than pages of
+	 * children left, else the rest of the collection is read a page at a time
+	 * until all of them have been found
+	 * 
+	 * @param registry
+	 * @param missingChildren
+	 *            children missing from the first children, by path
+	 * @param start
+	 *            number of first children fetched
+	 * @throws InvalidRegistryURLException
+	 * @throws UnknownRegistryException
+	 */
+	private void retainMovedChildren(Registry registry, Map<String, RegistryResourceNode> missingChildren, int start)
+			throws InvalidRegistryURLException, UnknownRegistryException {
+		boolean firstPage = true;
+		while (!missingChildren.isEmpty()) {
+			int remainingPages = (childCount - start + CHILDREN_PAGE_SIZE - 1) / CHILDREN_PAGE_SIZE;
+			if (!firstPage && missingChildren.size() <= remainingPages) {
+				for (Iterator<String> paths = missingChildren.keySet().iterator(); paths.hasNext();) {
+					if (registry.resourceExists(paths.next())) {
+						paths.remove();
+					}
+				}
+				return;
+			}
+			Collection collec = registry.getCollectionPage(getRegistryResourcePath(), start, CHILDREN_PAGE_SIZE);
+			String[] children;
+			try {
+				children = collec.getChildren();
+			} catch (RegistryException e) {
+				throw new UnknownRegistryException(
+						"Error occured while retreiving registry collection children paths: " + e.getMessage(), e);
+			}
+			for (String childPath : children) {
+				missingChildren.remove(childPath);
+			}
+			if (children.length < CHILDREN_PAGE_SIZE) {
+				return;
+			}
+			start += children.length;
+			firstPage = false;
+		}
+	}
+
 	/**
 	 * return RegistryData object
 	 * 
@@ -432,6 +684,19 @@ public class RegistryResourceNode implements Cloneable {
 		return connectionInfo;
 	}
 
+	/**
+	 * get the details of the resource fetched for its editor
+	 * 
+	 * @return the details, or null if they have not been fetched
+	 */
+	public ResourceDetails getResourceDetails() {
+		return resourceDetails;
+	}
+
+	public void setResourceDetails(ResourceDetails resourceDetails) {
+		this.resourceDetails = resourceDetails;
+	}
+
 	/**
 	 * set the current RegistryData object
 	 * 
@@ -780,8 +1045,7 @@ public class RegistryResourceNode implements Cloneable {
 		}
 		
 		try {
-				ResourceAdmin rsAd = this.getConnectionInfo().getResourceAdmin();
-				hasWritePermissions=rsAd.checkWritePermissionPerResource(this.getRegistryResourcePath());
+				hasWritePermissions = RegistryPermissionService.getInstance().hasWritePermission(this);
 				return hasWritePermissions;
 		} catch (Exception e) {
 			log.error("Error occured while trying to get the permissions", e);
@@ -915,7 +1179,7 @@ public class RegistryResourceNode implements Cloneable {
 				if (getRegistryResourceNode().getResourceType() == RegistryResourceType.COLLECTION) {
 					return -1;
 				}
-				return FileUtils.checksumCRC32(getFile());
+				return Utils.getChecksumCRC32(getFile());
 			} catch (IOException e) {
 				log.error(e);
 			}
@@ -106,6 +106,16 @@ public class RegistryURLNode extends Observable {
 		notifyObservers();
 	}
 
+	/**
+	 * notify the viewers of the children added to, removed from or updated in
+	 * a collection, so that they update those children alone
+	 * @param delta
+	 */
+	public void childrenChanged(RegistryChildrenDelta delta) {
+		setChanged();
+		notifyObservers(delta);
+	}
+
 	/**
 	 * 
 	 * @return
@@ -17,28 +17,44 @@
 package org.wso2.developerstudio.eclipse.registry.base.persistent;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.net.URL;
-import java.util.ArrayList;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RemoteRegistry;
 
+/**
+ * Keeps the registries added to the workspace. The registry list can be read
+ * and changed from any thread; readers iterate over a snapshot of the list,
+ * and the changes are saved by writing the whole list to a temporary file
+ * which then replaces the url file, so the url file is never left half
+ * written. The list is written only when its content changed since the last
+ * save.
+ */
 public final class RegistryUrlStore {
 	private static IDeveloperStudioLog log=Logger.getLog(Activator.PLUGIN_ID);
 
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
 	private File urlListFile;
 	private List<RegistryURLInfo> urlList;
+	private String savedContent;
+	private final Object saveLock = new Object();
 	private static RegistryUrlStore instance;
 
 	/**
@@ -51,7 +67,7 @@ public final class RegistryUrlStore {
 	 * 
 	 */
 	private void init() {
-		urlList = new ArrayList<RegistryURLInfo>();
+		urlList = new CopyOnWriteArrayList<RegistryURLInfo>();
 		urlListFile = new File(ResourcesPlugin.getWorkspace().getRoot()
 								.getLocation().append(".metadata").append(Activator.PLUGIN_ID)
 								.append("urls.txt").toOSString());
@@ -62,7 +78,7 @@ public final class RegistryUrlStore {
 	 * get the instance of the RegistryUrlStore
 	 * @return
 	 */
-	public static RegistryUrlStore getInstance() {
+	public static synchronized RegistryUrlStore getInstance() {
 		if (instance == null) {
 			instance = new RegistryUrlStore();
 			instance.init();
@@ -75,16 +91,17 @@ public final class RegistryUrlStore {
 	 */
 	private void readUrlsFromFile() {
 		urlList.clear();
-		synchronized (urlList) {
+		synchronized (saveLock) {
+			// a temporary file left behind was not completely written
+			FileUtils.deleteQuietly(getTempFile());
 			if (!urlListFile.exists()){
 				return;
 			}
-			StringBuilder contents = new StringBuilder();
 
 			try {
 				BufferedReader input = new BufferedReader(new FileReader(urlListFile));
 				try {
-					String line = null; // not declared within while loop
+					String line = null; // not declared within while loop
 					while ((line = input.readLine()) != null) {
 						int i = line.indexOf(" ");
 						if (i > 0) {
@@ -109,12 +126,11 @@ public final class RegistryUrlStore {
 								}
 							}
 						}
-						contents.append(line);
-						contents.append(System.getProperty("line.separator"));
 					}
 				} finally {
 					input.close();
 				}
+				savedContent = getUrlListContent();
 			} catch (IOException ex) {
 				log.error("couldn't read the url from workspace"+ex.getMessage(),ex);
 			}
@@ -125,46 +141,62 @@ public final class RegistryUrlStore {
 	 * save newly added registry url to the url file
 	 */
 	private void saveUrlsToFile() {
-		if (urlListFile.exists()){
-			urlListFile.delete();
-		}
-		if (!urlListFile.getParentFile().exists()){
-			urlListFile.getParentFile().mkdirs();
-		}
-		Writer output = null;
-		try {
-			output = new BufferedWriter(new FileWriter(urlListFile));
-			for (RegistryURLInfo registryURLInfo : urlList) {
-				try {
-					if(!registryURLInfo.isSpecificControl()){// Save Reg Url only connect from registry perspective
-					output.write(registryURLInfo.getUrl().toString() +
-								" " +
-								Boolean.toString(registryURLInfo.isEnabled())+
-								" " +
-								registryURLInfo.getUsername() + 
-								" " +
-								registryURLInfo.getPath() + 
-								"\n");
-					}
-				} catch (IOException e) {
-					log.error("couldn't save the url in workspace"+e.getMessage(),e);
-				}
+		synchronized (saveLock) {
+			String content = getUrlListContent();
+			if (content.equals(savedContent) && urlListFile.exists()) {
+				return;
 			}
-		} catch (IOException e) {
-			log.error("Couldn't read the url list "+e.getMessage(),e);
-		} finally {
-			if (output != null)
+			if (!urlListFile.getParentFile().exists()){
+				urlListFile.getParentFile().mkdirs();
+			}
+			File tempFile = getTempFile();
+			try {
+				OutputStream output = new FileOutputStream(tempFile);
 				try {
+					output.write(content.getBytes(Charset.defaultCharset()));
+					output.flush();
+					((FileOutputStream) output).getFD().sync();
+				} finally {
 					output.close();
-				} catch (IOException e) {
-					log.error("Couldn't close the stream when saving urls into workspace file "+e.getMessage(),e);
 				}
+				try {
+					Files.move(tempFile.toPath(), urlListFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					           StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempFile.toPath(), urlListFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				savedContent = content;
+			} catch (IOException e) {
+				log.error("couldn't save the url list in workspace "+e.getMessage(),e);
+				FileUtils.deleteQuietly(tempFile);
+			}
+		}
+	}
+
+	private String getUrlListContent() {
+		StringBuilder content = new StringBuilder();
+		for (RegistryURLInfo registryURLInfo : urlList) {
+			if(!registryURLInfo.isSpecificControl()){// Save Reg Url only connect from registry perspective
+				content.append(registryURLInfo.getUrl().toString())
+				       .append(" ")
+				       .append(Boolean.toString(registryURLInfo.isEnabled()))
+				       .append(" ")
+				       .append(registryURLInfo.getUsername())
+				       .append(" ")
+				       .append(registryURLInfo.getPath())
+				       .append("\n");
+			}
 		}
+		return content.toString();
+	}
 
+	private File getTempFile() {
+		return new File(urlListFile.getPath() + TEMP_FILE_SUFFIX);
 	}
 
 	/**
-	 * get all registryUrls
+	 * get all registryUrls. The returned list can be iterated while the
+	 * registry list is being changed.
 	 * @return
 	 */
 	public List<RegistryURLInfo> getAllRegistryUrls() {
@@ -188,12 +220,14 @@ public final class RegistryUrlStore {
 		info.setPath(path);
 		info.setUsername(username);
 		info.setSpecificControl(isSpecificControl);
-	    if(!urlList.contains(info)){
-	    	urlList.add(info);
-	    	if(!isSpecificControl){
-	    		saveUrlsToFile();
-	    	}
-	       }
+		synchronized (saveLock) {
+		    if(!urlList.contains(info)){
+		    	urlList.add(info);
+		    	if(!isSpecificControl){
+		    		saveUrlsToFile();
+		    	}
+		    }
+		}
 		return info;
 	}
 	   
@@ -218,10 +252,10 @@ public final class RegistryUrlStore {
 	 * @param info
 	 */
 	public void removeRegistryUrl(RegistryURLInfo info) {
-		if (urlList.contains(info)) {
-			urlList.remove(info);
+		if (urlList.remove(info)) {
 			saveUrlsToFile();
 			removeRegistryPropertyFile(info.getUrl().getHost()+"."+info.getUrl().getPort());
+			RemoteRegistry.invalidateCache(info.getUrl().toString());
 		}
 	}
 
@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.remote;
+
+import org.apache.abdera.model.Element;
+import org.apache.commons.io.FileUtils;
+import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.base.Activator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the resources fetched by the {@link RemoteRegistry}, kept with the ETag the registry
+ * returned for them so that they are fetched again only when they have changed. The resources are
+ * kept per registry URL, user and path, the path including the version if any. The most recently
+ * used resources are kept in memory, and the atom documents they were read from are kept in the
+ * plugin state location so that the cache survives a restart.
+ *
+ * The number of resources kept in memory and the time a resource is kept for can be set with the
+ * {@value #MAX_SIZE_PROPERTY} and {@value #TIME_TO_LIVE_PROPERTY} system properties, the latter in
+ * milliseconds and counted from the last time the registry returned the resource or answered that
+ * it had not changed. The documents kept on the disk are swept in the background when the cache is
+ * created and then whenever a put finds them over the {@value #MAX_DISK_SIZE_PROPERTY} system
+ * property, in bytes, or not swept for an hour. Expired documents are deleted, then the oldest ones
+ * until the documents fit in the limit again.
+ *
+ * Only the in memory tier is guarded by the cache lock, the files are read and written outside of
+ * it so that a slow disk does not hold up the other registry requests.
+ */
+public class RegistryResourceCache {
+    private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+    public static final String MAX_SIZE_PROPERTY = "developerstudio.registry.cache.size";
+    public static final String TIME_TO_LIVE_PROPERTY = "developerstudio.registry.cache.ttl";
+    public static final String MAX_DISK_SIZE_PROPERTY = "developerstudio.registry.cache.disk.size";
+    private static final long DEFAULT_TIME_TO_LIVE = 7L * 24 * 60 * 60 * 1000;
+    private static final long DEFAULT_MAX_DISK_SIZE = 64L * 1024 * 1024;
+    private static final long SWEEP_INTERVAL = 60L * 60 * 1000;
+    private static final String CACHE_DIRECTORY = "registry-cache";
+    private static final String REGISTRY_FILE = "registry.url";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String HASH_ALGORITHM = "SHA-1";
+
+    private static RegistryResourceCache instance;
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final long maxDiskSize;
+    private final File cacheDirectory;
+    private final Map<String, CacheEntry> entries;
+    private final AtomicLong diskSize = new AtomicLong();
+    private final AtomicLong lastSweep = new AtomicLong(System.currentTimeMillis());
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private long generation;
+
+    /**
+     * @param cacheDirectory directory the atom documents are kept in, or null to keep the resources
+     *                       in memory only
+     */
+    RegistryResourceCache(int maxSize, long timeToLive, long maxDiskSize, File cacheDirectory) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.maxDiskSize = maxDiskSize;
+        this.cacheDirectory = cacheDirectory;
+        entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > RegistryResourceCache.this.maxSize;
+            }
+        };
+    }
+
+    public static synchronized RegistryResourceCache getInstance() {
+        if (instance == null) {
+            Activator activator = Activator.getDefault();
+            instance = new RegistryResourceCache(
+                    Integer.getInteger(MAX_SIZE_PROPERTY, (int) RegistryConstants.MAX_REG_CLIENT_CACHE_SIZE),
+                    Long.getLong(TIME_TO_LIVE_PROPERTY, DEFAULT_TIME_TO_LIVE),
+                    Long.getLong(MAX_DISK_SIZE_PROPERTY, DEFAULT_MAX_DISK_SIZE),
+                    activator == null ? null : activator.getStateLocation().append(CACHE_DIRECTORY).toFile());
+            instance.scheduleSweep();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached resource of a path, from memory or else from the disk. A resource read
+     * from the disk comes with the atom document it has to be created from.
+     *
+     * @param registryURL base URL of the registry
+     * @param username    user the resource was fetched for, or null for the anonymous user
+     * @param path        path of the resource
+     * @return the cached resource or null if the resource is not cached or has expired
+     */
+    public CacheEntry get(String registryURL, String username, String path) {
+        String key = getKey(registryURL, username, path);
+        CacheEntry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                entries.remove(key);
+            }
+        }
+        if (entry == null) {
+            entry = readEntry(registryURL, username, path);
+        }
+        if (entry != null && isExpired(entry)) {
+            FileUtils.deleteQuietly(getEntryFile(registryURL, username, path));
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Caches a resource fetched from the registry, in place of the one cached before if any.
+     *
+     * @param registryURL base URL of the registry
+     * @param username    user the resource was fetched for, or null for the anonymous user
+     * @param path        path of the resource
+     * @param eTag        ETag returned by the registry for the resource
+     * @param document    atom document the resource was created from, or null to keep the
+     *                    resource in memory only
+     * @param resource    the resource
+     */
+    public void put(String registryURL, String username, String path, String eTag,
+                    Element document, Resource resource) {
+        CacheEntry entry = new CacheEntry(eTag, System.currentTimeMillis(), null);
+        entry.resource = resource;
+        long putGeneration;
+        synchronized (this) {
+            entries.put(getKey(registryURL, username, path), entry);
+            putGeneration = generation;
+        }
+        File entryFile = getEntryFile(registryURL, username, path);
+        if (document == null) {
+            // an older document of the resource must not be read back after a restart
+            FileUtils.deleteQuietly(entryFile);
+            return;
+        }
+        if (writeEntry(registryURL, username, path, entry, document)) {
+            synchronized (this) {
+                if (generation != putGeneration) {
+                    // invalidated while the document was written
+                    FileUtils.deleteQuietly(entryFile);
+                    return;
+                }
+            }
+            if (entryFile != null) {
+                diskSize.addAndGet(entryFile.length());
+            }
+            if (diskSize.get() > maxDiskSize ||
+                    System.currentTimeMillis() - lastSweep.get() > SWEEP_INTERVAL) {
+                scheduleSweep();
+            }
+        }
+    }
+
+    /**
+     * Keeps a cached resource for another time to live once the registry answered that it has not
+     * changed, in memory and on the disk. A resource read from the disk is kept in memory from then
+     * on.
+     *
+     * @param registryURL base URL of the registry
+     * @param username    user the resource was fetched for, or null for the anonymous user
+     * @param path        path of the resource
+     * @param entry       cached entry the registry answered for
+     * @param resource    the resource of the entry, created from its atom document if it was read
+     *                    from the disk
+     */
+    public void revalidate(String registryURL, String username, String path, CacheEntry entry,
+                           Resource resource) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            entry.cachedAt = now;
+            entry.resource = resource;
+            entry.document = null;
+            entries.put(getKey(registryURL, username, path), entry);
+        }
+        File entryFile = getEntryFile(registryURL, username, path);
+        if (entryFile == null || !entryFile.exists()) {
+            return;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(entryFile, "rw")) {
+            // only the document of the same version, a newer one may have been written meanwhile
+            if (getKey(registryURL, username, path).equals(file.readUTF()) &&
+                    entry.eTag.equals(file.readUTF())) {
+                file.writeLong(now);
+            }
+        } catch (IOException e) {
+            // the document expires at its old time and the resource is fetched again then
+            log.warn("Could not revalidate the cached registry resource " + path, e);
+        }
+    }
+
+    /**
+     * Drops the cached resource of a path, both from memory and from the disk.
+     *
+     * @param registryURL base URL of the registry
+     * @param username    user the resource was fetched for, or null for the anonymous user
+     * @param path        path of the resource
+     */
+    public void remove(String registryURL, String username, String path) {
+        synchronized (this) {
+            entries.remove(getKey(registryURL, username, path));
+        }
+        FileUtils.deleteQuietly(getEntryFile(registryURL, username, path));
+    }
+
+    /**
+     * Drops the cached resources of the given registry, or of all the registries hosted under the
+     * given URL, both from memory and from the disk.
+     *
+     * @param registryURL URL of the registry or of the server hosting it
+     */
+    public void invalidate(String registryURL) {
+        String prefix = registryURL.endsWith("/") ? registryURL.substring(0, registryURL.length() - 1)
+                : registryURL;
+        synchronized (this) {
+            generation++;
+            for (Iterator<String> iterator = entries.keySet().iterator(); iterator.hasNext();) {
+                String key = iterator.next();
+                if (isUnder(key.substring(0, key.indexOf('|')), prefix)) {
+                    iterator.remove();
+                }
+            }
+        }
+        File[] registryDirectories = cacheDirectory == null ? null : cacheDirectory.listFiles();
+        if (registryDirectories == null) {
+            return;
+        }
+        for (File registryDirectory : registryDirectories) {
+            File registryFile = new File(registryDirectory, REGISTRY_FILE);
+            try {
+                if (!registryFile.exists() ||
+                        isUnder(FileUtils.readFileToString(registryFile, StandardCharsets.UTF_8.name()), prefix)) {
+                    FileUtils.deleteQuietly(registryDirectory);
+                }
+            } catch (IOException e) {
+                log.warn("Could not read the registry cache " + registryDirectory, e);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a registry URL is the given URL or a URL under it, so that the registry of
+     * .../registry2 is not taken to be under .../registry.
+     */
+    private static boolean isUnder(String registryURL, String prefix) {
+        return registryURL.equals(prefix) || registryURL.startsWith(prefix + "/");
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return System.currentTimeMillis() - entry.cachedAt > timeToLive;
+    }
+
+    private void scheduleSweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        lastSweep.set(System.currentTimeMillis());
+        Thread sweeper = new Thread("Registry cache sweeper") {
+            public void run() {
+                try {
+                    sweep();
+                } finally {
+                    sweeping.set(false);
+                }
+            }
+        };
+        sweeper.setDaemon(true);
+        sweeper.start();
+    }
+
+    /**
+     * Deletes the expired documents from the disk, and then the oldest documents until the ones
+     * left fit in the maximum disk size.
+     */
+    void sweep() {
+        File[] registryDirectories = cacheDirectory == null ? null : cacheDirectory.listFiles();
+        if (registryDirectories == null) {
+            diskSize.set(0);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long size = 0;
+        List<File> entryFiles = new ArrayList<File>();
+        for (File registryDirectory : registryDirectories) {
+            File[] files = registryDirectory.listFiles();
+            if (files == null) {
+                continue;
+            }
+            boolean empty = true;
+            for (File file : files) {
+                if (REGISTRY_FILE.equals(file.getName())) {
+                    continue;
+                }
+                long age = now - file.lastModified();
+                if (file.getName().endsWith(TEMP_FILE_SUFFIX) ? age > SWEEP_INTERVAL : age > timeToLive) {
+                    FileUtils.deleteQuietly(file);
+                    continue;
+                }
+                empty = false;
+                if (!file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                    entryFiles.add(file);
+                    size += file.length();
+                }
+            }
+            if (empty) {
+                FileUtils.deleteQuietly(registryDirectory);
+            }
+        }
+        if (size > maxDiskSize) {
+            final Map<File, Long> lastModifiedTimes = new LinkedHashMap<File, Long>();
+            for (File entryFile : entryFiles) {
+                lastModifiedTimes.put(entryFile, entryFile.lastModified());
+            }
+            Collections.sort(entryFiles, new Comparator<File>() {
+                public int compare(File file1, File file2) {
+                    return lastModifiedTimes.get(file1).compareTo(lastModifiedTimes.get(file2));
+                }
+            });
+            for (File entryFile : entryFiles) {
+                if (size <= maxDiskSize) {
+                    break;
+                }
+                long length = entryFile.length();
+                if (entryFile.delete()) {
+                    size -= length;
+                }
+            }
+        }
+        diskSize.set(size);
+    }
+
+    private CacheEntry readEntry(String registryURL, String username, String path) {
+        File entryFile = getEntryFile(registryURL, username, path);
+        if (entryFile == null || !entryFile.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entryFile)))) {
+            if (!getKey(registryURL, username, path).equals(in.readUTF())) {
+                return null;
+            }
+            String eTag = in.readUTF();
+            long cachedAt = in.readLong();
+            byte[] document = new byte[in.readInt()];
+            in.readFully(document);
+            return new CacheEntry(eTag, cachedAt, document);
+        } catch (IOException e) {
+            // also when the file was deleted or replaced while it was read
+            log.warn("Could not read the cached registry resource " + path, e);
+            return null;
+        }
+    }
+
+    private boolean writeEntry(String registryURL, String username, String path, CacheEntry entry,
+                               Element document) {
+        File entryFile = getEntryFile(registryURL, username, path);
+        if (entryFile == null) {
+            return false;
+        }
+        File tempFile = null;
+        try {
+            File registryDirectory = entryFile.getParentFile();
+            if (!registryDirectory.exists()) {
+                registryDirectory.mkdirs();
+            }
+            File registryFile = new File(registryDirectory, REGISTRY_FILE);
+            if (!registryFile.exists()) {
+                FileUtils.writeStringToFile(registryFile, registryURL, StandardCharsets.UTF_8.name());
+            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            document.writeTo(content);
+            // a temporary file of its own, as the same resource may be written by another thread
+            tempFile = File.createTempFile(entryFile.getName(), TEMP_FILE_SUFFIX, registryDirectory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(tempFile)))) {
+                out.writeUTF(getKey(registryURL, username, path));
+                out.writeUTF(entry.eTag);
+                out.writeLong(entry.cachedAt);
+                out.writeInt(content.size());
+                content.writeTo(out);
+            }
+            Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not cache the registry resource " + path, e);
+            FileUtils.deleteQuietly(tempFile);
+            return false;
+        }
+    }
+
+    private static String getKey(String registryURL, String username, String path) {
+        return registryURL + "|" + (username == null ? "" : username) + "|" + path;
+    }
+
+    File getEntryFile(String registryURL, String username, String path) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        File registryDirectory = new File(cacheDirectory, hash(registryURL + "|" + (username == null ? "" : username)));
+        return new File(registryDirectory, hash(path));
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached resource with the ETag it was returned with.
+     */
+    public static class CacheEntry {
+        private final String eTag;
+        private volatile long cachedAt;
+        private volatile Resource resource;
+        private volatile byte[] document;
+
+        private CacheEntry(String eTag, long cachedAt, byte[] document) {
+            this.eTag = eTag;
+            this.cachedAt = cachedAt;
+            this.document = document;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return the cached resource, or null if it has to be created from the atom document
+         */
+        public Resource getResource() {
+            return resource;
+        }
+
+        /**
+         * @return the atom document of a resource read from the disk
+         */
+        public byte[] getDocument() {
+            return document;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.remote;
+
+import org.apache.abdera.Abdera;
+import org.apache.abdera.protocol.client.AbderaClient;
+import org.apache.abdera.protocol.client.ClientResponse;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
+import org.wso2.developerstudio.eclipse.registry.base.core.TrustEverythingTrustManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP transport used by the {@link RemoteRegistry} to talk to a registry. A single transport is
+ * kept per registry URL and user, and every client handed out by it shares one pooled, keep-alive
+ * connection manager, so consecutive requests to the same registry reuse the already established
+ * TCP/TLS connections instead of opening new ones. Different users of a registry do not share a
+ * transport, so they do not share the HTTP state and cookies either.
+ */
+public class RegistryTransport {
+
+    private static final int MAX_CONNECTIONS_PER_HOST = 8;
+    private static final int MAX_TOTAL_CONNECTIONS = 32;
+    private static final int CONNECTION_TIMEOUT = 30000;
+    private static final long IDLE_CONNECTION_TIMEOUT = 60000;
+    private static final long IDLE_CONNECTION_CHECK_INTERVAL = 15000;
+
+    private static final Map<String, RegistryTransport> transports =
+            new ConcurrentHashMap<String, RegistryTransport>();
+    private static IdleConnectionTimeoutThread idleConnectionEvictor;
+
+    static {
+        AbderaClient.registerTrustManager(new TrustEverythingTrustManager());
+    }
+
+    private final Abdera abdera;
+    private final MultiThreadedHttpConnectionManager connectionManager;
+    private final HttpClient httpClient;
+
+    private RegistryTransport(Abdera abdera) {
+        this.abdera = abdera;
+        connectionManager = new MultiThreadedHttpConnectionManager();
+        HttpConnectionManagerParams params = connectionManager.getParams();
+        params.setDefaultMaxConnectionsPerHost(MAX_CONNECTIONS_PER_HOST);
+        params.setMaxTotalConnections(MAX_TOTAL_CONNECTIONS);
+        params.setConnectionTimeout(CONNECTION_TIMEOUT);
+        params.setStaleCheckingEnabled(true);
+        httpClient = new HttpClient(connectionManager);
+        httpClient.getParams().setConnectionManagerTimeout(CONNECTION_TIMEOUT);
+        httpClient.getParams().setParameter("http.useragent", AbderaClient.DEFAULT_USER_AGENT);
+        httpClient.getParams().setBooleanParameter("http.protocol.expect-continue", true);
+        httpClient.getParams().setCookiePolicy("compatibility");
+        registerForIdleEviction(connectionManager);
+    }
+
+    /**
+     * Returns the transport shared by all the remote registry instances pointing to the given
+     * registry URL as the given user.
+     *
+     * @param registryURL base URL of the registry
+     * @param username    user accessing the registry, null for the anonymous user
+     * @param abdera      abdera instance used to create the clients
+     * @return the transport of the registry and user
+     */
+    public static RegistryTransport getTransport(String registryURL, String username, Abdera abdera) {
+        String key = getKey(registryURL, username);
+        RegistryTransport transport = transports.get(key);
+        if (transport == null) {
+            synchronized (transports) {
+                transport = transports.get(key);
+                if (transport == null) {
+                    transport = new RegistryTransport(abdera);
+                    transports.put(key, transport);
+                }
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * Closes the pooled connections of all the users of the given registry URL. New pools will be
+     * created the next time the registry is accessed.
+     *
+     * @param registryURL base URL of the registry
+     */
+    public static void closeTransport(String registryURL) {
+        String prefix = registryURL + "|";
+        List<RegistryTransport> closed = new ArrayList<RegistryTransport>();
+        synchronized (transports) {
+            for (Iterator<Map.Entry<String, RegistryTransport>> iterator = transports.entrySet().iterator();
+                    iterator.hasNext();) {
+                Map.Entry<String, RegistryTransport> entry = iterator.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    closed.add(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        for (RegistryTransport transport : closed) {
+            transport.shutdown();
+        }
+    }
+
+    /**
+     * Closes the pooled connections of all the registries.
+     */
+    public static void closeAllTransports() {
+        synchronized (transports) {
+            for (RegistryTransport transport : transports.values()) {
+                transport.shutdown();
+            }
+            transports.clear();
+        }
+    }
+
+    /**
+     * Returns a client backed by the pooled connection manager of this transport. The client must
+     * not be torn down, release the responses obtained from it through {@link #release}.
+     *
+     * @return the pooled client
+     */
+    public AbderaClient getClient() {
+        return new AbderaClient(abdera, httpClient);
+    }
+
+    /**
+     * Returns a dedicated, non-pooled client with the given socket timeout. Used for long running
+     * operations such as dump and restore, the caller must tear the client down when done.
+     *
+     * @param timeout socket timeout in milliseconds
+     * @return the dedicated client
+     */
+    public AbderaClient getClient(int timeout) {
+        AbderaClient abderaClient = new AbderaClient(abdera);
+        abderaClient.setSocketTimeout(timeout);
+        return abderaClient;
+    }
+
+    /**
+     * Hands the connection used by the given response back to the pool, so it can be kept alive and
+     * reused by the next request.
+     *
+     * @param response response to release, can be null
+     */
+    public void release(ClientResponse response) {
+        if (response != null) {
+            response.release();
+        }
+    }
+
+    private static String getKey(String registryURL, String username) {
+        return registryURL + "|" + (username == null ? "" : username);
+    }
+
+    private void shutdown() {
+        synchronized (RegistryTransport.class) {
+            if (idleConnectionEvictor != null) {
+                idleConnectionEvictor.removeConnectionManager(connectionManager);
+            }
+        }
+        connectionManager.shutdown();
+    }
+
+    private static synchronized void registerForIdleEviction(
+            MultiThreadedHttpConnectionManager connectionManager) {
+        if (idleConnectionEvictor == null) {
+            idleConnectionEvictor = new IdleConnectionTimeoutThread();
+            idleConnectionEvictor.setName("Registry idle connection evictor");
+            idleConnectionEvictor.setConnectionTimeout(IDLE_CONNECTION_TIMEOUT);
+            idleConnectionEvictor.setTimeoutInterval(IDLE_CONNECTION_CHECK_INTERVAL);
+            idleConnectionEvictor.start();
+        }
+        idleConnectionEvictor.addConnectionManager(connectionManager);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.remote;
+
+import org.wso2.carbon.registry.core.CollectionImpl;
+import org.wso2.carbon.registry.core.Resource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collection returned by the {@link RemoteRegistry}. Along with the child paths it keeps the
+ * metadata (type, media type, properties, last modified time and version) the registry sends for
+ * every child entry in the collection feed, so that callers listing the collection do not have to
+ * fetch each child separately to find out what it is.
+ */
+public class RemoteCollectionImpl extends CollectionImpl {
+
+    private Map<String, Resource> childResources = new HashMap<String, Resource>();
+
+    /**
+     * Returns the metadata of the given child as sent in the collection feed. The returned resource
+     * is a {@link org.wso2.carbon.registry.core.Collection} when the child is a collection.
+     *
+     * @param childPath path of the child
+     * @return the child metadata, or null if the child was not part of the feed or its entry did
+     *         not tell what it is
+     */
+    public Resource getChildResource(String childPath) {
+        return childResources.get(childPath);
+    }
+
+    void addChildResource(String childPath, Resource childResource) {
+        childResources.put(childPath, childResource);
+    }
+}
@@ -30,7 +30,6 @@ import org.apache.commons.io.input.ReaderInputStream;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.registry.app.APPConstants;
-import org.wso2.carbon.registry.app.CachedResources;
 import org.wso2.carbon.registry.app.Properties;
 import org.wso2.carbon.registry.app.Property;
 import org.wso2.carbon.registry.app.PropertyExtensionFactory;
@@ -43,7 +42,6 @@ import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.config.RegistryContext;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.exceptions.ResourceNotFoundException;
-import org.wso2.developerstudio.eclipse.registry.base.core.TrustEverythingTrustManager;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
@@ -75,7 +73,8 @@ public class RemoteRegistry implements Registry {
     private String authorizationString = null;
     private String username = null;
     private Abdera abdera = new Abdera();
-    private static CachedResources cache = new CachedResources();
+    private RegistryTransport transport;
+    private static RegistryResourceCache cache = RegistryResourceCache.getInstance();
 
     /**
      * To create a remote registry need to provide a URL of a remote registry and the URL should be
@@ -88,6 +87,7 @@ public class RemoteRegistry implements Registry {
         if (baseURI.endsWith("/")) {
             baseURI = baseURI.substring(0, baseURI.length() - 1);
         }
+        transport = RegistryTransport.getTransport(baseURI, null, abdera);
     }
 
     /**
@@ -110,6 +110,7 @@ public class RemoteRegistry implements Registry {
             baseURI = baseURI.substring(0, baseURI.length() - 1);
         }
         this.username = userName;
+        transport = RegistryTransport.getTransport(baseURI, userName, abdera);
         if (userName != null && password != null) {
 
             authorizationString = userName + ":" + password;
@@ -150,8 +151,7 @@ public class RemoteRegistry implements Registry {
 
     public Resource get(String path) throws RegistryException {
     	
-        AbderaClient abderaClient = new AbderaClient(abdera);
-        AbderaClient.registerTrustManager(new TrustEverythingTrustManager());
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse;
         String encodedPath;
         // If the request is to fetch all comments for a given path, then encode ":" as well to
@@ -168,59 +168,78 @@ public class RemoteRegistry implements Registry {
         } else {
             encodedPath = encodeURL(path);
         }
-        if (!cache.isResourceCached(path)) {
+        RegistryResourceCache.CacheEntry cachedEntry = cache.get(baseURI, username, path);
+        if (cachedEntry == null) {
             clientResponse =
                     abderaClient.get(baseURI + "/atom" + encodedPath, getAuthorization());
         } else {
             clientResponse =
                     abderaClient.get(baseURI + "/atom" + encodedPath,
-                            getAuthorizationForCaching(path));
+                            getAuthorizationForCaching(cachedEntry));
         }
-        if (clientResponse.getType() == Response.ResponseType.CLIENT_ERROR ||
-                clientResponse.getType() == Response.ResponseType.SERVER_ERROR) {
-            if (clientResponse.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
-                abderaClient.teardown();
-                throw new ResourceNotFoundException(path);
+        try {
+            if (clientResponse.getType() == Response.ResponseType.CLIENT_ERROR ||
+                    clientResponse.getType() == Response.ResponseType.SERVER_ERROR) {
+                if (clientResponse.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
+                    if (cachedEntry != null) {
+                        cache.remove(baseURI, username, path);
+                    }
+                    throw new ResourceNotFoundException(path);
+                }
+                throw new RegistryException(clientResponse.getStatusText());
             }
-            abderaClient.teardown();
-            throw new RegistryException(clientResponse.getStatusText());
+
+            if (clientResponse.getStatus() == HttpURLConnection.HTTP_NOT_MODIFIED && cachedEntry != null) {
+                log.debug(
+                        "Cached resource returned since no modification has been done on the resource");
+                Resource cachedResource = cachedEntry.getResource();
+                if (cachedResource == null) {
+                    // cached on the disk in an earlier session
+                    Element cachedDocument = abdera.getParser().parse(
+                            new ByteArrayInputStream(cachedEntry.getDocument())).getRoot();
+                    cachedResource = createResource(path, cachedDocument);
+                }
+                cache.revalidate(baseURI, username, path, cachedEntry, cachedResource);
+                return cachedResource;
+            }
+            String eTag = clientResponse.getHeader("ETag");
+            Element introspection = clientResponse.getDocument().getRoot();
+            ResourceImpl resource = createResource(path, introspection);
+            /* if the resource is modified then the new resource replaces the one in the cache, the
+             * least recently used resources are dropped from memory once the cache is full. A
+             * resource returned without an ETag can not be revalidated, so the entry cached for it
+             * before is dropped rather than served again */
+            if (eTag != null) {
+                cache.put(baseURI, username, path, eTag, introspection, resource);
+            } else if (cachedEntry != null) {
+                cache.remove(baseURI, username, path);
+            }
+            return resource;
+        } finally {
+            transport.release(clientResponse);
         }
+    }
 
-        if (clientResponse.getStatus() == HttpURLConnection.HTTP_NOT_MODIFIED) {
-            abderaClient.teardown();
-            /*do caching here */
-            log.debug(
-                    "Cached resource returned since no modification has been done on the resource");
-            return cache.getCachedResource(path);
-        }
-        String eTag = clientResponse.getHeader("ETag");
-        Element introspection = clientResponse.getDocument().getRoot();
-        ResourceImpl resource;
+    private ResourceImpl createResource(String path, Element introspection) throws RegistryException {
         if (introspection instanceof Feed) {
             // This is a collection
             Feed feed = (Feed) introspection;
             String state = feed.getSimpleExtension(new QName(APPConstants.NAMESPACE, APPConstants.NAMESPACE_STATE));
             if (state != null && state.equals("Deleted")) {
-                abderaClient.teardown();
                 throw new ResourceNotFoundException(path);
             }
-            resource = createResourceFromFeed(feed);
-        } else {
-            Entry entry = (Entry) introspection;
-            resource = createResourceFromEntry(entry);
+            return createResourceFromFeed(feed);
         }
-        /* if the resource is not Get before  add it to cache before adding it check the max cache
-  or if the resource is modified then new resource is replacing the current resource in the cache
-   * size configured in registry.xml */
-        if (!cache.cacheResource(path, resource, eTag,
-                RegistryConstants.MAX_REG_CLIENT_CACHE_SIZE)) {
-            log.debug("Max Cache size exceeded the configured Cache size");
-        }
-
+        return createResourceFromEntry((Entry) introspection);
+    }
 
-        abderaClient.teardown();
-//        resource.setPath(path);
-        return resource;
+    /**
+     * Drops the cached resources of the registries hosted at the given URL.
+     *
+     * @param registryURL URL of the registry or of the server hosting it
+     */
+    public static void invalidateCache(String registryURL) {
+        cache.invalidate(registryURL);
     }
 
     public Resource getMetaData(String path) throws RegistryException {
@@ -236,36 +255,35 @@ public class RemoteRegistry implements Registry {
     }
 
     public Collection get(String path, int start, int pageSize) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse =
                 abderaClient.get(baseURI + "/atom" + encodeURL(path) +
                         "?start=" + start + "&pageLen=" + pageSize, getAuthorization());
-        if (clientResponse.getType() == Response.ResponseType.CLIENT_ERROR ||
-                clientResponse.getType() == Response.ResponseType.SERVER_ERROR) {
-            if (clientResponse.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
-                abderaClient.teardown();
+        try {
+            if (clientResponse.getType() == Response.ResponseType.CLIENT_ERROR ||
+                    clientResponse.getType() == Response.ResponseType.SERVER_ERROR) {
+                if (clientResponse.getStatus() == HttpURLConnection.HTTP_NOT_FOUND) {
+                    throw new ResourceNotFoundException(path);
+                }
+                throw new RegistryException(clientResponse.getStatusText());
+            }
+            Element introspection = clientResponse.getDocument().getRoot();
+            if (!(introspection instanceof Feed)) {
+                throw new RegistryException("Got " + introspection.getQName() +
+                        " when expecting <feed>!");
+            }
+            CollectionImpl resource;
+            // This is a collection
+            Feed feed = (Feed) introspection;
+            String state = feed.getSimpleExtension(new QName(APPConstants.NAMESPACE, APPConstants.NAMESPACE_STATE));
+            if (state != null && state.equals("Deleted")) {
                 throw new ResourceNotFoundException(path);
             }
-            abderaClient.teardown();
-            throw new RegistryException(clientResponse.getStatusText());
-        }
-        Element introspection = clientResponse.getDocument().getRoot();
-        if (!(introspection instanceof Feed)) {
-            abderaClient.teardown();
-            throw new RegistryException("Got " + introspection.getQName() +
-                    " when expecting <feed>!");
-        }
-        CollectionImpl resource;
-        // This is a collection
-        Feed feed = (Feed) introspection;
-        String state = feed.getSimpleExtension(new QName(APPConstants.NAMESPACE, APPConstants.NAMESPACE_STATE));
-        if (state != null && state.equals("Deleted")) {
-            abderaClient.teardown();
-            throw new ResourceNotFoundException(path);
+            resource = createResourceFromFeed(feed);
+            return resource;
+        } finally {
+            transport.release(clientResponse);
         }
-        resource = createResourceFromFeed(feed);
-        abderaClient.teardown();
-        return resource;
     }
 
     /**
@@ -280,7 +298,7 @@ public class RemoteRegistry implements Registry {
      */
     private CollectionImpl createResourceFromFeed(Feed feed)
             throws RegistryException {
-        CollectionImpl resource = new CollectionImpl();
+        RemoteCollectionImpl resource = new RemoteCollectionImpl();
         org.wso2.carbon.registry.app.Properties properties =
                 feed.getExtension(PropertyExtensionFactory.PROPERTIES);
         RemoteRegistry.createPropertiesFromExtensionElement(properties, resource);
@@ -356,7 +374,21 @@ public class RemoteRegistry implements Registry {
                             }
                         }
                     }      */
-                    childNodes[i] = URLDecoder.decode(childLink.getHref().toString());
+                    childNodes[i] = URLDecoder.decode(
+                            childLink != null ? childLink.getHref().toString() : entry.getTitle());
+                    // The feed already carries the metadata of every child, keep it so that the
+                    // children need not be fetched one by one to find out what they are. A child
+                    // whose entry cannot be read is still listed by its path, and its metadata is
+                    // fetched separately when needed.
+                    try {
+                        ResourceImpl childResource = createChildResourceFromEntry(entry);
+                        if (childResource != null) {
+                            resource.addChildResource(childNodes[i], childResource);
+                        }
+                    } catch (Exception e) {
+                        log.warn("Unable to read the metadata of " + childNodes[i] +
+                                " from the collection feed of " + path, e);
+                    }
                 }
                 resource.setContent(childNodes);
             }
@@ -365,6 +397,57 @@ public class RemoteRegistry implements Registry {
         return resource;
     }
 
+    /**
+     * Creates the metadata of a collection child from its entry in the collection feed. A child
+     * is taken as a collection only when its entry carries the child count marker the registry
+     * adds to collections, and as a resource only when it carries inline content or a content
+     * source link. The type of any other child is not known from the feed.
+     *
+     * @param entry : child entry of the collection feed
+     *
+     * @return : Created resource or collection holding the child metadata, or null if the type of
+     *         the child is not known from its entry
+     * @throws org.wso2.carbon.registry.core.exceptions.RegistryException
+     *          : If the entry could not be read
+     */
+    private ResourceImpl createChildResourceFromEntry(Entry entry) throws RegistryException {
+        String childCount = entry.getSimpleExtension(APPConstants.QN_CHILD_COUNT);
+        if (childCount == null) {
+            return entry.getContentElement() != null ? createResourceFromEntry(entry) : null;
+        }
+        CollectionImpl resource = new CollectionImpl();
+        resource.setChildCount(Integer.parseInt(childCount));
+
+        final Link pathLink = Utils.getLinkWithRel(entry, APPConstants.PARAMETER_PATH);
+        String path = (pathLink != null) ? pathLink.getHref().toString() : entry.getTitle();
+        path = URLDecoder.decode(path);
+        resource.setPath(path);
+
+        String mediaType = entry.getSimpleExtension(new QName(APPConstants.NAMESPACE, APPConstants.NAMESPACE_MEDIA_TYPE));
+        if (mediaType != null) {
+            resource.setMediaType(mediaType);
+        }
+        org.wso2.carbon.registry.app.Properties properties =
+                entry.getExtension(PropertyExtensionFactory.PROPERTIES);
+        createPropertiesFromExtensionElement(properties, resource);
+        if (entry.getAuthor() != null) {
+            resource.setAuthorUserName(entry.getAuthor().getName());
+        }
+        resource.setLastModified(entry.getUpdated());
+
+        String lastUpdatedUser = entry.getSimpleExtension(APPConstants.QN_LAST_UPDATER);
+        if (lastUpdatedUser != null) {
+            resource.setLastUpdaterUserName(lastUpdatedUser);
+        }
+
+        String snapshotID = entry.getSimpleExtension(APPConstants.QN_SNAPSHOT_ID);
+        if (snapshotID != null) {
+            resource.setMatchingSnapshotID(Long.parseLong(snapshotID));
+        }
+        resource.setDescription(entry.getSummary());
+        return resource;
+    }
+
     // creates a resource from the entry.
     private ResourceImpl createResourceFromEntry(Entry entry) throws RegistryException {
         RemoteResourceImpl resource = new RemoteResourceImpl();
@@ -444,11 +527,11 @@ public class RemoteRegistry implements Registry {
     }
 
     public boolean resourceExists(String path) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse response = abderaClient.head(baseURI + APPConstants.ATOM + encodeURL(path),
                 getAuthorization());
         boolean exists = (response.getType() == Response.ResponseType.SUCCESS);
-        abderaClient.teardown();
+        transport.release(response);
         return exists;
     }
 
@@ -476,7 +559,7 @@ public class RemoteRegistry implements Registry {
          boolean alreadyExists = false; // Until the above fix is made, this is to make sure POST is called all the time.
 
 
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         final Factory factory = abdera.getFactory();
         boolean isCollection = resource instanceof Collection;
 
@@ -542,7 +625,7 @@ public class RemoteRegistry implements Registry {
                     element, requestOptions);
         }
          if (resp.getStatus() == HttpURLConnection.HTTP_UNAUTHORIZED) {
-            abderaClient.teardown();
+            transport.release(resp);
             String msg = "User is not authorized to add the resource to " + suggestedPath;
             log.error(msg);
             throw new RegistryException(msg);
@@ -550,7 +633,7 @@ public class RemoteRegistry implements Registry {
             String msg = "Add resource fail. Suggested Path: " + suggestedPath +
                     ", Response Status: " + resp.getStatus() +
                     ", Response Type: " + resp.getType();
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -559,7 +642,7 @@ public class RemoteRegistry implements Registry {
 //        // todo - fix this to use util routine?
 //        int i = resultPath.lastIndexOf('/');
 //        impl.setParentPath(i == 0 ? "/" : resultPath.substring(0, i));
-        abderaClient.teardown();
+        transport.release(resp);
         if (resp.getLocation() != null) {
             String location = resp.getLocation().toString();
             if (location != null) {
@@ -655,7 +738,7 @@ public class RemoteRegistry implements Registry {
                 relativePath)) {
             throw new RegistryException("Invalid characters have been used in the resource name.");
         }
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         final Factory factory = abdera.getFactory();
         Entry entry = factory.newEntry();
         entry.setId(baseURI + APPConstants.ATOM + encodeURL(suggestedPath));
@@ -695,7 +778,7 @@ public class RemoteRegistry implements Registry {
                         ", Response Status: " + response.getStatus() +
                         ", Response Type: " + response.getType());
             }
-            abderaClient.teardown();
+            transport.release(response);
 
             String location = response.getLocation().toString();
             if (location.startsWith(baseURI)) {
@@ -707,14 +790,14 @@ public class RemoteRegistry implements Registry {
             String msg = "failed to import resource at " + sourceURL + "." +
                     ", Response Status: " + response.getStatus() +
                     ", Response Type: " + response.getType();
-            abderaClient.teardown();
+            transport.release(response);
             log.error(msg);
             throw new RegistryException(msg);
         }
     }
 
     public void delete(String path) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse resp = abderaClient.delete(baseURI + APPConstants.ATOM + encodeURL(path),
                 getAuthorization());
         if (resp.getType() == Response.ResponseType.SUCCESS) {
@@ -723,12 +806,12 @@ public class RemoteRegistry implements Registry {
                         ", Response Status: " + resp.getStatus() +
                         ", Response Type: " + resp.getType());
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "resource at " + path + " delete failed" +
                     ", Response Status: " + resp.getStatus() +
                     ", Response Type: " + resp.getType();
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -736,7 +819,7 @@ public class RemoteRegistry implements Registry {
 
 
     public String rename(String currentPath, String newPath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ByteArrayInputStream is = new ByteArrayInputStream(newPath.getBytes());
         ClientResponse resp =
                 abderaClient.post(baseURI + APPConstants.ATOM +
@@ -750,11 +833,11 @@ public class RemoteRegistry implements Registry {
                 log.debug("resource rename " + currentPath + " to " + newPath + "  succeeded" +
                         getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "resource rename from " + currentPath + " to " + newPath + " failed" +
                     getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -767,7 +850,7 @@ public class RemoteRegistry implements Registry {
     }
 
     public String move(String currentPath, String newPath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ByteArrayInputStream is = new ByteArrayInputStream(newPath.getBytes());
         ClientResponse resp =
                 abderaClient.post(baseURI + APPConstants.ATOM +
@@ -781,11 +864,11 @@ public class RemoteRegistry implements Registry {
                 log.debug("resource move  from " + currentPath + " to " + newPath + " succeeded" +
                         getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "resource move from " + currentPath + " to " + newPath + " failed" +
                           getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -794,7 +877,7 @@ public class RemoteRegistry implements Registry {
     }
 
     public String copy(String sourcePath, String targetPath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ByteArrayInputStream is = new ByteArrayInputStream(targetPath.getBytes());
         ClientResponse resp =
                 abderaClient.post(baseURI + APPConstants.ATOM +
@@ -808,11 +891,11 @@ public class RemoteRegistry implements Registry {
                 log.debug("resource copy from " + sourcePath + " to " + targetPath + " succeeded" +
                             getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "resource copy from " + sourcePath + " to " + targetPath + "  failed" +
                     getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -821,7 +904,7 @@ public class RemoteRegistry implements Registry {
     }
 
     public void createVersion(String path) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ByteArrayInputStream is = new ByteArrayInputStream("createVersion".getBytes());
         ClientResponse clientResponse =
                 abderaClient.post(baseURI + APPConstants.ATOM +
@@ -837,39 +920,41 @@ public class RemoteRegistry implements Registry {
             } else {
                 e = new RegistryException("Response Status: " + clientResponse.getStatusText());
             }
-            abderaClient.teardown();
+            transport.release(clientResponse);
             throw e;
         }
-        abderaClient.teardown();
+        transport.release(clientResponse);
     }
 
     public String[] getVersions(String path) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse =
                 abderaClient.get(baseURI + APPConstants.ATOM +
                         encodeURL(path +
                                 RegistryConstants.URL_SEPARATOR +
                                 APPConstants.PARAMETER_VERSION),
                         getAuthorization());
-        Document introspection = clientResponse.getDocument();
-        Feed feed = (Feed) introspection.getRoot();
-        List entries = feed.getEntries();
-        if (entries != null) {
-            String[] versions = new String[entries.size()];
-            for (int i = 0; i < entries.size(); i++) {
-                Entry entry = (Entry) entries.get(i);
-                versions[i] = Utils.getLinkWithRel(entry, "versionLink").getHref().toString();
-                //versions[i] = entry.getLink("versionLink").getHref().toString();
+        try {
+            Document introspection = clientResponse.getDocument();
+            Feed feed = (Feed) introspection.getRoot();
+            List entries = feed.getEntries();
+            if (entries != null) {
+                String[] versions = new String[entries.size()];
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = (Entry) entries.get(i);
+                    versions[i] = Utils.getLinkWithRel(entry, "versionLink").getHref().toString();
+                    //versions[i] = entry.getLink("versionLink").getHref().toString();
+                }
+                return versions;
             }
-            abderaClient.teardown();
-            return versions;
+            return new String[0];
+        } finally {
+            transport.release(clientResponse);
         }
-        abderaClient.teardown();
-        return new String[0];
     }
 
     public void restoreVersion(String versionPath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         Entry entry = abdera.getFactory().newEntry();
         ClientResponse resp = abderaClient.post(baseURI + APPConstants.ATOM +
                 encodeURL(versionPath +
@@ -882,11 +967,11 @@ public class RemoteRegistry implements Registry {
                 log.debug("resource restore to " + versionPath + " succeeded" +
                        getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "resource restore " + versionPath + "  failed" +
                     getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -894,7 +979,7 @@ public class RemoteRegistry implements Registry {
 
     public void addAssociation(String sourcePath, String associationPaths, String associationType)
             throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         final Factory factory = abdera.getFactory();
         Element el = factory.newElement(APPConstants.QN_ASSOC);
         el.setAttributeValue(APPConstants.ASSOC_TYPE, associationType);
@@ -911,12 +996,12 @@ public class RemoteRegistry implements Registry {
                         " type " + associationType + " succeeded" +
                         getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "associating " + sourcePath + " to " + associationPaths +
                     " type " + associationType + "failed" +
                    getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -926,7 +1011,7 @@ public class RemoteRegistry implements Registry {
     public void removeAssociation(String sourcePath, String associationPaths,
                                   String associationType)
             throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         final Factory factory = abdera.getFactory();
         Element el = factory.newElement(APPConstants.QN_ASSOC);
         el.setAttributeValue(APPConstants.ASSOC_TYPE, associationType);
@@ -945,36 +1030,38 @@ public class RemoteRegistry implements Registry {
                         " type " + associationType + " succeeded" +
                         getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "remove association " + sourcePath + " to " + associationPaths +
                     " type " + associationType + "failed" +
                    getStatusAndType(resp);
             log.error(msg);
-            abderaClient.teardown();
+            transport.release(resp);
             throw new RegistryException(msg);
         }
     }
 
     public Association[] getAllAssociations(String resourcePath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse resp = abderaClient.get(baseURI + APPConstants.ATOM +
                 encodeURL(resourcePath +
                         RegistryConstants.URL_SEPARATOR +
                         APPConstants.ASSOCIATIONS),
                 getAuthorization());
-        if (resp.getType() == Response.ResponseType.SUCCESS) {
-            Document introspection = resp.getDocument();
-            Feed feed = (Feed) introspection.getRoot();
-            Association[] associations = getAssociationsFromFeed(feed);
-            abderaClient.teardown();
-            return associations;
-        } else {
-            String msg = "uanble to get all associations for path " + resourcePath +
-                    getStatusAndType(resp);
-            log.error(msg);
-            abderaClient.teardown();
-            throw new RegistryException(msg);
+        try {
+            if (resp.getType() == Response.ResponseType.SUCCESS) {
+                Document introspection = resp.getDocument();
+                Feed feed = (Feed) introspection.getRoot();
+                Association[] associations = getAssociationsFromFeed(feed);
+                return associations;
+            } else {
+                String msg = "uanble to get all associations for path " + resourcePath +
+                        getStatusAndType(resp);
+                log.error(msg);
+                throw new RegistryException(msg);
+            }
+        } finally {
+            transport.release(resp);
         }
     }
 
@@ -998,34 +1085,37 @@ public class RemoteRegistry implements Registry {
 
     public Association[] getAssociations(String resourcePath, String associationType)
             throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse =
                 abderaClient.get(baseURI + APPConstants.ATOM +
                         encodeURL(resourcePath + RegistryConstants.URL_SEPARATOR +
                                 APPConstants.ASSOCIATIONS + ":" +
                                 associationType),
                         getAuthorization());
-        Document introspection = clientResponse.getDocument();
-        Feed feed = (Feed) introspection.getRoot();
-        List entries = feed.getEntries();
-        Association associations[] = null;
-        if (entries != null) {
-            associations = new Association[entries.size()];
-            for (int i = 0; i < entries.size(); i++) {
-                Entry entry = (Entry) entries.get(i);
-                Association association = new Association();
-                association.setSourcePath(entry.getTitle());
-                association.setDestinationPath(entry.getContent());
-                association.setAssociationType(entry.getSummary());
-                associations[i] = association;
+        try {
+            Document introspection = clientResponse.getDocument();
+            Feed feed = (Feed) introspection.getRoot();
+            List entries = feed.getEntries();
+            Association associations[] = null;
+            if (entries != null) {
+                associations = new Association[entries.size()];
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = (Entry) entries.get(i);
+                    Association association = new Association();
+                    association.setSourcePath(entry.getTitle());
+                    association.setDestinationPath(entry.getContent());
+                    association.setAssociationType(entry.getSummary());
+                    associations[i] = association;
+                }
             }
+            return associations;
+        } finally {
+            transport.release(clientResponse);
         }
-        abderaClient.teardown();
-        return associations;
     }
 
     public void applyTag(String resourcePath, String tag) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         Entry entry = abdera.getFactory().newEntry();
         entry.setContent(tag);
         ClientResponse resp = abderaClient.post(baseURI + APPConstants.ATOM +
@@ -1041,85 +1131,89 @@ public class RemoteRegistry implements Registry {
                         " succeeded." +
                        getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg =
                     "Applying tag: " + tag + " for resourcePath + " + resourcePath + " failed." +
                            getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
     }
 
     public TaggedResourcePath[] getResourcePathsWithTag(String tag) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse = abderaClient.get(baseURI + "/tags/" + tag,
                 getAuthorization());
-
-        Document introspection =
-                clientResponse.getDocument();
-        Feed feed = (Feed) introspection.getRoot();
-        List entries = feed.getEntries();
-        TaggedResourcePath taggedResourcePaths[] = null;
-        if (entries != null) {
-            taggedResourcePaths = new TaggedResourcePath[entries.size()];
-            for (int i = 0; i < entries.size(); i++) {
-                Entry entry = (Entry) entries.get(i);
-                org.wso2.carbon.registry.app.Properties properties =
-                        entry.getExtension(PropertyExtensionFactory.TAGS);
-                List propertyList = properties.getExtensions(PropertyExtensionFactory.TAG);
-                Map<String, String> map = new HashMap<String, String>();
-                for (Object aPropertyList : propertyList) {
-                    Property property = (Property) aPropertyList;
-                    PropertyName pn = property.getExtension(PropertyExtensionFactory.PROPERTY_NAME);
-                    PropertyValue pv =
-                            property.getExtension(PropertyExtensionFactory.PROPERTY_VALUE);
-                    map.put(pn.getText(), pv.getText());
+        try {
+            Document introspection =
+                    clientResponse.getDocument();
+            Feed feed = (Feed) introspection.getRoot();
+            List entries = feed.getEntries();
+            TaggedResourcePath taggedResourcePaths[] = null;
+            if (entries != null) {
+                taggedResourcePaths = new TaggedResourcePath[entries.size()];
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = (Entry) entries.get(i);
+                    org.wso2.carbon.registry.app.Properties properties =
+                            entry.getExtension(PropertyExtensionFactory.TAGS);
+                    List propertyList = properties.getExtensions(PropertyExtensionFactory.TAG);
+                    Map<String, String> map = new HashMap<String, String>();
+                    for (Object aPropertyList : propertyList) {
+                        Property property = (Property) aPropertyList;
+                        PropertyName pn = property.getExtension(PropertyExtensionFactory.PROPERTY_NAME);
+                        PropertyValue pv =
+                                property.getExtension(PropertyExtensionFactory.PROPERTY_VALUE);
+                        map.put(pn.getText(), pv.getText());
+                    }
+                    TaggedResourcePath tagPath = new TaggedResourcePath();
+                    tagPath.setResourcePath(entry.getTitle());
+                    tagPath.setTagCount(
+                            Long.parseLong(entry.getSimpleExtension(new QName(APPConstants.NAMESPACE,
+                                    "taggings"))));
+                    taggedResourcePaths[i] = tagPath;
+                    tagPath.setTagCounts(map);
                 }
-                TaggedResourcePath tagPath = new TaggedResourcePath();
-                tagPath.setResourcePath(entry.getTitle());
-                tagPath.setTagCount(
-                        Long.parseLong(entry.getSimpleExtension(new QName(APPConstants.NAMESPACE,
-                                "taggings"))));
-                taggedResourcePaths[i] = tagPath;
-                tagPath.setTagCounts(map);
             }
+            return taggedResourcePaths;
+        } finally {
+            transport.release(clientResponse);
         }
-        abderaClient.teardown();
-        return taggedResourcePaths;
     }
 
     public Tag[] getTags(String resourcePath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse = abderaClient.get(baseURI + APPConstants.ATOM +
                 encodeURL(resourcePath +
                         RegistryConstants.URL_SEPARATOR +
                         APPConstants.PARAMETER_TAGS),
                 getAuthorization());
-
-        Document introspection =
-                clientResponse.getDocument();
-        Feed feed = (Feed) introspection.getRoot();
-        List entries = feed.getEntries();
-        Tag tags[] = null;
-        if (entries != null) {
-            tags = new Tag[entries.size()];
-            for (int i = 0; i < entries.size(); i++) {
-                Entry entry = (Entry) entries.get(i);
-                Tag tag = new Tag();
-                tag.setTagCount(Long.parseLong(entry.getSimpleExtension(
-                        new QName(APPConstants.NAMESPACE, "taggings"))));
-                tag.setTagName(entry.getTitle());
-                tags[i] = tag;
+        try {
+            Document introspection =
+                    clientResponse.getDocument();
+            Feed feed = (Feed) introspection.getRoot();
+            List entries = feed.getEntries();
+            Tag tags[] = null;
+            if (entries != null) {
+                tags = new Tag[entries.size()];
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = (Entry) entries.get(i);
+                    Tag tag = new Tag();
+                    tag.setTagCount(Long.parseLong(entry.getSimpleExtension(
+                            new QName(APPConstants.NAMESPACE, "taggings"))));
+                    tag.setTagName(entry.getTitle());
+                    tags[i] = tag;
+                }
             }
+            return tags;
+        } finally {
+            transport.release(clientResponse);
         }
-        abderaClient.teardown();
-        return tags;
     }
 
     public void removeTag(String path, String tag) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         String encodedTag;
         try {
             encodedTag = URLEncoder.encode(tag, RegistryConstants.DEFAULT_CHARSET_ENCODING);
@@ -1138,11 +1232,11 @@ public class RemoteRegistry implements Registry {
                 log.debug("Removing tag: " + tag + " for resourcePath + " + path + " succeeded." +
                        getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "Removing tag: " + tag + " for resourcePath + " + path + " failed." +
                    getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -1155,7 +1249,7 @@ public class RemoteRegistry implements Registry {
 
     public String addComment(String resourcePath, org.wso2.carbon.registry.core.Comment comment)
             throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         Entry entry = abdera.getFactory().newEntry();
         entry.setId("tag:commentID"); // TODO - generate real ID
         entry.setTitle("Comment");
@@ -1174,7 +1268,7 @@ public class RemoteRegistry implements Registry {
                 log.debug("Adding comment for resourcePath + " + resourcePath + " succeeded." +
                         getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
             String location = resp.getLocation().toString();
             if (location.startsWith(baseURI)) {
                 return location.substring(baseURI.length() +
@@ -1184,7 +1278,7 @@ public class RemoteRegistry implements Registry {
         } else {
             String msg = "Adding comment for resourcePath + " + resourcePath + " failed." +
                    getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -1192,7 +1286,7 @@ public class RemoteRegistry implements Registry {
 
 
     public void editComment(String commentPath, String text) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         Entry entry = abdera.getFactory().newEntry();
         entry.setContent(text);
         ClientResponse resp = abderaClient.put(baseURI + APPConstants.ATOM +
@@ -1205,11 +1299,11 @@ public class RemoteRegistry implements Registry {
                 log.debug("Editing comment for resourcePath + " + commentPath + " succeeded." +
                        getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "Editing comment for resourcePath + " + commentPath + " failed." +
                     getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -1217,7 +1311,7 @@ public class RemoteRegistry implements Registry {
 
     public org.wso2.carbon.registry.core.Comment[] getComments(String _resourcePath)
             throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         String resourcePath = _resourcePath;
         resourcePath = encodeURL(resourcePath);
         if (resourcePath.contains(RegistryConstants.VERSION_SEPARATOR)) {
@@ -1232,13 +1326,15 @@ public class RemoteRegistry implements Registry {
                         resourcePath + RegistryConstants.URL_SEPARATOR +
                         APPConstants.PARAMETER_COMMENTS,
                         getAuthorization());
-        Document introspection = clientResponse.getDocument();
-        Element element = introspection.getRoot();
-        Feed feed = (Feed) element;
-        org.wso2.carbon.registry.core.Comment[] comments = getCommentsFromFeed(feed);
-        abderaClient.teardown();
-
-        return comments;
+        try {
+            Document introspection = clientResponse.getDocument();
+            Element element = introspection.getRoot();
+            Feed feed = (Feed) element;
+            org.wso2.carbon.registry.core.Comment[] comments = getCommentsFromFeed(feed);
+            return comments;
+        } finally {
+            transport.release(clientResponse);
+        }
     }
 
     // method to obtain comments from feed.
@@ -1274,7 +1370,7 @@ public class RemoteRegistry implements Registry {
     }
 
     public void rateResource(String resourcePath, int rating) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ByteArrayInputStream is = new ByteArrayInputStream(Integer.toString(rating).getBytes());
         ClientResponse resp = abderaClient.post(baseURI + APPConstants.ATOM +
                 encodeURL(resourcePath +
@@ -1287,72 +1383,75 @@ public class RemoteRegistry implements Registry {
                 log.debug("rating resource + " + resourcePath + " succeeded." +
                        getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "rating resource + " + resourcePath + " failed." +
                     getStatusAndType(resp);
 
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
     }
 
     public float getAverageRating(String resourcePath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse =
                 abderaClient.get(baseURI + APPConstants.ATOM +
                         encodeURL(resourcePath +
                                 RegistryConstants.URL_SEPARATOR +
                                 APPConstants.PARAMETER_RATINGS),
                         getAuthorization());
+        try {
+            if (clientResponse.getStatus() != HttpURLConnection.HTTP_OK) {
+                // throw RegistryException
+                String msg = "Getting average rating failed. Path: " + resourcePath +
+                        ", Response Status: " + clientResponse.getStatus() +
+                        ", Response Type: " + clientResponse.getType();
+                log.error(msg);
+                throw new RegistryException(msg);
+            }
 
-        if (clientResponse.getStatus() != HttpURLConnection.HTTP_OK) {
-            // throw RegistryException
-            String msg = "Getting average rating failed. Path: " + resourcePath +
-                    ", Response Status: " + clientResponse.getStatus() +
-                    ", Response Type: " + clientResponse.getType();
-            abderaClient.teardown();
-            log.error(msg);
-            throw new RegistryException(msg);
-        }
-
-        Document introspection = clientResponse.getDocument();
-        if (introspection.getRoot() instanceof Feed) {
-            Feed feed = (Feed) introspection.getRoot();
-            String floatValue = feed.getSimpleExtension(APPConstants.QN_AVERAGE_RATING);
-            abderaClient.teardown();
-            return Float.parseFloat(floatValue);
+            Document introspection = clientResponse.getDocument();
+            if (introspection.getRoot() instanceof Feed) {
+                Feed feed = (Feed) introspection.getRoot();
+                String floatValue = feed.getSimpleExtension(APPConstants.QN_AVERAGE_RATING);
+                return Float.parseFloat(floatValue);
+            }
+            return 0;
+        } finally {
+            transport.release(clientResponse);
         }
-        return 0;
     }
 
     public int getRating(String path, String userName) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse =
                 abderaClient.get(baseURI + APPConstants.ATOM +
                         encodeURL(path + RegistryConstants.URL_SEPARATOR +
                                 APPConstants.PARAMETER_RATINGS + ":" + userName),
                         getAuthorization());
-        Document introspection =
-                clientResponse.getDocument();
-        if (introspection.getRoot() instanceof Feed) {
-            Feed feed = (Feed) introspection.getRoot();
-            List<Entry> entries = feed.getEntries();
-            if (entries.size() == 1) {
-                String intValue = entries.get(0).getContent();
-                abderaClient.teardown();
-                return Integer.parseInt(intValue);
+        try {
+            Document introspection =
+                    clientResponse.getDocument();
+            if (introspection.getRoot() instanceof Feed) {
+                Feed feed = (Feed) introspection.getRoot();
+                List<Entry> entries = feed.getEntries();
+                if (entries.size() == 1) {
+                    String intValue = entries.get(0).getContent();
+                    return Integer.parseInt(intValue);
+                }
             }
+            String msg = "Getting rating failed. Path: " + path;
+            log.error(msg);
+            throw new RegistryException(msg);
+        } finally {
+            transport.release(clientResponse);
         }
-        String msg = "Getting rating failed. Path: " + path;
-        abderaClient.teardown();
-        log.error(msg);
-        throw new RegistryException(msg);
     }
 
     public Collection executeQuery(String path, Map parameters) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         RequestOptions requestOptions = getAuthorization();
         if (path == null) {
             path = "/";
@@ -1362,11 +1461,14 @@ public class RemoteRegistry implements Registry {
                         APPConstants.PARAMETER_QUERY) + "?" +
                 buildQueryString(parameters),
                 requestOptions);
-        Document introspection = resp.getDocument();
-        Feed feed = (Feed) introspection.getRoot();
-        Collection c = createResourceFromFeed(feed);
-        abderaClient.teardown();
-        return c;
+        try {
+            Document introspection = resp.getDocument();
+            Feed feed = (Feed) introspection.getRoot();
+            Collection c = createResourceFromFeed(feed);
+            return c;
+        } finally {
+            transport.release(resp);
+        }
     }
 
     /**
@@ -1445,7 +1547,7 @@ public class RemoteRegistry implements Registry {
             resourcePath = "/";
         }
 
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         RequestOptions requestOptions = getAuthorization();
         requestOptions.addDateHeader("ToDate", to);
         requestOptions.addDateHeader("FromDate", from);
@@ -1456,28 +1558,31 @@ public class RemoteRegistry implements Registry {
                         RegistryConstants.URL_SEPARATOR +
                         APPConstants.PARAMETER_LOGS),
                 requestOptions);
-        Document introspection =
-                resp.getDocument();
-        Feed feed = (Feed) introspection.getRoot();
-        List entries = feed.getEntries();
-        LogEntry logs[] = null;
-        if (entries != null) {
-            logs = new LogEntry[entries.size()];
-            for (int i = 0; i < entries.size(); i++) {
-                Entry entry = (Entry) entries.get(i);
-                LogEntry logEntry = new LogEntry();
-                logEntry.setDate(entry.getEdited());
-                logEntry.setActionData(entry.getContent());
-                logEntry.setUserName(entry.getAuthor().getName());
-                logEntry.setAction(Integer.parseInt(
-                        entry.getSimpleExtension(new QName(APPConstants.NAMESPACE, "action"))));
-                String path = entry.getSimpleExtension(new QName(APPConstants.NAMESPACE, APPConstants.PARAMETER_PATH));
-                logEntry.setResourcePath(path);
-                logs[i] = logEntry;
+        try {
+            Document introspection =
+                    resp.getDocument();
+            Feed feed = (Feed) introspection.getRoot();
+            List entries = feed.getEntries();
+            LogEntry logs[] = null;
+            if (entries != null) {
+                logs = new LogEntry[entries.size()];
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = (Entry) entries.get(i);
+                    LogEntry logEntry = new LogEntry();
+                    logEntry.setDate(entry.getEdited());
+                    logEntry.setActionData(entry.getContent());
+                    logEntry.setUserName(entry.getAuthor().getName());
+                    logEntry.setAction(Integer.parseInt(
+                            entry.getSimpleExtension(new QName(APPConstants.NAMESPACE, "action"))));
+                    String path = entry.getSimpleExtension(new QName(APPConstants.NAMESPACE, APPConstants.PARAMETER_PATH));
+                    logEntry.setResourcePath(path);
+                    logs[i] = logEntry;
+                }
             }
+            return logs;
+        } finally {
+            transport.release(resp);
         }
-        abderaClient.teardown();
-        return logs;
     }
 
 
@@ -1501,10 +1606,10 @@ public class RemoteRegistry implements Registry {
         return requestOptions;
     }
 
-    private RequestOptions getAuthorizationForCaching(String path) {
+    private RequestOptions getAuthorizationForCaching(RegistryResourceCache.CacheEntry cachedEntry) {
         RequestOptions requestOptions = new RequestOptions();
         requestOptions.setAuthorization(authorizationString);
-        requestOptions.setHeader("if-none-match", cache.getETag(path));
+        requestOptions.setHeader("if-none-match", cachedEntry.getETag());
         return requestOptions;
     }
 
@@ -1537,7 +1642,7 @@ public class RemoteRegistry implements Registry {
     }
 
     public void associateAspect(String resourcePath, String aspect) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         // POST as text to "<resource>;aspects"
         ByteArrayInputStream is = new ByteArrayInputStream(aspect.getBytes());
         ClientResponse resp = abderaClient.post(baseURI + APPConstants.ATOM +
@@ -1552,11 +1657,11 @@ public class RemoteRegistry implements Registry {
                                 getOnAppendedVal(aspect,resourcePath) + ".";
                 log.debug(msg);
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "Resource associated to aspect " +
                     getOnAppendedVal(aspect,resourcePath) + ".";
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -1564,7 +1669,7 @@ public class RemoteRegistry implements Registry {
 
     public void invokeAspect(String resourcePath, String aspectName, String action)
             throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
 
         // The content doesn't really matter here, so this is a placeholder for now.
         // Later on we'll likely want to support parameterized invocations, so we'll likely
@@ -1583,11 +1688,11 @@ public class RemoteRegistry implements Registry {
                         " action " + action + ".";
                 log.debug(msg);
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "Couldn't invoke aspect " + getOnAppendedVal(aspectName,resourcePath) +
                     " action " + action + ".";
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -1626,27 +1731,29 @@ public class RemoteRegistry implements Registry {
 
     public String[] getAspectActions(String resourcePath, String aspectName)
             throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         ClientResponse clientResponse =
                 abderaClient.get(baseURI + APPConstants.ATOM +
                         encodeURL(resourcePath +
                         RegistryConstants.URL_SEPARATOR +
                         APPConstants.ASPECT) + "(" + encodeURL(aspectName) + ")",
                         getAuthorization());
-        Document introspection = clientResponse.getDocument();
-        Feed feed = (Feed) introspection.getRoot();
-        List entries = feed.getEntries();
-        if (entries != null) {
-            String[] aspectActions = new String[entries.size()];
-            for (int i = 0; i < entries.size(); i++) {
-                Entry entry = (Entry) entries.get(i);
-                aspectActions[i] = entry.getContent();
+        try {
+            Document introspection = clientResponse.getDocument();
+            Feed feed = (Feed) introspection.getRoot();
+            List entries = feed.getEntries();
+            if (entries != null) {
+                String[] aspectActions = new String[entries.size()];
+                for (int i = 0; i < entries.size(); i++) {
+                    Entry entry = (Entry) entries.get(i);
+                    aspectActions[i] = entry.getContent();
+                }
+                return aspectActions;
             }
-            abderaClient.teardown();
-            return aspectActions;
+            return new String[0];
+        } finally {
+            transport.release(clientResponse);
         }
-        abderaClient.teardown();
-        return new String[0];
     }
 
     public RegistryContext getRegistryContext() {
@@ -1674,12 +1781,12 @@ public class RemoteRegistry implements Registry {
     // check in, check out functionality
 
     public void restore(String path, Reader reader) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         restore(path, reader, abderaClient);
     }
 
     public void dump(String path, Writer writer) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         dump(path, abderaClient, writer);
     }
 
@@ -1695,10 +1802,12 @@ public class RemoteRegistry implements Registry {
      * @throws RegistryException if the operation failed.
      */
     public void restore(String path, Reader reader, int timeout) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
-        abderaClient.setSocketTimeout(timeout);
-        restore(path, reader, abderaClient);
-        abderaClient.teardown();
+        AbderaClient abderaClient = transport.getClient(timeout);
+        try {
+            restore(path, reader, abderaClient);
+        } finally {
+            abderaClient.teardown();
+        }
     }
 
     /**
@@ -1711,10 +1820,12 @@ public class RemoteRegistry implements Registry {
      * @throws RegistryException if the operation failed.
      */
     public void dump(String path, int timeout, Writer writer) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
-        abderaClient.setSocketTimeout(timeout);
-        dump(path, abderaClient, writer);
-        abderaClient.teardown();
+        AbderaClient abderaClient = transport.getClient(timeout);
+        try {
+            dump(path, abderaClient, writer);
+        } finally {
+            abderaClient.teardown();
+        }
     }
 
     // the implementation for dump
@@ -1728,14 +1839,18 @@ public class RemoteRegistry implements Registry {
                 is,
                 getAuthorization());
 
-        if (resp.getType() == Response.ResponseType.SUCCESS) {
-            if (log.isDebugEnabled()) {
-                log.debug("resource dump restored at " + path);
+        try {
+            if (resp.getType() == Response.ResponseType.SUCCESS) {
+                if (log.isDebugEnabled()) {
+                    log.debug("resource dump restored at " + path);
+                }
+            } else {
+                String msg = "Restoring to " + path + " failed.";
+                log.error(msg);
+                throw new RegistryException(msg);
             }
-        } else {
-            String msg = "Restoring to " + path + " failed.";
-            log.error(msg);
-            throw new RegistryException(msg);
+        } finally {
+            transport.release(resp);
         }
     }
 
@@ -1748,21 +1863,25 @@ public class RemoteRegistry implements Registry {
                                 RegistryConstants.URL_SEPARATOR +
                                 APPConstants.PARAMETER_DUMP),
                         getAuthorization());
-        if (clientResponse.getType() == Response.ResponseType.SUCCESS) {
-            Document introspection = clientResponse.getDocument();
-            Element element = introspection.getRoot();
-            if (element instanceof OMElement) {
-                try {
-                    ((OMElement) element).serialize(writer);
-                } catch (XMLStreamException e) {
-                    throw new RegistryException("Failed to serialize the xml", e);
+        try {
+            if (clientResponse.getType() == Response.ResponseType.SUCCESS) {
+                Document introspection = clientResponse.getDocument();
+                Element element = introspection.getRoot();
+                if (element instanceof OMElement) {
+                    try {
+                        ((OMElement) element).serialize(writer);
+                    } catch (XMLStreamException e) {
+                        throw new RegistryException("Failed to serialize the xml", e);
+                    }
                 }
+            } else {
+                String msg = "Failed to serialize the xml. Received Response: " +
+                        clientResponse.getStatusText();
+                log.error(msg);
+                throw new RegistryException(msg);
             }
-        } else {
-            String msg = "Failed to serialize the xml. Received Response: " +
-                    clientResponse.getStatusText();
-            log.error(msg);
-            throw new RegistryException(msg);
+        } finally {
+            transport.release(clientResponse);
         }
     }
 
@@ -1776,7 +1895,7 @@ public class RemoteRegistry implements Registry {
     }
 
     public void removeComment(String commentPath) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         String resourcePath = commentPath.substring(0, commentPath.indexOf(";comments:"));
         int commentId = Integer.parseInt(
                 commentPath.substring(commentPath.indexOf(";comments:") + ";comments:".length()));
@@ -1791,11 +1910,11 @@ public class RemoteRegistry implements Registry {
                 log.debug("Removing comment: " + commentId + " for resourcePath + " + resourcePath +
                         " succeeded." + getStatusAndType(resp));
             }
-            abderaClient.teardown();
+            transport.release(resp);
         } else {
             String msg = "Removing comment: " + commentId + " for resourcePath + " + resourcePath +
                         " succeeded." + getStatusAndType(resp);
-            abderaClient.teardown();
+            transport.release(resp);
             log.error(msg);
             throw new RegistryException(msg);
         }
@@ -1839,7 +1958,7 @@ public class RemoteRegistry implements Registry {
     
     @Override
     public void dumpLite(String path, Writer writer) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
+        AbderaClient abderaClient = transport.getClient();
         dumpLite(path, abderaClient, writer);      
     }
     
@@ -1853,10 +1972,12 @@ public class RemoteRegistry implements Registry {
      * @throws RegistryException if the operation failed.
      */
     public void dumpLite(String path, int timeout, Writer writer) throws RegistryException {
-        AbderaClient abderaClient = new AbderaClient(abdera);
-        abderaClient.setSocketTimeout(timeout);
-        dumpLite(path, abderaClient, writer);
-        abderaClient.teardown();
+        AbderaClient abderaClient = transport.getClient(timeout);
+        try {
+            dumpLite(path, abderaClient, writer);
+        } finally {
+            abderaClient.teardown();
+        }
     }
     
  // the implementation for dump
@@ -1868,21 +1989,25 @@ public class RemoteRegistry implements Registry {
         						RegistryConstants.URL_SEPARATOR +
                                 APPConstants.PARAMETER_DUMP),
                         getAuthorization());
-        if (clientResponse.getType() == Response.ResponseType.SUCCESS) {
-            Document introspection = clientResponse.getDocument();
-            Element element = introspection.getRoot();
-            if (element instanceof OMElement) {
-                try {
-                    ((OMElement) element).serialize(writer);
-                } catch (XMLStreamException e) {
-                    throw new RegistryException("Failed to serialize the xml", e);
+        try {
+            if (clientResponse.getType() == Response.ResponseType.SUCCESS) {
+                Document introspection = clientResponse.getDocument();
+                Element element = introspection.getRoot();
+                if (element instanceof OMElement) {
+                    try {
+                        ((OMElement) element).serialize(writer);
+                    } catch (XMLStreamException e) {
+                        throw new RegistryException("Failed to serialize the xml", e);
+                    }
                 }
+            } else {
+            	String msg = "Failed to serialize the xml. Received Response: " +
+                        clientResponse.getStatusText();
+                log.error(msg);
+                throw new RegistryException(msg);
             }
-        } else {
-        	String msg = "Failed to serialize the xml. Received Response: " +
-                    clientResponse.getStatusText();
-            log.error(msg);
-            throw new RegistryException(msg);
+        } finally {
+            transport.release(clientResponse);
         }
     }
 
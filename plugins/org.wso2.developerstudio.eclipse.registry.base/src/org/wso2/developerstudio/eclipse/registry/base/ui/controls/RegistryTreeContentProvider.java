@@ -17,14 +17,29 @@
 package org.wso2.developerstudio.eclipse.registry.base.ui.controls;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobGroup;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.base.Activator;
+import org.wso2.developerstudio.eclipse.registry.base.core.RegistryPermissionService;
 import org.wso2.developerstudio.eclipse.registry.base.logger.ExceptionHandler;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryContentContainer;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryLoadingNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryMoreNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceType;
@@ -35,9 +50,18 @@ import org.wso2.developerstudio.eclipse.registry.base.model.RegistryUserRole;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryUserRoleContainer;
 
 public class RegistryTreeContentProvider implements ITreeContentProvider {
+	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+	private static final int MAX_LOADING_JOBS = 4;
 
 	private ExceptionHandler exceptionHandler;
 	private Shell shell;
+	private AbstractTreeViewer viewer;
+	private JobGroup loadingJobGroup = new JobGroup("Loading registry content", MAX_LOADING_JOBS, 0);
+	private Map<RegistryResourceNode, RegistryLoadingNode> loadingNodes =
+			new HashMap<RegistryResourceNode, RegistryLoadingNode>();
+	private Map<RegistryResourceNode, RegistryMoreNode> moreNodes =
+			new HashMap<RegistryResourceNode, RegistryMoreNode>();
 
 	private boolean showUserCategory = true;
 	private boolean showRepositoryCategory = true;
@@ -100,6 +124,10 @@ public class RegistryTreeContentProvider implements ITreeContentProvider {
 		} else if (parentElement instanceof RegistryResourceNode
 				&& showRepositoryCategory) {
 			RegistryResourceNode regResourcePathData = (RegistryResourceNode) parentElement;
+			if (viewer != null && regResourcePathData.isAllowExapand()
+					&& !regResourcePathData.isResourceNodeListLoaded()) {
+				return new Object[] { scheduleChildrenLoading(regResourcePathData) };
+			}
 			ArrayList<RegistryResourceNode> resourcePathList = null;
 			try {
 				if (regResourcePathData.isAllowExapand())
@@ -118,6 +146,11 @@ public class RegistryTreeContentProvider implements ITreeContentProvider {
 //					newResourcePathList.add(resourcePathList.get(i));
 //				}
 //			}
+			if (resourcePathList != null && viewer != null && regResourcePathData.hasMoreChildren()) {
+				List<Object> children = new ArrayList<Object>(resourcePathList);
+				children.add(getMoreNode(regResourcePathData));
+				return children.toArray();
+			}
 			return (resourcePathList!=null)?resourcePathList.toArray():newResourcePathList.toArray();
 		} else {
 			return null;
@@ -132,6 +165,12 @@ public class RegistryTreeContentProvider implements ITreeContentProvider {
 	public boolean hasChildren(Object element) {
 		if (element instanceof RegistryResourceNode) {
 			RegistryResourceNode ele = (RegistryResourceNode) element;
+			if (viewer != null && ele.isAllowExapand() && !ele.isResourceNodeListLoaded()) {
+				// resolved once the node is expanded and its children are fetched in the background
+				RegistryResourceType resourceType = ele.getLocalResourceType();
+				return resourceType == RegistryResourceType.UNDEFINED
+						|| resourceType == RegistryResourceType.COLLECTION;
+			}
 			if (!(ele.isAllowExapand()) || ele.getResourceType()==RegistryResourceType.UNDEFINED) {
 				return false;
 			} else {
@@ -142,7 +181,9 @@ public class RegistryTreeContentProvider implements ITreeContentProvider {
 					return false;
 				}
 			}
-		}else if (element instanceof RegistryNode) {
+		} else if (element instanceof RegistryLoadingNode || element instanceof RegistryMoreNode) {
+			return false;
+		} else if (element instanceof RegistryNode) {
 			return ((RegistryNode) element).isEnabled();
 		} else if (element instanceof RegistryContentContainer) {
 			return ((RegistryContentContainer) element).getRegistryContent()
@@ -171,18 +212,217 @@ public class RegistryTreeContentProvider implements ITreeContentProvider {
 		return getChildren(arg0);
 	}
 
+	/**
+	 * fetch the children of the given collection node in a background job and
+	 * merge them into the tree once they are available
+	 * 
+	 * @param node
+	 * @return placeholder to show until the children are loaded
+	 */
+	private RegistryLoadingNode scheduleChildrenLoading(final RegistryResourceNode node) {
+		synchronized (loadingNodes) {
+			RegistryLoadingNode loadingNode = loadingNodes.get(node);
+			if (loadingNode != null) {
+				return loadingNode;
+			}
+			loadingNode = new RegistryLoadingNode(node);
+			loadingNodes.put(node, loadingNode);
+			final RegistryLoadingNode placeholder = loadingNode;
+			final AbstractTreeViewer treeViewer = viewer;
+			Job job = new Job("Loading " + node.getRegistryResourcePath()) {
+				protected IStatus run(IProgressMonitor monitor) {
+					Exception error = null;
+					try {
+						List<RegistryResourceNode> children = node.getResourceNodeList();
+						if (children != null) {
+							monitor.beginTask(getName(), children.size());
+							resolveWritePermissions(children);
+							for (RegistryResourceNode child : children) {
+								if (monitor.isCanceled()) {
+									break;
+								}
+								// warm up what the label provider needs, so painting does not hit the registry
+								child.getResourceType();
+								child.hasWritePermissions();
+								monitor.worked(1);
+							}
+						}
+					} catch (Exception e) {
+						error = e;
+					} finally {
+						monitor.done();
+					}
+					mergeLoadedChildren(treeViewer, node, placeholder, error, monitor.isCanceled());
+					return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+				}
+
+				public boolean belongsTo(Object family) {
+					return family == RegistryTreeContentProvider.this;
+				}
+			};
+			job.setJobGroup(loadingJobGroup);
+			job.schedule();
+			return loadingNode;
+		}
+	}
+
+	/**
+	 * resolve the write permissions of the loaded children together, instead of
+	 * one request per child when the label provider asks for them
+	 * 
+	 * @param children
+	 */
+	private void resolveWritePermissions(List<RegistryResourceNode> children) {
+		try {
+			RegistryPermissionService.getInstance().resolveWritePermissions(children);
+		} catch (Exception e) {
+			log.error("Error occured while trying to get the permissions", e);
+		}
+	}
+
+	private RegistryMoreNode getMoreNode(RegistryResourceNode node) {
+		synchronized (moreNodes) {
+			RegistryMoreNode moreNode = moreNodes.get(node);
+			if (moreNode == null) {
+				moreNode = new RegistryMoreNode(node);
+				moreNodes.put(node, moreNode);
+			}
+			return moreNode;
+		}
+	}
+
+	/**
+	 * fetch the next page of children of the collection of the given node in a
+	 * background job and add them to the tree once they are available
+	 * 
+	 * @param moreNode
+	 */
+	public void loadMoreChildren(final RegistryMoreNode moreNode) {
+		if (moreNode.isLoading() || viewer == null) {
+			return;
+		}
+		moreNode.setLoading(true);
+		final AbstractTreeViewer treeViewer = viewer;
+		treeViewer.update(moreNode, null);
+		final RegistryResourceNode node = moreNode.getParent();
+		Job job = new Job("Loading " + node.getRegistryResourcePath()) {
+			protected IStatus run(IProgressMonitor monitor) {
+				Exception error = null;
+				try {
+					List<RegistryResourceNode> children = node.loadNextChildrenPage();
+					monitor.beginTask(getName(), children.size());
+					resolveWritePermissions(children);
+					for (RegistryResourceNode child : children) {
+						if (monitor.isCanceled()) {
+							break;
+						}
+						child.getResourceType();
+						child.hasWritePermissions();
+						monitor.worked(1);
+					}
+				} catch (Exception e) {
+					error = e;
+				} finally {
+					monitor.done();
+				}
+				mergeNextChildren(treeViewer, moreNode, error);
+				return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+			}
+
+			public boolean belongsTo(Object family) {
+				return family == RegistryTreeContentProvider.this;
+			}
+		};
+		job.setJobGroup(loadingJobGroup);
+		job.schedule();
+	}
+
+	private void mergeNextChildren(final AbstractTreeViewer treeViewer, final RegistryMoreNode moreNode,
+			final Exception error) {
+		final RegistryResourceNode node = moreNode.getParent();
+		if (error != null || !node.hasMoreChildren()) {
+			synchronized (moreNodes) {
+				moreNodes.remove(node);
+			}
+		}
+		Display display = treeViewer.getControl().isDisposed() ? null : treeViewer.getControl().getDisplay();
+		if (display == null) {
+			return;
+		}
+		display.asyncExec(new Runnable() {
+			public void run() {
+				moreNode.setLoading(false);
+				if (treeViewer.getControl().isDisposed()) {
+					return;
+				}
+				if (error != null) {
+					log.error("Error while retrieving the children of " + node.getRegistryResourcePath(), error);
+					MessageDialog.openError(getShell(), "Connection Establish error",
+							"Cannot establish the connection with given URL");
+				}
+				treeViewer.refresh(node);
+			}
+		});
+	}
+
+	private void mergeLoadedChildren(final AbstractTreeViewer treeViewer, final RegistryResourceNode node,
+			final RegistryLoadingNode placeholder, final Exception error, final boolean canceled) {
+		synchronized (loadingNodes) {
+			if (loadingNodes.get(node) == placeholder) {
+				loadingNodes.remove(node);
+			}
+		}
+		Display display = treeViewer.getControl().isDisposed() ? null : treeViewer.getControl().getDisplay();
+		if (display == null) {
+			return;
+		}
+		display.asyncExec(new Runnable() {
+			public void run() {
+				if (treeViewer.getControl().isDisposed()) {
+					return;
+				}
+				if (error != null) {
+					node.setError(true);
+					log.error("Error while retrieving the children of " + node.getRegistryResourcePath(), error);
+					treeViewer.remove(placeholder);
+					MessageDialog.openError(getShell(), "Connection Establish error",
+							"Cannot establish the connection with given URL");
+				} else if (canceled && !node.isResourceNodeListLoaded()) {
+					treeViewer.remove(placeholder);
+					treeViewer.setExpandedState(node, false);
+				} else {
+					treeViewer.refresh(node);
+				}
+			}
+		});
+	}
+
+	/**
+	 * cancel the background loading jobs scheduled by this content provider
+	 */
+	private void cancelLoading() {
+		Job.getJobManager().cancel(this);
+		synchronized (loadingNodes) {
+			loadingNodes.clear();
+		}
+		synchronized (moreNodes) {
+			moreNodes.clear();
+		}
+	}
+
 	/**
 	 *
 	 */
 	public void dispose() {
-
+		cancelLoading();
 	}
 
 	/**
 	 * things to do when input has changed in the tree
 	 */
 	public void inputChanged(Viewer arg0, Object arg1, Object arg2) {
-
+		cancelLoading();
+		viewer = (arg0 instanceof AbstractTreeViewer) ? (AbstractTreeViewer) arg0 : null;
 	}
 
 	/**
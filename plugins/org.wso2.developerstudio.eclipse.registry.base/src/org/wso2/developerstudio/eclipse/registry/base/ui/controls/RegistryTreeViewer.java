@@ -22,6 +22,8 @@ import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 
+import org.eclipse.jface.viewers.DoubleClickEvent;
+import org.eclipse.jface.viewers.IDoubleClickListener;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
@@ -29,11 +31,14 @@ import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.TreeSelection;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.logger.ExceptionHandler;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryChildrenDelta;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryMoreNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceType;
@@ -145,6 +150,19 @@ public class RegistryTreeViewer extends TreeViewer implements Observer {
 				}
 			}
 		});
+		addDoubleClickListener(new IDoubleClickListener() {
+
+			public void doubleClick(DoubleClickEvent event) {
+				Object obj = event.getSelection();
+				if (obj instanceof TreeSelection) {
+					Object object = ((TreeSelection) obj).getFirstElement();
+					if (object instanceof RegistryMoreNode
+							&& getContentProvider() instanceof RegistryTreeContentProvider) {
+						((RegistryTreeContentProvider) getContentProvider()).loadMoreChildren((RegistryMoreNode) object);
+					}
+				}
+			}
+		});
 
 	}
 
@@ -406,12 +424,48 @@ public class RegistryTreeViewer extends TreeViewer implements Observer {
 	 * update observers
 	 */
 	public void update(Observable arg0, Object arg1) {
-		if(!isBusy()){
+		if (arg1 instanceof RegistryChildrenDelta) {
+			final RegistryChildrenDelta delta = (RegistryChildrenDelta) arg1;
+			if (Display.getCurrent() == null) {
+				getControl().getDisplay().asyncExec(new Runnable() {
+					public void run() {
+						if (!getControl().isDisposed() && !isBusy()) {
+							applyChildrenDelta(delta);
+						}
+					}
+				});
+			} else if (!isBusy()) {
+				applyChildrenDelta(delta);
+			}
+		} else if(!isBusy()){
 			refresh(getRegistryUrlNode().isRefreshExisting());
 		}
 
 	}
 
+	/**
+	 * add, remove and update the changed children of a collection alone, which
+	 * keeps the expanded and selected items of the tree
+	 * @param delta
+	 */
+	public void applyChildrenDelta(RegistryChildrenDelta delta) {
+		RegistryResourceNode parent = delta.getParent();
+		if (parent.hasMoreChildren()) {
+			// the added children have to come before the node loading the next children
+			refresh(parent, false);
+			return;
+		}
+		if (!delta.getRemovedChildren().isEmpty()) {
+			remove(delta.getRemovedChildren().toArray());
+		}
+		if (!delta.getAddedChildren().isEmpty()) {
+			add(parent, delta.getAddedChildren().toArray());
+		}
+		if (!delta.getUpdatedChildren().isEmpty()) {
+			update(delta.getUpdatedChildren().toArray(), null);
+		}
+	}
+
 	/**
 	 * get registry tree listeners
 	 * @return
@@ -98,7 +98,14 @@ public class RegistryTreeBrowserDialog extends Dialog {
 	
 	private void initHeartBeatTester(){
 		registryHeartBeatTester = new RegistryHeartBeatTester(treeViewer.getRegistryUrlNode());
-		new Thread(registryHeartBeatTester).start();
+		registryHeartBeatTester.start();
+	}
+
+	public boolean close() {
+		if (registryHeartBeatTester != null) {
+			registryHeartBeatTester.stop();
+		}
+		return super.close();
 	}
 
 	public int getDialogSelection() {
@@ -37,6 +37,7 @@ import org.eclipse.swt.widgets.TableItem;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
+import org.wso2.developerstudio.eclipse.registry.base.core.RegistryPermissionService;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.util.BaseConstants;
@@ -400,6 +401,7 @@ public class UserPermissionDialog extends Dialog {
 
 		RegistryNode regNode = regResourceNode.getConnectionInfo();
 		ResourceAdmin resourceAdmin = regNode.getResourceAdmin();
+		RegistryPermissionService.getInstance().invalidate(regNode);
 		if (roleData.isReadPerm()) {
 			permission = BaseConstants.READ;
 			resourceAdmin.setPermissionPerResource(regResourceNode.getRegistryResourcePath(), 
@@ -29,6 +29,7 @@ import org.eclipse.ui.forms.editor.IFormPage;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.RegistryInformationEditorObservable;
@@ -83,6 +84,8 @@ public class RegistryResourceEditor extends FormEditor {
 	 * @throws PartInitException
 	 */
 	private void updateExistingPage(ResourceEditorInput editorInput) throws PartInitException{
+		//fetch the details shown by all the pages together, while the pages are created
+		ResourceDetailsLoader.getInstance().load(editorInput.getResource());
 		//check whether the selected item is a collection
 		if(editorInput.isCollection()){
 			collectionEditorPage = new CollectionEditorPage(this,
@@ -157,6 +160,7 @@ public class RegistryResourceEditor extends FormEditor {
 					resourceEditorPage.doFinish();
 				}
 				if (validatePages()) {
+					invalidateResourceDetails();
 					doFinishPages();
 					if(editorInput.getResource()!= null){
 						editorInput.getResource().setEditorInput(editorInput);
@@ -166,6 +170,7 @@ public class RegistryResourceEditor extends FormEditor {
 
 			} else {
 				if (validatePages()) {
+					invalidateResourceDetails();
 					doFinishPages();
 				}
 			}
@@ -185,6 +190,15 @@ public class RegistryResourceEditor extends FormEditor {
 		getRegInforChangeObservable().triggerObservers();
 	}
 
+	/**
+	 * drop the details fetched for the resource, so that the saved pages show the saved details
+	 */
+	private void invalidateResourceDetails() {
+		if (editorInput.getResource() != null) {
+			ResourceDetailsLoader.getInstance().invalidate(editorInput.getResource());
+		}
+	}
+
 	/**
 	 * save all the pages
 	 * @throws Exception
@@ -200,6 +214,13 @@ public class RegistryResourceEditor extends FormEditor {
 
 	}
 
+	public void dispose() {
+		if (editorInput != null) {
+			invalidateResourceDetails();
+		}
+		super.dispose();
+	}
+
 	public boolean isSaveAsAllowed() {
 		return false;
 	}
@@ -65,12 +65,15 @@ import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.developerstudio.eclipse.platform.ui.utils.MessageDialogUtils;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
 import org.wso2.developerstudio.eclipse.registry.base.core.RegistryAssociation;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails.IDetailListener;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.ui.controls.TextRegistryTreeDialogCellEditor;
 import org.wso2.developerstudio.eclipse.registry.base.ui.editor.RegistryResourceEditor;
+import org.wso2.developerstudio.eclipse.registry.base.ui.util.SWTControlUtils;
 import org.wso2.developerstudio.eclipse.registry.base.util.EditorConstants;
 import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
 import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
@@ -274,37 +277,44 @@ public class AssociationEditorPage extends FormPage implements
 	}
 
 	/**
-	 * load data for the form
-	 * @throws RegistryException 
-	 * @throws UnknownRegistryException 
-	 * @throws InvalidRegistryURLException 
+	 * load data for the form, in the background
 	 */
-	private void loadData() throws InvalidRegistryURLException, UnknownRegistryException {
+	private void loadData() {
 		regResourceNode = editorInput.getResource();
-		table.removeAll();
-		assocaitionMap = new HashMap<String, String>();
-		RegistryAssociation[] associations = null;
-			associations = regResourceNode.getConnectionInfo()
-									.getRegistry().getAllAssociations(regResourceNode.getRegistryResourcePath());
-		for (RegistryAssociation association : associations) {
-			if (!association.getAssociationType().equalsIgnoreCase(
-												EditorConstants.DEPENDENCY_ASSOCIATION_TYPE)) {
-				if(!assocaitionMap.containsKey(association.getDestinationPath()) && !association.getDestinationPath().equals(regResourceNode.getRegistryResourcePath())){
-					assocaitionMap.put(association.getDestinationPath(),
-															association.getAssociationType());
-					TableItem tableItem = new TableItem(table, SWT.NONE);
-					AssociationData associationData = AssociationData.getAssociationData(
-																	association.getDestinationPath(),
-																	association.getAssociationType(), 
-																	true);
-					tableItem.setText(new String[] { associationData.currentPath,
-													 associationData.currentType });
-					tableItem.setData(associationData);
-				}
-			}
-		}
-		addAssociation();
+		SWTControlUtils.showLoading(table);
+		ResourceDetailsLoader.getInstance().getDetails(regResourceNode).getAllAssociations(
+				SWTControlUtils.getAsyncExecutor(table.getDisplay()), new IDetailListener<RegistryAssociation[]>() {
+					public void detailLoaded(RegistryAssociation[] associations) {
+						if (!SWTControlUtils.hideLoading(table)) {
+							return;
+						}
+						assocaitionMap = new HashMap<String, String>();
+						for (RegistryAssociation association : associations) {
+							if (!association.getAssociationType().equalsIgnoreCase(
+																EditorConstants.DEPENDENCY_ASSOCIATION_TYPE)) {
+								if(!assocaitionMap.containsKey(association.getDestinationPath()) && !association.getDestinationPath().equals(regResourceNode.getRegistryResourcePath())){
+									assocaitionMap.put(association.getDestinationPath(),
+																			association.getAssociationType());
+									TableItem tableItem = new TableItem(table, SWT.NONE);
+									AssociationData associationData = AssociationData.getAssociationData(
+																					association.getDestinationPath(),
+																					association.getAssociationType(), 
+																					true);
+									tableItem.setText(new String[] { associationData.currentPath,
+																	 associationData.currentType });
+									tableItem.setData(associationData);
+								}
+							}
+						}
+						addAssociation();
+					}
 
+					public void detailFailed(Exception e) {
+						if (SWTControlUtils.hideLoading(table)) {
+							MessageDialogUtils.error(getSite().getShell(), e);
+						}
+					}
+				});
 	}
 
 	/**
@@ -377,6 +387,10 @@ public class AssociationEditorPage extends FormPage implements
 		TableItem[] items = table.getItems();
 		for (TableItem tableItem : items) {
 			AssociationData associationData = (AssociationData) tableItem.getData();
+			if (associationData == null) {
+				// the loading row
+				continue;
+			}
 			boolean n = associationData.isNew();
 			boolean b = associationData.isBlank();
 			boolean c = associationData.isChanged();
@@ -499,6 +513,7 @@ public class AssociationEditorPage extends FormPage implements
 				registry.addAssociation(selectedPath, associationData.path,associationData.type);
 			}
 		}
+		ResourceDetailsLoader.getInstance().invalidate(regResourceNode);
 		loadData();
 		updateDirtyState();
 	}
@@ -53,6 +53,8 @@ import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.platform.ui.utils.MessageDialogUtils;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
@@ -142,8 +144,8 @@ public class CollectionEditorPage extends FormPage implements
 		        setResourceName(resource.getLastSegmentInPath());
 		        try {
 			        Registry registry = resource.getConnectionInfo().getRegistry();
-			        String selectedPath = resource.getRegistryResourcePath();
-			        Resource regResource = registry.get(selectedPath);
+			        ResourceDetails details = ResourceDetailsLoader.getInstance().getDetails(resource);
+			        Resource regResource = details.getResource();
 			        setCurrentResourceMediaType(regResource.getMediaType());
 			        setResourceMediaType(getCurrentResourceMediaType());
 			        setCurrentResourceDescription(regResource.getDescription());
@@ -157,7 +159,7 @@ public class CollectionEditorPage extends FormPage implements
 
 			        try {
 				        //					Format of a version result is "/_system/registry-info.xml;version:72". Hence decoded in the following manner.
-				        version = registry.getVersions(selectedPath)[0].split(";")[1].split(":")[1];
+				        version = details.getVersions()[0].split(";")[1].split(":")[1];
 			        } catch (Exception e) {
 				        //Exception is possible if the versions are not available. Hence avoid log.
 				        //                	log.error(e);
@@ -173,9 +175,9 @@ public class CollectionEditorPage extends FormPage implements
 					setCurrentLifeCycleState(registry.getLifeCycleState(regResource));
 
 					try {
-						setCurrentMyRating(registry.getRating(selectedPath, registry.getUserName()));
+						setCurrentMyRating(details.getRating());
 						setMyRating(getCurrentMyRating());
-						setAverageRating(registry.getAverageRating(selectedPath));
+						setAverageRating(details.getAverageRating());
 					} catch (Exception e) {
 						log.error("Error occured while retriveing the Rating for the user", e);
 						setCurrentMyRating(0);
@@ -809,15 +811,8 @@ public class CollectionEditorPage extends FormPage implements
 		}
 		RegistryResourceNode regResourcePathData = ((ResourceEditorInput) getEditorInput())
 																				.getParentResource();
-		boolean found = false;
 		if (!resourceName.equals(getCurrentResourceName())) {
-			for (RegistryResourceNode child : regResourcePathData.getResourceNodeList()) {
-				if (child.getCaption().equals(resourceName)) {
-					found = true;
-					break;
-				}
-			}
-			if (found){
+			if (regResourcePathData.hasChild(resourceName)){
 				throw new Exception("The collection name '" + 
 									resourceName +
 									"' is already used by another sibling");
@@ -877,6 +872,7 @@ public class CollectionEditorPage extends FormPage implements
 			resource.setDescription(getResourceDescription());
 			registry.put(regResourcePathData.getRegistryResourcePath(), resource);
 			registry.setRating(regResourcePathData.getRegistryResourcePath(), getMyRating());
+			ResourceDetailsLoader.getInstance().invalidate(regResourcePathData);
 
 		}
 		syncToCurrentValues();
@@ -62,10 +62,13 @@ import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.platform.ui.utils.MessageDialogUtils;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails.IDetailListener;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.ui.editor.RegistryResourceEditor;
+import org.wso2.developerstudio.eclipse.registry.base.ui.util.SWTControlUtils;
 import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
 import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
 
@@ -212,28 +215,34 @@ public class CommentsEditorPage extends FormPage implements
 
 	private void loadData() {
 		regResourcePathData = editorInput.getResource();
-		table.removeAll();
-		Comment[] comments = null;
-		try {
-			comments = regResourcePathData.getConnectionInfo().getRegistry().getComments(
-							regResourcePathData.getRegistryResourcePath());
-			for (Comment comment : comments) {
-				TableItem tableItem = new TableItem(table, SWT.NULL);
-				CommentsData commentsData = CommentsData.getCommentsData(comment
-						.getDescription(), true);
-				commentsData.user = comment.getAuthorUserName();
-				commentsData.time = comment.getCreatedTime();
-				commentsData.commentPath = comment.getPath();
-				tableItem.setText(comment.getCreatedTime() + " by "
-						+ comment.getAuthorUserName() + "\n"
-						+ comment.getDescription());
-				tableItem.setData(commentsData);
-			}
-			addComment();
-		} catch (Exception e) {
-			MessageDialogUtils.error(getSite().getShell(), e);
-		}
-		
+		SWTControlUtils.showLoading(table);
+		ResourceDetailsLoader.getInstance().getDetails(regResourcePathData).getComments(
+				SWTControlUtils.getAsyncExecutor(table.getDisplay()), new IDetailListener<Comment[]>() {
+					public void detailLoaded(Comment[] comments) {
+						if (!SWTControlUtils.hideLoading(table)) {
+							return;
+						}
+						for (Comment comment : comments) {
+							TableItem tableItem = new TableItem(table, SWT.NULL);
+							CommentsData commentsData = CommentsData.getCommentsData(comment
+									.getDescription(), true);
+							commentsData.user = comment.getAuthorUserName();
+							commentsData.time = comment.getCreatedTime();
+							commentsData.commentPath = comment.getPath();
+							tableItem.setText(comment.getCreatedTime() + " by "
+									+ comment.getAuthorUserName() + "\n"
+									+ comment.getDescription());
+							tableItem.setData(commentsData);
+						}
+						addComment();
+					}
+
+					public void detailFailed(Exception e) {
+						if (SWTControlUtils.hideLoading(table)) {
+							MessageDialogUtils.error(getSite().getShell(), e);
+						}
+					}
+				});
 	}
 
 	public void deleteComment() {
@@ -288,6 +297,10 @@ public class CommentsEditorPage extends FormPage implements
 		TableItem[] items = table.getItems();
 		for (TableItem tableItem : items) {
 			CommentsData commentsData = (CommentsData) tableItem.getData();
+			if (commentsData == null) {
+				// the loading row
+				continue;
+			}
 			boolean n = commentsData.isNew();
 			boolean b = commentsData.isBlank();
 			boolean c = commentsData.isChanged();
@@ -357,6 +370,7 @@ public class CommentsEditorPage extends FormPage implements
 				
 			}
 		}
+		ResourceDetailsLoader.getInstance().invalidate(regResourcePathData);
 		loadData();
 		updateDirtyState();
 	}
@@ -63,12 +63,15 @@ import org.wso2.developerstudio.eclipse.platform.ui.utils.MessageDialogUtils;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
 import org.wso2.developerstudio.eclipse.registry.base.core.RegistryAssociation;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails.IDetailListener;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.ui.controls.TextRegistryTreeDialogCellEditor;
 import org.wso2.developerstudio.eclipse.registry.base.ui.editor.RegistryResourceEditor;
+import org.wso2.developerstudio.eclipse.registry.base.ui.util.SWTControlUtils;
 import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
 import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
 
@@ -267,6 +270,10 @@ public class DependencyEditorPage extends FormPage implements
 		TableItem[] items = table.getItems();
 		for (TableItem tableItem : items) {
 			DependencyData depData = (DependencyData) tableItem.getData();
+			if (depData == null) {
+				// the loading row
+				continue;
+			}
 			boolean n = depData.isNew();
 			boolean b = depData.isBlank();
 			boolean c = depData.isChanged();
@@ -343,6 +350,7 @@ public class DependencyEditorPage extends FormPage implements
 						DEPENDENCY_ASSOCIATION_TYPE);
 			}
 		}
+		ResourceDetailsLoader.getInstance().invalidate(regResourcePathData);
 		loadData();
 		updateDirtyState();
 		
@@ -351,29 +359,33 @@ public class DependencyEditorPage extends FormPage implements
 
 	private void loadData() {
 		regResourcePathData = editorInput.getResource();
-		table.removeAll();
-		RegistryAssociation[] associations = null;
-		try {
-			associations = regResourcePathData.getConnectionInfo()
-					.getRegistry().getAssociations(
-							(regResourcePathData.getRegistryResourcePath()),
-							DEPENDENCY_ASSOCIATION_TYPE);
-			for (RegistryAssociation association : associations) {
-				if (association.getAssociationType().equals(
-						DEPENDENCY_ASSOCIATION_TYPE) && !association.getDestinationPath().equals(regResourcePathData.getRegistryResourcePath())) {
-					TableItem tableItem = new TableItem(table, SWT.NONE);
-					DependencyData depData = DependencyData.getDependencyData(
-							association.getDestinationPath(), true);
-					tableItem.setText(new String[] { depData.currentDep });
-					tableItem.setData(depData);
+		SWTControlUtils.showLoading(table);
+		ResourceDetailsLoader.getInstance().getDetails(regResourcePathData).getDependencies(
+				SWTControlUtils.getAsyncExecutor(table.getDisplay()), new IDetailListener<RegistryAssociation[]>() {
+					public void detailLoaded(RegistryAssociation[] associations) {
+						if (!SWTControlUtils.hideLoading(table)) {
+							return;
+						}
+						for (RegistryAssociation association : associations) {
+							if (association.getAssociationType().equals(
+									DEPENDENCY_ASSOCIATION_TYPE) && !association.getDestinationPath().equals(regResourcePathData.getRegistryResourcePath())) {
+								TableItem tableItem = new TableItem(table, SWT.NONE);
+								DependencyData depData = DependencyData.getDependencyData(
+										association.getDestinationPath(), true);
+								tableItem.setText(new String[] { depData.currentDep });
+								tableItem.setData(depData);
+
+							}
+						}
+						addDependency();
+					}
 
-				}
-			}
-			addDependency();
-		} catch (Exception e) {
-			MessageDialogUtils.error(getSite().getShell(), e);
-		}
-		
+					public void detailFailed(Exception e) {
+						if (SWTControlUtils.hideLoading(table)) {
+							MessageDialogUtils.error(getSite().getShell(), e);
+						}
+					}
+				});
 	}
 
 	public RegistryResourceNode getRegResourcePathData() {
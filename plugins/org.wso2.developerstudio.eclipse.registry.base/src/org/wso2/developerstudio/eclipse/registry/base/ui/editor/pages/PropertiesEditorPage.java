@@ -60,10 +60,13 @@ import org.eclipse.ui.forms.widgets.ScrolledForm;
 import org.wso2.carbon.registry.core.Resource;
 import org.wso2.developerstudio.eclipse.platform.ui.utils.MessageDialogUtils;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails.IDetailListener;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.ui.editor.RegistryResourceEditor;
+import org.wso2.developerstudio.eclipse.registry.base.ui.util.SWTControlUtils;
 import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
 import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
 
@@ -256,29 +259,35 @@ public class PropertiesEditorPage extends FormPage implements
 
 	private void loadData() {
 		regResourcePathData = editorInput.getResource();
-		table.removeAll();
-		Resource resource = null;
-		try {
-			resource = regResourcePathData.getConnectionInfo().getRegistry()
-					.getResourcesPerCollection(regResourcePathData.getRegistryResourcePath());
-			Properties properties = resource.getProperties();
-			for (Enumeration e = properties.keys(); e.hasMoreElements(); /**/) {
-				String key = (String) e.nextElement();
-				String value = resource.getPropertyValues(key).get(0) == null ? ""
-						: resource.getPropertyValues(key).get(0).toString();
-				if (!key.startsWith("registry")) {
-					PropertyData propData = PropertyData.getPropertyData(key, value, true);
-					TableItem tableItem = new TableItem(table, SWT.NONE);
-					tableItem.setText(new String[] { key, value });
-					tableItem.setData(propData);
-				}
-
-			}
-			addProperty();
-		} catch (Exception e) {
-			MessageDialogUtils.error(getSite().getShell(), e);
-		}
-		
+		SWTControlUtils.showLoading(table);
+		ResourceDetailsLoader.getInstance().getDetails(regResourcePathData).getResource(
+				SWTControlUtils.getAsyncExecutor(table.getDisplay()), new IDetailListener<Resource>() {
+					public void detailLoaded(Resource resource) {
+						if (!SWTControlUtils.hideLoading(table)) {
+							return;
+						}
+						Properties properties = resource.getProperties();
+						for (Enumeration e = properties.keys(); e.hasMoreElements(); /**/) {
+							String key = (String) e.nextElement();
+							String value = resource.getPropertyValues(key).get(0) == null ? ""
+									: resource.getPropertyValues(key).get(0).toString();
+							if (!key.startsWith("registry")) {
+								PropertyData propData = PropertyData.getPropertyData(key, value, true);
+								TableItem tableItem = new TableItem(table, SWT.NONE);
+								tableItem.setText(new String[] { key, value });
+								tableItem.setData(propData);
+							}
+
+						}
+						addProperty();
+					}
+
+					public void detailFailed(Exception e) {
+						if (SWTControlUtils.hideLoading(table)) {
+							MessageDialogUtils.error(getSite().getShell(), e);
+						}
+					}
+				});
 	}
 
 	private void updateDeleteButton() {
@@ -330,6 +339,7 @@ public class PropertiesEditorPage extends FormPage implements
 						propertyData.propVal);
 		}
 		registry.put(selectedPath, resource);
+		ResourceDetailsLoader.getInstance().invalidate(regResourcePathData);
 		loadData();
 		updateDirtyState();
 
@@ -340,6 +350,10 @@ public class PropertiesEditorPage extends FormPage implements
 		TableItem[] items = table.getItems();
 		for (TableItem tableItem : items) {
 			PropertyData propertyData = (PropertyData) tableItem.getData();
+			if (propertyData == null) {
+				// the loading row
+				continue;
+			}
 			boolean n = propertyData.isNew();
 			boolean b = propertyData.isBlank();
 			boolean c = propertyData.isChanged();
@@ -73,6 +73,8 @@ import org.wso2.developerstudio.eclipse.platform.core.MediaManager;
 import org.wso2.developerstudio.eclipse.platform.core.mediatype.PlatformMediaTypeConstants;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.managers.RemoteContentManager;
@@ -887,8 +889,8 @@ public class ResourceEditorPage extends FormPage implements
 			try {
 				Registry registryConnection = resource.getConnectionInfo()
 						.getRegistry();
-				Resource regResource = registryConnection.get(resource.getRegistryResourcePath());
-				String selectedPath = resource.getRegistryResourcePath();
+				ResourceDetails details = ResourceDetailsLoader.getInstance().getDetails(resource);
+				Resource regResource = details.getResource();
 				if(regResource.getMediaType() != null){
 					setCurrentMediaType(regResource.getMediaType());
 					setMediaType(getCurrentMediaType());
@@ -908,8 +910,7 @@ public class ResourceEditorPage extends FormPage implements
 					// Format of a version result is
 					// "/_system/registry-info.xml;version:72". Hence decoded in
 					// the following manner.
-					version = registryConnection
-							.getVersions(selectedPath)[0]
+					version = details.getVersions()[0]
 							.split(";")[1].split(":")[1];
 				} catch (Exception e) {
 					//This is an expected situation where the versions are not available. Hence disabled the error log.
@@ -925,9 +926,9 @@ public class ResourceEditorPage extends FormPage implements
 				setCurrentLifeCycle(registryConnection.getLifeCycleName(regResource));
 				setCurrentLifeCycleState(registryConnection.getLifeCycleState(regResource));
 				
-				setCurrentMyRating(registryConnection.getRating(selectedPath, registryConnection.getUserName()));
+				setCurrentMyRating(details.getRating());
                 setMyRating(getCurrentMyRating());
-                setAverageRating(registryConnection.getAverageRating(selectedPath));
+                setAverageRating(details.getAverageRating());
 			} catch (Exception e) {
 				log.error(e);
 			}
@@ -1114,15 +1115,7 @@ public class ResourceEditorPage extends FormPage implements
 				}
 			}
 			regResourcePathData = editorInput.getParentResource();
-			boolean found = false;
-			for (RegistryResourceNode child : regResourcePathData
-					.getResourceNodeList()) {
-				if (child.getCaption().equals(getCurrentResourceName())) {
-					found = true;
-					break;
-				}
-			}
-			if (found)
+			if (regResourcePathData.hasChild(getCurrentResourceName()))
 				throw new Exception("The Resource name '"
 						+ getCurrentResourceName()
 						+ "' already exists in the given path");
@@ -1241,6 +1234,7 @@ public class ResourceEditorPage extends FormPage implements
 			regResourcePathData.getVersionContent(
 					regResourcePathData.getLatestVersion(), getFilePath());
 			registry.setRating(regResourcePathData.getRegistryResourcePath(), getMyRating());
+			ResourceDetailsLoader.getInstance().invalidate(regResourcePathData);
 		}
 
 		syncToCurrentValues();
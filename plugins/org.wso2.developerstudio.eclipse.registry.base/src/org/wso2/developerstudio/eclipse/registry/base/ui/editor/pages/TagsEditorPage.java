@@ -59,10 +59,13 @@ import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.base.Activator;
 import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails.IDetailListener;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetailsLoader;
 import org.wso2.developerstudio.eclipse.registry.base.editor.input.ResourceEditorInput;
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEditorPage;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.ui.editor.RegistryResourceEditor;
+import org.wso2.developerstudio.eclipse.registry.base.ui.util.SWTControlUtils;
 import org.wso2.developerstudio.eclipse.registry.core.exception.InvalidRegistryURLException;
 import org.wso2.developerstudio.eclipse.registry.core.exception.UnknownRegistryException;
 
@@ -258,6 +261,10 @@ public class TagsEditorPage extends FormPage implements
 		TableItem[] items = table.getItems();
 		for (TableItem tableItem : items) {
 			TagData tagData = (TagData) tableItem.getData();
+			if (tagData == null) {
+				// the loading row
+				continue;
+			}
 			boolean n = tagData.isNew();
 			boolean b = tagData.isBlank();
 			boolean c = tagData.isChanged();
@@ -317,6 +324,7 @@ public class TagsEditorPage extends FormPage implements
 			if (dirtyState)
 				registry.applyTag(selectedPath, TagData.tag);
 		}
+		ResourceDetailsLoader.getInstance().invalidate(regResourcePathData);
 		loadData();
 		updateDirtyState();
 
@@ -324,22 +332,27 @@ public class TagsEditorPage extends FormPage implements
 
 	private void loadData() {
 		regResourcePathData = editorInput.getResource();
-		table.removeAll();
-		Tag[] tags = null;
-		try {
-			tags = regResourcePathData.getConnectionInfo().getRegistry().getTags(
-							regResourcePathData.getRegistryResourcePath());
-			for (Tag tag : tags) {
-				TableItem tableItem = new TableItem(table, SWT.NONE);
-				TagData tagData = TagData.getTagData(tag.getTagName(), true);
-				tableItem.setText(new String[] { tag.getTagName() });
-				tableItem.setData(tagData);
-			}
-			addTags();
-		} catch (Exception e) {
-			log.error(e);
-		}
-		
+		SWTControlUtils.showLoading(table);
+		ResourceDetailsLoader.getInstance().getDetails(regResourcePathData).getTags(
+				SWTControlUtils.getAsyncExecutor(table.getDisplay()), new IDetailListener<Tag[]>() {
+					public void detailLoaded(Tag[] tags) {
+						if (!SWTControlUtils.hideLoading(table)) {
+							return;
+						}
+						for (Tag tag : tags) {
+							TableItem tableItem = new TableItem(table, SWT.NONE);
+							TagData tagData = TagData.getTagData(tag.getTagName(), true);
+							tableItem.setText(new String[] { tag.getTagName() });
+							tableItem.setData(tagData);
+						}
+						addTags();
+					}
+
+					public void detailFailed(Exception e) {
+						SWTControlUtils.hideLoading(table);
+						log.error(e);
+					}
+				});
 	}
 
 	public RegistryResourceNode getRegResourcePathData() {
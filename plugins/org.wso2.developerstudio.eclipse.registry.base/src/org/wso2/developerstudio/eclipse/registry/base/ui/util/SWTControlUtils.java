@@ -16,12 +16,18 @@
 
 package org.wso2.developerstudio.eclipse.registry.base.ui.util;
 
+import java.util.concurrent.Executor;
+
 import org.eclipse.jface.viewers.TreeSelection;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IWorkbenchPage;
@@ -32,6 +38,7 @@ import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryCredent
 import org.wso2.developerstudio.eclipse.registry.base.ui.dialog.CredentialsDialog;
 
 public class SWTControlUtils {
+	private static final String LOADING_CAPTION = "Loading...";
 
 	/**
 	 * create label
@@ -142,4 +149,43 @@ public class SWTControlUtils {
 		}
 
 	}
+
+	/**
+	 * show a disabled loading row in place of the rows of a table, while they are fetched
+	 * @param table
+	 */
+	public static void showLoading(Table table) {
+		table.removeAll();
+		new TableItem(table, SWT.NONE).setText(LOADING_CAPTION);
+		table.setEnabled(false);
+	}
+
+	/**
+	 * remove the loading row of a table, before its rows are added
+	 * @param table
+	 * @return false if the table has been disposed while its rows were fetched
+	 */
+	public static boolean hideLoading(Table table) {
+		if (table.isDisposed()) {
+			return false;
+		}
+		table.removeAll();
+		table.setEnabled(true);
+		return true;
+	}
+
+	/**
+	 * executor running tasks on the UI thread of a display, after the events already queued
+	 * @param display
+	 * @return
+	 */
+	public static Executor getAsyncExecutor(final Display display) {
+		return new Executor() {
+			public void execute(Runnable task) {
+				if (!display.isDisposed()) {
+					display.asyncExec(task);
+				}
+			}
+		};
+	}
 }
@@ -17,9 +17,14 @@
 package org.wso2.developerstudio.eclipse.registry.base.util;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.URL;
+import java.util.zip.CRC32;
 
 public class Utils {
 	public static final String READ = "Read";
@@ -27,6 +32,8 @@ public class Utils {
 	public static final String DELETE = "Delete";
 	public static final String AUTHORIZE = "Authorize";
 
+	private static final int CHECKSUM_BUFFER_SIZE = 8192;
+
 	public static void getFolderFileCount(File path,
 			ResourceCounter resourceCount) {
 		if (!path.exists())
@@ -48,6 +55,19 @@ public class Utils {
 	}
 	
 	public static boolean isValidServerURL(String serverURL){
+		return isValidServerURL(serverURL, 0);
+	}
+
+	/**
+	 * Checks whether the server of the given URL accepts connections.
+	 * 
+	 * @param serverURL URL of the server
+	 * @param timeout connect timeout in milliseconds, 0 to wait until the
+	 *            connection is established or refused
+	 * @return true if the server could be connected
+	 */
+	public static boolean isValidServerURL(String serverURL, int timeout){
+		Socket socket = new Socket();
 		try {
 		   HttpURLConnection.setFollowRedirects(false);
 		   URL url = new URL(serverURL);
@@ -55,18 +75,43 @@ public class Utils {
 		   if (port==-1){
 			   port=(url.getProtocol().equalsIgnoreCase("http")?80:443);
 		   }
-		   Socket socket = new Socket(url.getHost(),port);
-		   socket.getInputStream();
-		   if (socket.isConnected()){
-			   return true;
-		   }else{
-			   return false;
-		   }
+		   socket.connect(new InetSocketAddress(url.getHost(), port), timeout);
+		   return socket.isConnected();
 //		   HttpURLConnection con = (HttpURLConnection) url.openConnection();
 //		   con.setRequestMethod("HEAD");
 //		   return (con.getResponseCode() == HttpURLConnection.HTTP_OK);
 	    }catch (Exception e) {
 	    	return false;
+	    }finally{
+	    	try {
+	    		socket.close();
+	    	} catch (IOException e) {
+	    		// ignore, the socket is not used any further
+	    	}
 	    }
 	}
+
+	/**
+	 * Computes the CRC32 checksum of the content of a file, the one the
+	 * version content of a registry resource keeps to tell whether the file
+	 * changed.
+	 * 
+	 * @param file file to read
+	 * @return the checksum of the file
+	 * @throws IOException if the file could not be read
+	 */
+	public static long getChecksumCRC32(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+		InputStream in = new FileInputStream(file);
+		try {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+		} finally {
+			in.close();
+		}
+		return crc.getValue();
+	}
 }
@@ -22,6 +22,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 import org.wso2.developerstudio.eclipse.registry.manager.local.manager.FileModificationManager;
+import org.wso2.developerstudio.eclipse.registry.manager.local.utils.ResourceStateIndex;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -65,6 +66,7 @@ public class Activator extends AbstractUIPlugin {
 	 * )
 	 */
 	public void stop(BundleContext context) throws Exception {
+		ResourceStateIndex.dispose();
 		plugin = null;
 		super.stop(context);
 		IWorkspace workspace = ResourcesPlugin.getWorkspace();
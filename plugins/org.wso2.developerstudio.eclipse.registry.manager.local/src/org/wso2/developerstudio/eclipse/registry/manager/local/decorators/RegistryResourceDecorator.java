@@ -45,6 +45,7 @@ import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.manager.local.Activator;
 import org.wso2.developerstudio.eclipse.registry.manager.local.bean.RemoteRegistryInfo;
 import org.wso2.developerstudio.eclipse.registry.manager.local.utils.RegistryCheckInClientUtils;
+import org.wso2.developerstudio.eclipse.registry.manager.local.utils.ResourceStateIndex;
 
 public class RegistryResourceDecorator extends LabelProvider implements ILightweightLabelDecorator {
 	private static IDeveloperStudioLog log=Logger.getLog(Activator.PLUGIN_ID);
@@ -71,8 +72,8 @@ public class RegistryResourceDecorator extends LabelProvider implements ILightwe
 				                                                          .toOSString())) {
 					try {
 						RemoteRegistryInfo r =
-						                       RegistryCheckInClientUtils.getResourceRemoteRegistryUrlInfo(resource.getLocation()
-						                                                                                           .toOSString());
+						                       ResourceStateIndex.getInstance().getRemoteRegistryInfo(resource.getLocation()
+						                                                                                       .toOSString());
 						Date date = new Date(r.getResourceLastUpdateTime());
 						SimpleDateFormat simpleDateFormat =
 						                                    new SimpleDateFormat(
@@ -104,7 +105,7 @@ public class RegistryResourceDecorator extends LabelProvider implements ILightwe
 		int resourceState = RegistryCheckInClientUtils.RESOURCE_STATE_NOT_RESOURCE;
 
 		if (location != null) {
-			resourceState = RegistryCheckInClientUtils.getResourceState(location.toOSString());
+			resourceState = ResourceStateIndex.getInstance().getResourceState(location.toOSString());
 		}
 		switch (resourceState) {
 			case RegistryCheckInClientUtils.RESOURCE_STATE_NORMAL:
@@ -149,6 +150,9 @@ public class RegistryResourceDecorator extends LabelProvider implements ILightwe
 	 * @param projects
 	 */
 	public void refreshProject(IProject projects) {
+		if (projects.getLocation() != null) {
+			ResourceStateIndex.getInstance().invalidate(projects.getLocation().toOSString());
+		}
 		final ArrayList list = new ArrayList();
 		try {
 			projects.accept(new IResourceVisitor() {
@@ -30,6 +30,7 @@ import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
 import org.wso2.developerstudio.eclipse.registry.manager.local.Activator;
 import org.wso2.developerstudio.eclipse.registry.manager.local.decorators.RegistryResourceDecorator;
+import org.wso2.developerstudio.eclipse.registry.manager.local.utils.ResourceStateIndex;
 
 public class FileModificationManager implements IResourceChangeListener {
 	private static IDeveloperStudioLog log=Logger.getLog(Activator.PLUGIN_ID);
@@ -75,6 +76,13 @@ public class FileModificationManager implements IResourceChangeListener {
 				}
 			});
 
+			ResourceStateIndex stateIndex = ResourceStateIndex.getInstance();
+			for (IResource resource : modifiedResources) {
+				if (resource.getLocation() != null) {
+					stateIndex.invalidate(resource.getLocation().toOSString());
+				}
+			}
+
 			final List<IProject> projects=new ArrayList<IProject>();
 			for (IResource resource : modifiedResources) {
 				IProject project = resource.getProject();
@@ -60,12 +60,12 @@ public class RegistryCheckInClientUtils {
 	private static final QName MD5_Q_NAME = new QName("md5");
 	private static final QName STATUS_Q_NAME = new QName("status");
 	
-	private static final String META_PREFIX = "~";
+	static final String META_PREFIX = "~";
 	private static final String CONFLICT_SERVER_EXTENSION = ".server";
 	private static final String CONFLICT_MINE_EXTENSION = ".mine";
-	private static final String FOLDER_META_FILE = "~.xml";
-	private static final String XML_EXTENSION = ".xml";
-	private static final String META_EXTENSION = ".meta";
+	static final String FOLDER_META_FILE = "~.xml";
+	static final String XML_EXTENSION = ".xml";
+	static final String META_EXTENSION = ".meta";
 	
 	public static final int RESOURCE_STATE_NOT_CONFLICT = -2;
 	public static final int RESOURCE_STATE_NOT_RESOURCE = -1;
@@ -352,6 +352,17 @@ public class RegistryCheckInClientUtils {
 	 * @return the state of the file
 	 */
 	private static int getFileResourceState(int currentState, File resource, File metaFile) {
+		if (isResourceConflict(resource.getAbsolutePath())){
+			return RESOURCE_STATE_CONFLICT;
+		}
+		
+		//Reuse the state computed earlier if neither the file nor its metadata changed since
+		ResourceStateIndex stateIndex = ResourceStateIndex.getInstance();
+		Integer indexedState = stateIndex.getFileState(resource, metaFile);
+		if (indexedState != null) {
+			return indexedState;
+		}
+		
 		int state=currentState;
 		OMElement metaFileElement = null;
 		try {
@@ -362,9 +373,7 @@ public class RegistryCheckInClientUtils {
 		}
 		
 
-		if (isResourceConflict(resource.getAbsolutePath())){
-			state = RESOURCE_STATE_CONFLICT;
-		} else if(metaFileElement.getAttributeValue(STATUS_Q_NAME) != null){
+		if(metaFileElement.getAttributeValue(STATUS_Q_NAME) != null){
 			String statusValue = metaFileElement.getAttributeValue(STATUS_Q_NAME);
 			if("added".equals(statusValue)){
 				state = RESOURCE_STATE_ADDED;
@@ -391,6 +400,9 @@ public class RegistryCheckInClientUtils {
 			}
 		}
 		
+		if (state != RESOURCE_STATE_ERROR) {
+			stateIndex.putFileState(resource, metaFile, state);
+		}
 		return state;
 	}
 
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.manager.local.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
+import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.manager.local.Activator;
+import org.wso2.developerstudio.eclipse.registry.manager.local.bean.RemoteRegistryInfo;
+
+/**
+ * Workspace wide index of the check-in states of checked out registry resources, so that the
+ * resource decorators do not have to parse the metadata file and checksum the working copy of
+ * every resource each time it is painted.
+ *
+ * Two levels are kept. The state of each checked out file is recorded against the size and the
+ * modification time of the file and of its metadata file, and is reused as long as they do not
+ * change. This level is persisted in the plugin state location so it survives restarts. On top of
+ * it the computed state of every decorated file and folder is kept in memory until the resource
+ * or one of its children is reported as changed through {@link #invalidate(String)}, along with
+ * the registry information shown next to it.
+ */
+public class ResourceStateIndex {
+	private static IDeveloperStudioLog log = Logger.getLog(Activator.PLUGIN_ID);
+
+	private static final String INDEX_FILE = "resource-states.index";
+	private static final String FIELD_SEPARATOR = "\t";
+	private static final String ENCODING = "UTF-8";
+
+	private static ResourceStateIndex instance;
+
+	private final Map<String, FileState> fileStates = new ConcurrentHashMap<String, FileState>();
+	private final Map<String, Integer> resourceStates = new ConcurrentHashMap<String, Integer>();
+	private final Map<String, RemoteRegistryInfo> remoteRegistryInfos = new ConcurrentHashMap<String, RemoteRegistryInfo>();
+
+	private ResourceStateIndex() {
+	}
+
+	/**
+	 * Returns the shared index, loading the persisted file states on first use.
+	 *
+	 * @return the resource state index
+	 */
+	public static synchronized ResourceStateIndex getInstance() {
+		if (instance == null) {
+			instance = new ResourceStateIndex();
+			instance.load();
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the state of the given file or folder, computing it only if it is not known already.
+	 *
+	 * @param path absolute path of the file or folder
+	 * @return the state as returned by {@link RegistryCheckInClientUtils#getResourceState(String)}
+	 */
+	public int getResourceState(String path) {
+		Integer state = resourceStates.get(path);
+		if (state == null) {
+			state = RegistryCheckInClientUtils.getResourceState(path);
+			resourceStates.put(path, state);
+		}
+		return state;
+	}
+
+	/**
+	 * Saves the shared index, if it was used, in the plugin state location.
+	 */
+	public static synchronized void dispose() {
+		if (instance != null) {
+			instance.save();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the registry information recorded in the metadata of the given checked out file or
+	 * folder, reading the metadata only if it is not known already.
+	 *
+	 * @param path absolute path of the file or folder
+	 * @return the registry information or null if the path is not a checked out registry resource
+	 * @throws Exception if the metadata could not be read
+	 */
+	public RemoteRegistryInfo getRemoteRegistryInfo(String path) throws Exception {
+		RemoteRegistryInfo remoteRegistryInfo = remoteRegistryInfos.get(path);
+		if (remoteRegistryInfo == null) {
+			remoteRegistryInfo = RegistryCheckInClientUtils.getResourceRemoteRegistryUrlInfo(path);
+			if (remoteRegistryInfo != null) {
+				remoteRegistryInfos.put(path, remoteRegistryInfo);
+			}
+		}
+		return remoteRegistryInfo;
+	}
+
+	/**
+	 * Forgets the state of the given path, the states of its children and the states of its
+	 * parents, as the state of a folder depends on the states of its children. A change to a
+	 * metadata file or folder also forgets the state of the resource it describes.
+	 *
+	 * @param path absolute path of the changed file or folder
+	 */
+	public void invalidate(String path) {
+		invalidatePath(path);
+		String resourcePath = getDescribedResourcePath(path);
+		if (resourcePath != null) {
+			invalidatePath(resourcePath);
+		}
+	}
+
+	private void invalidatePath(String path) {
+		resourceStates.remove(path);
+		remoteRegistryInfos.remove(path);
+		if (!new File(path).isFile()) {
+			// a folder, or a removed resource which may have been a folder
+			String childPrefix = path.endsWith(File.separator) ? path : path + File.separator;
+			removeTree(resourceStates, childPrefix);
+			removeTree(remoteRegistryInfos, childPrefix);
+		}
+		File parent = new File(path).getParentFile();
+		while (parent != null) {
+			resourceStates.remove(parent.getPath());
+			parent = parent.getParentFile();
+		}
+	}
+
+	/**
+	 * Forgets the computed states of all the resources. The recorded file states are kept as they
+	 * are validated against the files themselves.
+	 */
+	public void invalidateAll() {
+		resourceStates.clear();
+		remoteRegistryInfos.clear();
+	}
+
+	/**
+	 * Returns the resource described by the given metadata file or folder: the folder holding a
+	 * .meta folder or its ~.xml file, and the file x for a .meta/~x.xml file.
+	 *
+	 * @param path absolute path of a file or folder
+	 * @return absolute path of the described resource or null if the path is not a metadata path
+	 */
+	private static String getDescribedResourcePath(String path) {
+		File file = new File(path);
+		File parent = file.getParentFile();
+		if (parent == null) {
+			return null;
+		}
+		if (RegistryCheckInClientUtils.META_EXTENSION.equals(file.getName())) {
+			return parent.getPath();
+		}
+		String name = file.getName();
+		if (!RegistryCheckInClientUtils.META_EXTENSION.equals(parent.getName()) || parent.getParentFile() == null ||
+		    !name.startsWith(RegistryCheckInClientUtils.META_PREFIX) ||
+		    !name.endsWith(RegistryCheckInClientUtils.XML_EXTENSION)) {
+			return null;
+		}
+		File folder = parent.getParentFile();
+		if (RegistryCheckInClientUtils.FOLDER_META_FILE.equals(name)) {
+			return folder.getPath();
+		}
+		String resourceName = name.substring(RegistryCheckInClientUtils.META_PREFIX.length(),
+		                                     name.length() - RegistryCheckInClientUtils.XML_EXTENSION.length());
+		return new File(folder, resourceName).getPath();
+	}
+
+	private static void removeTree(Map<String, ?> states, String childPrefix) {
+		for (Iterator<String> iterator = states.keySet().iterator(); iterator.hasNext();) {
+			String indexedPath = iterator.next();
+			if (indexedPath.startsWith(childPrefix)) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Returns the recorded state of a checked out file, if neither the file nor its metadata file
+	 * changed since the state was recorded.
+	 *
+	 * @param resource checked out file
+	 * @param metaFile metadata file of the checked out file
+	 * @return the recorded state or null if it is not known
+	 */
+	Integer getFileState(File resource, File metaFile) {
+		FileState fileState = fileStates.get(resource.getAbsolutePath());
+		if (fileState != null && fileState.matches(resource, metaFile)) {
+			return fileState.state;
+		}
+		return null;
+	}
+
+	/**
+	 * Records the state of a checked out file against the current size and modification time of
+	 * the file and its metadata file.
+	 *
+	 * @param resource checked out file
+	 * @param metaFile metadata file of the checked out file
+	 * @param state state of the file
+	 */
+	void putFileState(File resource, File metaFile, int state) {
+		fileStates.put(resource.getAbsolutePath(), new FileState(resource.length(), resource.lastModified(),
+		                                                         metaFile.lastModified(), state));
+	}
+
+	/**
+	 * Saves the recorded file states in the plugin state location. Entries of files which no
+	 * longer exist are dropped.
+	 */
+	public void save() {
+		File indexFile = getIndexFile();
+		if (indexFile == null) {
+			return;
+		}
+		BufferedWriter writer = null;
+		try {
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile), ENCODING));
+			for (Map.Entry<String, FileState> entry : fileStates.entrySet()) {
+				if (!new File(entry.getKey()).exists()) {
+					continue;
+				}
+				FileState fileState = entry.getValue();
+				writer.write(entry.getKey() + FIELD_SEPARATOR + fileState.length + FIELD_SEPARATOR +
+				             fileState.lastModified + FIELD_SEPARATOR + fileState.metaLastModified +
+				             FIELD_SEPARATOR + fileState.state);
+				writer.newLine();
+			}
+		} catch (IOException e) {
+			log.error("Error while saving the registry resource state index", e);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					log.error(e);
+				}
+			}
+		}
+	}
+
+	private void load() {
+		File indexFile = getIndexFile();
+		if (indexFile == null || !indexFile.exists()) {
+			return;
+		}
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), ENCODING));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(FIELD_SEPARATOR);
+				if (fields.length != 5) {
+					continue;
+				}
+				try {
+					fileStates.put(fields[0], new FileState(Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+					                                        Long.parseLong(fields[3]), Integer.parseInt(fields[4])));
+				} catch (NumberFormatException e) {
+					// skip the corrupted entry, the state will be computed again
+				}
+			}
+		} catch (IOException e) {
+			log.error("Error while loading the registry resource state index", e);
+			fileStates.clear();
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (IOException e) {
+					log.error(e);
+				}
+			}
+		}
+	}
+
+	private File getIndexFile() {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			return null;
+		}
+		return activator.getStateLocation().append(INDEX_FILE).toFile();
+	}
+
+	private static class FileState {
+		private final long length;
+		private final long lastModified;
+		private final long metaLastModified;
+		private final int state;
+
+		private FileState(long length, long lastModified, long metaLastModified, int state) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.metaLastModified = metaLastModified;
+			this.state = state;
+		}
+
+		private boolean matches(File resource, File metaFile) {
+			return length == resource.length() && lastModified == resource.lastModified() &&
+			       metaLastModified == metaFile.lastModified();
+		}
+	}
+}
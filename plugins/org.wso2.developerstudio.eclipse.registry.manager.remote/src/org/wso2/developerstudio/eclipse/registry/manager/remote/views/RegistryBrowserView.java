@@ -125,6 +125,7 @@ import org.wso2.developerstudio.eclipse.registry.base.interfaces.IRegistryFormEd
 import org.wso2.developerstudio.eclipse.registry.base.interfaces.RegistryBrowserTraverseListener;
 import org.wso2.developerstudio.eclipse.registry.base.logger.ExceptionHandler;
 import org.wso2.developerstudio.eclipse.registry.base.managers.RemoteContentManager;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryChildrenDelta;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryContentContainer;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
@@ -296,7 +297,7 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 		regUrlNode.addObserver(this);
 		lastInstance = this;
 		registryHeartBeatTester = new RegistryHeartBeatTester(regUrlNode);
-		new Thread(registryHeartBeatTester).start();
+		registryHeartBeatTester.start();
 	}
 
 	public void init(IViewSite site) throws PartInitException {
@@ -1605,7 +1606,7 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 			if(caption.equalsIgnoreCase(registryResourceNode.getCaption())){
 	        	return registryResourceNode.getRegistryResourcePath();
 	        }else{
-	        	queue.addAll(registryResourceNode.getResourceNodeList());
+	        	queue.addAll(registryResourceNode.getAllResourceNodeList());
 	        }   
         }
 		
@@ -1629,7 +1630,7 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 			if(caption.equalsIgnoreCase(registryResourceNode.getCaption())){
 	        	return registryResourceNode;
 	        }else{
-	        	queue.addAll(registryResourceNode.getResourceNodeList());
+	        	queue.addAll(registryResourceNode.getAllResourceNodeList());
 	        }   
         }
 		
@@ -2578,6 +2579,14 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 		if (o instanceof RegistryBrowserTraverseListener) {
 			RegistryBrowserTraverseListener r = (RegistryBrowserTraverseListener) o;
 			traverseRegistryBrowser(r.getUrl(), r.getPath());
+		} else if (arg instanceof RegistryChildrenDelta) {
+			final RegistryChildrenDelta delta = (RegistryChildrenDelta) arg;
+			Display.getDefault().asyncExec(new Runnable(){
+				public void run() {
+					if (!treeViewer.getControl().isDisposed()) {
+						treeViewer.applyChildrenDelta(delta);
+					}
+				}});
 		} else{
 			Display.getDefault().asyncExec(new Runnable(){
 				public void run() {
@@ -2848,11 +2857,6 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 	                                                                                // TODO Auto-generated catch block
 	                                                                                e.printStackTrace();
                                                                                 }
-																				r
-																						.getConnectionInfo()
-																						.getRegUrlData()
-																						.refreshViewer(
-																								false);
 																			}
 
 																		});
@@ -2937,7 +2941,15 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 										};
 										try {
 											if (folderToBeUploaded.exists()) {
-												r.getConnectionInfo().getRegistry().addFolderToRegistry(folderToBeUploaded,r.getRegistryResourcePath(),null,resourceUploadListner);
+												final List<File> failedFiles = r.getConnectionInfo().getRegistry().addFolderToRegistry(folderToBeUploaded,r.getRegistryResourcePath(),null,resourceUploadListner);
+												if (!failedFiles.isEmpty()) {
+													Display.getDefault().asyncExec(new Runnable() {
+														public void run() {
+															MessageDialog.openWarning(Display.getDefault().getActiveShell(), "Upload folder",
+																	failedFiles.size() + " file(s) could not be uploaded. See the log for details.");
+														}
+													});
+												}
 											}
 										} catch (Exception e) {
 											log.error(e);
@@ -2958,7 +2970,6 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 	                                                    // TODO Auto-generated catch block
 	                                                    e.printStackTrace();
                                                     }
-													r.getConnectionInfo().getRegUrlData().refreshViewer(false);
 												}
 											});
 											monitor.worked(1);
@@ -3139,6 +3150,7 @@ public class RegistryBrowserView extends ViewPart implements Observer {
 	
 	
 	public void dispose() {
+		registryHeartBeatTester.stop();
 		deactivateActionHandlers();
 		
 		IContextService contextService = (IContextService)getSite().getService(IContextService.class);
@@ -22,6 +22,7 @@ import java.util.List;
 import org.eclipse.jface.wizard.Wizard;
 import org.wso2.developerstudio.eclipse.logging.core.IDeveloperStudioLog;
 import org.wso2.developerstudio.eclipse.logging.core.Logger;
+import org.wso2.developerstudio.eclipse.registry.base.core.RegistryPermissionService;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
 import org.wso2.developerstudio.eclipse.registry.base.model.RegistryUserRole;
@@ -70,6 +71,7 @@ public class ChangePermissionWizard extends Wizard {
 		RegistryNode regData = regUsrRole.getRegistryUserRoleContent()
 				.getRegistryUserManagerContainer().getRegistryData();
 		ResourceAdmin resourceAdmin = regData.getResourceAdmin();
+		RegistryPermissionService.getInstance().invalidate(regData);
 
 		for (int i = 0; i < permissionList.size(); i++) {
 			for (int j = 0; j < initialPermList.length; j++) {
@@ -26,6 +26,9 @@ import java.net.URL;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.axiom.om.OMElement;
 import org.apache.axis2.AxisFault;
@@ -54,11 +57,18 @@ public class ResourceAdmin {
 	public static final String DELETE = "Delete";
 	public static final String AUTHORIZE = "Authorize";
 
+	/**
+	 * time a session is used without checking that it is still alive, in
+	 * milliseconds
+	 */
+	private static final long SESSION_CHECK_INTERVAL = 60000;
+
 	private String url;
 	private String username;
 	private String password;
 	private ResourceAdminServiceStub stub;
 	private AuthenticationAdminStub authenticationAdminStub;
+	private long lastStubUse;
 
 	public ResourceAdmin(String url, String username, String password) {
 		setUrl(url);
@@ -97,7 +107,7 @@ public class ResourceAdmin {
 				result = false;
 			openStream.close();
 		} catch (IOException e) {
-			// error
+			// error
 		}
 		return result;
 	}
@@ -195,9 +205,14 @@ public class ResourceAdmin {
 		this.authenticationAdminStub = authenticationAdminStub;
 	}
 
-	private ResourceAdminServiceStub getStub() throws RemoteException,
+	/**
+	 * get the stub of the resource admin service, logging in once for the
+	 * session. A session left idle for a while is checked before it is used
+	 * again, and a new session is created if it has expired.
+	 */
+	private synchronized ResourceAdminServiceStub getStub() throws RemoteException,
 			Exception {
-		if (stub!=null){
+		if (stub != null && System.currentTimeMillis() - lastStubUse > SESSION_CHECK_INTERVAL) {
 			try {
 				stub.getMediatypeDefinitions()/*getPermissions("/")*/;
 			} catch (Exception e) {
@@ -239,9 +254,17 @@ public class ResourceAdmin {
 			stub._getServiceClient().getOptions().setProperty(
 					HTTPConstants.COOKIE_STRING, sessionCookie);
 		}
+		lastStubUse = System.currentTimeMillis();
 		return stub;
 	}
 
+	/**
+	 * drop the current session, so that the next request logs in again
+	 */
+	private synchronized void resetStub() {
+		stub = null;
+	}
+
 	public void setPassword(String password) {
 		this.password = password;
 	}
@@ -414,6 +437,44 @@ public class ResourceAdmin {
 		return permissionAssigned;
 	}
 	
+	/**
+	 * check the write permission of the logged user on each of the given
+	 * resources, all over the same session. The session is renewed once if
+	 * it turns out to have expired, and a resource whose permissions still
+	 * can not be retrieved is taken to be read only.
+	 * 
+	 * @param resourcePaths paths of the resources
+	 * @return whether the user can write each resource, by path
+	 * @throws Exception if the session could not be created
+	 */
+	public synchronized Map<String, Boolean> getWritePermissions(List<String> resourcePaths) throws Exception {
+		Map<String, Boolean> permissions = new LinkedHashMap<String, Boolean>();
+		boolean sessionRenewed = false;
+		for (String resourcePath : resourcePaths) {
+			AxisFault fault = null;
+			try {
+				permissions.put(resourcePath, getStub().getPermissions(resourcePath).getPutAllowed());
+				continue;
+			} catch (AxisFault e) {
+				fault = e;
+			}
+			if (!sessionRenewed) {
+				// the session may have expired since it was last checked
+				resetStub();
+				sessionRenewed = true;
+				try {
+					permissions.put(resourcePath, getStub().getPermissions(resourcePath).getPutAllowed());
+					continue;
+				} catch (AxisFault e) {
+					fault = e;
+				}
+			}
+			log.warn("Could not retrieve the permissions of " + resourcePath + ", taking it to be read only", fault);
+			permissions.put(resourcePath, false);
+		}
+		return permissions;
+	}
+
 	public boolean checkWritePermissionPerResource(String resourcePath) 
 		throws Exception{
 		PermissionBean resPer = null;
@@ -17,7 +17,21 @@
 package org.wso2.developerstudio.eclipse.registry.search;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,11 +58,16 @@ import org.wso2.developerstudio.eclipse.logging.core.Logger;
 
 public class RegistrySearchQuery extends FileSearchQuery {
 	private static IDeveloperStudioLog log=Logger.getLog(Activator.PLUGIN_ID);
+	
+	private static final int MAX_PARALLEL_SEARCHES = 4;
+	private static final long REGISTRY_SEARCH_TIMEOUT = 60000;
+	private static final long POLL_INTERVAL = 200;
 
 	ISearchResult searchResult;
 	private SearchQueryData searchQueryData;
 	private List<RegistrySearchResult> results;
 	private TreeViewer viewer;
+	private long searchTimeout = REGISTRY_SEARCH_TIMEOUT;
 
 	public RegistrySearchQuery(String searchText, boolean isRegEx,
 			boolean isCaseSensitive, FileTextSearchScope scope) {
@@ -68,6 +87,12 @@ public class RegistrySearchQuery extends FileSearchQuery {
 		return searchQueryData;
 	}
 
+	/**
+	 * Search all the enabled registries in parallel. Results of each registry are added to the
+	 * search result as soon as that registry responds, and a registry which does not respond
+	 * within {@link #REGISTRY_SEARCH_TIMEOUT} is skipped, even while other registries keep
+	 * responding.
+	 */
 	public IStatus run(IProgressMonitor monitor)
 			throws OperationCanceledException {
 //		Registry.registryInit();
@@ -75,46 +100,130 @@ public class RegistrySearchQuery extends FileSearchQuery {
 			List<RegistryURLInfo> allRegistryUrls = RegistryUrlStore
 					.getInstance().getAllRegistryUrls();
 			monitor.setTaskName("Starting registry search...");
+
+			// credentials are resolved one registry at a time as they may have to be requested from the user
+			Map<RegistryURLInfo, Credentials> registries = new LinkedHashMap<RegistryURLInfo, Credentials>();
 			for (RegistryURLInfo registryURLInfo : allRegistryUrls) {
 				if (registryURLInfo.isEnabled()) {
-					monitor.beginTask("Searching "
-							+ registryURLInfo.getUrl().toString() + "...", -1);
-					RegistrySearchResult result = getMatches(registryURLInfo);
-					if (result != null && result.getResults().length > 0) {
-						results.add(result);
-						refreshViewer();
+					Credentials credentials = getCredentials(registryURLInfo);
+					if (credentials != null) {
+						registries.put(registryURLInfo, credentials);
 					}
 				}
 			}
+			if (!registries.isEmpty()) {
+				searchRegistries(registries, getResourceNamePattern(), monitor);
+			}
 		}
 		return Status.OK_STATUS;
 	}
 
-	public RegistrySearchResult getMatches(RegistryURLInfo registryURLInfo) {
-		ArrayList<String> matches = new ArrayList<String>();
+	void searchRegistries(Map<RegistryURLInfo, Credentials> registries, final Pattern namePattern,
+			IProgressMonitor monitor) {
+		monitor.beginTask("Searching " + registries.size() + " registries...", registries.size());
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(MAX_PARALLEL_SEARCHES, registries.size()), new SearchThreadFactory());
+		CompletionService<RegistrySearchResult> completionService =
+				new ExecutorCompletionService<RegistrySearchResult>(executor);
+		// searches waiting in the executor queue are not timed until they start
+		final Map<RegistryURLInfo, Long> startTimes = new ConcurrentHashMap<RegistryURLInfo, Long>();
+		Map<Future<RegistrySearchResult>, RegistryURLInfo> pending =
+				new HashMap<Future<RegistrySearchResult>, RegistryURLInfo>();
+		for (Map.Entry<RegistryURLInfo, Credentials> registry : registries.entrySet()) {
+			final RegistryURLInfo registryURLInfo = registry.getKey();
+			final Credentials credentials = registry.getValue();
+			Future<RegistrySearchResult> search = completionService.submit(new Callable<RegistrySearchResult>() {
+				public RegistrySearchResult call() throws Exception {
+					startTimes.put(registryURLInfo, System.currentTimeMillis());
+					return getMatches(registryURLInfo, credentials, namePattern);
+				}
+			});
+			pending.put(search, registryURLInfo);
+		}
+		try {
+			while (!pending.isEmpty() && !monitor.isCanceled()) {
+				Future<RegistrySearchResult> completed = completionService.poll(POLL_INTERVAL,
+						TimeUnit.MILLISECONDS);
+				if (completed != null) {
+					RegistryURLInfo registryURLInfo = pending.remove(completed);
+					monitor.worked(1);
+					if (!completed.isCancelled()) {
+						try {
+							RegistrySearchResult result = completed.get();
+							if (result != null && result.getResults().length > 0) {
+								addResult(result);
+							}
+						} catch (ExecutionException e) {
+							log.error("Error while searching the registry " + registryURLInfo.getUrl(), e.getCause());
+						}
+					}
+				}
+				// a steady stream of results must not keep a hanging registry from timing out
+				cancelTimedOutSearches(pending, startTimes);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+			monitor.done();
+		}
+	}
+
+	private void cancelTimedOutSearches(Map<Future<RegistrySearchResult>, RegistryURLInfo> pending,
+			Map<RegistryURLInfo, Long> startTimes) {
+		long now = System.currentTimeMillis();
+		for (Map.Entry<Future<RegistrySearchResult>, RegistryURLInfo> search : pending.entrySet()) {
+			Long startTime = startTimes.get(search.getValue());
+			if (startTime != null && now - startTime > searchTimeout && !search.getKey().isDone()) {
+				log.warn("Search timed out on registry " + search.getValue().getUrl());
+				// the completion service hands back the cancelled search, which is then skipped
+				search.getKey().cancel(true);
+			}
+		}
+	}
+
+	void setSearchTimeout(long searchTimeout) {
+		this.searchTimeout = searchTimeout;
+	}
+
+	private Credentials getCredentials(RegistryURLInfo registryURLInfo) {
 		Credentials credentials = RegistryCredentialData.getInstance()
 				.getCredentials(registryURLInfo.getUrl().toString());
 		if (credentials == null) {
 			credentials = SWTControlUtils.requestCredentials(Display
 					.getDefault().getActiveShell(), registryURLInfo.getUrl()
 					.toString(), registryURLInfo.getUsername());
-			if (credentials == null)
-				return null;
 		}
+		return credentials;
+	}
+
+	private Pattern getResourceNamePattern() {
+		if (Utils.isProvided(searchQueryData.getResourceName())) {
+			return Pattern.compile(searchQueryData.getResourceName().replaceAll(
+					Pattern.quote("*"), ".*"));
+		}
+		return null;
+	}
+
+	public RegistrySearchResult getMatches(RegistryURLInfo registryURLInfo) {
+		Credentials credentials = getCredentials(registryURLInfo);
+		if (credentials == null)
+			return null;
+		return getMatches(registryURLInfo, credentials, getResourceNamePattern());
+	}
+
+	RegistrySearchResult getMatches(RegistryURLInfo registryURLInfo, Credentials credentials,
+			Pattern namePattern) {
 		try {
 			String[] results = Utils.getResults(searchQueryData,
 					registryURLInfo, credentials, "/");
 			List<String> paths = new ArrayList<String>();
 			for (String result : results) {
-				if (Utils.isProvided(searchQueryData.getResourceName())) {
+				if (namePattern != null) {
 					String[] split = result.split("/");
 					if (split.length > 1) {
 						String name = split[split.length - 1];
-
-						Pattern pattern = Pattern.compile(searchQueryData
-								.getResourceName().replaceAll(
-										Pattern.quote("*"), ".*"));
-						Matcher matcher = pattern.matcher(name);
+						Matcher matcher = namePattern.matcher(name);
 						if (matcher.find())
 							paths.add(result);
 					}
@@ -131,6 +240,25 @@ public class RegistrySearchQuery extends FileSearchQuery {
 		return null;
 	}
 
+	/**
+	 * add the result of a registry to the search result and show it, the result list is only
+	 * modified in the UI thread as it is read by the result viewer
+	 * 
+	 * @param result
+	 */
+	private void addResult(final RegistrySearchResult result) {
+		Display.getDefault().asyncExec(new Runnable() {
+
+			public void run() {
+				getResults().add(result);
+				if (getViewer() != null) {
+					getViewer().refresh();
+				}
+			}
+
+		});
+	}
+
 	public void setResults(List<RegistrySearchResult> results) {
 		this.results = results;
 	}
@@ -160,6 +288,16 @@ public class RegistrySearchQuery extends FileSearchQuery {
 		});
 	}
 
+	private static class SearchThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Registry search " + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
 	public static class RegistrySearchResult {
 		private RegistryURLInfo registryURLInfo;
 		private String[] results;
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.security.project.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.artifact.security.utils.SecurityFormConstants;
+import org.wso2.developerstudio.eclipse.security.project.model.Policy2;
+
+/**
+ * Checks that the policy ids of the bundled security scenario templates are read once, however
+ * many editors ask for them at the same time, and that they are the ids each template has when it
+ * is unmarshalled on its own.
+ */
+public class PolicyModelCacheTest {
+	private static final int THREADS = 8;
+
+	@Test
+	public void matchesUnmarshalledTemplates() throws Exception {
+		SecurityPolicyUtils policyUtils = SecurityPolicyUtils.getInstance();
+		int scenarioCount = policyUtils.getBasicSecurityScenarios().length +
+		                    policyUtils.getAdvancedSecurityScenarios().length;
+		Unmarshaller unmarshaller = JAXBContext.newInstance(Policy2.class).createUnmarshaller();
+		PolicyModelCache cache = new PolicyModelCache();
+
+		assertEquals(scenarioCount, cache.getScenarioPolicyIds().size());
+		for (int scenarioNumber = 1; scenarioNumber <= scenarioCount; scenarioNumber++) {
+			String fileName = SecurityFormConstants.FILE_PREFIX + scenarioNumber + SecurityFormConstants.FILE_POSTFIX;
+			File template = new SecurityTemplateUtil().getResourceFile(SecurityFormConstants.POLICIES + fileName);
+			assertNotNull(fileName, template);
+			String policyId = ((Policy2) unmarshaller.unmarshal(template)).getId();
+			assertNotNull(fileName, policyId);
+			assertEquals(fileName, policyId, cache.getScenarioPolicyId(fileName));
+		}
+	}
+
+	@Test
+	public void readsTemplatesOnce() throws Exception {
+		final PolicyModelCache cache = new PolicyModelCache();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Map<String, String>>> policyIds = new ArrayList<Future<Map<String, String>>>();
+			for (int i = 0; i < THREADS; i++) {
+				policyIds.add(executor.submit(new Callable<Map<String, String>>() {
+					public Map<String, String> call() throws Exception {
+						return cache.getScenarioPolicyIds();
+					}
+				}));
+			}
+			Map<String, String> first = policyIds.get(0).get();
+			for (Future<Map<String, String>> ids : policyIds) {
+				assertSame(first, ids.get());
+			}
+			assertSame(first, cache.getScenarioPolicyIds());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void sharesContextButNotUnmarshallers() throws Exception {
+		final PolicyModelCache cache = new PolicyModelCache();
+		Unmarshaller unmarshaller = cache.getUnmarshaller();
+		assertSame(unmarshaller, cache.getUnmarshaller());
+		assertSame(cache.getJAXBContext(), cache.getJAXBContext());
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Unmarshaller otherUnmarshaller = executor.submit(new Callable<Unmarshaller>() {
+				public Unmarshaller call() throws Exception {
+					return cache.getUnmarshaller();
+				}
+			}).get();
+			assertNotSame(unmarshaller, otherUnmarshaller);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
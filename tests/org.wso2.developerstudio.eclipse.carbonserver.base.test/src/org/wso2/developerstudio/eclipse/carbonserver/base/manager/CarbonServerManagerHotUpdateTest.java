@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.carbonserver.base.manager.CarbonServerManager.HotUpdate;
+
+/**
+ * Collapses a workspace delta of 5,000 changed files into the hot updates of ten servers, each
+ * with modules of two of the ten deployed projects among fifty. There must be one hot update per
+ * server and changed project, with the first file or folder changed in the project, and the
+ * resources of the projects no server has must not be visited.
+ */
+public class CarbonServerManagerHotUpdateTest {
+	private static final String SERVER_TYPE = "org.wso2.developerstudio.eclipse.carbon.server.44ei";
+	private static final String REMOTE_SERVER_TYPE = "org.wso2.developerstudio.eclipse.carbon.server.remote";
+	private static final int SERVERS = 10;
+	private static final int PROJECTS = 50;
+	private static final int FOLDERS = 10;
+	private static final int FILES = 10;
+
+	private final List<IProject> projects = new ArrayList<IProject>();
+	private final List<FakeServer> servers = new ArrayList<FakeServer>();
+	private final AtomicInteger visits = new AtomicInteger();
+
+	@Before
+	public void addServers() {
+		for (int i = 0; i < PROJECTS; i++) {
+			projects.add(resource(IProject.class, IResource.PROJECT, "Project" + i));
+		}
+		// each of the first projects deployed to two servers
+		for (int i = 0; i < SERVERS; i++) {
+			addServer(new FakeServer("server" + i, SERVER_TYPE, projects.get(i), projects.get((i + 1) % SERVERS)));
+		}
+	}
+
+	@After
+	public void removeServers() {
+		for (FakeServer server : servers) {
+			server.modules = new IModule[0];
+			CarbonServerManager.serverChanged(server.proxy);
+			CarbonServerManager.getServers().remove(server.proxy);
+			CarbonServerManager.getAppServerInformation().remove(server.proxy);
+		}
+	}
+
+	@Test
+	public void collapsesDeltaIntoOneUpdatePerServerAndProject() {
+		IResourceDelta workspaceDelta = createWorkspaceDelta(projects);
+
+		List<HotUpdate> hotUpdates = CarbonServerManager.getHotUpdates(workspaceDelta);
+
+		assertEquals(2 * SERVERS, hotUpdates.size());
+		Set<String> updated = new HashSet<String>();
+		for (HotUpdate hotUpdate : hotUpdates) {
+			IProject project = hotUpdate.getProject();
+			assertTrue(updated.add(hotUpdate.getServer().getId() + "|" + project.getName()));
+			List<IServer> projectServers = Arrays.asList(CarbonServerManager.getServersForProject(project));
+			assertTrue(projectServers.contains(hotUpdate.getServer()));
+			assertEquals(project.getName() + "/folder0", hotUpdate.getResourceDelta().getResource().getName());
+		}
+		// the deployed projects and their folders, not the 5,000 files
+		assertEquals(SERVERS * (1 + FOLDERS), visits.get());
+	}
+
+	@Test
+	public void ignoresProjectsNotDeployed() {
+		IResourceDelta workspaceDelta = createWorkspaceDelta(projects.subList(SERVERS, PROJECTS));
+
+		assertTrue(CarbonServerManager.getHotUpdates(workspaceDelta).isEmpty());
+		assertEquals(0, visits.get());
+	}
+
+	@Test
+	public void skipsProjectsWaitingForUpdate() {
+		IResourceDelta workspaceDelta = createWorkspaceDelta(projects);
+		CarbonServerManager.getHotUpdates(workspaceDelta);
+
+		// until the pending hot updates have been made
+		assertTrue(CarbonServerManager.getHotUpdates(workspaceDelta).isEmpty());
+	}
+
+	@Test
+	public void skipsRemoteServers() {
+		FakeServer remote = new FakeServer("remote", REMOTE_SERVER_TYPE, projects.get(0));
+		addServer(remote);
+
+		List<HotUpdate> hotUpdates = CarbonServerManager.getHotUpdates(createWorkspaceDelta(projects));
+
+		assertEquals(2 * SERVERS, hotUpdates.size());
+		for (HotUpdate hotUpdate : hotUpdates) {
+			assertTrue(hotUpdate.getServer() != remote.proxy);
+		}
+	}
+
+	@Test
+	public void followsModulesAddedToServer() {
+		FakeServer server = servers.get(0);
+		server.modules = new IModule[] { module(projects.get(PROJECTS - 1)) };
+		CarbonServerManager.serverChanged(server.proxy);
+
+		IResourceDelta workspaceDelta = createWorkspaceDelta(projects.subList(SERVERS, PROJECTS));
+		List<HotUpdate> hotUpdates = CarbonServerManager.getHotUpdates(workspaceDelta);
+
+		assertEquals(1, hotUpdates.size());
+		assertSame(server.proxy, hotUpdates.get(0).getServer());
+		assertSame(projects.get(PROJECTS - 1), hotUpdates.get(0).getProject());
+	}
+
+	private void addServer(FakeServer server) {
+		servers.add(server);
+		CarbonServerManager.getServers().add(server.proxy);
+		CarbonServerManager.getAppServerInformation().put(server.proxy, new CarbonServerInformation());
+		CarbonServerManager.serverChanged(server.proxy);
+	}
+
+	/**
+	 * @return a delta of the workspace in which every file of the projects changed
+	 */
+	private IResourceDelta createWorkspaceDelta(List<IProject> changedProjects) {
+		List<IResourceDelta> projectDeltas = new ArrayList<IResourceDelta>();
+		for (IProject project : changedProjects) {
+			List<IResourceDelta> folderDeltas = new ArrayList<IResourceDelta>();
+			for (int i = 0; i < FOLDERS; i++) {
+				String folder = project.getName() + "/folder" + i;
+				List<IResourceDelta> fileDeltas = new ArrayList<IResourceDelta>();
+				for (int j = 0; j < FILES; j++) {
+					fileDeltas.add(delta(resource(IFile.class, IResource.FILE, folder + "/file" + j + ".xml"),
+					                     new ArrayList<IResourceDelta>()));
+				}
+				folderDeltas.add(delta(resource(IFolder.class, IResource.FOLDER, folder), fileDeltas));
+			}
+			projectDeltas.add(delta(project, folderDeltas));
+		}
+		return delta(resource(IWorkspaceRoot.class, IResource.ROOT, ""), projectDeltas);
+	}
+
+	private IResourceDelta delta(final IResource resource, final List<IResourceDelta> children) {
+		return proxy(IResourceDelta.class, new Answer() {
+			public Object answer(Object delta, Method method, Object[] args) throws Exception {
+				String name = method.getName();
+				if ("getResource".equals(name)) {
+					return resource;
+				} else if ("getKind".equals(name)) {
+					return IResourceDelta.CHANGED;
+				} else if ("getAffectedChildren".equals(name)) {
+					return children.toArray(new IResourceDelta[children.size()]);
+				} else if ("accept".equals(name)) {
+					accept((IResourceDelta) delta, (IResourceDeltaVisitor) args[0]);
+					return null;
+				}
+				throw new UnsupportedOperationException(name);
+			}
+
+			private void accept(IResourceDelta delta, IResourceDeltaVisitor visitor) throws Exception {
+				visits.incrementAndGet();
+				// as the workspace does, the children are offered to the visitor unless it declined the
+				// delta itself
+				if (visitor.visit(delta)) {
+					for (IResourceDelta child : children) {
+						child.accept(visitor);
+					}
+				}
+			}
+		});
+	}
+
+	private static <T extends IResource> T resource(Class<T> type, final int resourceType, final String name) {
+		return proxy(type, new Answer() {
+			public Object answer(Object resource, Method method, Object[] args) {
+				if ("getType".equals(method.getName())) {
+					return resourceType;
+				} else if ("getName".equals(method.getName())) {
+					return name;
+				}
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	private static IModule module(final IProject project) {
+		return proxy(IModule.class, new Answer() {
+			public Object answer(Object module, Method method, Object[] args) {
+				if ("getProject".equals(method.getName())) {
+					return project;
+				} else if ("getId".equals(method.getName()) || "getName".equals(method.getName())) {
+					return project.getName();
+				}
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	/**
+	 * Creates an instance of an interface answering its calls, equal only to itself.
+	 */
+	private static <T> T proxy(Class<T> type, Answer answer) {
+		return type.cast(Proxy.newProxyInstance(CarbonServerManagerHotUpdateTest.class.getClassLoader(),
+		                                        new Class<?>[] { type }, new FakeInstance(answer)));
+	}
+
+	/**
+	 * Answers the calls made to a fake instance.
+	 */
+	private interface Answer {
+		Object answer(Object proxy, Method method, Object[] args) throws Exception;
+	}
+
+	/**
+	 * Handles the calls made to a fake instance, answering the methods of Object by identity.
+	 */
+	private static class FakeInstance implements InvocationHandler {
+		private final Answer answer;
+
+		private FakeInstance(Answer answer) {
+			this.answer = answer;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				if ("equals".equals(method.getName())) {
+					return proxy == args[0];
+				} else if ("hashCode".equals(method.getName())) {
+					return System.identityHashCode(proxy);
+				}
+				return proxy.getClass().getInterfaces()[0].getSimpleName() + "@" +
+				       Integer.toHexString(System.identityHashCode(proxy));
+			}
+			return answer.answer(proxy, method, args);
+		}
+	}
+
+	/**
+	 * A server of a type with the modules set by the test.
+	 */
+	private static class FakeServer {
+		private final IServer proxy;
+		private volatile IModule[] modules;
+
+		private FakeServer(final String id, String typeId, IProject... deployedProjects) {
+			modules = new IModule[deployedProjects.length];
+			for (int i = 0; i < deployedProjects.length; i++) {
+				modules[i] = module(deployedProjects[i]);
+			}
+			final IServerType type = serverType(typeId);
+			proxy = proxy(IServer.class, new Answer() {
+				public Object answer(Object server, Method method, Object[] args) {
+					String name = method.getName();
+					if ("getId".equals(name) || "getName".equals(name)) {
+						return id;
+					} else if ("getModules".equals(name)) {
+						return modules;
+					} else if ("getServerType".equals(name)) {
+						return type;
+					}
+					throw new UnsupportedOperationException(name);
+				}
+			});
+		}
+
+		private static IServerType serverType(final String id) {
+			return proxy(IServerType.class, new Answer() {
+				public Object answer(Object type, Method method, Object[] args) {
+					if ("getId".equals(method.getName())) {
+						return id;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.developerstudio.eclipse.carbonserver.base.monitor.ServerReadinessService.ReadinessWatch;
+
+/**
+ * Watches fake servers which answer with the status set by the test, over HTTP and over HTTPS
+ * with a certificate generated for the test, and checks the transitions reported. Servers which
+ * accept connections but never complete the TLS handshake must not hold up the checks of the
+ * other servers, nor take more than the few threads the HTTPS probes have.
+ */
+public class ServerReadinessServiceTest {
+	private static final long INTERVAL = 50;
+	private static final String SECURE_PROBE_THREAD = "Carbon server readiness TLS";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<Closeable> servers = new ArrayList<Closeable>();
+	private final List<ReadinessWatch> watches = new ArrayList<ReadinessWatch>();
+	private ServerReadinessService service;
+
+	@Before
+	public void createService() {
+		service = new ServerReadinessService(INTERVAL);
+	}
+
+	@After
+	public void stopServers() throws IOException {
+		for (ReadinessWatch watch : watches) {
+			watch.cancel();
+		}
+		service.shutdown();
+		for (Closeable server : servers) {
+			server.close();
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void reportsAvailabilityTransitions() throws Exception {
+		FakeServer server = start(new FakeServer(null, 503));
+		Events events = new Events();
+		watches.add(service.watchAvailability(server.getURL("http"), 0, events));
+
+		assertNull(events.next(500));
+		server.status = 200;
+		assertEquals("ready", events.next(5000));
+		server.status = 503;
+		assertEquals("unavailable", events.next(5000));
+		server.status = 200;
+		assertEquals("ready", events.next(5000));
+		assertNull(events.next(500));
+	}
+
+	@Test(timeout = 60000)
+	public void reportsSecureAvailabilityTransitions() throws Exception {
+		FakeServer server = start(new FakeServer(createSSLContext(), 503));
+		Events events = new Events();
+		watches.add(service.watchAvailability(server.getURL("https"), 0, events));
+
+		assertNull(events.next(500));
+		server.status = 302;
+		assertEquals("ready", events.next(5000));
+		server.status = 404;
+		assertEquals("unavailable", events.next(5000));
+		server.status = 200;
+		assertEquals("ready", events.next(5000));
+	}
+
+	@Test(timeout = 60000)
+	public void reportsServerNotReadyInTime() throws Exception {
+		FakeServer server = start(new FakeServer(null, 503));
+		Events events = new Events();
+		watches.add(service.watchStartup(new String[] { server.getURL("http") }, null, new String[0], 1000, events));
+
+		assertEquals("unavailable", events.next(5000));
+		server.status = 200;
+		// a startup watch gives up once it reported the server unavailable
+		assertNull(events.next(1000));
+	}
+
+	@Test(timeout = 60000)
+	public void checksOtherServersWhileHandshakesStall() throws Exception {
+		int stalledThreads = countThreads(SECURE_PROBE_THREAD);
+		for (int i = 0; i < 10; i++) {
+			FakeServer stalled = start(new FakeServer(null, 0));
+			watches.add(service.watchStartup(new String[] { stalled.getURL("https") }, null, new String[0], 0,
+			                                 new Events()));
+		}
+		// the stalled handshakes have started
+		Thread.sleep(500);
+
+		FakeServer server = start(new FakeServer(null, 200));
+		Events events = new Events();
+		long start = System.nanoTime();
+		watches.add(service.watchStartup(new String[] { server.getURL("http") }, null, new String[0], 0, events));
+
+		assertEquals("ready", events.next(2000));
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		// well within the time a single stalled handshake takes to time out
+		assertTrue("The server was found ready after " + elapsed + " ms", elapsed < 2000);
+		assertTrue(countThreads(SECURE_PROBE_THREAD) - stalledThreads <= 4);
+		assertEquals(1, countThreads("Carbon server readiness") - countThreads(SECURE_PROBE_THREAD));
+	}
+
+	private FakeServer start(FakeServer server) {
+		servers.add(server);
+		return server;
+	}
+
+	private static int countThreads(String namePrefix) {
+		int count = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.isAlive() && thread.getName().startsWith(namePrefix)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Creates a key store with a self-signed certificate with the keytool of the running JDK.
+	 */
+	private SSLContext createSSLContext() throws Exception {
+		File keytool = new File(System.getProperty("java.home"), "bin" + File.separator + "keytool");
+		if (!keytool.exists()) {
+			keytool = new File(keytool.getPath() + ".exe");
+		}
+		Assume.assumeTrue("No keytool in " + System.getProperty("java.home"), keytool.exists());
+		File keyStoreFile = new File(folder.getRoot(), "server.p12");
+		Process process = new ProcessBuilder(keytool.getPath(), "-genkeypair", "-alias", "server", "-keyalg", "RSA",
+		                                     "-keysize", "2048", "-dname", "CN=localhost", "-validity", "1",
+		                                     "-storetype", "PKCS12", "-keystore", keyStoreFile.getPath(),
+		                                     "-storepass", "password", "-keypass", "password").redirectErrorStream(true)
+		                                                                                      .start();
+		process.getInputStream().close();
+		assertEquals(0, process.waitFor());
+
+		KeyStore keyStore = KeyStore.getInstance("PKCS12");
+		InputStream in = new FileInputStream(keyStoreFile);
+		try {
+			keyStore.load(in, "password".toCharArray());
+		} finally {
+			in.close();
+		}
+		KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+		keyManagers.init(keyStore, "password".toCharArray());
+		SSLContext context = SSLContext.getInstance("TLS");
+		context.init(keyManagers.getKeyManagers(), null, null);
+		return context;
+	}
+
+	/**
+	 * Records the transitions reported by a watch.
+	 */
+	private static class Events implements IServerReadinessListener {
+		private final BlockingQueue<String> events = new LinkedBlockingQueue<String>();
+
+		public void serverReady() {
+			events.add("ready");
+		}
+
+		public void serverUnavailable() {
+			events.add("unavailable");
+		}
+
+		private String next(long timeout) throws InterruptedException {
+			return events.poll(timeout, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Answers every request with the status set by the test, or never answers when the status is
+	 * 0, keeping the connections open as a server stuck in the TLS handshake would.
+	 */
+	private static class FakeServer implements Closeable, Runnable {
+		private final ServerSocket serverSocket;
+		private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+		private volatile int status;
+
+		private FakeServer(SSLContext context, int status) throws IOException {
+			InetAddress loopback = InetAddress.getByName("127.0.0.1");
+			serverSocket = context == null ? new ServerSocket(0, 50, loopback)
+			                              : context.getServerSocketFactory().createServerSocket(0, 50, loopback);
+			this.status = status;
+			Thread thread = new Thread(this, "Fake server " + serverSocket.getLocalPort());
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private String getURL(String protocol) {
+			return protocol + "://127.0.0.1:" + serverSocket.getLocalPort() + "/carbon/";
+		}
+
+		public void run() {
+			while (!serverSocket.isClosed()) {
+				final Socket socket;
+				try {
+					socket = serverSocket.accept();
+				} catch (IOException e) {
+					return;
+				}
+				sockets.add(socket);
+				if (status == 0) {
+					continue;
+				}
+				Thread thread = new Thread(new Runnable() {
+					public void run() {
+						answer(socket);
+					}
+				}, "Fake server connection");
+				thread.setDaemon(true);
+				thread.start();
+			}
+		}
+
+		private void answer(Socket socket) {
+			try {
+				InputStream in = socket.getInputStream();
+				// reads the request head
+				int matched = 0;
+				int read;
+				while (matched < 4 && (read = in.read()) != -1) {
+					matched = read == (matched % 2 == 0 ? '\r' : '\n') ? matched + 1 : (read == '\r' ? 1 : 0);
+				}
+				OutputStream out = socket.getOutputStream();
+				out.write(("HTTP/1.1 " + status + " Status\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+				        .getBytes(StandardCharsets.ISO_8859_1));
+				out.flush();
+			} catch (IOException e) {
+				// the probe went away
+			} finally {
+				try {
+					socket.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+
+		public void close() throws IOException {
+			serverSocket.close();
+			synchronized (sockets) {
+				for (Socket socket : sockets) {
+					socket.close();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.activation.DataHandler;
+import javax.activation.FileDataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.developerstudio.eclipse.carbonserver.base.StubHttpServer;
+import org.wso2.developerstudio.eclipse.carbonserver.base.StubHttpServer.Request;
+import org.wso2.developerstudio.eclipse.carbonserver.base.StubHttpServer.Response;
+import org.wso2.developerstudio.eclipse.carbonserver.base.capp.uploader.CarbonAppUploaderStub.UploadedFileItem;
+
+/**
+ * Redeploys a carbon application through the real admin service stubs, against a server answering
+ * the AuthenticationAdmin, CarbonAppUploader and ApplicationAdmin SOAP calls, and counts the logins
+ * the deployments took. A session is logged in to once and again only when the server expired it
+ * or the password changed, and asking for a session while a deployment on it is logging in must
+ * neither deadlock nor hold up the sessions on other servers.
+ */
+public class CarbonServerSessionManagerTest {
+	private static final String CAR_NAME = "ServicesCompositeApplication_1.0.0";
+	private static final int REDEPLOYMENTS = 50;
+	private static final long LOGIN_DELAY = 500;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final AtomicInteger logins = new AtomicInteger();
+	private final AtomicInteger uploads = new AtomicInteger();
+	private final AtomicInteger deletions = new AtomicInteger();
+	private final AtomicInteger otherCalls = new AtomicInteger();
+	private final CountDownLatch loginStarted = new CountDownLatch(1);
+	private volatile long loginDelay;
+	private volatile String session;
+	private StubHttpServer server;
+	private StubHttpServer otherServer;
+	private String serverURL;
+	private UploadedFileItem[] fileItems;
+	private ExecutorService deployers;
+
+	@Before
+	public void startServer() throws Exception {
+		StubHttpServer.Handler handler = new StubHttpServer.Handler() {
+			public Response handle(Request request) throws Exception {
+				if (request.getPath().endsWith("/services/AuthenticationAdmin")) {
+					loginStarted.countDown();
+					Thread.sleep(loginDelay);
+					session = "JSESSIONID=session" + logins.incrementAndGet();
+					return soap("<ns:loginResponse xmlns:ns=\"http://authentication.services.core.carbon.wso2.org\">"
+							+ "<ns:return>true</ns:return></ns:loginResponse>").header("Set-Cookie", session + "; Path=/");
+				}
+				String cookie = request.getHeader("Cookie");
+				if (session == null || cookie == null || !cookie.contains(session)) {
+					return fault("Session timed out. Please login again.");
+				}
+				if (request.getPath().endsWith("/services/CarbonAppUploader")) {
+					uploads.incrementAndGet();
+					return soap("<ns:uploadAppResponse xmlns:ns=\"http://upload.application.carbon.wso2.org\"/>");
+				} else if (request.getPath().endsWith("/services/ApplicationAdmin")) {
+					deletions.incrementAndGet();
+					return new Response(202);
+				}
+				otherCalls.incrementAndGet();
+				return fault("Unexpected call " + request);
+			}
+		};
+		server = new StubHttpServer(handler);
+		otherServer = new StubHttpServer(handler);
+		serverURL = server.getURL() + "/carbon";
+		CarbonServerUtils.setRemoteServicePath("services");
+
+		File carFile = folder.newFile(CAR_NAME + ".car");
+		OutputStream out = new FileOutputStream(carFile);
+		try {
+			out.write(new byte[4096]);
+		} finally {
+			out.close();
+		}
+		UploadedFileItem fileItem = new UploadedFileItem();
+		fileItem.setDataHandler(new DataHandler(new FileDataSource(carFile)));
+		fileItem.setFileName(carFile.getName());
+		fileItem.setFileType("jar");
+		fileItems = new UploadedFileItem[] { fileItem };
+		deployers = Executors.newCachedThreadPool(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Deployer");
+				// left behind by a deadlock, not keeping the tests from ending
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		deployers.shutdownNow();
+		// a deadlock would keep dispose waiting for the manager, failing the tests instead of ending them
+		Thread dispose = new Thread("Dispose sessions") {
+			public void run() {
+				CarbonServerSessionManager.dispose();
+			}
+		};
+		dispose.setDaemon(true);
+		dispose.start();
+		dispose.join(10000);
+		server.close();
+		otherServer.close();
+	}
+
+	@Test(timeout = 60000)
+	public void redeploysOverOneLogin() throws Exception {
+		for (int i = 0; i < REDEPLOYMENTS; i++) {
+			CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "admin").deleteApplication(CAR_NAME);
+			CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "admin").uploadApp(fileItems);
+		}
+
+		assertEquals(1, logins.get());
+		assertEquals(REDEPLOYMENTS, deletions.get());
+		assertEquals(REDEPLOYMENTS, uploads.get());
+		assertEquals(0, otherCalls.get());
+		assertEquals(1 + 2 * REDEPLOYMENTS, server.getRequests().size());
+	}
+
+	@Test(timeout = 60000)
+	public void logsInAgainWhenSessionExpires() throws Exception {
+		CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "admin").uploadApp(fileItems);
+		// the server restarted, or timed the session out
+		session = null;
+
+		CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "admin").uploadApp(fileItems);
+		CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "admin").uploadApp(fileItems);
+
+		assertEquals(2, logins.get());
+		assertEquals(3, uploads.get());
+		// the logins, the uploads and the one which failed with the expired session
+		assertEquals(2 + 3 + 1, server.getRequests().size());
+	}
+
+	@Test(timeout = 60000)
+	public void logsInAgainWithChangedPassword() throws Exception {
+		CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "admin").uploadApp(fileItems);
+		CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "changed").uploadApp(fileItems);
+		CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "changed").uploadApp(fileItems);
+
+		assertEquals(2, logins.get());
+		assertEquals(3, uploads.get());
+	}
+
+	@Test(timeout = 60000)
+	public void getsSessionsWhileDeploymentLogsIn() throws Exception {
+		loginDelay = LOGIN_DELAY;
+		Future<?> deployment = deployers.submit(new Callable<Void>() {
+			public Void call() throws Exception {
+				CarbonServerSessionManager.getInstance().getSession(serverURL, "admin", "admin").uploadApp(fileItems);
+				return null;
+			}
+		});
+		assertTrue(loginStarted.await(10, TimeUnit.SECONDS));
+		// the same session, which waits for the deployment to end
+		Future<?> sameSession = getSession(serverURL);
+		Thread.sleep(LOGIN_DELAY / 5);
+
+		long start = System.nanoTime();
+		getSession(otherServer.getURL() + "/carbon").get(10, TimeUnit.SECONDS);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		deployment.get(10, TimeUnit.SECONDS);
+		sameSession.get(10, TimeUnit.SECONDS);
+
+		assertTrue("Getting the session on another server took " + elapsed + " ms", elapsed < LOGIN_DELAY / 2);
+		assertEquals(1, logins.get());
+		assertEquals(1, uploads.get());
+	}
+
+	private Future<?> getSession(final String url) {
+		return deployers.submit(new Callable<Void>() {
+			public Void call() {
+				CarbonServerSessionManager.getInstance().getSession(url, "admin", "admin");
+				return null;
+			}
+		});
+	}
+
+	private static Response soap(String payload) {
+		return envelope(200, payload);
+	}
+
+	private static Response fault(String reason) {
+		return envelope(500, "<soapenv:Fault><soapenv:Code><soapenv:Value>soapenv:Receiver</soapenv:Value>"
+				+ "</soapenv:Code><soapenv:Reason><soapenv:Text xml:lang=\"en\">" + reason
+				+ "</soapenv:Text></soapenv:Reason></soapenv:Fault>");
+	}
+
+	private static Response envelope(int status, String body) {
+		// the admin service stubs speak SOAP 1.2
+		return new Response(status, "application/soap+xml; charset=UTF-8",
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?><soapenv:Envelope"
+						+ " xmlns:soapenv=\"http://www.w3.org/2003/05/soap-envelope\"><soapenv:Body>" + body
+						+ "</soapenv:Body></soapenv:Envelope>");
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.carbonserver.base.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that {@link ServerConfigModel} finds the ports the server launch looks up, with the same
+ * paths the DOM/XPath lookups used, and that a configuration file is parsed only when needed.
+ */
+public class ServerConfigModelTest {
+
+	private static final String CARBON_XML =
+	                                         "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n"
+	                                                 + "<Server xmlns=\"http://wso2.org/projects/carbon/carbon.xml\">\n"
+	                                                 + "    <WebContextRoot>/</WebContextRoot>\n"
+	                                                 + "    <Ports>\n"
+	                                                 + "        <Offset>3</Offset>\n"
+	                                                 + "        <ServletTransports>\n"
+	                                                 + "            <HTTP>9763</HTTP>\n"
+	                                                 + "            <HTTPS>9443</HTTPS>\n"
+	                                                 + "        </ServletTransports>\n"
+	                                                 + "    </Ports>\n"
+	                                                 + "</Server>\n";
+
+	private static final String CATALINA_SERVER_XML =
+	                                                  "<Server port=\"8005\" shutdown=\"SHUTDOWN\">\n"
+	                                                          + "    <Service name=\"Catalina\">\n"
+	                                                          + "        <Connector protocol=\"HTTP/1.1\" port=\"9763\"/>\n"
+	                                                          + "        <Connector protocol=\"HTTP/1.1\" port=\"9443\" SSLEnabled=\"true\" sslProtocol=\"TLS\"/>\n"
+	                                                          + "    </Service>\n"
+	                                                          + "</Server>\n";
+
+	private static final String AXIS2_XML =
+	                                        "<axisconfig name=\"AxisJava2.0\">\n"
+	                                                + "    <transportReceiver name=\"http\" class=\"org.apache.synapse.transport.passthru.PassThroughHttpListener\">\n"
+	                                                + "        <parameter name=\"port\" locked=\"false\">8280</parameter>\n"
+	                                                + "    </transportReceiver>\n"
+	                                                + "    <transportReceiver name=\"https\" class=\"org.apache.synapse.transport.passthru.PassThroughHttpSSLListener\">\n"
+	                                                + "        <parameter name=\"port\" locked=\"false\">8243</parameter>\n"
+	                                                + "    </transportReceiver>\n"
+	                                                + "</axisconfig>\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String carbonXml;
+	private String catalinaServerXml;
+	private String axis2Xml;
+
+	@Before
+	public void writeConfiguration() throws IOException {
+		carbonXml = write("carbon.xml", CARBON_XML);
+		catalinaServerXml = write("catalina-server.xml", CATALINA_SERVER_XML);
+		axis2Xml = write("axis2.xml", AXIS2_XML);
+	}
+
+	@Test
+	public void findsServletTransportPorts() throws Exception {
+		ServerConfigModel carbon = ServerConfigModel.getModel(carbonXml);
+		ServerConfigModel catalina = ServerConfigModel.getModel(catalinaServerXml);
+
+		assertEquals(3, carbon.getPort("/Server/Ports/Offset"));
+		assertEquals(9763, carbon.getPort("/:Server/:Ports/:ServletTransports/:HTTP"));
+		assertEquals(9443, carbon.getPort("/:Server/:Ports/:ServletTransports/:HTTPS"));
+		assertEquals("/", carbon.getValue("/:Server/:WebContextRoot"));
+		assertEquals(9763, catalina.getPort("/Server/Service/Connector[1]/@port"));
+		assertEquals(9443, catalina.getPort("/Server/Service/Connector[2]/@port"));
+		assertEquals(9443, catalina.getPort("/Server/Service/Connector[@sslProtocol=\"TLS\"]/@port"));
+		assertEquals(9443, catalina.getPort("/Server/Service/Connector[@SSLEnabled='true']/@port"));
+		assertEquals(9443, catalina.getPort("/Server/Service/Connector[@SSLEnabled]/@port"));
+		assertEquals("", catalina.getValue("/Server/Service/Connector[@sslProtocol='SSL']/@port"));
+	}
+
+	@Test
+	public void findsAxis2TransportPorts() throws Exception {
+		ServerConfigModel axis2 = ServerConfigModel.getModel(axis2Xml);
+
+		assertEquals(8280, axis2.getPort("/axisconfig/transportReceiver[@name='http']/parameter[@name='port']"));
+		assertEquals(8243, axis2.getPort("/axisconfig/transportReceiver[@name='https']/parameter[@name='port']"));
+	}
+
+	@Test
+	public void parsesOnlyWhenModified() throws Exception {
+		int parseCount = ServerConfigModel.getParseCount();
+		ServerConfigModel.getModel(axis2Xml).getPort("/axisconfig/transportReceiver[@name='http']/parameter[@name='port']");
+		ServerConfigModel.getModel(axis2Xml).getPort("/axisconfig/transportReceiver[@name='https']/parameter[@name='port']");
+		assertEquals(parseCount + 1, ServerConfigModel.getParseCount());
+
+		write("axis2.xml", AXIS2_XML.replace("8280", "18280"));
+		assertEquals(18280, ServerConfigModel.getModel(axis2Xml).getPort(
+		                     "/axisconfig/transportReceiver[@name='http']/parameter[@name='port']"));
+		assertEquals(parseCount + 2, ServerConfigModel.getParseCount());
+
+		ServerConfigModel.invalidate(axis2Xml);
+		ServerConfigModel.getModel(axis2Xml);
+		assertEquals(parseCount + 3, ServerConfigModel.getParseCount());
+	}
+
+	@Test
+	public void keepsRecentlyUsedModelsOnly() throws Exception {
+		ServerConfigModel.getModel(carbonXml);
+		for (int i = 0; i < ServerConfigModel.MAX_MODELS; i++) {
+			ServerConfigModel.getModel(write("transports" + i + ".xml", AXIS2_XML));
+		}
+		int parseCount = ServerConfigModel.getParseCount();
+		ServerConfigModel.getModel(carbonXml);
+		assertEquals(parseCount + 1, ServerConfigModel.getParseCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnquotedPredicateValues() throws Exception {
+		ServerConfigModel.getModel(catalinaServerXml).getValue("/Server/Service/Connector[@sslProtocol=TLS]/@port");
+	}
+
+	private String write(String name, String content) throws IOException {
+		File file = new File(folder.getRoot(), name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file.getPath();
+	}
+}
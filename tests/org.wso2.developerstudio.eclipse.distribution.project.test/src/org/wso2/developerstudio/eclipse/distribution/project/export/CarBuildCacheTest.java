@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.distribution.project.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.model.Dependency;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.developerstudio.eclipse.distribution.project.model.ArtifactData;
+import org.wso2.developerstudio.eclipse.distribution.project.model.DependencyData;
+
+/**
+ * Checks that the cache key of an artifact only changes with what is written to the carbon
+ * application, and that the staged artifacts are reused by the next export while they are up to
+ * date and removed once they are stale or no longer part of the carbon application.
+ */
+public class CarBuildCacheTest {
+	private static final String PROXY_DIR = "StockQuoteProxy_1.0.0";
+	private static final String ENDPOINT_DIR = "StockQuoteEndpoint_1.0.0";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File cacheDir;
+	private File proxySource;
+	private File endpointSource;
+
+	@Before
+	public void createArtifacts() throws IOException {
+		cacheDir = folder.newFolder("cache");
+		proxySource = write(new File(folder.newFolder("proxy"), "StockQuoteProxy.xml"), "<proxy name=\"StockQuoteProxy\"/>");
+		File endpointDir = folder.newFolder("endpoint");
+		write(new File(endpointDir, "StockQuoteEndpoint.xml"), "<endpoint name=\"StockQuoteEndpoint\"/>");
+		write(new File(endpointDir, "conf/endpoint.properties"), "timeout=30");
+		endpointSource = endpointDir;
+	}
+
+	@Test
+	public void keepsCacheKeyOfUnchangedArtifact() throws IOException {
+		String key = CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus"));
+		assertNotNull(key);
+
+		assertTrue(proxySource.setLastModified(proxySource.lastModified() - 60000));
+		assertEquals(key, CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus")));
+		assertEquals(CarBuildCache.getCacheKey(createArtifact(endpointSource, "EnterpriseServiceBus")),
+				CarBuildCache.getCacheKey(createArtifact(endpointSource, "EnterpriseServiceBus")));
+	}
+
+	@Test
+	public void changesCacheKeyWithArtifact() throws IOException {
+		String key = CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus"));
+
+		assertNotEquals(key, CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseIntegrator")));
+		write(proxySource, "<proxy name=\"StockQuoteProxy\" transports=\"https\"/>");
+		assertNotEquals(key, CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus")));
+
+		String endpointKey = CarBuildCache.getCacheKey(createArtifact(endpointSource, "EnterpriseServiceBus"));
+		write(new File(endpointSource, "conf/endpoint.properties"), "timeout=60");
+		assertNotEquals(endpointKey, CarBuildCache.getCacheKey(createArtifact(endpointSource, "EnterpriseServiceBus")));
+		endpointKey = CarBuildCache.getCacheKey(createArtifact(endpointSource, "EnterpriseServiceBus"));
+		write(new File(endpointSource, "conf/extra.properties"), "");
+		assertNotEquals(endpointKey, CarBuildCache.getCacheKey(createArtifact(endpointSource, "EnterpriseServiceBus")));
+	}
+
+	@Test
+	public void hasNoCacheKeyWithoutBuiltArtifact() {
+		assertNull(CarBuildCache.getCacheKey(createArtifact(new File(folder.getRoot(), "missing"), "EnterpriseServiceBus")));
+	}
+
+	@Test
+	public void reusesUpToDateArtifacts() throws IOException {
+		String key = CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus"));
+		stage(new CarBuildCache(cacheDir), key, key);
+
+		CarBuildCache cache = new CarBuildCache(cacheDir);
+		File carResources = cache.open();
+		assertTrue(cache.isUpToDate(PROXY_DIR, key));
+		assertTrue(new File(carResources, PROXY_DIR + "/artifact.xml").exists());
+	}
+
+	@Test
+	public void rewritesChangedArtifacts() throws IOException {
+		String key = CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus"));
+		stage(new CarBuildCache(cacheDir), key, key);
+		write(proxySource, "<proxy name=\"StockQuoteProxy\" transports=\"https\"/>");
+
+		CarBuildCache cache = new CarBuildCache(cacheDir);
+		File carResources = cache.open();
+		assertFalse(cache.isUpToDate(PROXY_DIR, CarBuildCache.getCacheKey(createArtifact(proxySource,
+				"EnterpriseServiceBus"))));
+		assertFalse(new File(carResources, PROXY_DIR).exists());
+	}
+
+	@Test
+	public void prunesRemovedArtifacts() throws IOException {
+		String key = CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus"));
+		String endpointKey = CarBuildCache.getCacheKey(createArtifact(endpointSource, "EnterpriseServiceBus"));
+		stage(new CarBuildCache(cacheDir), key, endpointKey);
+
+		CarBuildCache cache = new CarBuildCache(cacheDir);
+		File carResources = cache.open();
+		assertTrue(cache.isUpToDate(PROXY_DIR, key));
+		cache.close();
+		assertFalse(new File(carResources, ENDPOINT_DIR).exists());
+
+		cache = new CarBuildCache(cacheDir);
+		cache.open();
+		assertTrue(cache.isUpToDate(PROXY_DIR, key));
+		assertFalse(cache.isUpToDate(ENDPOINT_DIR, endpointKey));
+	}
+
+	@Test
+	public void startsCleanAfterFailedExport() throws IOException {
+		String key = CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus"));
+		stage(new CarBuildCache(cacheDir), key, key);
+		CarBuildCache failedExport = new CarBuildCache(cacheDir);
+		failedExport.open();
+		assertTrue(failedExport.isUpToDate(PROXY_DIR, key));
+
+		CarBuildCache cache = new CarBuildCache(cacheDir);
+		File carResources = cache.open();
+		assertFalse(new File(carResources, PROXY_DIR).exists());
+		assertFalse(cache.isUpToDate(PROXY_DIR, key));
+	}
+
+	@Test
+	public void doesNotCacheSharedArtifactDirectories() throws IOException {
+		String key = CarBuildCache.getCacheKey(createArtifact(proxySource, "EnterpriseServiceBus"));
+		CarBuildCache cache = new CarBuildCache(cacheDir);
+		cache.open();
+		assertFalse(cache.isUpToDate(PROXY_DIR, key));
+		cache.update(PROXY_DIR, key);
+		assertFalse(cache.isUpToDate(PROXY_DIR, key));
+		cache.update(PROXY_DIR, key);
+		cache.close();
+
+		cache = new CarBuildCache(cacheDir);
+		cache.open();
+		assertFalse(cache.isUpToDate(PROXY_DIR, key));
+	}
+
+	/**
+	 * Stages the proxy and the endpoint artifacts with the given keys, as an export does.
+	 */
+	private static void stage(CarBuildCache cache, String proxyKey, String endpointKey) throws IOException {
+		File carResources = cache.open();
+		assertFalse(cache.isUpToDate(PROXY_DIR, proxyKey));
+		write(new File(carResources, PROXY_DIR + "/artifact.xml"), "<artifact name=\"StockQuoteProxy\"/>");
+		cache.update(PROXY_DIR, proxyKey);
+		assertFalse(cache.isUpToDate(ENDPOINT_DIR, endpointKey));
+		write(new File(carResources, ENDPOINT_DIR + "/artifact.xml"), "<artifact name=\"StockQuoteEndpoint\"/>");
+		cache.update(ENDPOINT_DIR, endpointKey);
+		cache.close();
+	}
+
+	private static ArtifactData createArtifact(final File source, String serverRole) {
+		Dependency dependency = new Dependency();
+		dependency.setGroupId("com.example.stockquote");
+		dependency.setArtifactId(source.getName());
+		dependency.setVersion("1.0.0");
+		DependencyData dependencyData = new DependencyData();
+		dependencyData.setDependency(dependency);
+		dependencyData.setCApptype("synapse/proxy-service");
+		dependencyData.setServerRole(serverRole);
+		ArtifactData artifact = new ArtifactData();
+		artifact.setDependencyData(dependencyData);
+		artifact.setFile(source.getName());
+		artifact.setResource((IResource) Proxy.newProxyInstance(CarBuildCacheTest.class.getClassLoader(),
+				new Class<?>[] { IResource.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if ("getLocation".equals(method.getName())) {
+							return new Path(source.getAbsolutePath());
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				}));
+		return artifact;
+	}
+
+	private static File write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
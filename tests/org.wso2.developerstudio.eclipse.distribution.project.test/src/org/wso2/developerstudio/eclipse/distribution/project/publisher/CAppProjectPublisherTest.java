@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.distribution.project.publisher;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.wst.server.core.IServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the hot updates of a carbon application are published once per burst of changes,
+ * and not while the carbon application is being published to the same server. The carbon
+ * application is a project which does not have the distribution project nature, so that each
+ * publish only asks for the nature and is recorded.
+ */
+public class CAppProjectPublisherTest {
+	private static final long QUIET_PERIOD = 300;
+	private static final long TIMEOUT = 30000;
+
+	private IServer server;
+	private List<String> publishes;
+
+	@Before
+	public void createScheduler() {
+		HotDeployScheduler.dispose();
+		System.setProperty(HotDeployScheduler.QUIET_PERIOD_PROPERTY, String.valueOf(QUIET_PERIOD));
+		server = HotDeploySchedulerTest.createProxy(IServer.class, "server");
+		publishes = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	@After
+	public void disposeScheduler() {
+		HotDeployScheduler.dispose();
+		System.clearProperty(HotDeployScheduler.QUIET_PERIOD_PROPERTY);
+		synchronized (CAppProjectPublisher.getInQueueList()) {
+			CAppProjectPublisher.getInQueueList().remove(server);
+		}
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void publishesOnceAfterBurstOfChanges() throws Exception {
+		CAppProjectPublisher publisher = new CAppProjectPublisher();
+		IProject orderCApp = createCApp("OrderCApp");
+		IProject stockCApp = createCApp("StockCApp");
+
+		for (int event = 0; event < 100; event++) {
+			publisher.hotUpdate(event % 2 == 0 ? orderCApp : stockCApp, server, null, null);
+		}
+		HotDeploySchedulerTest.waitForDeployments(publishes, 2);
+
+		Collections.sort(publishes);
+		assertEquals("[OrderCApp, StockCApp]", publishes.toString());
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void defersHotUpdateWhilePublishing() throws Exception {
+		CAppProjectPublisher publisher = new CAppProjectPublisher();
+		IProject project = createCApp("OrderCApp");
+		List<IProject> publishing = new ArrayList<IProject>();
+		publishing.add(project);
+		synchronized (CAppProjectPublisher.getInQueueList()) {
+			CAppProjectPublisher.getInQueueList().put(server, publishing);
+		}
+
+		for (int event = 0; event < 100; event++) {
+			publisher.hotUpdate(project, server, null, null);
+		}
+		Thread.sleep(5 * QUIET_PERIOD);
+		assertEquals(0, publishes.size());
+
+		synchronized (publishing) {
+			publishing.remove(project);
+		}
+		HotDeploySchedulerTest.waitForDeployments(publishes, 1);
+		assertEquals("[OrderCApp]", publishes.toString());
+	}
+
+	private IProject createCApp(final String name) {
+		return (IProject) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { IProject.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if ("hashCode".equals(method.getName())) {
+							return System.identityHashCode(proxy);
+						} else if ("equals".equals(method.getName())) {
+							return proxy == args[0];
+						} else if ("toString".equals(method.getName()) || "getName".equals(method.getName())) {
+							return name;
+						} else if ("hasNature".equals(method.getName())) {
+							publishes.add(name);
+							return false;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.distribution.project.publisher;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.wst.server.core.IServer;
+import org.junit.Test;
+
+/**
+ * Checks that a burst of changes to carbon applications results in one deployment per carbon
+ * application and server, which is the deployment of the last change.
+ */
+public class HotDeploySchedulerTest {
+	private static final long QUIET_PERIOD = 300;
+	private static final long TIMEOUT = 30000;
+
+	@Test(timeout = TIMEOUT)
+	public void deploysEachCarbonApplicationOnceAfterBurst() throws Exception {
+		HotDeployScheduler scheduler = new HotDeployScheduler(QUIET_PERIOD);
+		IServer server = createProxy(IServer.class, "server");
+		IProject[] projects = { createProxy(IProject.class, "OrderCApp"), createProxy(IProject.class, "StockCApp") };
+		List<String> deployments = Collections.synchronizedList(new ArrayList<String>());
+
+		for (int event = 0; event < 100; event++) {
+			IProject project = projects[event % projects.length];
+			scheduler.schedule(project, server, new Deployment(deployments, project + " " + event));
+			Thread.sleep(2);
+		}
+		waitForDeployments(deployments, 2);
+
+		Collections.sort(deployments);
+		assertEquals("[OrderCApp 98, StockCApp 99]", deployments.toString());
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void deploysToEachServer() throws Exception {
+		HotDeployScheduler scheduler = new HotDeployScheduler(QUIET_PERIOD);
+		IServer[] servers = { createProxy(IServer.class, "ESB"), createProxy(IServer.class, "MI") };
+		IProject project = createProxy(IProject.class, "OrderCApp");
+		List<String> deployments = Collections.synchronizedList(new ArrayList<String>());
+
+		for (int event = 0; event < 100; event++) {
+			IServer server = servers[event % servers.length];
+			scheduler.schedule(project, server, new Deployment(deployments, server + " " + event));
+		}
+		waitForDeployments(deployments, 2);
+
+		Collections.sort(deployments);
+		assertEquals("[ESB 98, MI 99]", deployments.toString());
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void deploysChangesMadeDuringDeployment() throws Exception {
+		final HotDeployScheduler scheduler = new HotDeployScheduler(QUIET_PERIOD);
+		final IServer server = createProxy(IServer.class, "server");
+		final IProject project = createProxy(IProject.class, "OrderCApp");
+		final List<String> deployments = Collections.synchronizedList(new ArrayList<String>());
+
+		scheduler.schedule(project, server, new Runnable() {
+			public void run() {
+				// the carbon application changes while it is being deployed
+				scheduler.schedule(project, server, new Deployment(deployments, "second"));
+				deployments.add("first");
+			}
+		});
+		waitForDeployments(deployments, 2);
+
+		assertEquals("[first, second]", deployments.toString());
+	}
+
+	/**
+	 * Waits until the expected number of deployments ran, and for another quiet period in which
+	 * no other deployment may run.
+	 */
+	static void waitForDeployments(List<String> deployments, int count) throws InterruptedException {
+		while (deployments.size() < count) {
+			Thread.sleep(50);
+		}
+		Thread.sleep(3 * QUIET_PERIOD);
+	}
+
+	/**
+	 * Creates a project or a server which is only compared by identity and shown by its name.
+	 */
+	static <T> T createProxy(Class<T> type, final String name) {
+		return type.cast(Proxy.newProxyInstance(HotDeploySchedulerTest.class.getClassLoader(),
+				new Class<?>[] { type }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if ("hashCode".equals(method.getName())) {
+							return System.identityHashCode(proxy);
+						} else if ("equals".equals(method.getName())) {
+							return proxy == args[0];
+						} else if ("toString".equals(method.getName()) || "getName".equals(method.getName())) {
+							return name;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				}));
+	}
+
+	private static class Deployment implements Runnable {
+		private final List<String> deployments;
+		private final String name;
+
+		private Deployment(List<String> deployments, String name) {
+			this.deployments = deployments;
+			this.name = name;
+		}
+
+		public void run() {
+			deployments.add(name);
+		}
+	}
+}
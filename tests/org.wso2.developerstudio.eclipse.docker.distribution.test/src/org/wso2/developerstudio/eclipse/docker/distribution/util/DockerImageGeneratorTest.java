@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.docker.distribution.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.developerstudio.eclipse.docker.distribution.model.MicroIntegratorDockerModel;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.DockerClient.BuildParam;
+import com.spotify.docker.client.ProgressHandler;
+import com.spotify.docker.client.exceptions.ImageNotFoundException;
+import com.spotify.docker.client.messages.ProgressMessage;
+
+/**
+ * Checks the builds the image generator asks the Docker server for, through a stub Docker client
+ * which records every build. An image generated again from an unchanged build context reuses the
+ * image built last time, while a changed context, a removed image or a build without the cache
+ * builds the image again.
+ */
+public class DockerImageGeneratorTest {
+	private static final AtomicInteger images = new AtomicInteger();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<Build> builds = new ArrayList<Build>();
+	private final Set<String> serverImages = new HashSet<String>();
+	private final List<String> savedImages = new ArrayList<String>();
+	private MicroIntegratorDockerModel dockerModel;
+	private File contextDir;
+	private File outputDir;
+
+	@Before
+	public void createContext() throws IOException {
+		dockerModel = new MicroIntegratorDockerModel();
+		// a name of its own per test, the build cache outlives the test
+		dockerModel.setName("wso2mi-test-" + System.currentTimeMillis() + "-" + images.incrementAndGet());
+		dockerModel.setTag("1.0.0");
+		dockerModel.setPorts(Collections.singleton(8290));
+		contextDir = folder.newFolder("docker");
+		outputDir = folder.newFolder("output");
+		write(new File(contextDir, "files/wso2mi.zip"), "server pack");
+		write(new File(contextDir, "carbonapps/OrderCApp_1.0.0.car"), "order capp");
+	}
+
+	@Test
+	public void buildsImageFromContext() throws Exception {
+		String imageId = generate();
+
+		assertEquals(1, builds.size());
+		Build build = builds.get(0);
+		assertEquals(contextDir.toPath(), build.context);
+		assertEquals(dockerModel.getName() + ":1.0.0", build.name);
+		assertArrayEquals(new BuildParam[] { BuildParam.forceRm() }, build.params);
+		assertTrue(build.dockerFile.contains("OrderCApp_1.0.0.car"));
+		assertEquals(build.imageId, imageId);
+		assertEquals(Arrays.asList(imageId), savedImages);
+		assertTrue(new File(outputDir, dockerModel.getName() + "-1.0.0.tar").exists());
+	}
+
+	@Test
+	public void reusesImageOfUnchangedContext() throws Exception {
+		String imageId = generate();
+		String reusedImageId = generate();
+
+		assertEquals(1, builds.size());
+		assertEquals(imageId, reusedImageId);
+		assertEquals(Arrays.asList(imageId, imageId), savedImages);
+	}
+
+	@Test
+	public void rebuildsChangedContext() throws Exception {
+		String imageId = generate();
+		write(new File(contextDir, "carbonapps/OrderCApp_1.0.0.car"), "order capp changed");
+		String rebuiltImageId = generate();
+
+		assertEquals(2, builds.size());
+		assertNotEquals(imageId, rebuiltImageId);
+		assertArrayEquals(new BuildParam[] { BuildParam.forceRm() }, builds.get(1).params);
+
+		write(new File(contextDir, "carbonapps/PaymentCApp_1.0.0.car"), "payment capp");
+		generate();
+
+		assertEquals(3, builds.size());
+		assertTrue(builds.get(2).dockerFile.contains("PaymentCApp_1.0.0.car"));
+	}
+
+	@Test
+	public void rebuildsRemovedImage() throws Exception {
+		serverImages.remove(generate());
+		generate();
+
+		assertEquals(2, builds.size());
+	}
+
+	@Test
+	public void rebuildsWithoutCache() throws Exception {
+		generate();
+		dockerModel.setNoCache(true);
+		generate();
+
+		assertEquals(2, builds.size());
+		assertArrayEquals(new BuildParam[] { BuildParam.forceRm(), BuildParam.noCache() }, builds.get(1).params);
+	}
+
+	private String generate() throws Exception {
+		DockerImageGenerator generator = new DockerImageGenerator(dockerModel) {
+			@Override
+			DockerClient createDockerClient(MicroIntegratorDockerModel model) {
+				return (DockerClient) Proxy.newProxyInstance(DockerImageGeneratorTest.class.getClassLoader(),
+						new Class<?>[] { DockerClient.class }, new DockerServer());
+			}
+		};
+		return generator.generateDockerImage(contextDir.getAbsolutePath(), outputDir.getAbsolutePath());
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * A build asked for by the image generator.
+	 */
+	private static class Build {
+		private Path context;
+		private String name;
+		private BuildParam[] params;
+		private String dockerFile;
+		private String imageId;
+	}
+
+	/**
+	 * Stub of the Docker server, keeping the IDs of the images it built.
+	 */
+	private class DockerServer implements InvocationHandler {
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("ping".equals(name)) {
+				return "OK";
+			} else if ("build".equals(name) && args.length == 4) {
+				Build build = new Build();
+				build.context = (Path) args[0];
+				build.name = (String) args[1];
+				build.params = (BuildParam[]) args[3];
+				build.dockerFile = new String(Files.readAllBytes(build.context.resolve("Dockerfile")),
+						StandardCharsets.UTF_8);
+				build.imageId = String.format("%012x", images.incrementAndGet());
+				builds.add(build);
+				serverImages.add(build.imageId);
+				((ProgressHandler) args[2]).progress(ProgressMessage.builder()
+						.stream("Successfully built " + build.imageId + "\n").build());
+				return build.imageId;
+			} else if ("inspectImage".equals(name)) {
+				if (!serverImages.contains(args[0])) {
+					throw new ImageNotFoundException((String) args[0]);
+				}
+				return null;
+			} else if ("save".equals(name)) {
+				String[] imageIds = (String[]) args[0];
+				savedImages.addAll(Arrays.asList(imageIds));
+				return new ByteArrayInputStream(new byte[] { 1, 2, 3 });
+			}
+			throw new UnsupportedOperationException(name);
+		}
+	}
+}
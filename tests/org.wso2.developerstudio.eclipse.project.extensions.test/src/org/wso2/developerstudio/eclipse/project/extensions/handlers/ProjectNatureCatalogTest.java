@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.project.extensions.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the project nature catalog reads the known natures and the nature ids of each
+ * project once, reads them again after they are invalidated, and does not keep a value which was
+ * read while it was being invalidated.
+ */
+public class ProjectNatureCatalogTest {
+	private static final String ESB_NATURE = "org.wso2.developerstudio.eclipse.esb.project.nature";
+	private static final String REGISTRY_NATURE = "org.wso2.developerstudio.eclipse.general.project.nature";
+	private static final String DISTRIBUTION_NATURE = "org.wso2.developerstudio.eclipse.distribution.project.nature";
+	private static final String JAVA_NATURE = "org.eclipse.jdt.core.javanature";
+
+	private FakeCatalog catalog;
+	private IProject project;
+
+	@Before
+	public void createCatalog() {
+		catalog = new FakeCatalog();
+		catalog.natures.add(createNature(ESB_NATURE, true, true));
+		catalog.natures.add(createNature(DISTRIBUTION_NATURE, false, false));
+		project = createProject();
+		catalog.projectNatureIds.put(project, new String[] { JAVA_NATURE, ESB_NATURE });
+	}
+
+	@Test
+	public void readsNaturesOnce() throws CoreException {
+		assertEquals(2, catalog.getAllProjectNatures().size());
+		assertEquals(1, catalog.getMultipleArtifactProjectNatures().size());
+		assertTrue(catalog.isWSO2ProjectType(project));
+		assertTrue(catalog.isCappSupported(project));
+		assertTrue(catalog.isProjectMultipleArtifact(project));
+
+		assertEquals(1, catalog.naturesReads);
+		assertEquals(1, catalog.projectReads);
+	}
+
+	@Test
+	public void readsNaturesAgainWhenInvalidated() throws CoreException {
+		assertTrue(catalog.isCappSupported(project));
+		catalog.natures.set(0, createNature(ESB_NATURE, true, false));
+		assertTrue(catalog.isCappSupported(project));
+
+		catalog.invalidateNatures();
+		assertFalse(catalog.isCappSupported(project));
+		assertTrue(catalog.isWSO2ProjectType(project));
+		assertEquals(2, catalog.naturesReads);
+	}
+
+	@Test
+	public void readsProjectNaturesAgainWhenInvalidated() throws CoreException {
+		IProject otherProject = createProject();
+		catalog.projectNatureIds.put(otherProject, new String[] { DISTRIBUTION_NATURE });
+		assertTrue(catalog.isProjectMultipleArtifact(project));
+		assertFalse(catalog.isProjectMultipleArtifact(otherProject));
+		catalog.projectNatureIds.put(project, new String[] { JAVA_NATURE });
+
+		catalog.invalidateProject(project);
+		assertFalse(catalog.isWSO2ProjectType(project));
+		assertTrue(catalog.isWSO2ProjectType(otherProject));
+		assertEquals(3, catalog.projectReads);
+	}
+
+	@Test
+	public void dropsNaturesReadWhileInvalidated() throws CoreException {
+		catalog.natures.set(0, createNature(ESB_NATURE, true, false));
+		catalog.onNaturesRead = new Runnable() {
+			public void run() {
+				// a nature provider is installed while the old natures are read
+				catalog.onNaturesRead = null;
+				catalog.natures.set(0, createNature(ESB_NATURE, true, true));
+				catalog.invalidateNatures();
+			}
+		};
+		assertFalse(catalog.isCappSupported(project));
+
+		assertTrue(catalog.isCappSupported(project));
+		assertTrue(catalog.isCappSupported(project));
+		assertEquals(2, catalog.naturesReads);
+	}
+
+	@Test
+	public void dropsProjectNaturesReadWhileInvalidated() throws CoreException {
+		catalog.onProjectRead = new Runnable() {
+			public void run() {
+				// the ESB nature is removed from the project description while it is read
+				catalog.onProjectRead = null;
+				catalog.projectNatureIds.put(project, new String[] { JAVA_NATURE });
+				catalog.invalidateProject(project);
+			}
+		};
+		assertTrue(catalog.isWSO2ProjectType(project));
+
+		assertFalse(catalog.isWSO2ProjectType(project));
+		assertFalse(catalog.isWSO2ProjectType(project));
+		assertEquals(2, catalog.projectReads);
+	}
+
+	private static WSO2ProjectNature createNature(String natureId, boolean multipleArtifact, boolean cappSupported) {
+		WSO2ProjectNature nature = new WSO2ProjectNature();
+		nature.setProjectNature(natureId);
+		nature.setMultipleArtifactProject(multipleArtifact);
+		nature.setCappSupported(cappSupported);
+		return nature;
+	}
+
+	private static IProject createProject() {
+		return (IProject) Proxy.newProxyInstance(ProjectNatureCatalogTest.class.getClassLoader(),
+				new Class<?>[] { IProject.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if ("hashCode".equals(method.getName())) {
+							return System.identityHashCode(proxy);
+						} else if ("equals".equals(method.getName())) {
+							return proxy == args[0];
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	/**
+	 * Catalog over the natures and project nature ids set by the test, counting how often they
+	 * are read.
+	 */
+	private static class FakeCatalog extends ProjectNatureCatalog {
+		private final List<WSO2ProjectNature> natures = new ArrayList<WSO2ProjectNature>();
+		private final Map<IProject, String[]> projectNatureIds = new HashMap<IProject, String[]>();
+		private int naturesReads;
+		private int projectReads;
+		private Runnable onNaturesRead;
+		private Runnable onProjectRead;
+
+		List<WSO2ProjectNature> readAllProjectNatures() {
+			naturesReads++;
+			List<WSO2ProjectNature> read = new ArrayList<WSO2ProjectNature>(natures);
+			if (onNaturesRead != null) {
+				onNaturesRead.run();
+			}
+			return read;
+		}
+
+		String[] readNatureIds(IProject project) {
+			projectReads++;
+			String[] read = projectNatureIds.get(project);
+			if (onProjectRead != null) {
+				onProjectRead.run();
+			}
+			return read;
+		}
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.wso2.carbon.registry.core.CollectionImpl;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.exceptions.ResourceNotFoundException;
+import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
+import org.wso2.developerstudio.eclipse.registry.resource.authorization.ResourceAdmin;
+
+/**
+ * In-memory registry for the tests of the registry tree. It keeps the collections and resources
+ * the test adds, serves them through the carbon registry API the way a remote registry does, a
+ * collection fetched with a page of its children and its full child count, and counts the calls
+ * made to it. The calls can be held until the test releases them, to check what happens while the
+ * registry is slow.
+ *
+ * {@link #createRegistryNode(String)} wires it into a registry node, with a {@link ResourceAdmin}
+ * that grants the write permission on every resource and counts the permission requests.
+ */
+public class FakeRegistry implements InvocationHandler {
+	private static final AtomicInteger instances = new AtomicInteger();
+
+	private final String url = "https://registry" + instances.incrementAndGet() + ".test:9443/registry";
+	private final Map<String, List<String>> collections = new HashMap<String, List<String>>();
+	private final Map<String, String> mediaTypes = new HashMap<String, String>();
+	private final Map<String, AtomicInteger> calls = new LinkedHashMap<String, AtomicInteger>();
+	private final List<List<String>> permissionRequests = new ArrayList<List<String>>();
+	private final org.wso2.carbon.registry.core.Registry registry;
+	private volatile CountDownLatch gate;
+
+	public FakeRegistry() {
+		registry = (org.wso2.carbon.registry.core.Registry) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { org.wso2.carbon.registry.core.Registry.class }, this);
+	}
+
+	/**
+	 * @return the carbon registry API over the content of this registry
+	 */
+	public org.wso2.carbon.registry.core.Registry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Adds a collection, and adds it to its parent collection if the parent has been added.
+	 *
+	 * @param path path of the collection
+	 * @param childNames names of the children to add to it as resources
+	 */
+	public synchronized void addCollection(String path, String... childNames) {
+		collections.put(path, new ArrayList<String>());
+		mediaTypes.put(path, null);
+		addToParent(path, -1);
+		for (String childName : childNames) {
+			addResource(path + "/" + childName, "text/plain");
+		}
+	}
+
+	/**
+	 * Adds a resource at the end of its parent collection.
+	 */
+	public synchronized void addResource(String path, String mediaType) {
+		addResource(path, mediaType, -1);
+	}
+
+	/**
+	 * Adds a resource at the given position of its parent collection.
+	 *
+	 * @param path path of the resource
+	 * @param mediaType media type of the resource
+	 * @param index position among the children of the parent, -1 to add it at the end
+	 */
+	public synchronized void addResource(String path, String mediaType, int index) {
+		mediaTypes.put(path, mediaType);
+		addToParent(path, index);
+	}
+
+	/**
+	 * Removes a resource or a collection, with its children.
+	 */
+	public synchronized void remove(String path) {
+		List<String> children = collections.remove(path);
+		if (children != null) {
+			for (String child : new ArrayList<String>(children)) {
+				remove(child);
+			}
+		}
+		mediaTypes.remove(path);
+		List<String> siblings = collections.get(getParentPath(path));
+		if (siblings != null) {
+			siblings.remove(path);
+		}
+	}
+
+	/**
+	 * Holds the calls made to the registry from now on until {@link #release()}.
+	 */
+	public void hold() {
+		gate = new CountDownLatch(1);
+	}
+
+	/**
+	 * Lets the held calls and the later ones through.
+	 */
+	public void release() {
+		CountDownLatch held = gate;
+		gate = null;
+		if (held != null) {
+			held.countDown();
+		}
+	}
+
+	/**
+	 * @param method name of a method of the carbon registry API
+	 * @return number of calls made to the method so far, including the held ones
+	 */
+	public synchronized int getCallCount(String method) {
+		AtomicInteger count = calls.get(method);
+		return count == null ? 0 : count.get();
+	}
+
+	/**
+	 * @param method name of a method of the carbon registry API
+	 * @param path path given to the method
+	 * @return number of calls made to the method for the path so far, including the held ones
+	 */
+	public synchronized int getCallCount(String method, String path) {
+		return getCallCount(method + " " + path);
+	}
+
+	/**
+	 * @return paths of each write permission request made through the nodes of this registry
+	 */
+	public synchronized List<List<String>> getPermissionRequests() {
+		return new ArrayList<List<String>>(permissionRequests);
+	}
+
+	/**
+	 * Creates a registry node over this registry, rooted at the given path.
+	 *
+	 * @param rootPath path of the collection shown at the root of the node
+	 * @return the registry node
+	 * @throws Exception if the node could not be created
+	 */
+	public RegistryNode createRegistryNode(String rootPath) throws Exception {
+		RegistryURLInfo urlInfo = new RegistryURLInfo();
+		urlInfo.setPersist(false);
+		urlInfo.setUrl(new URL(url));
+		urlInfo.setPath(rootPath);
+		urlInfo.setUsername("admin");
+		RegistryNode registryNode = new RegistryNode(urlInfo, "admin", null);
+		Registry registryConnection = new Registry();
+		registryConnection.setRegistry(registry);
+		registryNode.setRegistry(registryConnection);
+		registryNode.setResourceAdmin(new ResourceAdmin(registryNode.getServerUrl(), "admin", "admin") {
+			public Map<String, Boolean> getWritePermissions(List<String> resourcePaths) {
+				synchronized (FakeRegistry.this) {
+					permissionRequests.add(new ArrayList<String>(resourcePaths));
+				}
+				Map<String, Boolean> permissions = new LinkedHashMap<String, Boolean>();
+				for (String resourcePath : resourcePaths) {
+					permissions.put(resourcePath, Boolean.TRUE);
+				}
+				return permissions;
+			}
+		});
+		return registryNode;
+	}
+
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class) {
+			try {
+				return method.invoke(this, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+		synchronized (this) {
+			count(method.getName());
+			if (args != null && args.length > 0 && args[0] instanceof String) {
+				count(method.getName() + " " + args[0]);
+			}
+		}
+		CountDownLatch held = gate;
+		if (held != null && !held.await(30, TimeUnit.SECONDS)) {
+			throw new RegistryException("The registry call was held for too long");
+		}
+		String name = method.getName();
+		if ("get".equals(name) && args.length == 1) {
+			return get((String) args[0], 0, Integer.MAX_VALUE);
+		} else if ("get".equals(name) && args.length == 3) {
+			return get((String) args[0], (Integer) args[1], (Integer) args[2]);
+		} else if ("resourceExists".equals(name)) {
+			synchronized (this) {
+				return mediaTypes.containsKey(args[0]);
+			}
+		} else if ("newResource".equals(name)) {
+			return new ResourceImpl();
+		} else if ("newCollection".equals(name)) {
+			return new CollectionImpl();
+		} else if ("put".equals(name)) {
+			return put((String) args[0], (Resource) args[1]);
+		} else if ("delete".equals(name)) {
+			remove((String) args[0]);
+			return null;
+		}
+		throw new UnsupportedOperationException(name);
+	}
+
+	private void count(String call) {
+		AtomicInteger count = calls.get(call);
+		if (count == null) {
+			count = new AtomicInteger();
+			calls.put(call, count);
+		}
+		count.incrementAndGet();
+	}
+
+	private synchronized Resource get(String path, int start, int pageSize) throws RegistryException {
+		if (!mediaTypes.containsKey(path)) {
+			throw new ResourceNotFoundException(path);
+		}
+		List<String> children = collections.get(path);
+		if (children == null) {
+			ResourceImpl resource = new ResourceImpl();
+			resource.setPath(path);
+			resource.setMediaType(mediaTypes.get(path));
+			return resource;
+		}
+		int from = Math.min(start, children.size());
+		int to = (int) Math.min((long) from + pageSize, children.size());
+		CollectionImpl collection = new CollectionImpl(children.subList(from, to).toArray(new String[0]));
+		collection.setPath(path);
+		collection.setChildCount(children.size());
+		return collection;
+	}
+
+	private synchronized String put(String path, Resource resource) {
+		if (resource instanceof CollectionImpl) {
+			if (!collections.containsKey(path)) {
+				addCollection(path);
+			}
+		} else if (!mediaTypes.containsKey(path)) {
+			addResource(path, resource.getMediaType());
+		} else {
+			mediaTypes.put(path, resource.getMediaType());
+		}
+		return path;
+	}
+
+	private void addToParent(String path, int index) {
+		List<String> siblings = collections.get(getParentPath(path));
+		if (siblings != null && !siblings.contains(path)) {
+			if (index < 0) {
+				siblings.add(path);
+			} else {
+				siblings.add(index, path);
+			}
+		}
+	}
+
+	private static String getParentPath(String path) {
+		int slash = path.lastIndexOf('/');
+		return slash <= 0 ? "/" : path.substring(0, slash);
+	}
+
+	@Override
+	public String toString() {
+		return "FakeRegistry " + url + " " + Arrays.toString(collections.keySet().toArray());
+	}
+}
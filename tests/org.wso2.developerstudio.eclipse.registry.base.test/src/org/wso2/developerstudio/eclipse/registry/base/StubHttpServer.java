@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/1.1 server on a loopback port for the tests of the registry clients. It keeps connections
+ * alive, counts the connections it accepted and records the requests it served, and answers each
+ * request with the response the test's {@link Handler} gives for it.
+ */
+public class StubHttpServer implements Closeable {
+
+	/**
+	 * Answers the requests of a test.
+	 */
+	public interface Handler {
+
+		/**
+		 * @param request request received
+		 * @return response to send
+		 * @throws Exception to answer with a 500 response
+		 */
+		Response handle(Request request) throws Exception;
+	}
+
+	/**
+	 * A request received by the server.
+	 */
+	public static class Request {
+		private final String method;
+		private final String path;
+		private final Map<String, String> headers;
+		private final byte[] body;
+
+		private Request(String method, String path, Map<String, String> headers, byte[] body) {
+			this.method = method;
+			this.path = path;
+			this.headers = headers;
+			this.body = body;
+		}
+
+		public String getMethod() {
+			return method;
+		}
+
+		/**
+		 * @return path of the request, with the query string
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * @param name header name, in any case
+		 * @return value of the header, null if the request has none
+		 */
+		public String getHeader(String name) {
+			return headers.get(name.toLowerCase(Locale.ENGLISH));
+		}
+
+		public byte[] getBody() {
+			return body;
+		}
+
+		@Override
+		public String toString() {
+			return method + " " + path;
+		}
+	}
+
+	/**
+	 * A response to send.
+	 */
+	public static class Response {
+		private final int status;
+		private final Map<String, String> headers = new LinkedHashMap<String, String>();
+		private final byte[] body;
+
+		public Response(int status) {
+			this(status, null, new byte[0]);
+		}
+
+		public Response(int status, String contentType, String body) {
+			this(status, contentType, body.getBytes(StandardCharsets.UTF_8));
+		}
+
+		public Response(int status, String contentType, byte[] body) {
+			this.status = status;
+			this.body = body;
+			if (contentType != null) {
+				headers.put("Content-Type", contentType);
+			}
+		}
+
+		/**
+		 * @return this response, with the given header added
+		 */
+		public Response header(String name, String value) {
+			headers.put(name, value);
+			return this;
+		}
+	}
+
+	private final ServerSocket serverSocket;
+	private final Handler handler;
+	private final ExecutorService connectionThreads = Executors.newCachedThreadPool();
+	private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+	private final List<Request> requests = Collections.synchronizedList(new ArrayList<Request>());
+	private final AtomicInteger connections = new AtomicInteger();
+
+	/**
+	 * Starts a server on a free loopback port.
+	 *
+	 * @param handler answers the requests
+	 * @throws IOException if the port could not be opened
+	 */
+	public StubHttpServer(Handler handler) throws IOException {
+		this.handler = handler;
+		serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+		Thread acceptor = new Thread("Stub HTTP server " + serverSocket.getLocalPort()) {
+			public void run() {
+				accept();
+			}
+		};
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	/**
+	 * @return base URL of the server, without a trailing slash
+	 */
+	public String getURL() {
+		return "http://127.0.0.1:" + serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return number of connections accepted so far
+	 */
+	public int getConnectionCount() {
+		return connections.get();
+	}
+
+	/**
+	 * @return the requests served so far, in the order they were received
+	 */
+	public List<Request> getRequests() {
+		synchronized (requests) {
+			return new ArrayList<Request>(requests);
+		}
+	}
+
+	public void close() throws IOException {
+		serverSocket.close();
+		synchronized (sockets) {
+			for (Socket socket : sockets) {
+				socket.close();
+			}
+		}
+		connectionThreads.shutdownNow();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			final Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (IOException e) {
+				return;
+			}
+			connections.incrementAndGet();
+			sockets.add(socket);
+			connectionThreads.execute(new Runnable() {
+				public void run() {
+					serve(socket);
+				}
+			});
+		}
+	}
+
+	private void serve(Socket socket) {
+		try {
+			InputStream in = socket.getInputStream();
+			OutputStream out = socket.getOutputStream();
+			Request request;
+			while ((request = read(in, out)) != null) {
+				requests.add(request);
+				Response response;
+				try {
+					response = handler.handle(request);
+				} catch (Exception e) {
+					response = new Response(500, "text/plain", String.valueOf(e));
+				}
+				write(out, request, response);
+			}
+		} catch (SocketException e) {
+			// closed by the client or by close()
+		} catch (IOException e) {
+			// the connection is dropped, as a server would on a broken request
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// already closed
+			}
+		}
+	}
+
+	private static Request read(InputStream in, OutputStream out) throws IOException {
+		String requestLine = readLine(in);
+		while (requestLine != null && requestLine.isEmpty()) {
+			requestLine = readLine(in);
+		}
+		if (requestLine == null) {
+			return null;
+		}
+		String[] parts = requestLine.split(" ");
+		Map<String, String> headers = new LinkedHashMap<String, String>();
+		String line;
+		while ((line = readLine(in)) != null && !line.isEmpty()) {
+			int colon = line.indexOf(':');
+			if (colon > 0) {
+				String name = line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH);
+				headers.put(name, line.substring(colon + 1).trim());
+			}
+		}
+		if ("100-continue".equalsIgnoreCase(headers.get("expect"))) {
+			out.write("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+			out.flush();
+		}
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		if (headers.containsKey("content-length")) {
+			copy(in, body, Long.parseLong(headers.get("content-length")));
+		} else if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+			long size;
+			while ((size = Long.parseLong(readLine(in).split(";")[0].trim(), 16)) > 0) {
+				copy(in, body, size);
+				readLine(in);
+			}
+			while ((line = readLine(in)) != null && !line.isEmpty()) {
+				// trailers
+			}
+		}
+		return new Request(parts[0], parts[1], headers, body.toByteArray());
+	}
+
+	private static void write(OutputStream out, Request request, Response response) throws IOException {
+		StringBuilder head = new StringBuilder();
+		head.append("HTTP/1.1 ").append(response.status).append(' ').append(getReason(response.status))
+		    .append("\r\n");
+		for (Map.Entry<String, String> header : response.headers.entrySet()) {
+			head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+		}
+		head.append("Content-Length: ").append(response.body.length).append("\r\n\r\n");
+		out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+		if (!"HEAD".equals(request.method) && response.status != 304 && response.status != 204) {
+			out.write(response.body);
+		}
+		out.flush();
+	}
+
+	private static String getReason(int status) {
+		switch (status) {
+			case 200:
+				return "OK";
+			case 201:
+				return "Created";
+			case 204:
+				return "No Content";
+			case 304:
+				return "Not Modified";
+			case 401:
+				return "Unauthorized";
+			case 404:
+				return "Not Found";
+			default:
+				return status < 400 ? "OK" : "Error";
+		}
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = in.read()) != -1) {
+			if (c == '\n') {
+				int length = line.length();
+				if (length > 0 && line.charAt(length - 1) == '\r') {
+					line.setLength(length - 1);
+				}
+				return line.toString();
+			}
+			line.append((char) c);
+		}
+		return line.length() == 0 ? null : line.toString();
+	}
+
+	private static void copy(InputStream in, OutputStream out, long length) throws IOException {
+		byte[] buffer = new byte[8192];
+		long remaining = length;
+		while (remaining > 0) {
+			int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+			if (read == -1) {
+				throw new IOException("Request body ended early");
+			}
+			out.write(buffer, 0, read);
+			remaining -= read;
+		}
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.developerstudio.eclipse.registry.base.core.Registry.IResourceUploadProgressListener;
+
+/**
+ * Checks that registry content is streamed both ways. A large resource is written to a file and
+ * read as a stream from its content stream only, never from its content in memory, and a file is
+ * sent from a stream which reports the progress of the upload, again on the retry made after a
+ * failed upload.
+ */
+public class RegistryContentTest {
+	private static final String RESOURCE = "/_system/governance/repository/large.bin";
+	private static final long CONTENT_LENGTH = 64L * 1024 * 1024 + 123;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<Long> uploadedBytes = new ArrayList<Long>();
+	private final List<Long> totalBytes = new ArrayList<Long>();
+	private final List<Long> sentBytes = new ArrayList<Long>();
+	private final List<GeneratedContent> closedStreams = new ArrayList<GeneratedContent>();
+	private int failedPuts;
+	private int reconnections;
+	private Registry registry;
+
+	@Before
+	public void createRegistry() {
+		final org.wso2.carbon.registry.core.Registry remoteRegistry = (org.wso2.carbon.registry.core.Registry) Proxy
+				.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] { org.wso2.carbon.registry.core.Registry.class }, new ContentServer());
+		registry = new Registry() {
+			@Override
+			public void clearSessionProperties() {
+				// a new connection to the same registry
+				reconnections++;
+				setRegistry(remoteRegistry);
+			}
+		};
+		registry.setRegistry(remoteRegistry);
+	}
+
+	@Test
+	public void streamsContentToFile() throws Exception {
+		File file = registry.getContent(RESOURCE, null);
+
+		assertEquals(CONTENT_LENGTH, file.length());
+		assertEquals(GeneratedContent.checksum(CONTENT_LENGTH), checksum(file));
+		assertEquals(1, closedStreams.size());
+	}
+
+	@Test
+	public void streamsContentToCaller() throws Exception {
+		InputStream in = registry.getContentStream(RESOURCE);
+		CRC32 crc = new CRC32();
+		long length = 0;
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				crc.update(buffer, 0, read);
+				length += read;
+			}
+		} finally {
+			in.close();
+		}
+
+		assertEquals(CONTENT_LENGTH, length);
+		assertEquals(GeneratedContent.checksum(CONTENT_LENGTH), crc.getValue());
+	}
+
+	@Test
+	public void reportsUploadProgress() throws Exception {
+		File file = createFile(1024 * 1024 + 17);
+
+		registry.addFileToRegistry(file, "/_system/governance/repository", null, new ProgressListener());
+
+		assertEquals(1, sentBytes.size());
+		assertEquals(file.length(), (long) sentBytes.get(0));
+		assertProgress(file.length(), 0, uploadedBytes.size());
+		assertEquals(0, reconnections);
+	}
+
+	@Test
+	public void reportsUploadProgressAgainOnRetry() throws Exception {
+		File file = createFile(256 * 1024 + 3);
+		failedPuts = 1;
+
+		registry.addFileToRegistry(file, "/_system/governance/repository", null, new ProgressListener());
+
+		assertEquals(1, reconnections);
+		assertEquals(2, sentBytes.size());
+		assertEquals(file.length(), (long) sentBytes.get(1));
+		int retry = uploadedBytes.indexOf(file.length()) + 1;
+		assertProgress(file.length(), 0, retry);
+		assertProgress(file.length(), retry, uploadedBytes.size());
+	}
+
+	/**
+	 * Asserts that the given run of progress reports grows up to the length of the file.
+	 */
+	private void assertProgress(long length, int from, int to) {
+		assertTrue("No progress was reported", to - from > 1);
+		long previous = 0;
+		for (int i = from; i < to; i++) {
+			assertTrue(uploadedBytes.get(i) > previous);
+			assertEquals(length, (long) totalBytes.get(i));
+			previous = uploadedBytes.get(i);
+		}
+		assertEquals(length, previous);
+	}
+
+	private File createFile(long length) throws IOException {
+		File file = folder.newFile("upload.txt");
+		InputStream in = new GeneratedContent(length);
+		OutputStream out = new FileOutputStream(file);
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static long checksum(File file) throws IOException {
+		return org.wso2.developerstudio.eclipse.registry.base.util.Utils.getChecksumCRC32(file);
+	}
+
+	/**
+	 * Listener recording the progress reported for the upload.
+	 */
+	private class ProgressListener implements IResourceUploadProgressListener {
+		public void uploadFileStarting(File file) {
+		}
+
+		public void uploadFileDone(File file) {
+		}
+
+		public void uploadFileProgress(File file, long uploaded, long total) {
+			uploadedBytes.add(uploaded);
+			totalBytes.add(total);
+		}
+	}
+
+	/**
+	 * Stub of the remote registry, serving a generated resource which can only be read as a stream,
+	 * and reading the whole content stream of every resource put to it.
+	 */
+	private class ContentServer implements InvocationHandler {
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("get".equals(name) && args.length == 1 && RESOURCE.equals(args[0])) {
+				ResourceImpl resource = new ResourceImpl() {
+					@Override
+					public Object getContent() throws RegistryException {
+						throw new AssertionError("The content was read into memory");
+					}
+
+					@Override
+					public InputStream getContentStream() {
+						return new GeneratedContent(CONTENT_LENGTH) {
+							@Override
+							public void close() {
+								closedStreams.add(this);
+							}
+						};
+					}
+				};
+				resource.setPath(RESOURCE);
+				resource.setMediaType("application/octet-stream");
+				return resource;
+			} else if ("newResource".equals(name)) {
+				return new ResourceImpl();
+			} else if ("put".equals(name)) {
+				InputStream in = ((Resource) args[1]).getContentStream();
+				byte[] buffer = new byte[4096];
+				long sent = 0;
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					sent += read;
+				}
+				sentBytes.add(sent);
+				if (failedPuts > 0) {
+					failedPuts--;
+					throw new RegistryException("Connection reset");
+				}
+				return args[0];
+			}
+			throw new UnsupportedOperationException(name);
+		}
+	}
+
+	/**
+	 * Content of the given length generated as it is read, so that it is never held in memory.
+	 */
+	private static class GeneratedContent extends InputStream {
+		private final long length;
+		private long position;
+
+		private GeneratedContent(long length) {
+			this.length = length;
+		}
+
+		@Override
+		public int read() {
+			return position < length ? byteAt(position++) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (position >= length) {
+				return -1;
+			}
+			int count = (int) Math.min(len, length - position);
+			for (int i = 0; i < count; i++) {
+				b[off + i] = (byte) byteAt(position++);
+			}
+			return count;
+		}
+
+		private static int byteAt(long position) {
+			return (int) ((position * 31 + (position >>> 13)) & 0xff);
+		}
+
+		private static long checksum(long length) {
+			CRC32 crc = new CRC32();
+			GeneratedContent content = new GeneratedContent(length);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = content.read(buffer, 0, buffer.length)) != -1) {
+				crc.update(buffer, 0, read);
+			}
+			return crc.getValue();
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.carbon.registry.core.CollectionImpl;
+import org.wso2.carbon.registry.core.ResourceImpl;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.developerstudio.eclipse.registry.base.core.Registry.IResourceUploadFailureListener;
+
+/**
+ * Checks that the folder importer retries a failed request over a new registry connection, at
+ * most three times in all, and that its listener is told that a file is done only once the file
+ * has been uploaded and that a file failed once it has given up on it.
+ */
+public class RegistryFolderImporterTest {
+	private static final String PARENT = "/_system/governance";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Map<String, Integer> failures = new HashMap<String, Integer>();
+	private final List<String> puts = new ArrayList<String>();
+	private final List<String> events = new ArrayList<String>();
+	private int connections;
+	private File services;
+
+	@Before
+	public void createFolder() throws IOException {
+		services = folder.newFolder("services");
+		write(new File(services, "OrderService.wsdl.txt"));
+		write(new File(services, "schemas/order.xsd.txt"));
+	}
+
+	@Test
+	public void uploadsFolder() throws Exception {
+		List<File> failedFiles = importFolder();
+
+		assertEquals(Collections.emptyList(), failedFiles);
+		assertEquals(Arrays.asList(PARENT + "/services", PARENT + "/services/OrderService.wsdl.txt",
+				PARENT + "/services/schemas", PARENT + "/services/schemas/order.xsd.txt"), sorted(puts));
+		assertEquals(1, connections);
+		assertTrue(events.contains("done OrderService.wsdl.txt"));
+		assertTrue(events.contains("done order.xsd.txt"));
+	}
+
+	@Test
+	public void retriesOverNewConnection() throws Exception {
+		failures.put(PARENT + "/services/schemas", 1);
+		failures.put(PARENT + "/services/OrderService.wsdl.txt", 2);
+
+		List<File> failedFiles = importFolder();
+
+		assertEquals(Collections.emptyList(), failedFiles);
+		assertEquals(2, count(PARENT + "/services/schemas"));
+		assertEquals(3, count(PARENT + "/services/OrderService.wsdl.txt"));
+		// a new connection for each retry
+		assertEquals(4, connections);
+		assertEquals(1, Collections.frequency(events, "done OrderService.wsdl.txt"));
+	}
+
+	@Test
+	public void reportsFailedFiles() throws Exception {
+		failures.put(PARENT + "/services/OrderService.wsdl.txt", Integer.MAX_VALUE);
+		failures.put(PARENT + "/services/schemas", Integer.MAX_VALUE);
+
+		List<File> failedFiles = importFolder();
+
+		assertEquals(2, failedFiles.size());
+		assertEquals(3, count(PARENT + "/services/OrderService.wsdl.txt"));
+		assertEquals(3, count(PARENT + "/services/schemas"));
+		assertEquals(0, count(PARENT + "/services/schemas/order.xsd.txt"));
+		assertEquals(Arrays.asList("failed order.xsd.txt", "starting OrderService.wsdl.txt",
+				"failed OrderService.wsdl.txt"), events);
+	}
+
+	private List<File> importFolder() throws Exception {
+		final Registry registry = new Registry() {
+			@Override
+			public void clearSessionProperties() {
+				// a new connection to the same registry
+				setRegistry(connect());
+			}
+		};
+		registry.setRegistry(connect());
+		return new RegistryFolderImporter(registry, new UploadListener()).importFolder(services, PARENT, null);
+	}
+
+	private org.wso2.carbon.registry.core.Registry connect() {
+		connections++;
+		return (org.wso2.carbon.registry.core.Registry) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { org.wso2.carbon.registry.core.Registry.class }, new FailingRegistry());
+	}
+
+	private synchronized int count(String path) {
+		return Collections.frequency(puts, path);
+	}
+
+	private static List<String> sorted(List<String> paths) {
+		List<String> sorted = new ArrayList<String>(paths);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	private static void write(File file) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), file.getName().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Listener recording the files it is told about.
+	 */
+	private class UploadListener implements IResourceUploadFailureListener {
+		public synchronized void uploadFileStarting(File file) {
+			events.add("starting " + file.getName());
+		}
+
+		public synchronized void uploadFileDone(File file) {
+			events.add("done " + file.getName());
+		}
+
+		public synchronized void uploadFileFailed(File file, Exception cause) {
+			events.add("failed " + file.getName());
+		}
+	}
+
+	/**
+	 * Stub of a registry connection, failing the puts of the paths the test asks for. A failed
+	 * connection keeps failing, as a connection with a stale session does.
+	 */
+	private class FailingRegistry implements InvocationHandler {
+		private boolean failed;
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("newResource".equals(name)) {
+				return new ResourceImpl();
+			} else if ("newCollection".equals(name)) {
+				return new CollectionImpl();
+			} else if ("put".equals(name)) {
+				String path = (String) args[0];
+				synchronized (RegistryFolderImporterTest.this) {
+					puts.add(path);
+					Integer remaining = failures.get(path);
+					if (failed || remaining != null && remaining > 0) {
+						failed = true;
+						failures.put(path, remaining == null ? 0 : remaining - 1);
+						throw new RegistryException("Session expired");
+					}
+				}
+				return path;
+			}
+			throw new UnsupportedOperationException(name);
+		}
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Request;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Response;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
+import org.wso2.developerstudio.eclipse.registry.resource.authorization.ResourceAdmin;
+
+/**
+ * Resolves the write permissions of the children of a collection through the real admin service
+ * stubs, against a server answering the AuthenticationAdmin and ResourceAdminService SOAP calls.
+ * The children must be resolved over a single login with one permission call each, be served from
+ * the cache afterwards, and a session the server expired must be renewed once.
+ */
+public class RegistryPermissionServiceTest {
+	private static final String COLLECTION = "/_system/governance/trunk/services";
+	private static final int CHILDREN = 50;
+	private static final Pattern RESOURCE_PATH = Pattern.compile(":path>([^<]*)<");
+
+	private final AtomicInteger logins = new AtomicInteger();
+	private final AtomicInteger permissionCalls = new AtomicInteger();
+	private final AtomicInteger otherCalls = new AtomicInteger();
+	private volatile String session;
+	private StubHttpServer server;
+	private RegistryNode registryNode;
+
+	@Before
+	public void startServer() throws Exception {
+		server = new StubHttpServer(new StubHttpServer.Handler() {
+			public Response handle(Request request) {
+				String body = new String(request.getBody(), StandardCharsets.UTF_8);
+				if (request.getPath().endsWith("/services/AuthenticationAdmin")) {
+					session = "JSESSIONID=session" + logins.incrementAndGet();
+					return soap(request, "<ns:loginResponse xmlns:ns=\"http://authentication.services.core.carbon.wso2.org\">"
+							+ "<ns:return>true</ns:return></ns:loginResponse>").header("Set-Cookie", session + "; Path=/");
+				}
+				String cookie = request.getHeader("Cookie");
+				if (session == null || cookie == null || !cookie.contains(session)) {
+					return fault(request, "The session has expired");
+				}
+				String action = request.getHeader("SOAPAction");
+				if (action == null) {
+					action = String.valueOf(request.getHeader("Content-Type"));
+				}
+				if (action.contains("urn:getPermissions")) {
+					permissionCalls.incrementAndGet();
+					Matcher path = RESOURCE_PATH.matcher(body);
+					boolean putAllowed = path.find() && !path.group(1).contains("readonly");
+					return soap(request, "<ns:getPermissionsResponse xmlns:ns=\"http://services.resource.registry.carbon.wso2.org\">"
+							+ "<ns:return xmlns:ax=\"http://beans.resource.registry.carbon.wso2.org/xsd\">"
+							+ "<ax:putAllowed>" + putAllowed + "</ax:putAllowed></ns:return></ns:getPermissionsResponse>");
+				}
+				otherCalls.incrementAndGet();
+				return fault(request, "Unexpected call " + action);
+			}
+		});
+		RegistryURLInfo urlInfo = new RegistryURLInfo();
+		urlInfo.setPersist(false);
+		urlInfo.setUrl(new URL(server.getURL() + "/registry"));
+		urlInfo.setPath(COLLECTION);
+		urlInfo.setUsername("admin");
+		registryNode = new RegistryNode(urlInfo, "admin", null);
+		registryNode.setResourceAdmin(new ResourceAdmin(server.getURL() + "/", "admin", "admin"));
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		RegistryPermissionService.getInstance().invalidate(registryNode);
+		server.close();
+	}
+
+	@Test(timeout = 60000)
+	public void resolvesChildrenOverOneSession() throws Exception {
+		List<RegistryResourceNode> children = createChildren();
+
+		RegistryPermissionService.getInstance().resolveWritePermissions(children);
+
+		assertEquals(1, logins.get());
+		assertEquals(CHILDREN, permissionCalls.get());
+		for (RegistryResourceNode child : children) {
+			assertEquals(!child.getRegistryResourcePath().contains("readonly"),
+					RegistryPermissionService.getInstance().hasWritePermission(child));
+		}
+		// answered from the cache
+		assertEquals(CHILDREN, permissionCalls.get());
+		assertEquals(0, otherCalls.get());
+	}
+
+	@Test(timeout = 60000)
+	public void servesRefreshedChildrenFromCache() throws Exception {
+		RegistryPermissionService.getInstance().resolveWritePermissions(createChildren());
+
+		// the nodes of the refreshed tree
+		List<RegistryResourceNode> children = createChildren();
+		RegistryPermissionService.getInstance().resolveWritePermissions(children);
+
+		assertEquals(1, logins.get());
+		assertEquals(CHILDREN, permissionCalls.get());
+		assertTrue(RegistryPermissionService.getInstance().hasWritePermission(children.get(1)));
+		assertFalse(RegistryPermissionService.getInstance().hasWritePermission(children.get(0)));
+	}
+
+	@Test(timeout = 60000)
+	public void renewsExpiredSessionOnce() throws Exception {
+		List<RegistryResourceNode> children = createChildren();
+		RegistryPermissionService.getInstance().resolveWritePermissions(children);
+		RegistryPermissionService.getInstance().invalidate(registryNode);
+		// the server restarted, or dropped the session
+		session = null;
+
+		RegistryPermissionService.getInstance().resolveWritePermissions(children);
+
+		assertEquals(2, logins.get());
+		assertEquals(2 * CHILDREN, permissionCalls.get());
+		assertTrue(RegistryPermissionService.getInstance().hasWritePermission(children.get(1)));
+		// the logins, the permission calls and the one which failed with the expired session
+		assertEquals(2 + 2 * CHILDREN + 1, server.getRequests().size());
+	}
+
+	private List<RegistryResourceNode> createChildren() {
+		List<RegistryResourceNode> children = new ArrayList<RegistryResourceNode>();
+		for (int i = 0; i < CHILDREN; i++) {
+			String name = (i % 10 == 0 ? "readonly" : "Service") + i + ".wsdl";
+			children.add(new RegistryResourceNode(registryNode, COLLECTION + "/" + name, null));
+		}
+		return children;
+	}
+
+	private static Response soap(Request request, String payload) {
+		return envelope(request, 200, payload);
+	}
+
+	private static Response fault(Request request, String reason) {
+		if (isSoap12(request)) {
+			return envelope(request, 500, "<soapenv:Fault><soapenv:Code><soapenv:Value>soapenv:Receiver</soapenv:Value>"
+					+ "</soapenv:Code><soapenv:Reason><soapenv:Text xml:lang=\"en\">" + reason
+					+ "</soapenv:Text></soapenv:Reason></soapenv:Fault>");
+		}
+		return envelope(request, 500, "<soapenv:Fault><faultcode>soapenv:Server</faultcode><faultstring>" + reason
+				+ "</faultstring></soapenv:Fault>");
+	}
+
+	private static Response envelope(Request request, int status, String body) {
+		boolean soap12 = isSoap12(request);
+		String namespace = soap12 ? "http://www.w3.org/2003/05/soap-envelope" : "http://schemas.xmlsoap.org/soap/envelope/";
+		String contentType = soap12 ? "application/soap+xml; charset=UTF-8" : "text/xml; charset=UTF-8";
+		return new Response(status, contentType, "<?xml version=\"1.0\" encoding=\"UTF-8\"?><soapenv:Envelope xmlns:soapenv=\""
+				+ namespace + "\"><soapenv:Body>" + body + "</soapenv:Body></soapenv:Envelope>");
+	}
+
+	private static boolean isSoap12(Request request) {
+		String contentType = request.getHeader("Content-Type");
+		return contentType != null && contentType.startsWith("application/soap+xml");
+	}
+}
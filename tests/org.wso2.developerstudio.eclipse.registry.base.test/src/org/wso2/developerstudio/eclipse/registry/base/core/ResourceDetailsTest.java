@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.registry.app.APPConstants;
+import org.wso2.carbon.registry.core.Comment;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.Tag;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Request;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Response;
+import org.wso2.developerstudio.eclipse.registry.base.core.ResourceDetails.IDetailListener;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RegistryTransport;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RemoteRegistry;
+
+/**
+ * Checks that the details of a resource are fetched in parallel from a registry answering slowly,
+ * so that all of them are in about as soon as the slowest one, and that the listeners asking for
+ * them return at once and are called later through the executor they gave, as the editor pages
+ * are through the asyncExec of their display.
+ */
+public class ResourceDetailsTest {
+	private static final String COLLECTION = "/_system/config/services";
+	private static final long RESOURCE_DELAY = 600;
+	private static final long DETAIL_DELAY = 150;
+	private static final int DETAILS = 8;
+
+	private final Map<String, Integer> failures = new ConcurrentHashMap<String, Integer>();
+	private final AtomicInteger activeRequests = new AtomicInteger();
+	private final AtomicInteger maxActiveRequests = new AtomicInteger();
+	private StubHttpServer server;
+	private String registryURL;
+	private ExecutorService uiThread;
+	private RegistryResourceNode node;
+
+	@Before
+	public void startServer() throws Exception {
+		final String feed = readFeed();
+		server = new StubHttpServer(new StubHttpServer.Handler() {
+			public Response handle(Request request) throws Exception {
+				String path = request.getPath().substring("/registry/atom".length());
+				String detail = path.contains(";") ? path.substring(path.indexOf(';') + 1) : "";
+				int active = activeRequests.incrementAndGet();
+				try {
+					while (true) {
+						int max = maxActiveRequests.get();
+						if (active <= max || maxActiveRequests.compareAndSet(max, active)) {
+							break;
+						}
+					}
+					Thread.sleep(detail.isEmpty() ? RESOURCE_DELAY : DETAIL_DELAY);
+					Integer remaining = failures.get(detail);
+					if (remaining != null && remaining > 0) {
+						failures.put(detail, remaining - 1);
+						return new Response(500);
+					}
+					return new Response(200, "application/atom+xml", getDocument(detail, feed));
+				} finally {
+					activeRequests.decrementAndGet();
+				}
+			}
+		});
+		registryURL = server.getURL() + "/registry";
+		uiThread = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, "UI thread");
+			}
+		});
+		node = createRegistryNode().getRegistryContainer().getRegistryContent().get(0);
+		server.getRequests().clear();
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		uiThread.shutdownNow();
+		RegistryTransport.closeTransport(registryURL);
+		server.close();
+	}
+
+	@Test(timeout = 60000)
+	public void fetchesDetailsInParallel() throws Exception {
+		long start = System.nanoTime();
+		ResourceDetails details = ResourceDetailsLoader.getInstance().load(node);
+		Listener<Resource> resource = new Listener<Resource>();
+		Listener<Comment[]> comments = new Listener<Comment[]>();
+		Listener<Tag[]> tags = new Listener<Tag[]>();
+		Listener<RegistryAssociation[]> associations = new Listener<RegistryAssociation[]>();
+		Listener<RegistryAssociation[]> dependencies = new Listener<RegistryAssociation[]>();
+		details.getResource(uiThread, resource);
+		details.getComments(uiThread, comments);
+		details.getTags(uiThread, tags);
+		details.getAllAssociations(uiThread, associations);
+		details.getDependencies(uiThread, dependencies);
+		long requested = elapsed(start);
+
+		for (Listener<?> listener : new Listener<?>[] { resource, comments, tags, associations, dependencies }) {
+			listener.await();
+		}
+		long loaded = elapsed(start);
+
+		// the caller does not wait for the registry
+		assertTrue("Requesting the details took " + requested + " ms", requested < DETAIL_DELAY);
+		// about the slowest request, where one after the other they take the time of all of them
+		assertTrue("Loading the details took " + loaded + " ms", loaded >= RESOURCE_DELAY);
+		assertTrue("Loading the details took " + loaded + " ms",
+				loaded < RESOURCE_DELAY + (DETAILS - 1) * DETAIL_DELAY - DETAIL_DELAY);
+		assertTrue(maxActiveRequests.get() > 1);
+		assertEquals(COLLECTION, resource.detail.getPath());
+		assertEquals(0, tags.detail.length);
+		assertEquals(0, comments.detail.length);
+		assertEquals("UI thread", tags.thread);
+		// every detail fetched once
+		assertEquals(DETAILS, server.getRequests().size());
+	}
+
+	@Test(timeout = 60000)
+	public void servesLoadedDetailsToLaterListeners() throws Exception {
+		ResourceDetails details = ResourceDetailsLoader.getInstance().load(node);
+		Listener<Tag[]> first = new Listener<Tag[]>();
+		details.getTags(uiThread, first);
+		first.await();
+
+		Listener<Tag[]> second = new Listener<Tag[]>();
+		details.getTags(uiThread, second);
+		second.await();
+
+		assertEquals(0, second.detail.length);
+		assertEquals("UI thread", second.thread);
+		assertEquals(1, getRequestCount(APPConstants.PARAMETER_TAGS));
+	}
+
+	@Test(timeout = 60000)
+	public void fetchesUnscheduledDetailInBackground() throws Exception {
+		ResourceDetailsLoader.getInstance().invalidate(node);
+		ResourceDetails details = ResourceDetailsLoader.getInstance().getDetails(node);
+		Listener<Resource> resource = new Listener<Resource>();
+		long start = System.nanoTime();
+		details.getResource(uiThread, resource);
+		long requested = elapsed(start);
+		resource.await();
+
+		assertTrue("Requesting the resource took " + requested + " ms", requested < DETAIL_DELAY);
+		assertEquals(COLLECTION, resource.detail.getPath());
+		assertEquals(1, server.getRequests().size());
+	}
+
+	@Test(timeout = 60000)
+	public void reportsFailedDetails() throws Exception {
+		// failing the retry over a new connection too
+		failures.put(APPConstants.PARAMETER_COMMENTS, 2);
+		ResourceDetails details = ResourceDetailsLoader.getInstance().load(node);
+		Listener<Comment[]> comments = new Listener<Comment[]>();
+		Listener<Tag[]> tags = new Listener<Tag[]>();
+		details.getComments(uiThread, comments);
+		details.getTags(uiThread, tags);
+		comments.await();
+		tags.await();
+
+		assertNotNull(comments.failure);
+		assertNull(comments.detail);
+		assertEquals("UI thread", comments.thread);
+		assertEquals(0, tags.detail.length);
+	}
+
+	private int getRequestCount(String detail) {
+		int count = 0;
+		for (Request request : server.getRequests()) {
+			if (request.getPath().endsWith(";" + detail)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static long elapsed(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	private String getDocument(String detail, String feed) {
+		if (detail.isEmpty()) {
+			return feed.replace("${registry}", registryURL);
+		} else if (detail.equals(APPConstants.PARAMETER_RATINGS)) {
+			return feed("<reg:" + APPConstants.QN_AVERAGE_RATING.getLocalPart() + ">3.5</reg:"
+					+ APPConstants.QN_AVERAGE_RATING.getLocalPart() + ">");
+		} else if (detail.startsWith(APPConstants.PARAMETER_RATINGS + ":")) {
+			return feed("<entry><id>urn:uuid:rating</id><title>rating</title><updated>2020-03-02T10:15:30.000Z</updated>"
+					+ "<content>4</content></entry>");
+		}
+		return feed("");
+	}
+
+	private static String feed(String content) {
+		return "<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:reg=\"" + APPConstants.NAMESPACE + "\">"
+				+ "<id>urn:uuid:details</id><title>details</title><updated>2020-03-02T10:15:30.000Z</updated>"
+				+ content + "</feed>";
+	}
+
+	private RegistryNode createRegistryNode() throws Exception {
+		RegistryURLInfo urlInfo = new RegistryURLInfo();
+		urlInfo.setPersist(false);
+		urlInfo.setUrl(new URL(registryURL));
+		urlInfo.setPath(COLLECTION);
+		urlInfo.setUsername("admin");
+		RegistryNode registryNode = new RegistryNode(urlInfo, "admin", null);
+		Registry registry = new Registry();
+		registry.setRegistry(new RemoteRegistry(new URL(registryURL), "admin", "admin"));
+		registryNode.setRegistry(registry);
+		return registryNode;
+	}
+
+	private String readFeed() throws IOException {
+		InputStream in = RemoteRegistry.class.getResourceAsStream("collection-feed.xml");
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Listener recording the detail it was given and the thread it was called on.
+	 */
+	private static class Listener<T> implements IDetailListener<T> {
+		private final CountDownLatch called = new CountDownLatch(1);
+		private volatile T detail;
+		private volatile Exception failure;
+		private volatile String thread;
+
+		public void detailLoaded(T detail) {
+			this.detail = detail;
+			thread = Thread.currentThread().getName();
+			called.countDown();
+		}
+
+		public void detailFailed(Exception e) {
+			failure = e;
+			thread = Thread.currentThread().getName();
+			called.countDown();
+		}
+
+		private void await() throws InterruptedException {
+			assertTrue("The listener was not called", called.await(10, TimeUnit.SECONDS));
+		}
+	}
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.heartbeat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.registry.base.heartbeat.RegistryHeartBeatTester.IRegistryStateListener;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryURLNode;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
+
+/**
+ * Checks the schedule of the heartbeat on a scheduler whose clock is moved by the test. A registry
+ * which is down is probed with a doubling delay, up to a minute, while the registries which are up
+ * keep being probed at the heartbeat rate, and the viewer is refreshed once for the changes found
+ * together.
+ */
+public class RegistryHeartBeatTesterTest {
+	private static final AtomicInteger registries = new AtomicInteger();
+
+	private final ManualScheduler scheduler = new ManualScheduler();
+	private final RegistryURLNode urlNode = new RegistryURLNode();
+	private final Set<RegistryNode> reachable = new HashSet<RegistryNode>();
+	private final Map<RegistryNode, List<Long>> probes = new HashMap<RegistryNode, List<Long>>();
+	private final List<Long> refreshes = new ArrayList<Long>();
+	private final List<String> stateChanges = new ArrayList<String>();
+	private RegistryHeartBeatTester tester;
+
+	@Before
+	public void createTester() {
+		tester = new RegistryHeartBeatTester(urlNode, scheduler) {
+			@Override
+			boolean isReachable(RegistryNode registryNode) {
+				probes.get(registryNode).add(scheduler.now());
+				return reachable.contains(registryNode);
+			}
+
+			@Override
+			void refreshViewer() {
+				refreshes.add(scheduler.now());
+			}
+		};
+		tester.addRegistryStateListener(new IRegistryStateListener() {
+			public void registryStateChanged(RegistryNode registryNode, boolean enabled) {
+				stateChanges.add(registryNode.getUrl().getHost() + (enabled ? " up" : " down"));
+			}
+		});
+	}
+
+	@After
+	public void stopTester() {
+		tester.stop();
+	}
+
+	@Test
+	public void backsOffWhileRegistryIsDown() throws Exception {
+		RegistryNode down = addRegistry();
+		RegistryNode up = addRegistry();
+		reachable.add(up);
+
+		tester.start();
+		scheduler.advanceTo(200000);
+
+		assertEquals(Arrays.asList(0L, 5000L, 15000L, 35000L, 75000L, 135000L, 195000L), probes.get(down));
+		assertEquals(41, probes.get(up).size());
+		assertFalse(down.isEnabled());
+
+		reachable.add(down);
+		scheduler.advanceTo(270000);
+
+		assertEquals(Arrays.asList(255000L, 260000L, 265000L, 270000L), probes.get(down).subList(7, 11));
+		assertTrue(down.isEnabled());
+		assertEquals(Arrays.asList(down.getUrl().getHost() + " down", down.getUrl().getHost() + " up"),
+				stateChanges);
+	}
+
+	@Test
+	public void refreshesOnceForChangesFoundTogether() throws Exception {
+		List<RegistryNode> nodes = Arrays.asList(addRegistry(), addRegistry(), addRegistry());
+		reachable.addAll(nodes);
+
+		tester.start();
+		scheduler.advanceTo(4000);
+
+		assertEquals(new ArrayList<Long>(), refreshes);
+
+		reachable.clear();
+		scheduler.advanceTo(9000);
+
+		assertEquals(Arrays.asList(5500L), refreshes);
+		assertEquals(3, stateChanges.size());
+
+		reachable.addAll(nodes);
+		scheduler.advanceTo(20000);
+
+		// back up at their first probe after going down, 5 seconds later
+		assertEquals(Arrays.asList(5500L, 10500L), refreshes);
+		assertEquals(6, stateChanges.size());
+	}
+
+	@Test
+	public void stopsProbingRemovedRegistry() throws Exception {
+		RegistryNode removed = addRegistry();
+		reachable.add(removed);
+
+		tester.start();
+		scheduler.advanceTo(5000);
+		urlNode.getUrlInfoList().remove(removed);
+		scheduler.advanceTo(60000);
+
+		// the removal is picked up by the heartbeat at 10 seconds, which runs before the probe due then
+		assertEquals(Arrays.asList(0L, 5000L), probes.get(removed));
+		// only the heartbeat is left
+		assertEquals(1, scheduler.getPendingTasks());
+	}
+
+	private RegistryNode addRegistry() throws Exception {
+		RegistryURLInfo urlInfo = new RegistryURLInfo();
+		urlInfo.setPersist(false);
+		urlInfo.setUrl(new URL("https://registry" + registries.incrementAndGet() + ".test:9443/registry"));
+		urlInfo.setPath("/");
+		urlInfo.setUsername("admin");
+		RegistryNode registryNode = new RegistryNode(urlInfo, "admin", urlNode);
+		probes.put(registryNode, new ArrayList<Long>());
+		urlNode.getUrlInfoList().add(registryNode);
+		return registryNode;
+	}
+
+	/**
+	 * Scheduler running its tasks in the calling thread when the test moves its clock forward.
+	 */
+	private static class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+		private final PriorityQueue<Task> tasks = new PriorityQueue<Task>();
+		private long now;
+		private long sequence;
+		private boolean shutdown;
+
+		long now() {
+			return now;
+		}
+
+		int getPendingTasks() {
+			return tasks.size();
+		}
+
+		/**
+		 * Runs the tasks due until the given time, in the order of their due times.
+		 */
+		void advanceTo(long time) {
+			Task task;
+			while ((task = tasks.peek()) != null && task.time <= time) {
+				tasks.poll();
+				now = task.time;
+				task.run();
+			}
+			now = time;
+		}
+
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			return add(new Task(command, now + unit.toMillis(delay), 0));
+		}
+
+		public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+				TimeUnit unit) {
+			return add(new Task(command, now + unit.toMillis(initialDelay), unit.toMillis(delay)));
+		}
+
+		public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+			throw new UnsupportedOperationException();
+		}
+
+		public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+				TimeUnit unit) {
+			throw new UnsupportedOperationException();
+		}
+
+		public void execute(Runnable command) {
+			schedule(command, 0, TimeUnit.MILLISECONDS);
+		}
+
+		public void shutdown() {
+			shutdown = true;
+		}
+
+		public List<Runnable> shutdownNow() {
+			shutdown = true;
+			List<Runnable> pending = new ArrayList<Runnable>(tasks);
+			tasks.clear();
+			return pending;
+		}
+
+		public boolean isShutdown() {
+			return shutdown;
+		}
+
+		public boolean isTerminated() {
+			return shutdown && tasks.isEmpty();
+		}
+
+		public boolean awaitTermination(long timeout, TimeUnit unit) {
+			return isTerminated();
+		}
+
+		private Task add(Task task) {
+			tasks.add(task);
+			return task;
+		}
+
+		private class Task implements ScheduledFuture<Object>, Runnable {
+			private final Runnable command;
+			private final long period;
+			private final long order = sequence++;
+			private long time;
+			private boolean cancelled;
+
+			private Task(Runnable command, long time, long period) {
+				this.command = command;
+				this.time = time;
+				this.period = period;
+			}
+
+			public void run() {
+				if (cancelled) {
+					return;
+				}
+				command.run();
+				if (period > 0 && !cancelled) {
+					time = now + period;
+					tasks.add(this);
+				}
+			}
+
+			public long getDelay(TimeUnit unit) {
+				return unit.convert(time - now, TimeUnit.MILLISECONDS);
+			}
+
+			public int compareTo(Delayed other) {
+				Task task = (Task) other;
+				return time != task.time ? Long.compare(time, task.time) : Long.compare(order, task.order);
+			}
+
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				cancelled = true;
+				return tasks.remove(this);
+			}
+
+			public boolean isCancelled() {
+				return cancelled;
+			}
+
+			public boolean isDone() {
+				return cancelled;
+			}
+
+			public Object get() {
+				throw new UnsupportedOperationException();
+			}
+
+			public Object get(long timeout, TimeUnit unit) {
+				throw new UnsupportedOperationException();
+			}
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.registry.base.FakeRegistry;
+
+/**
+ * Checks that the children of a large collection are fetched a page of
+ * {@link RegistryResourceNode#CHILDREN_PAGE_SIZE} at a time, in the order of the registry, and that
+ * the pages still line up when the collection changes between two pages. A refresh of the first
+ * children reports the changes made to them, without taking the children which only moved past
+ * the page for removed ones.
+ */
+public class RegistryResourceNodePagingTest {
+	private static final String COLLECTION = "/_system/governance/trunk/services";
+	private static final int CHILDREN = 1234;
+
+	private FakeRegistry registry;
+	private RegistryResourceNode node;
+
+	@Before
+	public void createCollection() throws Exception {
+		registry = new FakeRegistry();
+		registry.addCollection(COLLECTION);
+		for (int i = 0; i < CHILDREN; i++) {
+			registry.addResource(childPath(i), "application/wsdl+xml");
+		}
+		node = registry.createRegistryNode(COLLECTION).getRegistryContainer().getRegistryContent().get(0);
+		// known to be a collection, as the children of a collection feed are
+		node.setRegistryResource(RegistryResourceType.COLLECTION);
+	}
+
+	@Test
+	public void fetchesFirstPage() throws Exception {
+		List<RegistryResourceNode> children = node.getResourceNodeList();
+
+		assertEquals(RegistryResourceNode.CHILDREN_PAGE_SIZE, children.size());
+		assertEquals(childPath(0), children.get(0).getRegistryResourcePath());
+		assertEquals(childPath(499), children.get(499).getRegistryResourcePath());
+		assertTrue(node.hasMoreChildren());
+		assertEquals(CHILDREN - 500, node.getRemainingChildCount());
+		assertEquals(1, registry.getCallCount("get"));
+	}
+
+	@Test
+	public void fetchesNextPagesUntilComplete() throws Exception {
+		node.getResourceNodeList();
+
+		List<RegistryResourceNode> page = node.loadNextChildrenPage();
+		assertEquals(500, page.size());
+		assertEquals(childPath(500), page.get(0).getRegistryResourcePath());
+		assertEquals(CHILDREN - 1000, node.getRemainingChildCount());
+
+		page = node.loadNextChildrenPage();
+		assertEquals(CHILDREN - 1000, page.size());
+		assertEquals(childPath(CHILDREN - 1), page.get(page.size() - 1).getRegistryResourcePath());
+		assertFalse(node.hasMoreChildren());
+		assertPaths(CHILDREN, node.getLocalResourceNodeList());
+		assertEquals(3, registry.getCallCount("get"));
+	}
+
+	@Test
+	public void fetchesAllPages() throws Exception {
+		assertPaths(CHILDREN, node.getAllResourceNodeList());
+		assertFalse(node.hasMoreChildren());
+		assertEquals(3, registry.getCallCount("get"));
+	}
+
+	@Test
+	public void skipsLoadedChildrenShiftedIntoNextPage() throws Exception {
+		node.getResourceNodeList();
+		for (int i = 0; i < 3; i++) {
+			registry.addResource(COLLECTION + "/added" + i + ".wsdl", "application/wsdl+xml", 0);
+		}
+
+		List<RegistryResourceNode> page = node.loadNextChildrenPage();
+
+		// the last three children of the first page moved into the second one
+		assertEquals(497, page.size());
+		assertEquals(childPath(500), page.get(0).getRegistryResourcePath());
+		List<RegistryResourceNode> children = node.getLocalResourceNodeList();
+		assertEquals(997, new HashSet<String>(getPaths(children)).size());
+		assertEquals(CHILDREN + 3 - 997, node.getRemainingChildCount());
+	}
+
+	@Test
+	public void stopsWhenCollectionShrinks() throws Exception {
+		node.getResourceNodeList();
+		for (int i = 400; i < CHILDREN; i++) {
+			registry.remove(childPath(i));
+		}
+
+		assertTrue(node.loadNextChildrenPage().isEmpty());
+		assertFalse(node.hasMoreChildren());
+		assertEquals(500, node.getAllResourceNodeList().size());
+	}
+
+	@Test
+	public void keepsChildrenMovedOutOfRefreshedPage() throws Exception {
+		node.getResourceNodeList();
+		for (int i = 0; i < 3; i++) {
+			registry.addResource(COLLECTION + "/added" + i + ".wsdl", "application/wsdl+xml", 0);
+		}
+
+		RegistryChildrenDelta delta = node.refreshChildren();
+
+		assertEquals(3, delta.getAddedChildren().size());
+		assertTrue(delta.getRemovedChildren().isEmpty());
+		// the children moved out of the page were found on the next page
+		assertEquals(3, registry.getCallCount("get"));
+		assertEquals(0, registry.getCallCount("resourceExists"));
+		assertEquals(503, node.getLocalResourceNodeList().size());
+		assertEquals(childPath(499), node.getLocalResourceNodeList().get(499).getRegistryResourcePath());
+		assertEquals(CHILDREN - 500, node.getRemainingChildCount());
+	}
+
+	@Test
+	public void reportsChildrenRemovedFromRefreshedPage() throws Exception {
+		node.getResourceNodeList();
+		registry.remove(childPath(10));
+
+		RegistryChildrenDelta delta = node.refreshChildren();
+
+		assertEquals(Arrays.asList(childPath(10)), getPaths(delta.getRemovedChildren()));
+		// the first child of the next page moved into the page
+		assertEquals(Arrays.asList(childPath(500)), getPaths(delta.getAddedChildren()));
+		// looked up after it was not found on the next page
+		assertEquals(1, registry.getCallCount("resourceExists " + childPath(10)));
+		assertEquals(3, registry.getCallCount("get"));
+		assertEquals(500, node.getLocalResourceNodeList().size());
+	}
+
+	@Test
+	public void reportsChildrenRemovedBeforeAddedOnes() throws Exception {
+		node.getResourceNodeList();
+		for (int i = 0; i < 3; i++) {
+			registry.addResource(COLLECTION + "/added" + i + ".wsdl", "application/wsdl+xml", 0);
+		}
+		for (int i = 100; i < 110; i++) {
+			registry.remove(childPath(i));
+		}
+
+		RegistryChildrenDelta delta = node.refreshChildren();
+
+		// ten removed, and seven children of the next page moved into the page
+		assertEquals(10, delta.getRemovedChildren().size());
+		assertEquals(10, delta.getAddedChildren().size());
+		// the rest of the collection was read to tell the removed children from the moved ones
+		assertEquals(4, registry.getCallCount("get"));
+		assertEquals(500, node.getLocalResourceNodeList().size());
+	}
+
+	@Test
+	public void trustsRemovalsFromCompletePage() throws Exception {
+		node.getAllResourceNodeList();
+		registry.remove(childPath(CHILDREN - 1));
+		registry.remove(childPath(0));
+
+		RegistryChildrenDelta delta = node.refreshChildren();
+
+		assertEquals(2, delta.getRemovedChildren().size());
+		assertTrue(delta.getAddedChildren().isEmpty());
+		assertEquals(0, registry.getCallCount("resourceExists"));
+		assertEquals(4, registry.getCallCount("get"));
+		assertEquals(CHILDREN - 2, node.getLocalResourceNodeList().size());
+		assertFalse(node.hasMoreChildren());
+	}
+
+	private static void assertPaths(int count, List<RegistryResourceNode> children) {
+		List<String> expected = new ArrayList<String>();
+		for (int i = 0; i < count; i++) {
+			expected.add(childPath(i));
+		}
+		assertEquals(expected, getPaths(children));
+	}
+
+	private static List<String> getPaths(List<RegistryResourceNode> children) {
+		List<String> paths = new ArrayList<String>();
+		for (RegistryResourceNode child : children) {
+			paths.add(child.getRegistryResourcePath());
+		}
+		return paths;
+	}
+
+	private static String childPath(int index) {
+		return COLLECTION + "/" + String.format("Service%04d.wsdl", index);
+	}
+}
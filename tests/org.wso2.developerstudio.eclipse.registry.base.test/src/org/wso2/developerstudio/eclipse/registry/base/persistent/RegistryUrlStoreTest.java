@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.persistent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.junit.After;
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.registry.base.Activator;
+
+/**
+ * Writers adding, removing, saving and listing registries at the same time, while a reader keeps
+ * reading the saved list. The reader must only ever find complete lists, and the list saved at the
+ * end must hold exactly the registries left in the store.
+ */
+public class RegistryUrlStoreTest {
+	private static final int WRITERS = 8;
+	private static final int REGISTRIES_PER_WRITER = 40;
+	private static final int FIRST_PORT = 19000;
+
+	private final List<RegistryURLInfo> addedUrls = Collections.synchronizedList(new ArrayList<RegistryURLInfo>());
+
+	@After
+	public void removeRegistries() {
+		for (RegistryURLInfo urlInfo : new ArrayList<RegistryURLInfo>(addedUrls)) {
+			RegistryUrlStore.getInstance().removeRegistryUrl(urlInfo);
+		}
+	}
+
+	@Test
+	public void savesCompleteListWhileWritersRace() throws Exception {
+		final RegistryUrlStore store = RegistryUrlStore.getInstance();
+		final File urlListFile = getUrlListFile();
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+		try {
+			List<Future<Set<String>>> writers = new ArrayList<Future<Set<String>>>();
+			for (int writer = 0; writer < WRITERS; writer++) {
+				final int firstPort = FIRST_PORT + writer * REGISTRIES_PER_WRITER;
+				writers.add(executor.submit(new Callable<Set<String>>() {
+					public Set<String> call() throws Exception {
+						start.await();
+						Set<String> kept = new HashSet<String>();
+						for (int i = 0; i < REGISTRIES_PER_WRITER; i++) {
+							RegistryURLInfo urlInfo = store.addRegistryUrl(
+									new URL("https://localhost:" + (firstPort + i) + "/registry"), "admin", "/_system",
+									false);
+							addedUrls.add(urlInfo);
+							if (i % 4 == 3) {
+								store.removeRegistryUrl(urlInfo);
+							} else {
+								kept.add(toLine(urlInfo));
+							}
+							if (i % 5 == 0) {
+								store.persist();
+							}
+							// listed while the other writers change the list
+							for (RegistryURLInfo registryUrl : store.getAllRegistryUrls()) {
+								assertTrue(registryUrl.getUrl() != null);
+							}
+						}
+						return kept;
+					}
+				}));
+			}
+			Future<Integer> reader = executor.submit(new Callable<Integer>() {
+				public Integer call() throws Exception {
+					start.await();
+					int reads = 0;
+					while (writing.get()) {
+						for (String line : readLines(urlListFile)) {
+							assertEquals("Incomplete line " + line, 4, line.split(" ").length);
+							new URL(line.split(" ")[0]);
+						}
+						reads++;
+					}
+					return reads;
+				}
+			});
+
+			start.countDown();
+			Set<String> kept = new HashSet<String>();
+			try {
+				for (Future<Set<String>> writer : writers) {
+					kept.addAll(writer.get(60, TimeUnit.SECONDS));
+				}
+			} finally {
+				writing.set(false);
+			}
+			assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+
+			Set<String> saved = new HashSet<String>(readLines(urlListFile));
+			assertTrue(saved.containsAll(kept));
+			assertEquals(WRITERS * REGISTRIES_PER_WRITER * 3 / 4, kept.size());
+			Set<String> stored = new HashSet<String>();
+			for (RegistryURLInfo urlInfo : store.getAllRegistryUrls()) {
+				if (!urlInfo.isSpecificControl()) {
+					stored.add(toLine(urlInfo));
+				}
+			}
+			assertEquals(stored, saved);
+			assertFalse(new File(urlListFile.getPath() + ".tmp").exists());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static String toLine(RegistryURLInfo urlInfo) {
+		return urlInfo.getUrl() + " " + urlInfo.isEnabled() + " " + urlInfo.getUsername() + " " + urlInfo.getPath();
+	}
+
+	private static List<String> readLines(File file) throws IOException {
+		try {
+			return Files.readAllLines(file.toPath(), Charset.defaultCharset());
+		} catch (NoSuchFileException e) {
+			return Collections.emptyList();
+		}
+	}
+
+	private static File getUrlListFile() {
+		return new File(ResourcesPlugin.getWorkspace().getRoot().getLocation().append(".metadata")
+				.append(Activator.PLUGIN_ID).append("urls.txt").toOSString());
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.abdera.Abdera;
+import org.apache.abdera.model.Element;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Request;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Response;
+import org.wso2.developerstudio.eclipse.registry.base.remote.RegistryResourceCache.CacheEntry;
+
+/**
+ * Checks that the registry resource cache keeps the most recently used resources in memory and
+ * the others on the disk, that the sweep deletes the expired documents and then the oldest ones
+ * until the rest fit in the limit, and that a resource the registry answered 304 for is served
+ * from the cache and kept for another time to live.
+ */
+public class RegistryResourceCacheTest {
+	private static final String REGISTRY_URL = "https://localhost:9443/registry";
+	private static final String USERNAME = "admin";
+	private static final String COLLECTION = "/_system/config/services";
+	private static final String ETAG = "\"b3e5c0d1\"";
+	private static final long HOUR = 60L * 60 * 1000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Abdera abdera = new Abdera();
+	private File cacheDirectory;
+	private StubHttpServer server;
+
+	@Before
+	public void createCacheDirectory() throws IOException {
+		cacheDirectory = folder.newFolder("registry-cache");
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		if (server != null) {
+			RegistryTransport.closeTransport(server.getURL() + "/registry");
+			RemoteRegistry.invalidateCache(server.getURL() + "/registry");
+			server.close();
+		}
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedResources() {
+		RegistryResourceCache cache = new RegistryResourceCache(2, HOUR, Long.MAX_VALUE, null);
+		put(cache, "/a", null);
+		put(cache, "/b", null);
+		cache.get(REGISTRY_URL, USERNAME, "/a");
+		put(cache, "/c", null);
+
+		assertNull(cache.get(REGISTRY_URL, USERNAME, "/b"));
+		assertNotNull(cache.get(REGISTRY_URL, USERNAME, "/a"));
+		assertNotNull(cache.get(REGISTRY_URL, USERNAME, "/c"));
+	}
+
+	@Test
+	public void readsEvictedResourcesFromDisk() {
+		RegistryResourceCache cache = new RegistryResourceCache(1, HOUR, Long.MAX_VALUE, cacheDirectory);
+		Resource evicted = put(cache, "/a", document(100));
+		Resource kept = put(cache, "/b", document(100));
+
+		CacheEntry entry = cache.get(REGISTRY_URL, USERNAME, "/a");
+		assertNull(entry.getResource());
+		assertNotNull(entry.getDocument());
+		assertEquals(ETAG, entry.getETag());
+		assertSame(kept, cache.get(REGISTRY_URL, USERNAME, "/b").getResource());
+
+		cache.revalidate(REGISTRY_URL, USERNAME, "/a", entry, evicted);
+		assertSame(evicted, cache.get(REGISTRY_URL, USERNAME, "/a").getResource());
+	}
+
+	@Test
+	public void sweepsExpiredAndThenOldestDocuments() {
+		RegistryResourceCache cache = new RegistryResourceCache(1, HOUR, Long.MAX_VALUE, cacheDirectory);
+		for (int i = 0; i < 5; i++) {
+			put(cache, "/resource" + i, document(1000));
+		}
+		List<File> files = getEntryFiles();
+		assertEquals(5, files.size());
+		long now = System.currentTimeMillis();
+		// the first one expired, the others modified ten minutes apart
+		cache.getEntryFile(REGISTRY_URL, USERNAME, "/resource0").setLastModified(now - 2 * HOUR);
+		for (int i = 1; i < 5; i++) {
+			cache.getEntryFile(REGISTRY_URL, USERNAME, "/resource" + i)
+					.setLastModified(now - (5 - i) * 10 * 60 * 1000);
+		}
+
+		// after a restart, with room left for two and a half documents
+		long maxDiskSize = files.get(0).length() * 5 / 2;
+		cache = new RegistryResourceCache(1, HOUR, maxDiskSize, cacheDirectory);
+		cache.sweep();
+
+		assertNull(cache.get(REGISTRY_URL, USERNAME, "/resource0"));
+		assertNull(cache.get(REGISTRY_URL, USERNAME, "/resource1"));
+		assertNull(cache.get(REGISTRY_URL, USERNAME, "/resource2"));
+		assertNotNull(cache.get(REGISTRY_URL, USERNAME, "/resource3").getDocument());
+		assertNotNull(cache.get(REGISTRY_URL, USERNAME, "/resource4").getDocument());
+		assertEquals(2, getEntryFiles().size());
+	}
+
+	@Test
+	public void keepsRevalidatedResourcesForAnotherTimeToLive() throws Exception {
+		long timeToLive = 1000;
+		RegistryResourceCache cache = new RegistryResourceCache(10, timeToLive, Long.MAX_VALUE, cacheDirectory);
+		Resource resource = put(cache, "/a", document(100));
+		Thread.sleep(600);
+		cache.revalidate(REGISTRY_URL, USERNAME, "/a", cache.get(REGISTRY_URL, USERNAME, "/a"), resource);
+		Thread.sleep(600);
+
+		assertSame(resource, cache.get(REGISTRY_URL, USERNAME, "/a").getResource());
+		// also after a restart, from the disk
+		RegistryResourceCache restarted = new RegistryResourceCache(10, timeToLive, Long.MAX_VALUE,
+				cacheDirectory);
+		assertNotNull(restarted.get(REGISTRY_URL, USERNAME, "/a").getDocument());
+
+		Thread.sleep(timeToLive);
+		assertNull(cache.get(REGISTRY_URL, USERNAME, "/a"));
+		assertNull(restarted.get(REGISTRY_URL, USERNAME, "/a"));
+	}
+
+	@Test(timeout = 60000)
+	public void servesCachedResourceWhenNotModified() throws Exception {
+		final String feed = readFeed();
+		server = new StubHttpServer(new StubHttpServer.Handler() {
+			public Response handle(Request request) {
+				if (ETAG.equals(request.getHeader("If-None-Match"))) {
+					return new Response(304).header("ETag", ETAG);
+				}
+				return new Response(200, "application/atom+xml", feed.replace("${registry}", server.getURL()
+						+ "/registry")).header("ETag", ETAG);
+			}
+		});
+		RemoteRegistry registry = new RemoteRegistry(new URL(server.getURL() + "/registry"), USERNAME, "admin");
+
+		Resource fetched = registry.get(COLLECTION);
+		Resource cached = registry.get(COLLECTION);
+
+		assertSame(fetched, cached);
+		assertEquals(2, server.getRequests().size());
+		assertNull(server.getRequests().get(0).getHeader("If-None-Match"));
+		assertEquals(ETAG, server.getRequests().get(1).getHeader("If-None-Match"));
+	}
+
+	private Resource put(RegistryResourceCache cache, String path, Element document) {
+		Resource resource = new ResourceImpl();
+		cache.put(REGISTRY_URL, USERNAME, path, ETAG, document, resource);
+		return resource;
+	}
+
+	private Element document(int length) {
+		StringBuilder summary = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			summary.append((char) ('a' + i % 26));
+		}
+		return abdera.getParser().parse(new StringReader("<entry xmlns=\"http://www.w3.org/2005/Atom\"><summary>"
+				+ summary + "</summary></entry>")).getRoot();
+	}
+
+	private List<File> getEntryFiles() {
+		List<File> files = new ArrayList<File>();
+		for (File registryDirectory : cacheDirectory.listFiles()) {
+			for (File file : registryDirectory.listFiles()) {
+				if (!"registry.url".equals(file.getName())) {
+					files.add(file);
+				}
+			}
+		}
+		return files;
+	}
+
+	private String readFeed() throws IOException {
+		InputStream in = getClass().getResourceAsStream("collection-feed.xml");
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.URL;
+
+import org.apache.abdera.Abdera;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.exceptions.ResourceNotFoundException;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Request;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Response;
+
+/**
+ * Checks that the requests of the {@link RemoteRegistry} instances of a registry go over the
+ * pooled connections of its {@link RegistryTransport}, and that every request hands its connection
+ * back, whether it succeeded or failed. The pool keeps at most 8 connections per host, so a request
+ * that did not release its connection would make the later ones wait for a free connection and
+ * open new ones.
+ */
+public class RegistryTransportTest {
+	private static final int REQUESTS = 20;
+
+	private StubHttpServer server;
+	private String registryURL;
+
+	@Before
+	public void startServer() throws Exception {
+		server = new StubHttpServer(new StubHttpServer.Handler() {
+			public Response handle(Request request) {
+				return new Response(request.getPath().contains("/missing") ? 404 : 200);
+			}
+		});
+		registryURL = server.getURL() + "/registry";
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		RegistryTransport.closeTransport(registryURL);
+		server.close();
+	}
+
+	@Test(timeout = 60000)
+	public void reusesConnectionAcrossRegistryInstances() throws Exception {
+		for (int i = 0; i < REQUESTS; i++) {
+			RemoteRegistry registry = new RemoteRegistry(new URL(registryURL), "admin", "admin");
+			assertTrue(registry.resourceExists("/_system/config/resource" + i));
+		}
+		assertEquals(REQUESTS, server.getRequests().size());
+		assertEquals(1, server.getConnectionCount());
+	}
+
+	@Test(timeout = 60000)
+	public void releasesConnectionOnFailedRequests() throws Exception {
+		RemoteRegistry registry = new RemoteRegistry(new URL(registryURL), "admin", "admin");
+		for (int i = 0; i < REQUESTS; i++) {
+			assertFalse(registry.resourceExists("/missing/resource" + i));
+			try {
+				registry.get("/missing/resource" + i);
+				fail("A missing resource was returned");
+			} catch (ResourceNotFoundException e) {
+				// expected
+			}
+			try {
+				registry.delete("/missing/resource" + i);
+				fail("A missing resource was deleted");
+			} catch (RegistryException e) {
+				// expected
+			}
+		}
+		assertEquals(3 * REQUESTS, server.getRequests().size());
+		assertEquals(1, server.getConnectionCount());
+	}
+
+	@Test
+	public void sharesTransportPerRegistryAndUser() throws Exception {
+		Abdera abdera = new Abdera();
+		RegistryTransport admin = RegistryTransport.getTransport(registryURL, "admin", abdera);
+
+		assertSame(admin, RegistryTransport.getTransport(registryURL, "admin", abdera));
+		assertNotSame(admin, RegistryTransport.getTransport(registryURL, "guest", abdera));
+		assertNotSame(admin, RegistryTransport.getTransport(registryURL, null, abdera));
+
+		RegistryTransport.closeTransport(registryURL);
+		assertNotSame(admin, RegistryTransport.getTransport(registryURL, "admin", abdera));
+	}
+
+	@Test(timeout = 60000)
+	public void opensNewConnectionsAfterClose() throws Exception {
+		RemoteRegistry registry = new RemoteRegistry(new URL(registryURL), "admin", "admin");
+		assertTrue(registry.resourceExists("/_system/config"));
+		RegistryTransport.closeTransport(registryURL);
+
+		registry = new RemoteRegistry(new URL(registryURL), "admin", "admin");
+		assertTrue(registry.resourceExists("/_system/config"));
+		assertTrue(registry.resourceExists("/_system/config"));
+		assertEquals(2, server.getConnectionCount());
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.remote;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Request;
+import org.wso2.developerstudio.eclipse.registry.base.StubHttpServer.Response;
+import org.wso2.developerstudio.eclipse.registry.base.core.Registry;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceType;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
+
+/**
+ * Checks that the metadata of the children of a collection is read from the entries of the
+ * collection feed, and that the registry tree uses it instead of fetching every child. A child is
+ * taken as a collection when its entry carries a child count, as a resource when it carries
+ * content, and is left untyped otherwise. The feed is read from collection-feed.xml.
+ */
+public class RemoteRegistryFeedTest {
+	private static final String COLLECTION = "/_system/config/services";
+	private static final String CHILD_COLLECTION = COLLECTION + "/endpoints";
+	private static final String LINKED_RESOURCE = COLLECTION + "/OrderService.wsdl";
+	private static final String INLINE_RESOURCE = COLLECTION + "/readme";
+	private static final String UNTYPED_CHILD = COLLECTION + "/legacy";
+
+	private StubHttpServer server;
+	private String registryURL;
+
+	@Before
+	public void startServer() throws Exception {
+		final String feed = readFeed();
+		server = new StubHttpServer(new StubHttpServer.Handler() {
+			public Response handle(Request request) {
+				if (request.getPath().startsWith("/registry/atom" + COLLECTION + "?")
+						|| request.getPath().equals("/registry/atom" + COLLECTION)) {
+					return new Response(200, "application/atom+xml", feed.replace("${registry}", registryURL));
+				}
+				return new Response(404);
+			}
+		});
+		registryURL = server.getURL() + "/registry";
+	}
+
+	@After
+	public void stopServer() throws Exception {
+		RegistryTransport.closeTransport(registryURL);
+		server.close();
+	}
+
+	@Test
+	public void listsEveryChildOfTheFeed() throws Exception {
+		Collection collection = createRegistry().get(COLLECTION, 0, 100);
+
+		assertArrayEquals(new String[] { CHILD_COLLECTION, LINKED_RESOURCE, INLINE_RESOURCE, UNTYPED_CHILD },
+				collection.getChildren());
+		assertEquals(4, collection.getChildCount());
+		assertEquals(COLLECTION, collection.getPath());
+	}
+
+	@Test
+	public void detectsChildCollectionsByChildCount() throws Exception {
+		RemoteCollectionImpl collection = (RemoteCollectionImpl) createRegistry().get(COLLECTION, 0, 100);
+
+		Resource child = collection.getChildResource(CHILD_COLLECTION);
+		assertTrue(child instanceof Collection);
+		assertEquals(3, ((Collection) child).getChildCount());
+		assertEquals(CHILD_COLLECTION, child.getPath());
+		assertEquals("admin", child.getLastUpdaterUserName());
+		assertEquals("Endpoints of the services", child.getDescription());
+	}
+
+	@Test
+	public void detectsChildResourcesByContent() throws Exception {
+		RemoteCollectionImpl collection = (RemoteCollectionImpl) createRegistry().get(COLLECTION, 0, 100);
+
+		Resource linked = collection.getChildResource(LINKED_RESOURCE);
+		assertFalse(linked instanceof Collection);
+		assertEquals(LINKED_RESOURCE, linked.getPath());
+		assertEquals("application/wsdl+xml", linked.getMediaType());
+
+		Resource inline = collection.getChildResource(INLINE_RESOURCE);
+		assertFalse(inline instanceof Collection);
+		assertEquals("text/plain", inline.getMediaType());
+	}
+
+	@Test
+	public void leavesOtherChildrenUntyped() throws Exception {
+		RemoteCollectionImpl collection = (RemoteCollectionImpl) createRegistry().get(COLLECTION);
+
+		assertNull(collection.getChildResource(UNTYPED_CHILD));
+	}
+
+	@Test
+	public void seedsTreeNodesFromTheFeed() throws Exception {
+		RegistryResourceNode node = createRegistryNode().getRegistryContainer().getRegistryContent().get(0);
+
+		List<String> paths = new ArrayList<String>();
+		for (RegistryResourceNode child : node.getResourceNodeList()) {
+			paths.add(child.getRegistryResourcePath());
+		}
+		assertEquals(RegistryResourceType.COLLECTION, node.getLocalResourceType());
+		assertEquals(4, paths.size());
+		List<RegistryResourceNode> children = node.getLocalResourceNodeList();
+		assertEquals(RegistryResourceType.COLLECTION, children.get(0).getLocalResourceType());
+		assertEquals(RegistryResourceType.RESOURCE, children.get(1).getLocalResourceType());
+		assertEquals("application/wsdl+xml", children.get(1).getMediaType());
+		assertEquals(RegistryResourceType.RESOURCE, children.get(2).getLocalResourceType());
+		assertEquals(RegistryResourceType.UNDEFINED, children.get(3).getLocalResourceType());
+		// the collection was fetched once, none of its children were fetched separately
+		assertEquals(1, server.getRequests().size());
+	}
+
+	private RemoteRegistry createRegistry() throws Exception {
+		return new RemoteRegistry(new URL(registryURL), "admin", "admin");
+	}
+
+	private RegistryNode createRegistryNode() throws Exception {
+		RegistryURLInfo urlInfo = new RegistryURLInfo();
+		urlInfo.setPersist(false);
+		urlInfo.setUrl(new URL(registryURL));
+		urlInfo.setPath(COLLECTION);
+		urlInfo.setUsername("admin");
+		RegistryNode registryNode = new RegistryNode(urlInfo, "admin", null);
+		Registry registry = new Registry();
+		registry.setRegistry(createRegistry());
+		registryNode.setRegistry(registry);
+		return registryNode;
+	}
+
+	private String readFeed() throws IOException {
+		InputStream in = getClass().getResourceAsStream("collection-feed.xml");
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} finally {
+			in.close();
+		}
+	}
+}
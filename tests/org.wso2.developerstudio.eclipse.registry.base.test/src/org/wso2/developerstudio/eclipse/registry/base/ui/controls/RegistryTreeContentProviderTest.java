@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.base.ui.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.registry.base.FakeRegistry;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryLoadingNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryMoreNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceNode;
+import org.wso2.developerstudio.eclipse.registry.base.model.RegistryResourceType;
+
+/**
+ * Checks that the registry tree fetches the children of a collection in a background job, showing
+ * a placeholder meanwhile, and merges them into the tree once they are fetched. The calls to the
+ * registry are held while the tree is expanded, so a tree that fetched the children on the UI
+ * thread would wait for the whole timeout of the test. The children of a large collection are
+ * shown a page at a time, followed by a node which loads the next page.
+ */
+public class RegistryTreeContentProviderTest {
+	private static final String ROOT = "/_system/config";
+	private static final long TIMEOUT = 30000;
+
+	private Display display;
+	private Shell shell;
+	private TreeViewer viewer;
+	private RegistryTreeContentProvider contentProvider;
+	private FakeRegistry registry;
+	private RegistryResourceNode root;
+
+	@Before
+	public void createTree() throws Exception {
+		registry = new FakeRegistry();
+		registry.addCollection(ROOT, "a.xml", "b.xml", "c.xml");
+		registry.addCollection(ROOT + "/d");
+		RegistryNode registryNode = registry.createRegistryNode(ROOT);
+		root = registryNode.getRegistryContainer().getRegistryContent().get(0);
+
+		display = Display.getDefault();
+		shell = new Shell(display);
+		viewer = new TreeViewer(shell);
+		contentProvider = new RegistryTreeContentProvider(null, shell, false, true);
+		viewer.setContentProvider(contentProvider);
+		viewer.setLabelProvider(new LabelProvider());
+		viewer.setInput(registryNode.getRegistryContainer());
+	}
+
+	@After
+	public void disposeTree() {
+		registry.release();
+		shell.dispose();
+		processEvents();
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void showsPlaceholderWhileChildrenAreFetched() throws Exception {
+		registry.hold();
+		viewer.expandToLevel(root, 1);
+
+		Object[] children = getItemData(root);
+		assertEquals(1, children.length);
+		assertTrue(children[0] instanceof RegistryLoadingNode);
+		assertSame(root, ((RegistryLoadingNode) children[0]).getParent());
+		assertFalse(root.isResourceNodeListLoaded());
+
+		registry.release();
+		waitForLoading();
+
+		assertEquals(Arrays.asList("a.xml", "b.xml", "c.xml", "d"), getCaptions(getItemData(root)));
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void fetchesChildrenOnceWhileLoading() throws Exception {
+		registry.hold();
+		Object placeholder = contentProvider.getChildren(root)[0];
+		assertSame(placeholder, contentProvider.getChildren(root)[0]);
+		viewer.expandToLevel(root, 1);
+		viewer.refresh(root);
+		assertSame(placeholder, getItemData(root)[0]);
+
+		registry.release();
+		waitForLoading();
+
+		assertEquals(1, registry.getCallCount("get", ROOT));
+		assertEquals(4, root.getLocalResourceNodeList().size());
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void resolvesLabelsOfChildrenInBackground() throws Exception {
+		viewer.expandToLevel(root, 1);
+		waitForLoading();
+
+		List<List<String>> permissionRequests = registry.getPermissionRequests();
+		assertEquals(1, permissionRequests.size());
+		assertEquals(Arrays.asList(ROOT + "/a.xml", ROOT + "/b.xml", ROOT + "/c.xml", ROOT + "/d"),
+				permissionRequests.get(0));
+		int registryCalls = registry.getCallCount("get");
+
+		for (RegistryResourceNode child : root.getLocalResourceNodeList()) {
+			child.getResourceType();
+			assertTrue(child.hasWritePermissions());
+		}
+		assertEquals(registryCalls, registry.getCallCount("get"));
+		assertEquals(1, registry.getPermissionRequests().size());
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void stopsLoadingWhenDisposed() throws Exception {
+		registry.hold();
+		viewer.expandToLevel(root, 1);
+		assertTrue(getItemData(root)[0] instanceof RegistryLoadingNode);
+
+		contentProvider.dispose();
+		registry.release();
+		Job.getJobManager().join(contentProvider, null);
+		processEvents();
+
+		// at most the collection was fetched, the labels of its children were not resolved
+		assertTrue(registry.getCallCount("get") <= 1);
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void showsMoreNodeAfterFirstPage() throws Exception {
+		for (int i = 0; i < 600; i++) {
+			registry.addResource(ROOT + String.format("/e%03d.xml", i), "application/xml");
+		}
+		root.setRegistryResource(RegistryResourceType.COLLECTION);
+		viewer.expandToLevel(root, 1);
+		waitForLoading();
+
+		Object[] children = getItemData(root);
+		assertEquals(RegistryResourceNode.CHILDREN_PAGE_SIZE + 1, children.length);
+		assertTrue(children[RegistryResourceNode.CHILDREN_PAGE_SIZE] instanceof RegistryMoreNode);
+		RegistryMoreNode moreNode = (RegistryMoreNode) children[RegistryResourceNode.CHILDREN_PAGE_SIZE];
+		assertSame(root, moreNode.getParent());
+		assertEquals("Show next 104 of 104...", moreNode.toString());
+
+		contentProvider.loadMoreChildren(moreNode);
+		assertEquals("Loading...", moreNode.toString());
+		waitForLoading();
+
+		children = getItemData(root);
+		assertEquals(604, children.length);
+		assertEquals("e599.xml", String.valueOf(children[603]));
+		for (Object child : children) {
+			assertFalse(child instanceof RegistryMoreNode);
+		}
+		assertEquals(2, registry.getCallCount("get", ROOT));
+	}
+
+	private void waitForLoading() throws InterruptedException {
+		Job.getJobManager().join(contentProvider, null);
+		processEvents();
+	}
+
+	private void processEvents() {
+		while (display.readAndDispatch()) {
+			// run the pending asyncExec runnables
+		}
+	}
+
+	private Object[] getItemData(RegistryResourceNode node) {
+		TreeItem[] items = viewer.getTree().getItems();
+		List<Object> data = new ArrayList<Object>();
+		for (TreeItem item : items) {
+			if (item.getData() == node) {
+				for (TreeItem child : item.getItems()) {
+					data.add(child.getData());
+				}
+			}
+		}
+		return data.toArray();
+	}
+
+	private static List<String> getCaptions(Object[] nodes) {
+		List<String> captions = new ArrayList<String>();
+		for (Object node : nodes) {
+			captions.add(String.valueOf(node));
+		}
+		return captions;
+	}
+}
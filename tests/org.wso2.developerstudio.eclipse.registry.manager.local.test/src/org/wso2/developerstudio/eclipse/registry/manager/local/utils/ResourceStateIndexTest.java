@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.manager.local.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that the state of a checked out resource is kept until the resource, one of its
+ * children or its metadata is reported as changed, and that a change to the metadata of a
+ * resource is enough to compute its state again.
+ */
+public class ResourceStateIndexTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ResourceStateIndex index;
+	private File checkout;
+
+	@Before
+	public void createCheckout() throws IOException {
+		index = ResourceStateIndex.getInstance();
+		index.invalidateAll();
+		checkout = folder.newFolder("checkout");
+	}
+
+	@After
+	public void clearIndex() {
+		index.invalidateAll();
+	}
+
+	@Test
+	public void keepsStateUntilInvalidated() throws IOException {
+		File metaFolder = mkdirs(new File(checkout, ".meta"));
+		File resource = write(new File(checkout, "endpoint.xml"), "<endpoint/>");
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_NEW, index.getResourceState(resource.getPath()));
+
+		write(new File(metaFolder, "~endpoint.xml.xml"), "<resource/>");
+		assertTrue(resource.delete());
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_NEW, index.getResourceState(resource.getPath()));
+
+		index.invalidate(resource.getPath());
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_DELETED, index.getResourceState(resource.getPath()));
+	}
+
+	@Test
+	public void invalidatesResourceWhenItsMetadataFileChanges() throws IOException {
+		File metaFolder = mkdirs(new File(checkout, ".meta"));
+		String resourcePath = new File(checkout, "endpoint.xml").getPath();
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_NOT_RESOURCE, index.getResourceState(resourcePath));
+
+		File metaFile = write(new File(metaFolder, "~endpoint.xml.xml"), "<resource/>");
+		index.invalidate(metaFile.getPath());
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_DELETED, index.getResourceState(resourcePath));
+
+		assertTrue(metaFile.delete());
+		index.invalidate(metaFile.getPath());
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_NOT_RESOURCE, index.getResourceState(resourcePath));
+	}
+
+	@Test
+	public void invalidatesFolderWhenItsMetadataFolderChanges() throws IOException {
+		File services = mkdirs(new File(checkout, "services"));
+		File resource = write(new File(services, "OrderService.wsdl"), "<definitions/>");
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_NOT_RESOURCE, index.getResourceState(resource.getPath()));
+
+		File metaFolder = mkdirs(new File(services, ".meta"));
+		index.invalidate(metaFolder.getPath());
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_NEW, index.getResourceState(resource.getPath()));
+	}
+
+	@Test
+	public void invalidatesFolderWhenItsMetadataFileChanges() throws IOException {
+		File services = mkdirs(new File(checkout, "services"));
+		File metaFolder = mkdirs(new File(services, ".meta"));
+		write(new File(services, "OrderService.wsdl"), "<definitions/>");
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_NEW, index.getResourceState(services.getPath()));
+
+		File metaFile = write(new File(metaFolder, "~.xml"), "<resource/>");
+		index.invalidate(metaFile.getPath());
+		// a checked out folder holding a new resource
+		assertEquals(RegistryCheckInClientUtils.RESOURCE_STATE_MODIFIED, index.getResourceState(services.getPath()));
+	}
+
+	private static File mkdirs(File dir) {
+		assertTrue(dir.mkdirs());
+		return dir;
+	}
+
+	private static File write(File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.developerstudio.eclipse.registry.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.swt.widgets.Display;
+import org.junit.Test;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryCredentialData.Credentials;
+import org.wso2.developerstudio.eclipse.registry.base.persistent.RegistryURLInfo;
+
+/**
+ * Checks that the registries are searched in parallel, that the result of each registry is added
+ * as soon as the registry responds, and that a registry which does not respond in time is skipped
+ * without holding back the others. The registries are simulated by delaying their results.
+ */
+public class RegistrySearchQueryTest {
+	private static final long HANG = -1;
+	private static final long TIMEOUT = 30000;
+
+	@Test(timeout = TIMEOUT)
+	public void searchesRegistriesInParallel() throws Exception {
+		FakeSearchQuery query = new FakeSearchQuery(500);
+		long start = System.currentTimeMillis();
+		query.searchRegistries(createRegistries(300, 300, 300, 300), null, new NullProgressMonitor());
+		long elapsed = System.currentTimeMillis() - start;
+		processEvents();
+
+		assertEquals(4, query.getResults().size());
+		assertTrue("The registries were searched one after the other in " + elapsed + " ms", elapsed < 900);
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void addsResultsInTheOrderTheRegistriesRespond() throws Exception {
+		FakeSearchQuery query = new FakeSearchQuery(5000);
+		query.searchRegistries(createRegistries(900, 100, 500), null, new NullProgressMonitor());
+		processEvents();
+
+		assertEquals(getHosts(1, 2, 0), getHosts(query.getResults()));
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void skipsRegistriesWhichDoNotRespondInTime() throws Exception {
+		FakeSearchQuery query = new FakeSearchQuery(300);
+		long start = System.currentTimeMillis();
+		query.searchRegistries(createRegistries(HANG, 50, 100), null, new NullProgressMonitor());
+		long elapsed = System.currentTimeMillis() - start;
+		processEvents();
+
+		assertEquals(getHosts(1, 2), getHosts(query.getResults()));
+		assertTrue(query.interrupted.containsKey("registry0.test"));
+		assertTrue("The search waited " + elapsed + " ms for the hanging registry", elapsed < 5000);
+	}
+
+	@Test(timeout = TIMEOUT)
+	public void timesOutWhileOtherRegistriesKeepResponding() throws Exception {
+		// the fast registries respond one after the other well within the poll interval, for
+		// longer than the timeout
+		long[] delays = new long[13];
+		delays[0] = HANG;
+		for (int i = 1; i < delays.length; i++) {
+			delays[i] = 150;
+		}
+		FakeSearchQuery query = new FakeSearchQuery(250);
+		query.searchRegistries(createRegistries(delays), null, new NullProgressMonitor());
+		processEvents();
+
+		assertEquals(12, query.getResults().size());
+		Long interruptedAt = query.interrupted.get("registry0.test");
+		assertTrue("The hanging registry was not interrupted", interruptedAt != null);
+		assertTrue("The hanging registry was only interrupted once the others had responded",
+				interruptedAt < Collections.max(query.responded.values()));
+	}
+
+	private static Map<RegistryURLInfo, Credentials> createRegistries(long... delays) throws Exception {
+		Map<RegistryURLInfo, Credentials> registries = new LinkedHashMap<RegistryURLInfo, Credentials>();
+		for (int i = 0; i < delays.length; i++) {
+			RegistryURLInfo registryURLInfo = new RegistryURLInfo();
+			registryURLInfo.setPersist(false);
+			registryURLInfo.setUrl(new URL("https://registry" + i + ".test:9443/registry?delay=" + delays[i]));
+			registryURLInfo.setUsername("admin");
+			registries.put(registryURLInfo, new Credentials("admin", "admin"));
+		}
+		return registries;
+	}
+
+	private static List<String> getHosts(int... registries) {
+		List<String> hosts = new ArrayList<String>();
+		for (int registry : registries) {
+			hosts.add("registry" + registry + ".test");
+		}
+		return hosts;
+	}
+
+	private static List<String> getHosts(List<RegistrySearchQuery.RegistrySearchResult> results) {
+		List<String> hosts = new ArrayList<String>();
+		for (RegistrySearchQuery.RegistrySearchResult result : results) {
+			hosts.add(result.getRegistryURLInfo().getUrl().getHost());
+		}
+		return hosts;
+	}
+
+	private static void processEvents() {
+		Display display = Display.getDefault();
+		while (display.readAndDispatch()) {
+			// add the results of the search to the query
+		}
+	}
+
+	/**
+	 * Search query which answers for each registry after the delay given in its URL, or hangs
+	 * until it is interrupted.
+	 */
+	private static class FakeSearchQuery extends RegistrySearchQuery {
+		private final Map<String, Long> responded = new ConcurrentHashMap<String, Long>();
+		private final Map<String, Long> interrupted = new ConcurrentHashMap<String, Long>();
+
+		private FakeSearchQuery(long searchTimeout) {
+			super("", false, false, null);
+			setSearchTimeout(searchTimeout);
+		}
+
+		RegistrySearchResult getMatches(RegistryURLInfo registryURLInfo, Credentials credentials,
+				Pattern namePattern) {
+			String host = registryURLInfo.getUrl().getHost();
+			long delay = Long.parseLong(registryURLInfo.getUrl().getQuery().substring("delay=".length()));
+			try {
+				Thread.sleep(delay == HANG ? Long.MAX_VALUE : delay);
+			} catch (InterruptedException e) {
+				interrupted.put(host, System.currentTimeMillis());
+				return null;
+			}
+			responded.put(host, System.currentTimeMillis());
+			return new RegistrySearchResult(registryURLInfo, credentials.getPassword(),
+					new String[] { "/_system/governance/" + host }, null);
+		}
+	}
+}